@@ -0,0 +1,75 @@
+package marshmalliow.core.binary.compression.zstd;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import marshmalliow.core.binary.compression.CompressionCodec;
+import marshmalliow.core.binary.compression.CompressionCodecs;
+import marshmalliow.core.binary.compression.CompressionOptions;
+
+/**
+ * Zstandard codec with levels and preset dictionaries, using the native library through zstd-jni.
+ * <p>
+ * The codec is registered as a service, it is available from {@link CompressionCodecs#byName(String)} under the
+ * name <code>ZSTD</code> and detected when reading a file as soon as this module is on the classpath.<br/>
+ * The stream starts with the signature of the codec and the identifier of the dictionary (int, 0 without dictionary),
+ * followed by a Zstandard frame. Supports the levels 1 to {@link Zstd#maxCompressionLevel()}, 0 and
+ * {@link CompressionOptions#DEFAULT_LEVEL} use the default level of the library.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ * @see <a href="https://datatracker.ietf.org/doc/html/rfc8878">RFC 8878</a>
+ */
+public final class ZstdCodec implements CompressionCodec {
+
+	private static final byte[] SIGNATURE = {0x4D, 0x5A, 0x53, 0x54};
+
+	@Override
+	public String getName() {
+		return "ZSTD";
+	}
+
+	@Override
+	public byte[] getSignature() {
+		return SIGNATURE.clone();
+	}
+
+	@Override
+	public OutputStream compress(OutputStream out, CompressionOptions options) throws IOException {
+		if(options.getLevel() > Zstd.maxCompressionLevel()) throw new IllegalArgumentException("Invalid Zstandard level "+options.getLevel());
+
+		final int dictionaryId = options.getDictionaryId();
+		out.write(SIGNATURE);
+		out.write(new byte[] {(byte)(dictionaryId >>> 24), (byte)(dictionaryId >>> 16), (byte)(dictionaryId >>> 8), (byte)dictionaryId});
+
+		final int level = options.getLevel() <= 0 ? Zstd.defaultCompressionLevel() : options.getLevel();
+		final ZstdOutputStream stream = new ZstdOutputStream(out, level);
+		if(options.hasDictionary()) stream.setDict(options.getDictionary());
+
+		return stream;
+	}
+
+	@Override
+	public InputStream decompress(InputStream in, CompressionOptions options) throws IOException {
+		final byte[] header = in.readNBytes(SIGNATURE.length + Integer.BYTES);
+		if(header.length < SIGNATURE.length + Integer.BYTES) throw new EOFException("Truncated Zstandard header");
+		if(!Arrays.equals(header, 0, SIGNATURE.length, SIGNATURE, 0, SIGNATURE.length)) throw new IOException("Not a Zstandard stream");
+
+		final int dictionaryId = ((header[4] & 0xFF) << 24) | ((header[5] & 0xFF) << 16) | ((header[6] & 0xFF) << 8) | (header[7] & 0xFF);
+		if(dictionaryId != options.getDictionaryId()) {
+			throw new IOException(dictionaryId == 0 ? "The data has been compressed without dictionary" : "The data has been compressed with another dictionary");
+		}
+
+		final ZstdInputStream stream = new ZstdInputStream(in);
+		if(options.hasDictionary()) stream.setDict(options.getDictionary());
+
+		return stream;
+	}
+}
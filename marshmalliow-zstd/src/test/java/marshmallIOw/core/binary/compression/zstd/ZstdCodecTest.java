@@ -0,0 +1,114 @@
+package marshmallIOw.core.binary.compression.zstd;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.compression.BlockContainer;
+import marshmalliow.core.binary.compression.CompressionCodec;
+import marshmalliow.core.binary.compression.CompressionCodecs;
+import marshmalliow.core.binary.compression.CompressionOptions;
+import marshmalliow.core.binary.compression.zstd.ZstdCodec;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.advanced.StringDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.data.primitive.IntegerDataType;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.objects.Directory;
+
+public class ZstdCodecTest {
+
+	private static byte[] compress(CompressionCodec codec, byte[] data, CompressionOptions options) throws IOException {
+		final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try(OutputStream out = codec.compress(compressed, options)) {
+			out.write(data);
+		}
+
+		return compressed.toByteArray();
+	}
+
+	private static byte[] decompress(CompressionCodec codec, byte[] data, CompressionOptions options) throws IOException {
+		try(InputStream in = codec.decompress(new ByteArrayInputStream(data), options)) {
+			return in.readAllBytes();
+		}
+	}
+
+	@Test
+	public void serviceTest() {
+		final CompressionCodec codec = CompressionCodecs.byName("zstd").orElseThrow();
+		assertInstanceOf(ZstdCodec.class, codec);
+		assertSame(codec, CompressionCodecs.detect(codec.getSignature()));
+	}
+
+	@Test
+	public void roundTripTest() throws IOException {
+		final CompressionCodec codec = CompressionCodecs.byName("ZSTD").orElseThrow();
+		final byte[] incompressible = new byte[200_000];
+		new Random(42).nextBytes(incompressible);
+		final byte[] text = "expired_when alias user mapping marshmallIOw ".repeat(5000).getBytes();
+
+		assertArrayEquals(new byte[0], decompress(codec, compress(codec, new byte[0], CompressionOptions.DEFAULT), CompressionOptions.DEFAULT));
+		assertArrayEquals(incompressible, decompress(codec, compress(codec, incompressible, CompressionOptions.DEFAULT), CompressionOptions.DEFAULT));
+
+		final CompressionOptions fast = CompressionOptions.builder().level(1).build();
+		final byte[] compressed = compress(codec, text, fast);
+		assertTrue(compressed.length < text.length / 10);
+		assertArrayEquals(text, decompress(codec, compressed, fast));
+
+		assertThrows(IllegalArgumentException.class, () -> compress(codec, text, CompressionOptions.builder().level(100).build()));
+	}
+
+	@Test
+	public void dictionaryTest() throws IOException {
+		final CompressionCodec codec = CompressionCodecs.byName("ZSTD").orElseThrow();
+		final CompressionOptions options = CompressionOptions.builder().dictionary("expired_when alias user mapping".getBytes()).build();
+		final byte[] data = "{alias: a, user: marshmallIOw, mapping: {expired_when: 15}}".getBytes();
+
+		final byte[] compressed = compress(codec, data, options);
+		assertArrayEquals(data, decompress(codec, compressed, options));
+		assertThrows(IOException.class, () -> decompress(codec, compressed, CompressionOptions.DEFAULT));
+	}
+
+	@Test
+	public void fileTest() throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(Files.createTempDirectory("marshmallIOw"));
+		final DataTypeRegistry registry = DataTypeEnum.createNewRegistry().build();
+		final CompressionCodec codec = CompressionCodecs.byName("ZSTD").orElseThrow();
+
+		final ObjectDataType root = new ObjectDataType("root");
+		root.add(new IntegerDataType("id", 42), new StringDataType("user", "marshmallIOw"));
+
+		final MOBFFile file = new MOBFFile(directory, "zstd", registry, MOBFFileHeader.DEFAULT_HEADER, root);
+		file.setCompression(codec, CompressionOptions.DEFAULT);
+		file.saveFile(true);
+
+		final MOBFFile blocks = new MOBFFile(directory, "zstd_blocks", registry, MOBFFileHeader.DEFAULT_HEADER, root);
+		blocks.setBlockCompression(codec, CompressionOptions.DEFAULT, BlockContainer.DEFAULT_BLOCK_SIZE);
+		blocks.saveFile(true);
+
+		for(String name : new String[] {"zstd", "zstd_blocks"}) {
+			final MOBFFile read = new MOBFFile(directory, name, registry);
+			read.readFile();
+
+			assertSame(codec, read.getCompressionCodec());
+			assertEquals(42, read.getRoot().getValue().get("id").getValue());
+			assertEquals("marshmallIOw", read.getRoot().getValue().get("user").getValue());
+		}
+	}
+}
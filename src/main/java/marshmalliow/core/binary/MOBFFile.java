@@ -5,18 +5,49 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.util.Arrays;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 
+import marshmalliow.core.binary.compression.BlockContainer;
+import marshmalliow.core.binary.compression.CompressionCodec;
+import marshmalliow.core.binary.compression.CompressionCodecs;
+import marshmalliow.core.binary.compression.CompressionOptions;
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.data.KeyTable;
+import marshmalliow.core.binary.data.LazySource;
+import marshmalliow.core.binary.data.MOBFChecksums;
 import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.MOBFFileIndex;
 import marshmalliow.core.binary.data.container.ObjectDataType;
 import marshmalliow.core.binary.registry.DataTypeEnum;
 import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.stream.MOBFStreamReader;
+import marshmalliow.core.binary.stream.MOBFStreamWriter;
+import marshmalliow.core.binary.stream.MOBFVisitor;
 import marshmalliow.core.binary.utils.CompressionType;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.exceptions.ChecksumException;
 import marshmalliow.core.io.BinaryReader;
 import marshmalliow.core.io.BinaryWriter;
+import marshmalliow.core.io.ByteBufferBinaryReader;
 import marshmalliow.core.objects.Directory;
 import marshmalliow.core.objects.FileType;
 import marshmalliow.core.objects.IOClass;
@@ -29,12 +60,30 @@ public class MOBFFile extends IOClass {
 	
 	private MOBFFileHeader fileHeader;
 	private CompressionType compression;
+	private CompressionCodec codec;
+	private CompressionOptions compressionOptions = CompressionOptions.DEFAULT;
+	private int blockSize;
 	private DataTypeRegistry registry;
 	
 	private boolean isOpen;
+	private boolean lazyLoading;
 	
 	private ObjectDataType root;
 	
+	/**
+	 * Mapped content and index of an indexed file, used by {@link #readField(String...)} when the file isn't open
+	 */
+	private ByteBuffer indexedContent;
+	private BlockContainer indexedBlocks;
+	private MOBFFileHeader indexedHeader;
+	private MOBFFileIndex index;
+	private KeyTable indexedKeyTable;
+	
+	/**
+	 * Key table of the file last read, if it uses the {@link FormatFeature#KEY_TABLE} feature
+	 */
+	private KeyTable keyTable;
+	
 	public MOBFFile(Directory fileDir, String fileName, DataTypeRegistry registry) {
 		super(fileDir, fileName);
 		this.registry = registry;
@@ -44,6 +93,7 @@ public class MOBFFile extends IOClass {
 	public MOBFFile(Directory fileDir, String fileName, DataTypeRegistry registry, MOBFFileHeader header, CompressionType compression, ObjectDataType root) {
 		super(fileDir, fileName);
 		this.compression = compression;
+		this.codec = compression.getCodec();
 		this.registry = registry;
 		this.fileHeader = header;
 		this.root = root;
@@ -69,22 +119,76 @@ public class MOBFFile extends IOClass {
 			// True if we force the overwriting of the loaded data or the document hasn't been opened
 			if(forceRead || !this.isOpen) {
 				BinaryReader reader = null;
-				BufferedInputStream stream = null;
+				FileChannel channel = null;
+				this.indexedContent = null;
+				this.indexedBlocks = null;
+				this.index = null;
 				try {
-					stream = new BufferedInputStream(Files.newInputStream(getFullPath()));
-							
-					reader = new BinaryReader(determineInputCompression(stream));
-	
-					this.fileHeader = new MOBFFileHeader(reader);
+					channel = FileChannel.open(getFullPath(), StandardOpenOption.READ);
+					final byte[] head = readHead(channel);
+					ByteBuffer content = null;
 					
-					if(reader.readByte() != DataTypeEnum.OBJECT.getId()) throw new IOException();
+					if(BlockContainer.matches(head)) {
+						// Blocks are decompressed in parallel, the content is then read like an uncompressed file
+						final BlockContainer blocks = BlockContainer.open(map(channel), this.compressionOptions);
+						content = decompressAll(blocks);
+						this.codec = blocks.getCodec();
+						this.blockSize = blocks.getBlockSize();
+					}else {
+						this.codec = CompressionCodecs.detect(head);
+						this.blockSize = 0;
+						// Uncompressed files are mapped in memory and read without any copy
+						if(this.codec == null && channel.size() <= Integer.MAX_VALUE) content = map(channel);
+					}
+					this.compression = CompressionType.of(this.codec);
+					
+					if(content != null) {
+						reader = new ByteBufferBinaryReader(content);
+					}else {
+						final InputStream stream = new BufferedInputStream(Channels.newInputStream(channel.position(0)));
+						reader = new BinaryReader(this.codec == null ? stream : this.codec.decompress(stream, this.compressionOptions));
+					}
+	
+					try {
+						this.fileHeader = new MOBFFileHeader(reader);
+					}catch(IOException | RuntimeException e) {
+						if(isHeaderCorrupted(content, this.codec == null ? channel : null)) {
+							throw new ChecksumException("Corrupted header", EnumSet.of(MOBFChecksums.Section.HEADER), e);
+						}
+						throw e;
+					}
+					reader.setFeatures(this.fileHeader.getFeatures());
 					
-					this.root = new ObjectDataType(reader.readUTF(this.fileHeader.getEncodingCharset()));
-					this.root.read(reader, registry, this.fileHeader.getEncodingCharset());
+					// The checksums are verified on another thread while the content is parsed. A lazily loaded content
+					// is left to the checksums of its blocks and to verify(), checking it here would read the whole file
+					final boolean lazy = this.lazyLoading && content != null && this.fileHeader.hasFeature(FormatFeature.INDEXED);
+					final Set<MOBFChecksums.Section> sections = lazy ? EnumSet.complementOf(EnumSet.of(MOBFChecksums.Section.CONTENT))
+							: EnumSet.allOf(MOBFChecksums.Section.class);
+					CompletableFuture<Set<MOBFChecksums.Section>> verification = null;
+					if(this.fileHeader.hasFeature(FormatFeature.CHECKSUM)) {
+						if(content != null) verification = MOBFChecksums.verifyAsync(content, sections, ForkJoinPool.commonPool());
+						else if(this.codec == null) verification = MOBFChecksums.verifyAsync(channel, sections, ForkJoinPool.commonPool());
+					}
+					try {
+						this.keyTable = readKeyTable(reader, this.fileHeader);
+						
+						if(reader.readByte() != DataTypeEnum.OBJECT.getId()) throw new IOException("The root of a MOBF file must be an object");
+						
+						this.root = new ObjectDataType(reader.readUTF(this.fileHeader.getEncodingCharset()));
+						if(lazy) {
+							readLazily((ByteBufferBinaryReader) reader, content);
+						}else {
+							this.root.read(reader, registry, this.fileHeader.getEncodingCharset());
+						}
+					}catch(IOException | RuntimeException e) {
+						awaitVerification(verification, e);
+						throw e;
+					}
+					awaitVerification(verification, null);
 					this.isOpen = true;
 				}finally {
 					if(reader != null) reader.close();
-					if(stream != null) stream.close();
+					if(channel != null) channel.close();
 				}
 			}
 		}
@@ -94,83 +198,730 @@ public class MOBFFile extends IOClass {
 		this.readFile(false);
 	}
 	
+	/**
+	 * Attach a lazy source to the root object, the values are decoded on their first access.
+	 * @param reader The reader positioned at the beginning of the root object content
+	 * @param content The uncompressed content of the file
+	 * @throws IOException If an I/O error occurs
+	 */
+	private void readLazily(ByteBufferBinaryReader reader, ByteBuffer content) throws IOException {
+		final long rootOffset = reader.getPosition();
+		
+		reader.seek(MOBFChecksums.end(this.fileHeader, content.limit()) - MOBFFileIndex.FOOTER_SIZE);
+		final long indexOffset = reader.readLong();
+		reader.seek(indexOffset);
+		
+		this.index = MOBFFileIndex.read(reader, this.fileHeader.getEncodingCharset());
+		this.indexedContent = content;
+		this.indexedHeader = this.fileHeader;
+		this.indexedKeyTable = this.keyTable;
+		
+		this.root.setLazySource(new LazySource(content, this.index, MOBFFileIndex.ROOT, rootOffset, indexOffset - rootOffset, 
+				this.registry, this.fileHeader.getEncodingCharset(), this.fileHeader.getFeatures(), this.keyTable));
+	}
+	
 	@Override
 	public void saveFile(boolean forceWrite) throws IOException {
 		synchronized (lock) {
 			if(this.fileHeader == null || this.root == null) throw new IllegalStateException("Cannot write a MOBF file without an header or a content");
 			
 			// True if we force the overwriting of the loaded data or the document hasn't been opened
-			if(this.isOpen && (forceWrite || this.root.isModified())) {
-				BinaryWriter writer = null;
-				BufferedOutputStream stream = null;
-				try {
-					stream = new BufferedOutputStream(Files.newOutputStream(getFullPath()));
-					writer = new BinaryWriter(determineOutputCompression(stream));
-					
-					this.fileHeader.write(writer);
-					
-					writer.writeByte(DataTypeEnum.OBJECT.getId());
-					writer.writeUTF(this.root.getName().isPresent() ? this.root.getName().get() : "", this.fileHeader.getEncodingCharset());
-					
-					this.root.write(writer, registry, this.fileHeader.getEncodingCharset());
-				}finally {
-					if(writer != null) {
-						writer.flush();
-						writer.close();
-					}
-					if(stream != null) {
-						stream.flush();
-						stream.close();
-					}
-				}
+			if(this.isOpen && (forceWrite || this.root.isModified())) write(getFullPath().toAbsolutePath());
+		}
+	}
+	
+	/**
+	 * Save the content in a file which replaces this file in a second step, with {@link #move(Path, Path)}.<br/>
+	 * Used by {@link MOBFJournal} to empty its log before the new snapshot replaces the previous one.
+	 * @param staged The path of the staged file
+	 * @throws IOException If an I/O error occurs
+	 */
+	void saveStaged(Path staged) throws IOException {
+		synchronized (lock) {
+			if(this.fileHeader == null || this.root == null) throw new IllegalStateException("Cannot write a MOBF file without an header or a content");
+			if(!this.isOpen) throw new IllegalStateException("Cannot save a MOBF file which isn't open");
+			
+			write(staged);
+		}
+	}
+	
+	/**
+	 * Write the content in a temporary file and move it to its destination.
+	 * @param destination The path of the file, or of a staged file
+	 * @throws IOException If an I/O error occurs
+	 */
+	private void write(Path destination) throws IOException {
+		BinaryWriter writer = null;
+		BufferedOutputStream stream = null;
+		MOBFChecksums.Builder checksums = null;
+		// The content is written in a temporary file and then moved, lazy values may still be mapped from the current file
+		final Path target = getFullPath().toAbsolutePath();
+		final Path temporary = createTemporary(target);
+		boolean written = false;
+		try {
+			stream = new BufferedOutputStream(Files.newOutputStream(temporary));
+			final OutputStream out;
+			if(this.codec == null) out = stream;
+			else if(this.blockSize > 0) out = BlockContainer.compress(stream, this.codec, this.compressionOptions, this.blockSize);
+			else out = this.codec.compress(stream, this.compressionOptions);
+			
+			// The checksums are computed on the uncompressed content
+			if(this.fileHeader.hasFeature(FormatFeature.CHECKSUM)) checksums = new MOBFChecksums.Builder(out);
+			writer = new BinaryWriter(checksums != null ? checksums : out);
+			this.indexedContent = null;
+			this.indexedBlocks = null;
+			this.index = null;
+			
+			this.fileHeader.write(writer);
+			endSection(writer, checksums);
+			writer.setFeatures(this.fileHeader.getFeatures());
+			if(this.fileHeader.hasFeature(FormatFeature.KEY_TABLE)) writeKeyTable(writer);
+			endSection(writer, checksums);
+			if(this.fileHeader.hasFeature(FormatFeature.INDEXED)) writer.setIndexBuilder(new MOBFFileIndex.Builder());
+			
+			writer.writeByte(DataTypeEnum.OBJECT.getId());
+			writer.writeUTF(this.root.getName().isPresent() ? this.root.getName().get() : "", this.fileHeader.getEncodingCharset());
+			
+			this.root.write(writer, registry, this.fileHeader.getEncodingCharset());
+			endSection(writer, checksums);
+			
+			if(writer.getIndexBuilder() != null) writer.getIndexBuilder().build().write(writer, this.fileHeader.getEncodingCharset());
+			endSection(writer, checksums);
+			if(checksums != null) checksums.build().write(writer);
+			written = true;
+		}finally {
+			if(writer != null) {
+				writer.flush();
+				writer.close();
+			}
+			if(stream != null) {
+				stream.flush();
+				stream.close();
 			}
+			if(!written) Files.deleteIfExists(temporary);
 		}
+		
+		// The content must reach the storage device before the file replaces the previous one, or a crash may leave an empty file
+		try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}catch(IOException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+		move(temporary, destination);
 	}
 	
 	public void saveFile() throws IOException {
 		this.saveFile(false);
 	}
 	
-	private InputStream determineInputCompression(BufferedInputStream bis) throws IOException {
-		CompressionType compression = CompressionType.NONE;
-		bis.mark(0);
-
-		for(CompressionType ct : CompressionType.values()) {
-			if(ct != CompressionType.NONE) {
-				final byte[] sign = bis.readNBytes(ct.getSignatureLength());
-				bis.reset();
+	/**
+	 * Read a single value of the file, given the path of keys leading to it from the root object.
+	 * <p>
+	 * If the file is open, the value is taken from the loaded content.<br/>
+	 * Otherwise, if the file is uncompressed or compressed by blocks and uses the {@link FormatFeature#INDEXED} feature, only the index
+	 * and the requested value are decoded. The file is read entirely in every other case.<br/>
+	 * The index is kept until the file is read or saved again with this instance.
+	 * 
+	 * @param path The keys leading to the value, the last one being the key of the value
+	 * @return the value or <code>null</code> if no value is stored at this path
+	 * @throws IOException If an I/O error occurs
+	 */
+	public DataType<?> readField(String... path) throws IOException {
+		if(path.length == 0) throw new IllegalArgumentException("The path of the field cannot be empty");
+		
+		synchronized (lock) {
+			if(!this.isOpen && loadIndex()) {
+				final MOBFFileIndex.Entry entry = this.index.find(path);
+				if(entry == null) return null;
 				
-				if(Arrays.equals(sign, ct.getSignature())) {
-					compression = ct;
-					break;
+				return readIndexedField(entry);
+			}
+			
+			if(!this.isOpen) readFile();
+			
+			DataType<?> current = this.root;
+			for(String key : path) {
+				if(!(current instanceof ObjectDataType)) return null;
+				current = ((ObjectDataType) current).getValue().get(key);
+			}
+			
+			return current;
+		}
+	}
+	
+	/**
+	 * Get the index of the file, if the file is indexed and either uncompressed or compressed by blocks.
+	 * @return the index or <code>null</code>
+	 * @throws IOException If an I/O error occurs
+	 */
+	public MOBFFileIndex getIndex() throws IOException {
+		synchronized (lock) {
+			return loadIndex() ? this.index : null;
+		}
+	}
+	
+	private boolean loadIndex() throws IOException {
+		if(this.index != null) return true;
+		
+		try(FileChannel channel = FileChannel.open(getFullPath(), StandardOpenOption.READ)) {
+			if(channel.size() > Integer.MAX_VALUE) return false;
+			
+			final byte[] head = readHead(channel);
+			final ByteBuffer content;
+			final BlockContainer blocks;
+			final long size;
+			if(BlockContainer.matches(head)) {
+				// Only the blocks holding the header, the index and the requested fields are decompressed
+				content = null;
+				blocks = BlockContainer.open(map(channel), this.compressionOptions);
+				size = blocks.getSize();
+			}else if(CompressionCodecs.detect(head) == null) {
+				content = map(channel);
+				blocks = null;
+				size = content.limit();
+			}else {
+				return false;
+			}
+			
+			final BinaryReader reader = openReader(content, blocks, 0);
+			final MOBFFileHeader header = new MOBFFileHeader(reader);
+			if(!header.hasFeature(FormatFeature.INDEXED)) return false;
+			reader.setFeatures(header.getFeatures());
+			final KeyTable keys = readKeyTable(reader, header);
+			
+			final long indexOffset = openReader(content, blocks, MOBFChecksums.end(header, size) - MOBFFileIndex.FOOTER_SIZE).readLong();
+			final BinaryReader indexReader = openReader(content, blocks, indexOffset);
+			indexReader.setFeatures(header.getFeatures());
+			
+			this.index = MOBFFileIndex.read(indexReader, header.getEncodingCharset());
+			this.indexedContent = content;
+			this.indexedBlocks = blocks;
+			this.indexedHeader = header;
+			this.indexedKeyTable = keys;
+			if(this.fileHeader == null) this.fileHeader = header;
+			
+			return true;
+		}
+	}
+	
+	/**
+	 * Open the file to walk its content with a {@link MOBFVisitor}, without loading it.<br/>
+	 * Uncompressed files are mapped in memory, compressed files are decompressed while they are read.
+	 * The content loaded by this instance, if any, is left untouched.
+	 * 
+	 * @return a stream reader positioned after the header, to be closed by the caller
+	 * @throws IOException If an I/O error occurs or if the header is malformed
+	 */
+	public MOBFStreamReader openStream() throws IOException {
+		final FileChannel channel = FileChannel.open(getFullPath(), StandardOpenOption.READ);
+		try {
+			final byte[] head = readHead(channel);
+			final BinaryReader reader;
+			
+			if(BlockContainer.matches(head)) {
+				reader = new BinaryReader(BlockContainer.open(map(channel), this.compressionOptions).openStream(0));
+				channel.close();
+			}else {
+				final CompressionCodec detected = CompressionCodecs.detect(head);
+				if(detected == null && channel.size() <= Integer.MAX_VALUE) {
+					// A mapping stays valid once its channel is closed
+					reader = new ByteBufferBinaryReader(map(channel));
+					channel.close();
+				}else {
+					final InputStream stream = new BufferedInputStream(Channels.newInputStream(channel.position(0)));
+					reader = new BinaryReader(detected == null ? stream : detected.decompress(stream, this.compressionOptions));
 				}
 			}
+			
+			return new MOBFStreamReader(reader, this.registry);
+		}catch(IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Open the file to write its content value by value with a {@link MOBFStreamWriter}, without building it in memory.
+	 * <p>
+	 * The content is written in a temporary file which replaces the file once the writer is closed.
+	 * The content loaded by this instance, if any, is then discarded.<br/>
+	 * Uncompressed files can give the size of their lists and arrays once they are ended, compressed files
+	 * can only do it while the container is held by the buffer of the writer.
+	 *
+	 * @param header The header of the written file
+	 * @param keyTable The keys used by the content if the header uses the {@link FormatFeature#KEY_TABLE} feature, <code>null</code> otherwise
+	 * @return a stream writer positioned after the header, to be closed by the caller
+	 * @throws IOException If an I/O error occurs
+	 */
+	public MOBFStreamWriter openStreamWriter(MOBFFileHeader header, KeyTable keyTable) throws IOException {
+		final Path target = getFullPath().toAbsolutePath();
+		final Path temporary = createTemporary(target);
+		
+		try {
+			if(this.codec == null) {
+				final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+				try {
+					return new MOBFStreamWriter(channel, header, keyTable, this.registry) {
+						@Override
+						public void close() throws IOException {
+							replace(temporary, target, super::close);
+						}
+					};
+				}catch(IOException | RuntimeException e) {
+					channel.close();
+					throw e;
+				}
+			}
+			
+			final OutputStream stream = new BufferedOutputStream(Files.newOutputStream(temporary));
+			try {
+				final OutputStream compressed = this.blockSize > 0 ? BlockContainer.compress(stream, this.codec, this.compressionOptions, this.blockSize)
+						: this.codec.compress(stream, this.compressionOptions);
+				
+				return new MOBFStreamWriter(compressed, header, keyTable, this.registry) {
+					@Override
+					public void close() throws IOException {
+						replace(temporary, target, super::close);
+					}
+				};
+			}catch(IOException | RuntimeException e) {
+				stream.close();
+				throw e;
+			}
+		}catch(IOException | RuntimeException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Create the temporary file which replaces the target once written.<br/>
+	 * Temporary files are only readable by their owner, the permissions of the target are copied so replacing
+	 * the file doesn't change who can read it.
+	 * @param target The file to replace
+	 * @return the temporary file, in the directory of the target
+	 * @throws IOException If an I/O error occurs
+	 */
+	private Path createTemporary(Path target) throws IOException {
+		final Path temporary = Files.createTempFile(target.getParent(), getFullName(), ".tmp");
+		try {
+			if(Files.exists(target)) copyPermissions(target, temporary);
+		}catch(IOException | RuntimeException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+		
+		return temporary;
+	}
+	
+	/**
+	 * Copy the POSIX permissions, or the ACL on file systems without them, and the owner of a file.<br/>
+	 * The owner and the group are kept when the process isn't allowed to change them.
+	 */
+	private static void copyPermissions(Path source, Path target) throws IOException {
+		final PosixFileAttributeView posix = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+		if(posix != null) {
+			final PosixFileAttributes attributes = Files.readAttributes(source, PosixFileAttributes.class);
+			posix.setPermissions(attributes.permissions());
+			try {
+				posix.setGroup(attributes.group());
+				posix.setOwner(attributes.owner());
+			}catch(IOException e) {
+				// Only a privileged process can give a file away
+			}
+			return;
+		}
+		
+		final AclFileAttributeView acl = Files.getFileAttributeView(target, AclFileAttributeView.class);
+		if(acl != null) {
+			final AclFileAttributeView sourceAcl = Files.getFileAttributeView(source, AclFileAttributeView.class);
+			acl.setAcl(sourceAcl.getAcl());
+			try {
+				acl.setOwner(sourceAcl.getOwner());
+			}catch(IOException e) {
+				// Only a privileged process can give a file away
+			}
+		}
+	}
+	
+	/**
+	 * Close a stream writer and move the file it wrote onto the target, the temporary file is deleted if the writer fails.
+	 */
+	private void replace(Path temporary, Path target, IOAction closeWriter) throws IOException {
+		try {
+			closeWriter.run();
+		}catch(IOException | RuntimeException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+		
+		synchronized (lock) {
+			move(temporary, target);
+			
+			// The loaded content no longer matches the file
+			this.isOpen = false;
+			this.indexedContent = null;
+			this.indexedBlocks = null;
+			this.index = null;
+		}
+	}
+	
+	/**
+	 * Move a written file onto the file it replaces, atomically if the file system supports it.
+	 * @param source The written file
+	 * @param target The replaced file
+	 * @throws IOException If an I/O error occurs
+	 */
+	static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}catch(AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * End a section of a file using the {@link FormatFeature#CHECKSUM} feature, once the writer is flushed to the checksums stream.
+	 * @param writer The writer of the file
+	 * @param checksums The checksums stream or <code>null</code> if the file doesn't use checksums
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static void endSection(BinaryWriter writer, MOBFChecksums.Builder checksums) throws IOException {
+		if(checksums == null) return;
+		
+		writer.flush();
+		checksums.next();
+	}
+	
+	/**
+	 * Wait for the verification of the checksums started while reading a file.
+	 * @param verification The verification or <code>null</code> if the file isn't verified
+	 * @param cause The exception thrown while parsing the content, <code>null</code> if the parsing succeeded
+	 * @throws ChecksumException If a section doesn't match its checksum
+	 * @throws IOException If the file couldn't be read by the verification and the parsing succeeded
+	 */
+	private static void awaitVerification(CompletableFuture<Set<MOBFChecksums.Section>> verification, Exception cause) throws IOException {
+		if(verification == null) return;
+		
+		final Set<MOBFChecksums.Section> corrupted;
+		try {
+			corrupted = verification.join();
+		}catch(CompletionException e) {
+			// The exception of the parsing is more relevant than a failed verification
+			if(cause != null) return;
+			if(e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+			throw e;
+		}
+		if(!corrupted.isEmpty()) throw new ChecksumException("Corrupted sections", corrupted, cause);
+	}
+	
+	/**
+	 * Check the header section of a file whose header cannot be parsed.
+	 * @param content The uncompressed content or <code>null</code>
+	 * @param channel The channel of an uncompressed file which isn't mapped, <code>null</code> otherwise
+	 * @return true if the file has a valid checksums trailer and its header doesn't match its checksum
+	 */
+	private static boolean isHeaderCorrupted(ByteBuffer content, FileChannel channel) {
+		final Set<MOBFChecksums.Section> header = EnumSet.of(MOBFChecksums.Section.HEADER);
+		try {
+			if(content != null) return !MOBFChecksums.read(content).verify(content, header).isEmpty();
+			if(channel != null) return !MOBFChecksums.read(channel).verify(channel, header).isEmpty();
+		}catch(IOException e) {
+			// Without a valid trailer, the header cannot be verified
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Decompress all the blocks of a container, reporting the blocks which don't match their checksums as corrupted sections.
+	 * @param blocks The block container
+	 * @return the uncompressed content
+	 * @throws ChecksumException If a block doesn't match its checksum
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static ByteBuffer decompressAll(BlockContainer blocks) throws IOException {
+		try {
+			return blocks.decompressAll(ForkJoinPool.commonPool());
+		}catch(IOException e) {
+			final BitSet corrupted = blocks.verify();
+			if(corrupted.isEmpty()) throw e;
+			
+			throw new ChecksumException("Corrupted blocks "+corrupted, getSections(blocks, corrupted), e);
+		}
+	}
+	
+	/**
+	 * Get the sections held by corrupted blocks, using the checksums trailer stored in the last block.
+	 * @param blocks The block container
+	 * @param corrupted The blocks which don't match their checksums
+	 * @return the sections overlapping the corrupted blocks, every section if the trailer cannot be read
+	 */
+	private static Set<MOBFChecksums.Section> getSections(BlockContainer blocks, BitSet corrupted) {
+		final long start = blocks.getSize() - MOBFChecksums.TRAILER_SIZE;
+		final int last = corrupted.length() - 1;
+		if(start < 0 || blocks.getPosition(last) + blocks.getLength(last) > start) {
+			return EnumSet.allOf(MOBFChecksums.Section.class);
 		}
 		
-		switch (compression) {
-			case GZIP:
-				return new GZIPInputStream(bis);
-			default:
-				return bis;
+		try(InputStream in = blocks.openStream(start)) {
+			final MOBFChecksums checksums = MOBFChecksums.read(ByteBuffer.wrap(in.readNBytes(MOBFChecksums.TRAILER_SIZE)), start);
+			final Set<MOBFChecksums.Section> sections = EnumSet.noneOf(MOBFChecksums.Section.class);
+			for(int block = corrupted.nextSetBit(0); block >= 0; block = corrupted.nextSetBit(block + 1)) {
+				sections.addAll(checksums.getSections(blocks.getPosition(block), blocks.getLength(block)));
+			}
+			
+			return sections.isEmpty() ? EnumSet.allOf(MOBFChecksums.Section.class) : sections;
+		}catch(IOException e) {
+			return EnumSet.allOf(MOBFChecksums.Section.class);
 		}
 	}
 	
-	private OutputStream determineOutputCompression(BufferedOutputStream bis) throws IOException {
-		switch (this.compression) {
-			case GZIP:
-				return new GZIPOutputStream(bis);
-			default:
-				return bis;
+	/**
+	 * Verify the checksums of the file without parsing its content.<br/>
+	 * Uncompressed files are mapped in memory, or read by chunks if they are larger than 2 GiB. The blocks of a block container
+	 * are checked before being decompressed, other compressed files are decompressed in memory.
+	 * 
+	 * @return the sections which don't match their checksums, empty if the file is intact
+	 * @throws IOException If an I/O error occurs or if the file doesn't use the {@link FormatFeature#CHECKSUM} feature
+	 */
+	public Set<MOBFChecksums.Section> verify() throws IOException {
+		try(FileChannel channel = FileChannel.open(getFullPath(), StandardOpenOption.READ)) {
+			final byte[] head = readHead(channel);
+			final ByteBuffer content;
+			if(BlockContainer.matches(head)) {
+				final BlockContainer blocks = BlockContainer.open(map(channel), this.compressionOptions);
+				final BitSet corrupted = blocks.verify();
+				if(!corrupted.isEmpty()) return getSections(blocks, corrupted);
+				
+				content = blocks.decompressAll(ForkJoinPool.commonPool());
+			}else {
+				final CompressionCodec detected = CompressionCodecs.detect(head);
+				if(detected != null) {
+					try(InputStream stream = detected.decompress(new BufferedInputStream(Channels.newInputStream(channel.position(0))), this.compressionOptions)) {
+						content = ByteBuffer.wrap(stream.readAllBytes());
+					}
+				}else if(channel.size() <= Integer.MAX_VALUE) {
+					content = map(channel);
+				}else {
+					content = null;
+				}
+			}
+			
+			// The trailer is read first, the header may be the corrupted section
+			final MOBFChecksums checksums;
+			try {
+				checksums = content != null ? MOBFChecksums.read(content) : MOBFChecksums.read(channel);
+			}catch(ChecksumException e) {
+				final MOBFFileHeader header;
+				try {
+					header = new MOBFFileHeader(content != null ? new ByteBufferBinaryReader(content) 
+							: new BinaryReader(new BufferedInputStream(Channels.newInputStream(channel.position(0)))));
+				}catch(IOException | RuntimeException unreadable) {
+					return e.getSections();
+				}
+				if(!header.hasFeature(FormatFeature.CHECKSUM)) throw new IOException(getFullName()+" doesn't use the CHECKSUM feature");
+				
+				return e.getSections();
+			}
+			
+			return content != null ? checksums.verify(content) : checksums.verify(channel, EnumSet.allOf(MOBFChecksums.Section.class));
 		}
 	}
 	
+	@FunctionalInterface
+	private interface IOAction {
+		void run() throws IOException;
+	}
+	
+	private DataType<?> readIndexedField(MOBFFileIndex.Entry entry) throws IOException {
+		final DataType<?> result = this.registry.create(entry.getType());
+		if(result == null) throw new IOException("Unknown data type "+entry.getType()+" for field "+entry.getName());
+		
+		final BinaryReader reader = openReader(this.indexedContent, this.indexedBlocks, entry.getOffset());
+		reader.setFeatures(this.indexedHeader.getFeatures());
+		reader.setKeyTable(this.indexedKeyTable);
+		
+		result.setName(entry.getName());
+		result.read(reader, this.registry, this.indexedHeader.getEncodingCharset());
+		
+		return result;
+	}
+	
+	/**
+	 * Read the key table following the header, if the file uses one, and set it on the reader.
+	 * @param reader The reader positioned just after the header
+	 * @param header The header of the file
+	 * @return the key table or <code>null</code>
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static KeyTable readKeyTable(BinaryReader reader, MOBFFileHeader header) throws IOException {
+		if(!header.hasFeature(FormatFeature.KEY_TABLE)) return null;
+		
+		final KeyTable keys = KeyTable.read(reader, header.getEncodingCharset());
+		reader.setKeyTable(keys);
+		
+		return keys;
+	}
+	
+	/**
+	 * Collect the keys of the content, write the key table and set it on the writer.<br/>
+	 * When lazy loading is enabled, the table starts with the keys of the file previously read so
+	 * the untouched values can be copied as is.
+	 * @param writer The writer positioned just after the header
+	 * @throws IOException If an I/O error occurs
+	 */
+	private void writeKeyTable(BinaryWriter writer) throws IOException {
+		final KeyTable.Builder builder = new KeyTable.Builder(this.lazyLoading ? this.keyTable : null);
+		this.root.collectKeys(builder, this.fileHeader.getEncodingCharset(), this.fileHeader.getFeatures());
+		
+		final KeyTable keys = builder.build();
+		keys.write(writer, this.fileHeader.getEncodingCharset());
+		writer.setKeyTable(keys);
+	}
+	
+	/**
+	 * Create a reader starting at the given position of the uncompressed content.
+	 * @param content The uncompressed content or <code>null</code> if the file is a block container
+	 * @param blocks The block container or <code>null</code>
+	 * @param position The position in the uncompressed content
+	 * @return the reader
+	 * @throws IOException If the position is after the end of the content
+	 */
+	private static BinaryReader openReader(ByteBuffer content, BlockContainer blocks, long position) throws IOException {
+		if(blocks != null) return new BinaryReader(blocks.openStream(position));
+		
+		final ByteBufferBinaryReader reader = new ByteBufferBinaryReader(content);
+		reader.seek(position);
+		
+		return reader;
+	}
+	
+	/**
+	 * Read the first bytes of the file, enough to detect its compression.
+	 * @param channel The channel of the file
+	 * @return the first bytes, shorter if the file is smaller
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static byte[] readHead(FileChannel channel) throws IOException {
+		final ByteBuffer head = ByteBuffer.allocate(Math.max(CompressionCodecs.getMaxSignatureLength(), Integer.BYTES));
+		while(head.hasRemaining() && channel.read(head, head.position()) > 0);
+		
+		return Arrays.copyOf(head.array(), head.position());
+	}
+	
+	private static ByteBuffer map(FileChannel channel) throws IOException {
+		if(channel.size() > Integer.MAX_VALUE) throw new IOException("Cannot map a file larger than "+Integer.MAX_VALUE+" bytes");
+		
+		return channel.map(MapMode.READ_ONLY, 0, channel.size());
+	}
+	
 	public boolean isOpen() {
 		return isOpen;
 	}
 	
+	/**
+	 * Enable or disable the lazy loading of the file content.<br/>
+	 * When enabled, uncompressed files using the {@link FormatFeature#INDEXED} feature are mapped in memory
+	 * (files compressed by blocks are decompressed in memory first) and the nested containers are only decoded on their first access.
+	 * Containers which are never accessed are copied as is when the file is saved.
+	 * 
+	 * @param lazyLoading true to enable the lazy loading
+	 */
+	public void setLazyLoading(boolean lazyLoading) {
+		this.lazyLoading = lazyLoading;
+	}
+	
+	public boolean isLazyLoading() {
+		return lazyLoading;
+	}
+	
+	/**
+	 * Set the codec used to compress the file when it is saved.
+	 * @param codec The codec or <code>null</code> to save the file uncompressed
+	 * @param options The level and the dictionary of the compression
+	 */
+	public void setCompression(CompressionCodec codec, CompressionOptions options) {
+		synchronized (lock) {
+			this.codec = codec;
+			this.compression = CompressionType.of(codec);
+			this.compressionOptions = options;
+			this.blockSize = 0;
+		}
+	}
+	
+	/**
+	 * Set the codec used to compress the file when it is saved, splitting the content into blocks compressed independently.<br/>
+	 * The blocks are decompressed in parallel when the file is read, and a single field of an indexed file can
+	 * be read by only decompressing the blocks holding it.
+	 * @param codec The codec used to compress each block
+	 * @param options The level and the dictionary of the compression
+	 * @param blockSize The uncompressed size of the blocks, {@link BlockContainer#DEFAULT_BLOCK_SIZE} by default
+	 * @see BlockContainer
+	 */
+	public void setBlockCompression(CompressionCodec codec, CompressionOptions options, int blockSize) {
+		if(blockSize <= 0) throw new IllegalArgumentException("Invalid block size "+blockSize);
+		
+		synchronized (lock) {
+			this.codec = codec;
+			this.compression = CompressionType.of(codec);
+			this.compressionOptions = options;
+			this.blockSize = blockSize;
+		}
+	}
+	
+	/**
+	 * Set the options used to compress and decompress the file.<br/>
+	 * Files compressed with a dictionary can only be read once the same dictionary is set.
+	 * @param options The level and the dictionary of the compression
+	 */
+	public void setCompressionOptions(CompressionOptions options) {
+		synchronized (lock) {
+			this.compressionOptions = options;
+		}
+	}
+	
+	public CompressionOptions getCompressionOptions() {
+		return compressionOptions;
+	}
+	
+	/**
+	 * Get the codec used to compress the file.
+	 * @return the codec or <code>null</code> if the file isn't compressed
+	 */
+	public CompressionCodec getCompressionCodec() {
+		return codec;
+	}
+	
+	/**
+	 * Get the uncompressed size of the blocks if the file is compressed by blocks.
+	 * @return the size of the blocks or 0 if the file isn't compressed by blocks
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+	
 	public ObjectDataType getRoot() {
 		return root;
 	}
+	
+	public MOBFFileHeader getFileHeader() {
+		return fileHeader;
+	}
+	
+	public DataTypeRegistry getRegistry() {
+		return registry;
+	}
+	
+	/**
+	 * Get the compression of the file.
+	 * @return the compression type or <code>null</code> if the file is compressed with a codec loaded as a service
+	 * @see #getCompressionCodec()
+	 */
+	public CompressionType getCompression() {
+		return compression;
+	}
 
 	@Override
 	public FileType getFileType() {
@@ -0,0 +1,456 @@
+package marshmalliow.core.binary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.MissingFormatArgumentException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.io.BinaryReader;
+import marshmalliow.core.io.ByteBufferBinaryReader;
+import marshmalliow.core.io.ByteBufferBinaryWriter;
+
+/**
+ * Append-only log of the modifications of a {@link MOBFFile}.
+ * <p>
+ * Instead of rewriting the whole file for each change, every modification made through the journal is appended to
+ * a log file next to the MOBF file (its name followed by <code>.log</code>), the MOBF file itself being the last snapshot
+ * of the content. Each record of the log holds:
+ * <ul>
+ * <li>The length of the record and the CRC32C checksum of its content</li>
+ * <li>The operation, {@link #PUT} or {@link #REMOVE}</li>
+ * <li>The keys leading to the value from the root object</li>
+ * <li>For {@link #PUT}, the type of the value followed by the value itself</li>
+ * </ul>
+ * When the journal is opened, the snapshot is read and the records of the log are replayed on it. The log ends at the first
+ * incomplete or corrupted record, which is usually the trace of an interrupted write, and is truncated there. The dropped bytes
+ * are copied to a file next to the log (its name followed by a number and <code>.dropped</code>) and a warning is logged,
+ * as a corrupted record may be followed by valid ones.
+ * <p>
+ * {@link #compact()} saves a new snapshot and empties the log. It can run in the background once the log grows past a threshold.
+ * Modifications wait for the compaction to end.<br/>
+ * The snapshot is first written to a staged file (the name of the MOBF file followed by <code>.compact</code>), the log is then
+ * emptied and the staged file finally replaces the MOBF file. Opening the journal completes an interrupted compaction: the staged
+ * file replaces the snapshot if the log has been emptied, and is deleted otherwise. The log is therefore never replayed on a
+ * snapshot which already holds its records, which could revert the values modified in place since.
+ * <p>
+ * Values modified without the journal, including values put with it and modified afterwards, are only saved with the next snapshot.
+ * @version 1.0.0
+ * @author 278deco
+ * @since 0.3.5
+ */
+public class MOBFJournal implements Closeable {
+	
+	private static final Logger LOGGER = LogManager.getLogger(MOBFJournal.class);
+	
+	private static final String EXTENSION = ".log";
+	private static final String STAGED_EXTENSION = ".compact";
+	private static final byte[] SIGNATURE = {'M', 'O', 'B', 'J'};
+	private static final byte VERSION = 1;
+	
+	/**
+	 * Size of the header of the log: its signature, version and charset
+	 */
+	private static final int HEADER_SIZE = SIGNATURE.length + 2;
+	
+	/**
+	 * Size of the length and checksum preceding the content of each record
+	 */
+	private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+	
+	/**
+	 * Operation adding or replacing a value
+	 */
+	public static final byte PUT = 1;
+	
+	/**
+	 * Operation removing a value
+	 */
+	public static final byte REMOVE = 2;
+	
+	private final Object lock = new Object();
+	
+	private final MOBFFile file;
+	private final Path path;
+	private final Path staged;
+	private final Executor compactionExecutor;
+	private final long compactionThreshold;
+	private final AtomicBoolean compacting = new AtomicBoolean();
+	
+	private FileChannel channel;
+	private Charset charset;
+	private long size;
+	private boolean synchronous;
+	
+	/**
+	 * Create a journal compacted only by calls to {@link #compact()}.
+	 * @param file The file holding the snapshot
+	 */
+	public MOBFJournal(MOBFFile file) {
+		this(file, null, Long.MAX_VALUE);
+	}
+	
+	/**
+	 * Create a journal compacted in the background once the log grows past the given size.
+	 * @param file The file holding the snapshot
+	 * @param compactionExecutor The executor running the compactions
+	 * @param compactionThreshold The size of the log in bytes triggering a compaction
+	 */
+	public MOBFJournal(MOBFFile file, Executor compactionExecutor, long compactionThreshold) {
+		if(compactionThreshold <= 0) throw new IllegalArgumentException("The compaction threshold must be positive, got "+compactionThreshold);
+		
+		this.file = file;
+		this.path = file.getFullPath().resolveSibling(file.getFullName()+EXTENSION);
+		this.staged = file.getFullPath().resolveSibling(file.getFullName()+STAGED_EXTENSION);
+		this.compactionExecutor = compactionExecutor;
+		this.compactionThreshold = compactionThreshold;
+	}
+	
+	/**
+	 * Open the journal, reading the snapshot if the file isn't open and replaying the log on it.<br/>
+	 * A file which has never been saved must be created with an header.
+	 * @throws IOException If an I/O error occurs or if the log is invalid
+	 */
+	public void open() throws IOException {
+		synchronized (lock) {
+			if(this.channel != null) return;
+			
+			final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			try {
+				if(Files.exists(this.staged)) {
+					if(channel.size() <= HEADER_SIZE) {
+						// The log has been emptied, the staged snapshot holds its records
+						LOGGER.warn("Completing the interrupted compaction of {}", this.file.getFullName());
+						MOBFFile.move(this.staged, this.file.getFullPath());
+						this.file.readFile(true);
+					}else {
+						Files.delete(this.staged);
+					}
+				}
+				if(!this.file.isOpen()) this.file.readFile();
+				
+				if(channel.size() < HEADER_SIZE) {
+					// The log has just been created or its header has been interrupted, there isn't any record to replay
+					this.charset = this.file.getFileHeader().getEncodingCharset();
+					channel.truncate(0);
+					
+					final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).put(SIGNATURE).put(VERSION).put(this.charset.getId()).flip();
+					while(header.hasRemaining()) channel.write(header, header.position());
+					channel.force(true);
+					this.size = HEADER_SIZE;
+				}else {
+					this.size = replay(channel);
+					if(this.size < channel.size()) drop(channel);
+				}
+			}catch(IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+			
+			this.channel = channel;
+		}
+	}
+	
+	/**
+	 * Replay the records of the log on the root object of the file.
+	 * @param channel The channel of the log
+	 * @return the size of the valid part of the log
+	 * @throws IOException If an I/O error occurs or if the log is invalid
+	 */
+	private long replay(FileChannel channel) throws IOException {
+		if(channel.size() > Integer.MAX_VALUE) throw new IOException("Cannot replay a log larger than "+Integer.MAX_VALUE+" bytes");
+		
+		final ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+		while(content.hasRemaining() && channel.read(content, content.position()) > 0);
+		content.flip();
+		
+		final byte[] signature = new byte[SIGNATURE.length];
+		content.get(0, signature);
+		if(!Arrays.equals(signature, SIGNATURE)) throw new IOException(this.path+" is not a MOBF journal");
+		if(content.get(SIGNATURE.length) != VERSION) throw new IOException("Unsupported MOBF journal version "+content.get(SIGNATURE.length));
+		
+		this.charset = Charset.of(content.get(SIGNATURE.length + 1));
+		if(this.charset == Charset.NULL) throw new IOException("Unknown charset "+content.get(SIGNATURE.length + 1));
+		
+		final CRC32C checksum = new CRC32C();
+		int position = HEADER_SIZE;
+		while(content.limit() - position >= RECORD_HEADER_SIZE) {
+			final int length = content.getInt(position);
+			if(length <= 0 || length > content.limit() - position - RECORD_HEADER_SIZE) break;
+			
+			final ByteBuffer record = content.slice(position + RECORD_HEADER_SIZE, length);
+			checksum.reset();
+			checksum.update(record.duplicate());
+			if((int) checksum.getValue() != content.getInt(position + Integer.BYTES)) break;
+			
+			apply(new ByteBufferBinaryReader(record));
+			position += RECORD_HEADER_SIZE + length;
+		}
+		
+		return position;
+	}
+	
+	/**
+	 * Truncate the log after its last valid record, copying the dropped bytes to a file next to the log.
+	 * @param channel The channel of the log
+	 * @throws IOException If an I/O error occurs
+	 */
+	private void drop(FileChannel channel) throws IOException {
+		final long end = channel.size();
+		final Path copy = Files.createTempFile(this.path.toAbsolutePath().getParent(), this.path.getFileName()+".", ".dropped");
+		try(FileChannel out = FileChannel.open(copy, StandardOpenOption.WRITE)) {
+			long position = this.size;
+			while(position < end) position += channel.transferTo(position, end - position, out);
+			out.force(true);
+		}
+		LOGGER.warn("Dropping {} bytes of {} from the offset {}, after an incomplete or corrupted record. The dropped bytes are kept in {}", 
+				end - this.size, this.path, this.size, copy);
+		
+		channel.truncate(this.size);
+		channel.force(true);
+	}
+	
+	private void apply(BinaryReader reader) throws IOException {
+		final byte operation = reader.readByte();
+		final String[] keys = new String[reader.readLength()];
+		for(int i = 0; i < keys.length; i++) keys[i] = reader.readUTF(this.charset);
+		if(keys.length == 0) throw new IOException("Invalid empty path in the journal");
+		
+		// A parent may be missing if it has been modified without the journal, the record can't be applied
+		final ObjectDataType parent = resolve(keys, false);
+		switch(operation) {
+			case PUT -> {
+				final DataTypeRegistry registry = this.file.getRegistry();
+				final byte type = reader.readByte();
+				final DataType<?> data = registry.create(type);
+				if(data == null) throw new IOException("Unknown data type "+type);
+				
+				data.setName(keys[keys.length - 1]);
+				data.read(reader, registry, this.charset);
+				if(parent != null) parent.add(data);
+			}
+			case REMOVE -> {
+				if(parent != null) parent.remove(keys[keys.length - 1]);
+			}
+			default -> throw new IOException("Unknown journal operation "+operation);
+		}
+	}
+	
+	/**
+	 * Add a value to an object of the file, replacing the value with the same key.
+	 * @param data The value to add
+	 * @param parents The keys leading to the object from the root object, none to add the value to the root object
+	 * @throws IOException If an I/O error occurs
+	 * @throws IllegalArgumentException If the keys doesn't lead to an object
+	 */
+	public void put(DataType<?> data, String... parents) throws IOException {
+		if(data.getName().isEmpty()) throw new MissingFormatArgumentException("Cannot add a DataType without a name");
+		
+		final String[] keys = Arrays.copyOf(parents, parents.length + 1);
+		keys[parents.length] = data.getName().get();
+		
+		synchronized (lock) {
+			final ObjectDataType parent = resolve(keys, true);
+			append(PUT, keys, data);
+			parent.add(data);
+		}
+		
+		compactIfNeeded();
+	}
+	
+	/**
+	 * Remove a value from an object of the file.
+	 * @param path The keys leading to the value from the root object, the last one being the key of the value
+	 * @return true if a value has been removed
+	 * @throws IOException If an I/O error occurs
+	 * @throws IllegalArgumentException If the keys doesn't lead to an object
+	 */
+	public boolean remove(String... path) throws IOException {
+		if(path.length == 0) throw new IllegalArgumentException("The path of the value cannot be empty");
+		
+		synchronized (lock) {
+			final ObjectDataType parent = resolve(path, true);
+			if(parent.get(path[path.length - 1]) == null) return false;
+			
+			append(REMOVE, path, null);
+			parent.remove(path[path.length - 1]);
+		}
+		
+		compactIfNeeded();
+		return true;
+	}
+	
+	/**
+	 * Get the object holding the value at the given path.
+	 * @param keys The keys leading to the value
+	 * @param strict true to throw an exception if a key is missing or isn't an object, false to return <code>null</code>
+	 * @return the object holding the value
+	 */
+	private ObjectDataType resolve(String[] keys, boolean strict) {
+		if(strict && this.channel == null) throw new IllegalStateException("The journal isn't open");
+		
+		ObjectDataType parent = this.file.getRoot();
+		for(int i = 0; i < keys.length - 1; i++) {
+			final DataType<?> child = parent.get(keys[i]);
+			if(!(child instanceof ObjectDataType)) {
+				if(strict) throw new IllegalArgumentException("No object found at "+String.join(".", Arrays.copyOf(keys, i + 1)));
+				return null;
+			}
+			parent = (ObjectDataType) child;
+		}
+		
+		return parent;
+	}
+	
+	/**
+	 * Append a record to the log. The log is truncated back to its previous size if the record cannot be entirely written.
+	 * @param operation The operation
+	 * @param keys The keys leading to the value
+	 * @param data The value, <code>null</code> for {@link #REMOVE}
+	 * @throws IOException If an I/O error occurs
+	 */
+	private void append(byte operation, String[] keys, DataType<?> data) throws IOException {
+		final ByteBufferBinaryWriter writer = new ByteBufferBinaryWriter(256);
+		// The length and the checksum are set once the content is written
+		writer.writeInt(0);
+		writer.writeInt(0);
+		writer.writeByte(operation);
+		writer.writeLength(keys.length);
+		for(String key : keys) writer.writeUTF(key, this.charset);
+		if(data != null) {
+			writer.writeByte(data.getId());
+			data.write(writer, this.file.getRegistry(), this.charset);
+		}
+		
+		final ByteBuffer record = writer.getBuffer().duplicate().flip();
+		final CRC32C checksum = new CRC32C();
+		checksum.update(record.slice(RECORD_HEADER_SIZE, record.limit() - RECORD_HEADER_SIZE));
+		record.putInt(0, record.limit() - RECORD_HEADER_SIZE);
+		record.putInt(Integer.BYTES, (int) checksum.getValue());
+		
+		try {
+			while(record.hasRemaining()) this.channel.write(record, this.size + record.position());
+			if(this.synchronous) this.channel.force(false);
+		}catch(IOException e) {
+			// A partial record would hide the following ones when the log is replayed
+			this.channel.truncate(this.size);
+			throw e;
+		}
+		this.size += record.limit();
+	}
+	
+	/**
+	 * Save a new snapshot of the file and empty the log.<br/>
+	 * The log is emptied once the snapshot is staged and before it replaces the file, emptying the log commits the compaction.
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void compact() throws IOException {
+		synchronized (lock) {
+			if(this.channel == null) throw new IllegalStateException("The journal isn't open");
+			
+			// The staged file is forced before being moved, its directory entry must be durable before the log is emptied
+			this.file.saveStaged(this.staged.toAbsolutePath());
+			forceDirectory(this.staged.toAbsolutePath().getParent());
+			
+			this.channel.truncate(HEADER_SIZE);
+			this.channel.force(true);
+			this.size = HEADER_SIZE;
+			
+			MOBFFile.move(this.staged, this.file.getFullPath().toAbsolutePath());
+		}
+	}
+	
+	/**
+	 * Force the entries of a directory to the storage device, on the platforms which can open a directory.
+	 */
+	private static void forceDirectory(Path directory) throws IOException {
+		final FileChannel channel;
+		try {
+			channel = FileChannel.open(directory, StandardOpenOption.READ);
+		}catch(IOException e) {
+			// Windows can't open a directory, the durability of its entries is left to the file system
+			return;
+		}
+		
+		try(channel) {
+			channel.force(true);
+		}
+	}
+	
+	private void compactIfNeeded() {
+		if(this.compactionExecutor == null || getSize() < this.compactionThreshold || !this.compacting.compareAndSet(false, true)) return;
+		
+		this.compactionExecutor.execute(() -> {
+			try {
+				if(getSize() >= this.compactionThreshold) compact();
+			}catch(IOException | IllegalStateException e) {
+				LOGGER.error("Cannot compact the journal of {}", this.file.getFullName(), e);
+			}finally {
+				this.compacting.set(false);
+			}
+		});
+	}
+	
+	/**
+	 * Choose if each record is forced to the storage device before the modification returns.<br/>
+	 * Otherwise the records written just before a system crash may be lost, the log stays valid.
+	 * @param synchronous true to force each record
+	 */
+	public void setSynchronous(boolean synchronous) {
+		this.synchronous = synchronous;
+	}
+	
+	public boolean isSynchronous() {
+		return synchronous;
+	}
+	
+	/**
+	 * Get the current size of the log.
+	 * @return the size in bytes, including its header
+	 */
+	public long getSize() {
+		synchronized (lock) {
+			return size;
+		}
+	}
+	
+	public Path getPath() {
+		return path;
+	}
+	
+	public MOBFFile getFile() {
+		return file;
+	}
+	
+	/**
+	 * Force the records to the storage device and close the log. The snapshot isn't saved.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (lock) {
+			if(this.channel == null) return;
+			
+			try {
+				this.channel.force(true);
+			}finally {
+				this.channel.close();
+				this.channel = null;
+			}
+		}
+	}
+	
+}
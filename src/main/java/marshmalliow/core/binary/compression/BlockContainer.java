@@ -0,0 +1,457 @@
+package marshmalliow.core.binary.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Container splitting the content of a file into blocks compressed independently with a {@link CompressionCodec}.
+ * <p>
+ * Unlike a single compressed stream, the blocks can be decompressed in parallel and a part of the content
+ * can be read by only decompressing the blocks containing it. The container is organized as follows:
+ * <ul>
+ * <li>The signature of the container (4 bytes)</li>
+ * <li>The uncompressed size of the blocks (int), only the last block can be smaller</li>
+ * <li>The name of the codec (unsigned byte length followed by the ASCII name)</li>
+ * <li>Every compressed block</li>
+ * <li>The block index: the number of blocks (int) and, for each block, its compressed and uncompressed length (int, int)
+ * followed by the CRC32C of the compressed block (int)</li>
+ * <li>The offset of the block index (long), always the last 8 bytes of the file</li>
+ * </ul>
+ * A block is checked against its CRC32C before being decompressed.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public final class BlockContainer {
+
+	private static final byte[] SIGNATURE = {0x4D, 0x42, 0x4C, 0x43};
+	private static final int FOOTER_SIZE = Long.BYTES;
+
+	/**
+	 * Default uncompressed size of a block
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+	private final ByteBuffer content;
+	private final CompressionCodec codec;
+	private final CompressionOptions options;
+	private final int blockSize;
+
+	/**
+	 * Offset of each block in the container and in the uncompressed content
+	 */
+	private final long[] offsets;
+	private final long[] positions;
+	private final int[] compressedLengths;
+	private final int[] lengths;
+	private final int[] checksums;
+	private final long size;
+
+	private BlockContainer(ByteBuffer content, CompressionCodec codec, CompressionOptions options, int blockSize,
+			long[] offsets, long[] positions, int[] compressedLengths, int[] lengths, int[] checksums, long size) {
+		this.content = content;
+		this.codec = codec;
+		this.options = options;
+		this.blockSize = blockSize;
+		this.offsets = offsets;
+		this.positions = positions;
+		this.compressedLengths = compressedLengths;
+		this.lengths = lengths;
+		this.checksums = checksums;
+		this.size = size;
+	}
+
+	/**
+	 * Check if the given bytes start with the signature of the container.
+	 * @param head The first bytes of a file
+	 * @return true if the file is a block container
+	 */
+	public static boolean matches(byte[] head) {
+		return head.length >= SIGNATURE.length && Arrays.equals(head, 0, SIGNATURE.length, SIGNATURE, 0, SIGNATURE.length);
+	}
+
+	/**
+	 * Open a container and read its block index.
+	 * @param content The whole container, usually a mapped file
+	 * @param options The options used to decompress the blocks
+	 * @return the container
+	 * @throws IOException If the container is malformed or its codec is unknown
+	 */
+	public static BlockContainer open(ByteBuffer content, CompressionOptions options) throws IOException {
+		final ByteBuffer buffer = content.duplicate().order(ByteOrder.BIG_ENDIAN);
+		try {
+			final byte[] signature = new byte[SIGNATURE.length];
+			buffer.get(signature);
+			if(!matches(signature)) throw new IOException("Not a block container");
+
+			final int blockSize = buffer.getInt();
+			if(blockSize <= 0) throw new IOException("Invalid block size "+blockSize);
+
+			final byte[] name = new byte[buffer.get() & 0xFF];
+			buffer.get(name);
+			final String codecName = new String(name, StandardCharsets.US_ASCII);
+			final CompressionCodec codec = CompressionCodecs.byName(codecName).orElseThrow(() -> new IOException("Unknown compression codec "+codecName));
+
+			long offset = buffer.position();
+			final long indexOffset = buffer.getLong(buffer.limit() - FOOTER_SIZE);
+			if(indexOffset < offset || indexOffset > buffer.limit() - FOOTER_SIZE) throw new IOException("Invalid block index offset "+indexOffset);
+
+			buffer.position((int) indexOffset);
+			final int count = buffer.getInt();
+			if(count < 0 || (long) count * 3 * Integer.BYTES > buffer.remaining()) throw new IOException("Invalid blocks count "+count);
+
+			final long[] offsets = new long[count];
+			final long[] positions = new long[count];
+			final int[] compressedLengths = new int[count];
+			final int[] lengths = new int[count];
+			final int[] checksums = new int[count];
+			long position = 0;
+			for(int i = 0; i < count; i++) {
+				compressedLengths[i] = buffer.getInt();
+				lengths[i] = buffer.getInt();
+				checksums[i] = buffer.getInt();
+				if(compressedLengths[i] < 0 || lengths[i] < 0 || lengths[i] > blockSize) throw new IOException("Invalid length for block "+i);
+
+				offsets[i] = offset;
+				positions[i] = position;
+				offset += compressedLengths[i];
+				position += lengths[i];
+			}
+			if(offset != indexOffset) throw new IOException("The blocks don't end at the block index");
+
+			return new BlockContainer(content, codec, options, blockSize, offsets, positions, compressedLengths, lengths, checksums, position);
+		}catch(RuntimeException e) {
+			throw new IOException("Malformed block container", e);
+		}
+	}
+
+	/**
+	 * Create a stream splitting the data written to it into blocks compressed with the given codec.<br/>
+	 * The block index is written when the stream is closed, closing the given stream.
+	 * @param out The stream receiving the container
+	 * @param codec The codec used to compress each block
+	 * @param options The options of the codec
+	 * @param blockSize The uncompressed size of the blocks
+	 * @return the compressing stream
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static OutputStream compress(OutputStream out, CompressionCodec codec, CompressionOptions options, int blockSize) throws IOException {
+		return new BlockOutputStream(out, codec, options, blockSize);
+	}
+
+	/**
+	 * Decompress every block in parallel into a single buffer.
+	 * @param pool The pool running the decompression tasks
+	 * @return a heap buffer holding the whole content
+	 * @throws IOException If a block cannot be decompressed or if the content is larger than 2GB
+	 */
+	public ByteBuffer decompressAll(ForkJoinPool pool) throws IOException {
+		if(this.size > Integer.MAX_VALUE) throw new IOException("Cannot decompress more than "+Integer.MAX_VALUE+" bytes in a buffer");
+
+		final byte[] result = new byte[(int) this.size];
+		try {
+			pool.submit(() -> IntStream.range(0, getBlockCount()).parallel().forEach(block -> {
+				try {
+					decompress(block, result, (int) this.positions[block]);
+				}catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			})).get();
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while decompressing the blocks", e);
+		}catch(ExecutionException e) {
+			final Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+			throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+		}
+
+		return ByteBuffer.wrap(result);
+	}
+
+	/**
+	 * Open a stream reading the uncompressed content from the given position.<br/>
+	 * Blocks are only decompressed when the stream reaches them.
+	 * @param position The position in the uncompressed content
+	 * @return the stream
+	 * @throws IOException If the position is after the end of the content
+	 */
+	public InputStream openStream(long position) throws IOException {
+		if(position < 0 || position > this.size) throw new EOFException("Cannot read from "+position);
+
+		return new BlockInputStream(position);
+	}
+
+	/**
+	 * Check the compressed blocks against their checksums, without decompressing them.
+	 * @return the blocks which don't match their checksums
+	 */
+	public BitSet verify() {
+		final BitSet corrupted = new BitSet();
+
+		for(int block = 0; block < getBlockCount(); block++) {
+			if(!isIntact(block)) corrupted.set(block);
+		}
+
+		return corrupted;
+	}
+
+	private boolean isIntact(int block) {
+		final CRC32C checksum = new CRC32C();
+		checksum.update(this.content.slice((int) this.offsets[block], this.compressedLengths[block]));
+
+		return (int) checksum.getValue() == this.checksums[block];
+	}
+
+	private void decompress(int block, byte[] target, int offset) throws IOException {
+		if(!isIntact(block)) throw new IOException("Block "+block+" doesn't match its checksum");
+
+		final ByteBuffer compressed = this.content.slice((int) this.offsets[block], this.compressedLengths[block]);
+
+		try(InputStream in = this.codec.decompress(new BufferInputStream(compressed), this.options)) {
+			final int count = in.readNBytes(target, offset, this.lengths[block]);
+			if(count != this.lengths[block] || in.read() >= 0) throw new IOException("Block "+block+" doesn't match its length");
+		}
+	}
+
+	public CompressionCodec getCodec() {
+		return codec;
+	}
+
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	public int getBlockCount() {
+		return lengths.length;
+	}
+
+	/**
+	 * Get the position of a block in the uncompressed content.
+	 * @param block The index of the block
+	 * @return the position of its first byte
+	 */
+	public long getPosition(int block) {
+		return positions[block];
+	}
+
+	/**
+	 * Get the uncompressed length of a block.
+	 * @param block The index of the block
+	 * @return the length in bytes
+	 */
+	public int getLength(int block) {
+		return lengths[block];
+	}
+
+	/**
+	 * Get the size of the uncompressed content.
+	 * @return the size in bytes
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Stream reading the uncompressed content, one block at a time.
+	 */
+	private final class BlockInputStream extends InputStream {
+
+		private int block;
+		private byte[] current;
+		private int position;
+
+		private BlockInputStream(long start) throws IOException {
+			int index = Arrays.binarySearch(positions, start);
+			if(index < 0) index = -index - 2;
+
+			this.block = Math.max(index, 0);
+			if(this.block < getBlockCount()) {
+				load();
+				this.position = (int) (start - positions[this.block]);
+			}
+		}
+
+		private void load() throws IOException {
+			this.current = new byte[lengths[this.block]];
+			decompress(this.block, this.current, 0);
+			this.position = 0;
+		}
+
+		private boolean next() throws IOException {
+			while(this.current == null || this.position >= this.current.length) {
+				if(this.current != null) this.block++;
+				if(this.block >= getBlockCount()) return false;
+
+				load();
+			}
+
+			return true;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return next() ? this.current[this.position++] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			if(len == 0) return 0;
+			if(!next()) return -1;
+
+			final int count = Math.min(len, this.current.length - this.position);
+			System.arraycopy(this.current, this.position, b, off, count);
+			this.position += count;
+
+			return count;
+		}
+	}
+
+	/**
+	 * Stream reading the remaining bytes of a buffer.
+	 */
+	private static final class BufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private BufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			Objects.checkFromIndexSize(off, len, b.length);
+			if(len == 0) return 0;
+			if(!this.buffer.hasRemaining()) return -1;
+
+			final int count = Math.min(len, this.buffer.remaining());
+			this.buffer.get(b, off, count);
+
+			return count;
+		}
+	}
+
+	/**
+	 * Stream compressing each block once it is full.
+	 */
+	private static final class BlockOutputStream extends OutputStream {
+
+		private final DataOutputStream out;
+		private final CompressionCodec codec;
+		private final CompressionOptions options;
+		private final byte[] block;
+		private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		private final CRC32C checksum = new CRC32C();
+
+		private int position;
+		private long offset;
+		private boolean closed;
+		private int[] compressedLengths = new int[16];
+		private int[] lengths = new int[16];
+		private int[] checksums = new int[16];
+		private int count;
+
+		private BlockOutputStream(OutputStream out, CompressionCodec codec, CompressionOptions options, int blockSize) throws IOException {
+			if(blockSize <= 0) throw new IllegalArgumentException("Invalid block size "+blockSize);
+
+			final byte[] name = codec.getName().getBytes(StandardCharsets.US_ASCII);
+			if(name.length > 255) throw new IllegalArgumentException("The name of the codec is too long");
+
+			this.out = new DataOutputStream(out);
+			this.codec = codec;
+			this.options = options;
+			this.block = new byte[blockSize];
+
+			this.out.write(SIGNATURE);
+			this.out.writeInt(blockSize);
+			this.out.writeByte(name.length);
+			this.out.write(name);
+			this.offset = SIGNATURE.length + Integer.BYTES + 1 + name.length;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if(this.position == this.block.length) flushBlock();
+			this.block[this.position++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			while(len > 0) {
+				if(this.position == this.block.length) flushBlock();
+
+				final int count = Math.min(len, this.block.length - this.position);
+				System.arraycopy(b, off, this.block, this.position, count);
+				this.position += count;
+				off += count;
+				len -= count;
+			}
+		}
+
+		private void flushBlock() throws IOException {
+			if(this.position == 0) return;
+
+			this.compressed.reset();
+			this.checksum.reset();
+			try(OutputStream codecStream = this.codec.compress(new CheckedOutputStream(this.compressed, this.checksum), this.options)) {
+				codecStream.write(this.block, 0, this.position);
+			}
+
+			if(this.count == this.lengths.length) {
+				this.lengths = Arrays.copyOf(this.lengths, this.count * 2);
+				this.compressedLengths = Arrays.copyOf(this.compressedLengths, this.count * 2);
+				this.checksums = Arrays.copyOf(this.checksums, this.count * 2);
+			}
+			this.lengths[this.count] = this.position;
+			this.checksums[this.count] = (int) this.checksum.getValue();
+			this.compressedLengths[this.count++] = this.compressed.size();
+
+			this.compressed.writeTo(this.out);
+			this.offset += this.compressed.size();
+			this.position = 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if(this.closed) return;
+			this.closed = true;
+
+			try {
+				flushBlock();
+
+				this.out.writeInt(this.count);
+				for(int i = 0; i < this.count; i++) {
+					this.out.writeInt(this.compressedLengths[i]);
+					this.out.writeInt(this.lengths[i]);
+					this.out.writeInt(this.checksums[i]);
+				}
+				this.out.writeLong(this.offset);
+				this.out.flush();
+			}finally {
+				this.out.close();
+			}
+		}
+	}
+}
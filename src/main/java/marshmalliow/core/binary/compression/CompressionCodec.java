@@ -0,0 +1,72 @@
+package marshmalliow.core.binary.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ServiceLoader;
+
+import marshmalliow.core.binary.MOBFFile;
+
+/**
+ * Compression algorithm used to store a {@link MOBFFile}.
+ * <p>
+ * A compressed file always starts with the signature of its codec, so the codec can be
+ * detected when the file is read. Besides the built-in codecs of {@link CompressionCodecs},
+ * new codecs can be provided through the {@link ServiceLoader} mechanism by listing their
+ * implementation in <code>META-INF/services/marshmalliow.core.binary.compression.CompressionCodec</code>.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public interface CompressionCodec {
+
+	/**
+	 * Get the unique name of the codec.
+	 * @return the name, in upper case
+	 */
+	String getName();
+
+	/**
+	 * Get the bytes written at the beginning of every stream compressed with this codec.<br/>
+	 * The signature must not start with the signature of the MOBF header and must not be empty.
+	 * @return the signature
+	 */
+	byte[] getSignature();
+
+	/**
+	 * Create a stream compressing the data written to it, starting with the signature of the codec.<br/>
+	 * Closing the returned stream must close the given stream.
+	 * @param out The stream receiving the compressed data
+	 * @param options The level and the dictionary to use
+	 * @return the compressing stream
+	 * @throws IOException If an I/O error occurs
+	 * @throws IllegalArgumentException If the codec doesn't support the options
+	 */
+	OutputStream compress(OutputStream out, CompressionOptions options) throws IOException;
+
+	/**
+	 * Create a stream decompressing the data read from the given stream, positioned on the signature of the codec.<br/>
+	 * Closing the returned stream must close the given stream.
+	 * @param in The stream of compressed data
+	 * @param options The dictionary used to compress the data, the level is ignored
+	 * @return the decompressing stream
+	 * @throws IOException If an I/O error occurs or if the data isn't compressed with this codec
+	 */
+	InputStream decompress(InputStream in, CompressionOptions options) throws IOException;
+
+	/**
+	 * Check if the given bytes start with the signature of the codec.
+	 * @param head The first bytes of a file
+	 * @return true if the file has been compressed with this codec
+	 */
+	default boolean matches(byte[] head) {
+		final byte[] signature = getSignature();
+		if(head.length < signature.length) return false;
+
+		for(int i = 0; i < signature.length; i++) {
+			if(head[i] != signature[i]) return false;
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,119 @@
+package marshmalliow.core.binary.compression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Registry of the available {@link CompressionCodec}.
+ * <p>
+ * Contains the built-in codecs ({@link #GZIP}, {@link #DEFLATE} and {@link #LZ4}) and every codec found with the
+ * {@link ServiceLoader} the first time the codecs are requested. Codecs backed by native libraries are added this
+ * way without making them a dependency of the library, the <code>marshmalliow-zstd</code> module provides Zstandard.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public final class CompressionCodecs {
+
+	private static final Logger LOGGER = LogManager.getLogger(CompressionCodecs.class);
+
+	/**
+	 * GZIP codec
+	 * @see <a href="https://tools.ietf.org/html/rfc1952">RFC 1952</a>
+	 */
+	public static final CompressionCodec GZIP = new GzipCodec();
+
+	/**
+	 * Raw deflate codec, supporting preset dictionaries
+	 */
+	public static final CompressionCodec DEFLATE = new DeflateCodec();
+
+	/**
+	 * LZ4 codec, the fastest built-in codec to decompress
+	 * @see <a href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md">LZ4 block format</a>
+	 */
+	public static final CompressionCodec LZ4 = new Lz4Codec();
+
+	private static final Object MUTEX = new Object();
+	private static volatile List<CompressionCodec> codecs;
+
+	private CompressionCodecs() { }
+
+	/**
+	 * Get every available codec, built-in codecs first.
+	 * @return an unmodifiable list of codecs
+	 */
+	public static List<CompressionCodec> getCodecs() {
+		List<CompressionCodec> result = codecs;
+		if(result != null) return result;
+
+		synchronized (MUTEX) {
+			if(codecs == null) codecs = Collections.unmodifiableList(loadCodecs());
+
+			return codecs;
+		}
+	}
+
+	/**
+	 * Find a codec by its name.
+	 * @param name The name of the codec, case insensitive
+	 * @return the codec or an empty optional if no codec has this name
+	 */
+	public static Optional<CompressionCodec> byName(String name) {
+		return byNameIn(getCodecs(), name);
+	}
+
+	/**
+	 * Find the codec used to compress a file given its first bytes.
+	 * @param head The first bytes of the file, at least {@link #getMaxSignatureLength()} if the file is long enough
+	 * @return the codec or <code>null</code> if the file isn't compressed by a known codec
+	 */
+	public static CompressionCodec detect(byte[] head) {
+		for(CompressionCodec codec : getCodecs()) {
+			if(codec.matches(head)) return codec;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get the number of bytes needed to detect the codec of a file.
+	 * @return the length of the longest signature
+	 */
+	public static int getMaxSignatureLength() {
+		int length = 0;
+		for(CompressionCodec codec : getCodecs()) length = Math.max(length, codec.getSignature().length);
+
+		return length;
+	}
+
+	private static List<CompressionCodec> loadCodecs() {
+		final List<CompressionCodec> result = new ArrayList<>(List.of(GZIP, DEFLATE, LZ4));
+
+		try {
+			for(CompressionCodec codec : ServiceLoader.load(CompressionCodec.class, CompressionCodec.class.getClassLoader())) {
+				if(codec.getSignature().length == 0 || byNameIn(result, codec.getName()).isPresent()) {
+					LOGGER.warn("Ignoring compression codec {}, its name is already used or its signature is empty", codec.getClass().getName());
+					continue;
+				}
+
+				result.add(codec);
+			}
+		}catch(ServiceConfigurationError e) {
+			LOGGER.error("Couldn't load the compression codecs", e);
+		}
+
+		return result;
+	}
+
+	private static Optional<CompressionCodec> byNameIn(List<CompressionCodec> list, String name) {
+		return list.stream().filter(codec -> codec.getName().equalsIgnoreCase(name)).findFirst();
+	}
+}
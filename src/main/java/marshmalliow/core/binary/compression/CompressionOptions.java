@@ -0,0 +1,117 @@
+package marshmalliow.core.binary.compression;
+
+import java.util.zip.Adler32;
+
+/**
+ * Options given to a {@link CompressionCodec}: the compression level and an optional preset dictionary.
+ * <p>
+ * A dictionary holding content typical of the compressed files (recurring keys, common values)
+ * greatly improves the ratio of small files. The same dictionary must be given to read the files back.<br/>
+ * This class is immutable and can only be created using the builder, accessible via the static method {@link #builder()}.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public final class CompressionOptions {
+
+	/**
+	 * Let the codec choose its default level
+	 */
+	public static final int DEFAULT_LEVEL = -1;
+
+	/**
+	 * Default level and no dictionary
+	 */
+	public static final CompressionOptions DEFAULT = builder().build();
+
+	private final int level;
+	private final byte[] dictionary;
+
+	private CompressionOptions(CompressionOptions.Builder builder) {
+		this.level = builder.level;
+		this.dictionary = builder.dictionary;
+	}
+
+	/**
+	 * Get the compression level, its range depends on the codec.
+	 * @return the level or {@link #DEFAULT_LEVEL}
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Get the preset dictionary.
+	 * @return a copy of the dictionary or <code>null</code>
+	 */
+	public byte[] getDictionary() {
+		return dictionary == null ? null : dictionary.clone();
+	}
+
+	public boolean hasDictionary() {
+		return dictionary != null;
+	}
+
+	/**
+	 * Get an identifier of the dictionary, stored by the codecs to check that a file is read with the right dictionary.
+	 * @return the Adler-32 checksum of the dictionary or 0 if there is no dictionary
+	 */
+	public int getDictionaryId() {
+		if(dictionary == null) return 0;
+
+		final Adler32 checksum = new Adler32();
+		checksum.update(dictionary);
+
+		return (int) checksum.getValue();
+	}
+
+	/**
+	 * Create a new {@link CompressionOptions} instance using the builder.
+	 * @return a new {@link CompressionOptions.Builder} instance
+	 */
+	public static CompressionOptions.Builder builder() {
+		return new CompressionOptions.Builder();
+	}
+
+	/**
+	 * The builder class for the {@link CompressionOptions}.
+	 * @author 278deco
+	 * @version 1.0.0
+	 * @since 0.3.5
+	 */
+	public static final class Builder {
+
+		private int level = DEFAULT_LEVEL;
+		private byte[] dictionary;
+
+		private Builder() { }
+
+		/**
+		 * Set the compression level.
+		 * @param level the level, {@link #DEFAULT_LEVEL} to use the default level of the codec
+		 * @return the builder
+		 */
+		public Builder level(int level) {
+			if(level < DEFAULT_LEVEL) throw new IllegalArgumentException("Invalid compression level "+level);
+
+			this.level = level;
+			return this;
+		}
+
+		/**
+		 * Set the preset dictionary.
+		 * @param dictionary the dictionary or <code>null</code> to not use any
+		 * @return the builder
+		 */
+		public Builder dictionary(byte[] dictionary) {
+			if(dictionary != null && dictionary.length == 0) throw new IllegalArgumentException("The dictionary cannot be empty");
+
+			this.dictionary = dictionary == null ? null : dictionary.clone();
+			return this;
+		}
+
+		public CompressionOptions build() {
+			return new CompressionOptions(this);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package marshmalliow.core.binary.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZIP codec, the default compression of the MOBF files.<br/>
+ * Supports the levels 0 to 9, the format doesn't support dictionaries.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ * @see <a href="https://tools.ietf.org/html/rfc1952">RFC 1952</a>
+ */
+final class GzipCodec implements CompressionCodec {
+
+	private static final byte[] SIGNATURE = {0x1F, (byte)0x8B};
+	private static final int BUFFER_SIZE = 65536;
+
+	@Override
+	public String getName() {
+		return "GZIP";
+	}
+
+	@Override
+	public byte[] getSignature() {
+		return SIGNATURE.clone();
+	}
+
+	@Override
+	public OutputStream compress(OutputStream out, CompressionOptions options) throws IOException {
+		if(options.hasDictionary()) throw new IllegalArgumentException("GZIP doesn't support dictionaries");
+		if(options.getLevel() > Deflater.BEST_COMPRESSION) throw new IllegalArgumentException("Invalid GZIP level "+options.getLevel());
+
+		return new LevelGZIPOutputStream(out, options.getLevel());
+	}
+
+	@Override
+	public InputStream decompress(InputStream in, CompressionOptions options) throws IOException {
+		return new GZIPInputStream(in, BUFFER_SIZE);
+	}
+
+	/**
+	 * A {@link GZIPOutputStream} using the given level.
+	 */
+	private static final class LevelGZIPOutputStream extends GZIPOutputStream {
+
+		private LevelGZIPOutputStream(OutputStream out, int level) throws IOException {
+			super(out, BUFFER_SIZE);
+			this.def.setLevel(level);
+		}
+	}
+}
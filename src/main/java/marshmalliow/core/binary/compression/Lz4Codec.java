@@ -0,0 +1,389 @@
+package marshmalliow.core.binary.compression;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * LZ4 codec, trading compression ratio for a much faster decompression than deflate.
+ * <p>
+ * The content is split into chunks of at most 64KB, each one compressed as an independent LZ4 block
+ * (<a href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md">LZ4 block format</a>).
+ * The stream starts with the signature of the codec, then every chunk is written as:
+ * <ul>
+ * <li>The uncompressed length of the chunk (int), 0 marks the end of the stream</li>
+ * <li>The length of the stored data (int), its highest bit is set when the chunk is stored uncompressed</li>
+ * <li>The LZ4 block or the uncompressed chunk</li>
+ * </ul>
+ * LZ4 has a single level, the level of the options is ignored. The codec doesn't support dictionaries.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+final class Lz4Codec implements CompressionCodec {
+
+	private static final byte[] SIGNATURE = {0x4D, 0x4C, 0x5A, 0x34};
+
+	private static final int CHUNK_SIZE = 1 << 16;
+	private static final int STORED = 0x80000000;
+
+	private static final int MIN_MATCH = 4;
+	private static final int MAX_OFFSET = 0xFFFF;
+	/**
+	 * The last match must start at least 12 bytes before the end of the block and the last 5 bytes are always literals
+	 */
+	private static final int MATCH_FIND_LIMIT = 12;
+	private static final int LAST_LITERALS = 5;
+	private static final int HASH_LOG = 14;
+	private static final int SKIP_TRIGGER = 6;
+
+	@Override
+	public String getName() {
+		return "LZ4";
+	}
+
+	@Override
+	public byte[] getSignature() {
+		return SIGNATURE.clone();
+	}
+
+	@Override
+	public OutputStream compress(OutputStream out, CompressionOptions options) throws IOException {
+		if(options.hasDictionary()) throw new IllegalArgumentException("LZ4 doesn't support dictionaries");
+
+		out.write(SIGNATURE);
+		return new Lz4OutputStream(out);
+	}
+
+	@Override
+	public InputStream decompress(InputStream in, CompressionOptions options) throws IOException {
+		final byte[] signature = in.readNBytes(SIGNATURE.length);
+		if(!Arrays.equals(signature, SIGNATURE)) throw new IOException("Not a LZ4 stream");
+
+		return new Lz4InputStream(in);
+	}
+
+	/**
+	 * Compress a block.
+	 * @param src The uncompressed data
+	 * @param length The length of the data
+	 * @param dst The compressed block, at least {@link #maxCompressedLength(int)} bytes
+	 * @param table The hash table of the previous positions, overwritten
+	 * @return the length of the block
+	 */
+	static int compressBlock(byte[] src, int length, byte[] dst, int[] table) {
+		int dp = 0;
+		int anchor = 0;
+
+		if(length >= MATCH_FIND_LIMIT + 1) {
+			Arrays.fill(table, -1);
+			final int matchLimit = length - LAST_LITERALS;
+			final int findLimit = length - MATCH_FIND_LIMIT;
+
+			int ip = 1;
+			table[hash(readInt(src, 0))] = 0;
+			while(ip < findLimit) {
+				// Look for a match, skipping faster in incompressible data
+				int ref;
+				int attempts = 1 << SKIP_TRIGGER;
+				for(;;) {
+					final int h = hash(readInt(src, ip));
+					ref = table[h];
+					table[h] = ip;
+					if(ref >= 0 && ip - ref <= MAX_OFFSET && readInt(src, ref) == readInt(src, ip)) break;
+
+					ip += attempts++ >>> SKIP_TRIGGER;
+					if(ip >= findLimit) break;
+				}
+				if(ip >= findLimit) break;
+
+				while(ip > anchor && ref > 0 && src[ip - 1] == src[ref - 1]) {
+					ip--;
+					ref--;
+				}
+
+				int matchLength = MIN_MATCH;
+				while(ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) matchLength++;
+
+				dp = writeSequence(dst, dp, src, anchor, ip - anchor, ip - ref, matchLength - MIN_MATCH);
+				ip += matchLength;
+				anchor = ip;
+
+				if(ip < findLimit) table[hash(readInt(src, ip - 2))] = ip - 2;
+			}
+		}
+
+		// The last sequence only holds literals
+		final int literals = length - anchor;
+		dst[dp++] = (byte) (Math.min(literals, 15) << 4);
+		dp = writeLength(dst, dp, literals);
+		System.arraycopy(src, anchor, dst, dp, literals);
+
+		return dp + literals;
+	}
+
+	/**
+	 * Decompress a block.
+	 * @param src The compressed block
+	 * @param length The length of the block
+	 * @param dst The uncompressed data
+	 * @param expected The length of the uncompressed data
+	 * @throws IOException If the block is malformed or doesn't match the expected length
+	 */
+	static void decompressBlock(byte[] src, int length, byte[] dst, int expected) throws IOException {
+		int sp = 0;
+		int dp = 0;
+
+		for(;;) {
+			if(sp >= length) throw new IOException("Malformed LZ4 block, the last sequence must end with literals");
+			final int token = src[sp++] & 0xFF;
+
+			int literals = token >>> 4;
+			if(literals == 15) {
+				int b;
+				do {
+					if(sp >= length) throw new IOException("Truncated LZ4 block");
+					b = src[sp++] & 0xFF;
+					literals += b;
+				}while(b == 255);
+			}
+			if(literals > length - sp || literals > expected - dp) throw new IOException("Malformed LZ4 block, literals out of bounds");
+
+			System.arraycopy(src, sp, dst, dp, literals);
+			sp += literals;
+			dp += literals;
+			if(sp == length) break;
+
+			if(length - sp < 2) throw new IOException("Truncated LZ4 block");
+			final int offset = (src[sp] & 0xFF) | (src[sp + 1] & 0xFF) << 8;
+			sp += 2;
+			if(offset == 0 || offset > dp) throw new IOException("Malformed LZ4 block, invalid offset "+offset);
+
+			int matchLength = token & 0x0F;
+			if(matchLength == 15) {
+				int b;
+				do {
+					if(sp >= length) throw new IOException("Truncated LZ4 block");
+					b = src[sp++] & 0xFF;
+					matchLength += b;
+				}while(b == 255);
+			}
+			matchLength += MIN_MATCH;
+			if(matchLength > expected - dp) throw new IOException("Malformed LZ4 block, match out of bounds");
+
+			final int ref = dp - offset;
+			if(offset >= matchLength) {
+				System.arraycopy(dst, ref, dst, dp, matchLength);
+			}else {
+				// Overlapping match, repeats the last bytes
+				for(int i = 0; i < matchLength; i++) dst[dp + i] = dst[ref + i];
+			}
+			dp += matchLength;
+		}
+
+		if(dp != expected) throw new IOException("The LZ4 block doesn't match its length");
+	}
+
+	/**
+	 * Get the maximum length of a compressed block, reached when the data is incompressible.
+	 * @param length The length of the uncompressed data
+	 * @return the maximum length of the block
+	 */
+	static int maxCompressedLength(int length) {
+		return length + length / 255 + 16;
+	}
+
+	private static int writeSequence(byte[] dst, int dp, byte[] src, int literalsStart, int literals, int offset, int matchLength) {
+		dst[dp++] = (byte) (Math.min(literals, 15) << 4 | Math.min(matchLength, 15));
+		dp = writeLength(dst, dp, literals);
+		System.arraycopy(src, literalsStart, dst, dp, literals);
+		dp += literals;
+
+		dst[dp++] = (byte) offset;
+		dst[dp++] = (byte) (offset >>> 8);
+
+		return writeLength(dst, dp, matchLength);
+	}
+
+	private static int writeLength(byte[] dst, int dp, int length) {
+		if(length < 15) return dp;
+
+		length -= 15;
+		while(length >= 255) {
+			dst[dp++] = (byte) 255;
+			length -= 255;
+		}
+		dst[dp++] = (byte) length;
+
+		return dp;
+	}
+
+	private static int readInt(byte[] src, int index) {
+		return (src[index] & 0xFF) | (src[index + 1] & 0xFF) << 8 | (src[index + 2] & 0xFF) << 16 | (src[index + 3] & 0xFF) << 24;
+	}
+
+	private static int hash(int value) {
+		return (value * -1640531535) >>> (Integer.SIZE - HASH_LOG);
+	}
+
+	private static void writeInt(OutputStream out, int value) throws IOException {
+		out.write(new byte[] {(byte)(value >>> 24), (byte)(value >>> 16), (byte)(value >>> 8), (byte)value});
+	}
+
+	/**
+	 * Stream compressing each chunk once it is full.
+	 */
+	private static final class Lz4OutputStream extends OutputStream {
+
+		private final OutputStream out;
+		private final byte[] chunk = new byte[CHUNK_SIZE];
+		private final byte[] compressed = new byte[maxCompressedLength(CHUNK_SIZE)];
+		private final int[] table = new int[1 << HASH_LOG];
+
+		private int position;
+		private boolean closed;
+
+		private Lz4OutputStream(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if(this.position == this.chunk.length) flushChunk();
+			this.chunk[this.position++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			while(len > 0) {
+				if(this.position == this.chunk.length) flushChunk();
+
+				final int count = Math.min(len, this.chunk.length - this.position);
+				System.arraycopy(b, off, this.chunk, this.position, count);
+				this.position += count;
+				off += count;
+				len -= count;
+			}
+		}
+
+		private void flushChunk() throws IOException {
+			if(this.position == 0) return;
+
+			final int length = compressBlock(this.chunk, this.position, this.compressed, this.table);
+			writeInt(this.out, this.position);
+			if(length < this.position) {
+				writeInt(this.out, length);
+				this.out.write(this.compressed, 0, length);
+			}else {
+				writeInt(this.out, this.position | STORED);
+				this.out.write(this.chunk, 0, this.position);
+			}
+			this.position = 0;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			flushChunk();
+			this.out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if(this.closed) return;
+			this.closed = true;
+
+			try {
+				flushChunk();
+				writeInt(this.out, 0);
+				this.out.flush();
+			}finally {
+				this.out.close();
+			}
+		}
+	}
+
+	/**
+	 * Stream decompressing one chunk at a time.
+	 */
+	private static final class Lz4InputStream extends InputStream {
+
+		private final InputStream in;
+		private final byte[] chunk = new byte[CHUNK_SIZE];
+		private final byte[] compressed = new byte[maxCompressedLength(CHUNK_SIZE)];
+		private final byte[] header = new byte[2 * Integer.BYTES];
+
+		private int position;
+		private int limit;
+		private boolean finished;
+
+		private Lz4InputStream(InputStream in) {
+			this.in = in;
+		}
+
+		private boolean next() throws IOException {
+			while(this.position == this.limit) {
+				if(this.finished) return false;
+
+				if(this.in.readNBytes(this.header, 0, Integer.BYTES) != Integer.BYTES) throw new EOFException("Truncated LZ4 stream");
+				final int length = readHeader(0);
+				if(length == 0) {
+					this.finished = true;
+					return false;
+				}
+
+				if(this.in.readNBytes(this.header, Integer.BYTES, Integer.BYTES) != Integer.BYTES) throw new EOFException("Truncated LZ4 stream");
+				final int stored = readHeader(Integer.BYTES);
+				final int storedLength = stored & ~STORED;
+				if(length < 0 || length > CHUNK_SIZE || storedLength > this.compressed.length) throw new IOException("Invalid LZ4 chunk length "+length);
+
+				if((stored & STORED) != 0) {
+					if(storedLength != length) throw new IOException("Invalid length for an uncompressed LZ4 chunk");
+					if(this.in.readNBytes(this.chunk, 0, length) != length) throw new EOFException("Truncated LZ4 chunk");
+				}else {
+					if(this.in.readNBytes(this.compressed, 0, storedLength) != storedLength) throw new EOFException("Truncated LZ4 chunk");
+					decompressBlock(this.compressed, storedLength, this.chunk, length);
+				}
+				this.position = 0;
+				this.limit = length;
+			}
+
+			return true;
+		}
+
+		private int readHeader(int offset) {
+			return ((this.header[offset] & 0xFF) << 24) | ((this.header[offset + 1] & 0xFF) << 16) | ((this.header[offset + 2] & 0xFF) << 8) | (this.header[offset + 3] & 0xFF);
+		}
+
+		@Override
+		public int read() throws IOException {
+			return next() ? this.chunk[this.position++] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			if(len == 0) return 0;
+			if(!next()) return -1;
+
+			final int count = Math.min(len, this.limit - this.position);
+			System.arraycopy(this.chunk, this.position, b, off, count);
+			this.position += count;
+
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return this.limit - this.position;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.in.close();
+		}
+	}
+}
@@ -1,12 +1,15 @@
 package marshmalliow.core.binary.data;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import marshmalliow.core.binary.registry.DataTypeRegistry;
 import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
 import marshmalliow.core.io.BinaryReader;
 import marshmalliow.core.io.BinaryWriter;
 
@@ -44,6 +47,12 @@ public abstract class DataType<T> implements RegisteredDataType {
 	protected Optional<String> name;
 	protected T value;
 	protected final AtomicBoolean isModified = new AtomicBoolean(false);
+	
+	/**
+	 * The bytes of the value if it hasn't been decoded yet
+	 */
+	private volatile LazySource lazySource;
+	private final Object lazyLock = new Object();
 
 	/**
 	 * Constructor that initializes the data type with a name and a value
@@ -84,6 +93,15 @@ public abstract class DataType<T> implements RegisteredDataType {
 	 * @throws IOException
 	 */
 	public void write(BinaryWriter writer, DataTypeRegistry registry, Charset charset) throws IOException {
+		final LazySource source = this.lazySource;
+		if(source != null && source.isCompatible(charset, writer.getFeatures(), writer.getKeyTable() == null ? null : writer.getKeyTable().getBase())) {
+			// The value has never been accessed, its bytes are unchanged
+			source.copyTo(writer);
+			this.isModified.set(false);
+			return;
+		}
+		
+		ensureLoaded();
 		this.isModified.set(false);
 		writeValue(writer, registry, charset);
 	}
@@ -96,8 +114,94 @@ public abstract class DataType<T> implements RegisteredDataType {
 	 * @throws IOException
 	 */
 	public void read(BinaryReader reader, DataTypeRegistry registry, Charset charset) throws IOException {
-		this.isModified.set(false);
 		readValue(reader, registry, charset);
+		this.isModified.set(false);
+	}
+	
+	/**
+	 * Add the keys used by the data type and its content to the table of the file being written.
+	 * <p>
+	 * Values which haven't been accessed and will be copied as is are skipped, their keys are already in the base table.
+	 * 
+	 * @param keys The builder of the key table
+	 * @param charset The charset of the written file
+	 * @param features The features of the written file
+	 * @see FormatFeature#KEY_TABLE
+	 */
+	public void collectKeys(KeyTable.Builder keys, Charset charset, Set<FormatFeature> features) {
+		final LazySource source = this.lazySource;
+		if(source != null && source.isCompatible(charset, features, keys.getBase())) return;
+		
+		ensureLoaded();
+		collectValueKeys(keys, charset, features);
+	}
+	
+	/**
+	 * Add the keys used by the value to the table of the file being written.
+	 * <p>
+	 * Containers must override this method to add the keys they write and call {@link #collectKeys(KeyTable.Builder, Charset, Set)}
+	 * on their content. Does nothing by default.
+	 * 
+	 * @param keys The builder of the key table
+	 * @param charset The charset of the written file
+	 * @param features The features of the written file
+	 */
+	protected void collectValueKeys(KeyTable.Builder keys, Charset charset, Set<FormatFeature> features) { }
+	
+	/**
+	 * Defer the decoding of the value until its first access.<br/>
+	 * Until then, the value is written back by copying its bytes.
+	 * 
+	 * @param source The bytes of the value
+	 */
+	public void setLazySource(LazySource source) {
+		this.lazySource = source;
+		this.isModified.set(false);
+	}
+	
+	/**
+	 * Tell if the value has been decoded.
+	 * @return false if the value is still waiting for its first access
+	 */
+	public boolean isLoaded() {
+		return this.lazySource == null;
+	}
+	
+	/**
+	 * Decode the value if it is lazily loaded and hasn't been accessed yet.<br/>
+	 * Every method accessing the value of a data type which can be lazily loaded must call this method first.
+	 * 
+	 * @throws UncheckedIOException If the value cannot be decoded
+	 */
+	protected final void ensureLoaded() {
+		if(this.lazySource == null) return;
+		
+		synchronized (lazyLock) {
+			final LazySource source = this.lazySource;
+			if(source == null) return;
+			
+			try {
+				readLazily(source);
+			}catch(IOException e) {
+				throw new UncheckedIOException("Cannot load the value of "+this.name.orElse("root"), e);
+			}
+			
+			this.lazySource = null;
+			this.isModified.set(false);
+		}
+	}
+	
+	/**
+	 * Decode the value from its lazy source.
+	 * <p>
+	 * By default, the whole value is decoded. Containers can override this method to only decode a part of it.
+	 * Implementations must publish the value with {@link #setValue(Object)} once it is complete.
+	 * 
+	 * @param source The bytes of the value
+	 * @throws IOException If an I/O error occurs
+	 */
+	protected void readLazily(LazySource source) throws IOException {
+		source.read(this);
 	}
 	
 	/**
@@ -139,6 +243,7 @@ public abstract class DataType<T> implements RegisteredDataType {
 	public final void setValue(T value) {
 		this.isModified.set(true);
 		this.value = value;
+		this.lazySource = null;
 	}
 
 	/**
@@ -158,6 +263,7 @@ public abstract class DataType<T> implements RegisteredDataType {
 	 * @return The value contained
 	 */
 	public T getValue() {
+		ensureLoaded();
 		return value;
 	}
 
@@ -216,7 +322,11 @@ public abstract class DataType<T> implements RegisteredDataType {
 	@Override
 	public boolean equals(Object obj) {
 		if(this == obj) return true;
-		return obj instanceof DataType<?> && areEquals((DataType<?>)obj);
+		if(!(obj instanceof DataType<?>)) return false;
+		
+		ensureLoaded();
+		((DataType<?>)obj).ensureLoaded();
+		return areEquals((DataType<?>)obj);
 	}
 
 	private final boolean areEquals(DataType<?> obj) {
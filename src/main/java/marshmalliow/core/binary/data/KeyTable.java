@@ -0,0 +1,156 @@
+package marshmalliow.core.binary.data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.io.BinaryReader;
+import marshmalliow.core.io.BinaryWriter;
+
+/**
+ * Table of the keys of a MOBF file, written just after the header of the files using the {@link FormatFeature#KEY_TABLE} feature.
+ * <p>
+ * The keys of the objects and the names of the list elements are written as their index in the table,
+ * so a key shared by many objects is only stored once. The keys read from a table are interned and
+ * the same instance is used by every data type of the file.<br/>
+ * The table is organized as follows:
+ * <ul>
+ * <li>The number of keys (length)</li>
+ * <li>Every key (string)</li>
+ * </ul>
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public final class KeyTable {
+
+	private final List<String> keys;
+	private final Map<String, Integer> indices;
+	private final KeyTable base;
+
+	private KeyTable(List<String> keys, KeyTable base) {
+		this.keys = Collections.unmodifiableList(keys);
+		this.indices = new HashMap<>(keys.size() * 2);
+		this.base = base;
+
+		for(int i = 0; i < keys.size(); i++) this.indices.putIfAbsent(keys.get(i), i);
+	}
+
+	/**
+	 * Read the table from the reader, positioned just after the header.
+	 * @param reader The reader to read the table from
+	 * @param charset The charset used to read the keys
+	 * @return the table
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static KeyTable read(BinaryReader reader, Charset charset) throws IOException {
+		final int count = reader.readLength();
+
+		final List<String> keys = new ArrayList<>(Math.min(count, 1024));
+		for(int i = 0; i < count; i++) keys.add(reader.readUTF(charset).intern());
+
+		return new KeyTable(keys, null);
+	}
+
+	/**
+	 * Write the table.
+	 * @param writer The writer to write the table to
+	 * @param charset The charset used to write the keys
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void write(BinaryWriter writer, Charset charset) throws IOException {
+		writer.writeLength(this.keys.size());
+		for(String key : this.keys) writer.writeUTF(key, charset);
+	}
+
+	/**
+	 * Get the key stored at the given index.
+	 * @param index The index of the key
+	 * @return the key or <code>null</code> if the index is out of the table
+	 */
+	public String get(int index) {
+		return index >= 0 && index < this.keys.size() ? this.keys.get(index) : null;
+	}
+
+	/**
+	 * Get the index of the given key.
+	 * @param key The key
+	 * @return the index or -1 if the key isn't in the table
+	 */
+	public int indexOf(String key) {
+		final Integer index = this.indices.get(key);
+
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Get the table this table was built upon.<br/>
+	 * The keys of the base table keep the same index in this table.
+	 * @return the base table or <code>null</code>
+	 * @see Builder#Builder(KeyTable)
+	 */
+	public KeyTable getBase() {
+		return base;
+	}
+
+	public int size() {
+		return this.keys.size();
+	}
+
+	@Override
+	public String toString() {
+		return "KeyTable"+this.keys;
+	}
+
+	/**
+	 * Builder collecting the keys of a file before it is written.
+	 * @author 278deco
+	 * @version 1.0.0
+	 * @since 0.3.5
+	 */
+	public static final class Builder {
+
+		private final List<String> keys = new ArrayList<>();
+		private final Map<String, Integer> indices = new HashMap<>();
+		private final KeyTable base;
+
+		public Builder() {
+			this(null);
+		}
+
+		/**
+		 * Create a builder starting with every key of the given table, at the same index.<br/>
+		 * Values lazily loaded from a file using the base table can then be copied without being decoded.
+		 * @param base The table of the file being rewritten or <code>null</code>
+		 */
+		public Builder(KeyTable base) {
+			this.base = base;
+			if(base != null) base.keys.forEach(this::add);
+		}
+
+		/**
+		 * Add a key to the table if it isn't already present.
+		 * @param key The key
+		 */
+		public void add(String key) {
+			if(this.indices.putIfAbsent(key, this.keys.size()) == null) this.keys.add(key);
+		}
+
+		public KeyTable getBase() {
+			return base;
+		}
+
+		/**
+		 * Build the table.
+		 * @return a new table
+		 */
+		public KeyTable build() {
+			return new KeyTable(new ArrayList<>(this.keys), this.base);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package marshmalliow.core.binary.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.io.BinaryWriter;
+import marshmalliow.core.io.ByteBufferBinaryReader;
+
+/**
+ * Byte range of a {@link DataType} which hasn't been decoded yet.<br/>
+ * A data type holding a source is decoded on its first access. If it is never accessed,
+ * its bytes are copied as is when it is written.
+ * <p>
+ * The source keeps a reference to the whole content of the file (usually a mapped buffer)
+ * and, if the file is indexed, to its {@link MOBFFileIndex} so nested objects can be loaded lazily too.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ * @see DataType#setLazySource(LazySource)
+ */
+public final class LazySource {
+
+	private static final int COPY_CHUNK_SIZE = 8192;
+
+	private final ByteBuffer content;
+	private final MOBFFileIndex index;
+	private final int entry;
+	private final long offset;
+	private final long length;
+	private final DataTypeRegistry registry;
+	private final Charset charset;
+	private final Set<FormatFeature> features;
+	private final KeyTable keyTable;
+
+	/**
+	 * Create a new source.
+	 * @param content The whole content of the file
+	 * @param index The index of the file or <code>null</code> if the file isn't indexed
+	 * @param entry The index entry of the value, {@link MOBFFileIndex#ROOT} for the root object
+	 * @param offset The offset of the value in the content
+	 * @param length The number of bytes used by the value
+	 * @param registry The registry used to decode the value
+	 * @param charset The charset used to decode the value
+	 * @param features The features of the file
+	 * @param keyTable The key table of the file or <code>null</code> if the file doesn't use one
+	 */
+	public LazySource(ByteBuffer content, MOBFFileIndex index, int entry, long offset, long length, DataTypeRegistry registry, Charset charset, 
+			Set<FormatFeature> features, KeyTable keyTable) {
+		if(offset < 0 || length < 0 || offset + length > content.limit()) throw new IllegalArgumentException("Invalid range ["+offset+", "+(offset+length)+"[");
+
+		this.content = content;
+		this.index = index;
+		this.entry = entry;
+		this.offset = offset;
+		this.length = length;
+		this.registry = registry;
+		this.charset = charset;
+		this.features = features;
+		this.keyTable = keyTable;
+	}
+
+	/**
+	 * Create the source of a value stored in the object of this source.
+	 * @param child The index entry of the value
+	 * @return a new source
+	 */
+	public LazySource child(MOBFFileIndex.Entry child) {
+		return new LazySource(this.content, this.index, child.getIndex(), child.getOffset(), child.getLength(), this.registry, this.charset, this.features, this.keyTable);
+	}
+
+	/**
+	 * Decode the value into the given data type.
+	 * @param target The data type receiving the value
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void read(DataType<?> target) throws IOException {
+		final ByteBufferBinaryReader reader = new ByteBufferBinaryReader(this.content);
+		reader.setFeatures(this.features);
+		reader.setKeyTable(this.keyTable);
+		reader.seek(this.offset);
+
+		target.read(reader, this.registry, this.charset);
+		if(reader.getPosition() != this.offset + this.length) {
+			throw new IOException("Decoded "+(reader.getPosition() - this.offset)+" bytes instead of "+this.length+" for "+target.getName().orElse("root"));
+		}
+	}
+
+	/**
+	 * Check if the bytes of the value can be copied to a file using the given charset and features.
+	 * @param charset The charset of the written file
+	 * @param features The features of the written file
+	 * @param baseTable The table the key table of the written file starts with, or <code>null</code>
+	 * @return true if the value would be encoded the same way
+	 * @see KeyTable#getBase()
+	 */
+	public boolean isCompatible(Charset charset, Set<FormatFeature> features, KeyTable baseTable) {
+		if(this.charset != charset || FormatFeature.encodingFlags(this.features) != FormatFeature.encodingFlags(features)) return false;
+		
+		// Keys are written as indices, they must point to the same keys in the written file
+		return !features.contains(FormatFeature.KEY_TABLE) || (this.keyTable != null && this.keyTable == baseTable);
+	}
+
+	/**
+	 * Copy the bytes of the value to the writer.<br/>
+	 * If the writer collects an index, the nested keys of the value are added to it.
+	 * @param writer The writer to write the bytes to
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void copyTo(BinaryWriter writer) throws IOException {
+		final long shift = writer.size() - this.offset;
+		final ByteBuffer range = this.content.duplicate();
+		range.position((int) this.offset).limit((int) (this.offset + this.length));
+
+		final byte[] chunk = new byte[(int) Math.min(COPY_CHUNK_SIZE, this.length)];
+		while(range.hasRemaining()) {
+			final int count = Math.min(chunk.length, range.remaining());
+			range.get(chunk, 0, count);
+			writer.write(chunk, 0, count);
+		}
+
+		if(writer.getIndexBuilder() != null && this.index != null) writer.getIndexBuilder().copy(this.index, this.entry, shift);
+	}
+
+	public MOBFFileIndex getIndex() {
+		return index;
+	}
+
+	public int getEntry() {
+		return entry;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public DataTypeRegistry getRegistry() {
+		return registry;
+	}
+
+	public Charset getCharset() {
+		return charset;
+	}
+
+	public Set<FormatFeature> getFeatures() {
+		return features;
+	}
+
+	public KeyTable getKeyTable() {
+		return keyTable;
+	}
+}
@@ -0,0 +1,340 @@
+package marshmalliow.core.binary.data;
+
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32C;
+
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.exceptions.ChecksumException;
+import marshmalliow.core.io.BinaryWriter;
+
+/**
+ * Checksums of the sections of a MOBF file, written at the end of the files using the {@link FormatFeature#CHECKSUM} feature.
+ * <p>
+ * The uncompressed content of the file is split in the sections listed by {@link Section}, each one checked with a CRC32C checksum.
+ * The trailer holds the length (long) and the checksum (int) of every section in order, followed by the checksum of the trailer
+ * itself (int). It is always the last {@link #TRAILER_SIZE} bytes of the file, the index footer is found just before it.
+ * <p>
+ * The sections are verified on the mapped or decompressed content, independently of its parsing, or read from the file
+ * when it is too large to be mapped. {@link marshmalliow.core.binary.MOBFFile#readFile()} verifies them while parsing the
+ * content, except for the files compressed as a single stream which are only verified by {@link marshmalliow.core.binary.MOBFFile#verify()}.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public final class MOBFChecksums {
+
+	/**
+	 * Sections of a MOBF file, in the order they are written
+	 */
+	public enum Section {
+
+		/**
+		 * The header of the file
+		 */
+		HEADER,
+
+		/**
+		 * The key table, empty if the file doesn't use the {@link FormatFeature#KEY_TABLE} feature
+		 */
+		KEY_TABLE,
+
+		/**
+		 * The root object
+		 */
+		CONTENT,
+
+		/**
+		 * The index and its footer, empty if the file doesn't use the {@link FormatFeature#INDEXED} feature
+		 */
+		INDEX;
+	}
+
+	private static final Section[] SECTIONS = Section.values();
+	private static final int CHANNEL_BUFFER_SIZE = 1 << 20;
+
+	/**
+	 * Size of the trailer holding the checksums
+	 */
+	public static final int TRAILER_SIZE = SECTIONS.length * (Long.BYTES + Integer.BYTES) + Integer.BYTES;
+
+	private final long[] offsets;
+	private final long[] lengths;
+	private final int[] checksums;
+
+	private MOBFChecksums(long[] lengths, int[] checksums) {
+		this.offsets = new long[lengths.length];
+		this.lengths = lengths;
+		this.checksums = checksums;
+
+		for(int i = 1; i < lengths.length; i++) this.offsets[i] = this.offsets[i - 1] + lengths[i - 1];
+	}
+
+	/**
+	 * Read the trailer at the end of the content.
+	 * @param content The whole uncompressed content of the file
+	 * @return the checksums
+	 * @throws ChecksumException If the trailer is corrupted, every section is reported as it cannot be verified
+	 */
+	public static MOBFChecksums read(ByteBuffer content) throws ChecksumException {
+		if(content.limit() < TRAILER_SIZE) throw new ChecksumException("Missing checksums trailer, cannot verify", EnumSet.allOf(Section.class));
+
+		return read(content.slice(content.limit() - TRAILER_SIZE, TRAILER_SIZE), content.limit() - TRAILER_SIZE);
+	}
+
+	/**
+	 * Read the trailer at the end of an uncompressed file, without mapping it.
+	 * @param channel The channel of the file
+	 * @return the checksums
+	 * @throws ChecksumException If the trailer is corrupted, every section is reported as it cannot be verified
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static MOBFChecksums read(FileChannel channel) throws IOException {
+		final long size = channel.size();
+		if(size < TRAILER_SIZE) throw new ChecksumException("Missing checksums trailer, cannot verify", EnumSet.allOf(Section.class));
+
+		final ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+		while(trailer.hasRemaining()) {
+			if(channel.read(trailer, size - TRAILER_SIZE + trailer.position()) < 0) throw new EOFException("Truncated checksums trailer");
+		}
+
+		return read(trailer.flip(), size - TRAILER_SIZE);
+	}
+
+	/**
+	 * Read a trailer.
+	 * @param trailer The {@link #TRAILER_SIZE} bytes of the trailer
+	 * @param start The position of the trailer in the uncompressed content, where the last section ends
+	 * @return the checksums
+	 * @throws ChecksumException If the trailer is corrupted, every section is reported as it cannot be verified
+	 */
+	public static MOBFChecksums read(ByteBuffer trailer, long start) throws ChecksumException {
+		final ByteBuffer buffer = trailer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		if(buffer.remaining() != TRAILER_SIZE) throw new ChecksumException("Missing checksums trailer, cannot verify", EnumSet.allOf(Section.class));
+
+		final CRC32C checksum = new CRC32C();
+		checksum.update(buffer.slice(buffer.position(), TRAILER_SIZE - Integer.BYTES));
+		if((int) checksum.getValue() != buffer.getInt(buffer.position() + TRAILER_SIZE - Integer.BYTES)) {
+			throw new ChecksumException("Corrupted checksums trailer, cannot verify", EnumSet.allOf(Section.class));
+		}
+
+		final long[] lengths = new long[SECTIONS.length];
+		final int[] checksums = new int[SECTIONS.length];
+		long size = 0;
+		for(int i = 0; i < SECTIONS.length; i++) {
+			lengths[i] = buffer.getLong();
+			checksums[i] = buffer.getInt();
+			if(lengths[i] < 0) throw new ChecksumException("Invalid length in the checksums trailer, cannot verify", EnumSet.allOf(Section.class));
+			size += lengths[i];
+		}
+		if(size != start) throw new ChecksumException("The sections don't end at the checksums trailer, cannot verify", EnumSet.allOf(Section.class));
+
+		return new MOBFChecksums(lengths, checksums);
+	}
+
+	/**
+	 * Write the trailer.
+	 * @param writer The writer positioned at the end of the last section
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void write(BinaryWriter writer) throws IOException {
+		final ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE - Integer.BYTES);
+		for(int i = 0; i < SECTIONS.length; i++) trailer.putLong(this.lengths[i]).putInt(this.checksums[i]);
+
+		final CRC32C checksum = new CRC32C();
+		checksum.update(trailer.array());
+
+		writer.write(trailer.array(), 0, trailer.capacity());
+		writer.writeInt((int) checksum.getValue());
+	}
+
+	/**
+	 * Compute the checksums of the sections and compare them with the trailer.
+	 * @param content The whole uncompressed content of the file
+	 * @return the sections which don't match their checksums, empty if the content is intact
+	 */
+	public Set<Section> verify(ByteBuffer content) {
+		return verify(content, EnumSet.allOf(Section.class));
+	}
+
+	/**
+	 * Compute the checksums of some sections and compare them with the trailer.
+	 * @param content The whole uncompressed content of the file
+	 * @param sections The sections to verify
+	 * @return the verified sections which don't match their checksums, empty if they are intact
+	 */
+	public Set<Section> verify(ByteBuffer content, Set<Section> sections) {
+		final Set<Section> corrupted = EnumSet.noneOf(Section.class);
+		final CRC32C checksum = new CRC32C();
+		for(Section section : sections) {
+			checksum.reset();
+			checksum.update(content.slice((int) getOffset(section), (int) getLength(section)));
+			if((int) checksum.getValue() != getChecksum(section)) corrupted.add(section);
+		}
+
+		return corrupted;
+	}
+
+	/**
+	 * Compute the checksums of some sections of an uncompressed file, reading them from its channel.<br/>
+	 * Only positional reads are used, the channel can be read by another thread at the same time.
+	 * @param channel The channel of the file
+	 * @param sections The sections to verify
+	 * @return the verified sections which don't match their checksums, empty if they are intact
+	 * @throws IOException If an I/O error occurs
+	 */
+	public Set<Section> verify(FileChannel channel, Set<Section> sections) throws IOException {
+		final Set<Section> corrupted = EnumSet.noneOf(Section.class);
+		final CRC32C checksum = new CRC32C();
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE);
+		for(Section section : sections) {
+			checksum.reset();
+			long position = getOffset(section);
+			final long end = position + getLength(section);
+			while(position < end) {
+				buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+				final int count = channel.read(buffer, position);
+				if(count < 0) throw new EOFException("The section "+section+" ends after the end of the file");
+
+				checksum.update(buffer.flip());
+				position += count;
+			}
+			if((int) checksum.getValue() != getChecksum(section)) corrupted.add(section);
+		}
+
+		return corrupted;
+	}
+
+	/**
+	 * Read the trailer and verify some sections on another thread.
+	 * @param content The whole uncompressed content of the file
+	 * @param sections The sections to verify
+	 * @param executor The executor running the verification
+	 * @return the sections which don't match their checksums, every section if the trailer itself is corrupted
+	 */
+	public static CompletableFuture<Set<Section>> verifyAsync(ByteBuffer content, Set<Section> sections, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return read(content).verify(content, sections);
+			}catch(ChecksumException e) {
+				return e.getSections();
+			}
+		}, executor);
+	}
+
+	/**
+	 * Read the trailer and verify some sections of an uncompressed file on another thread.
+	 * @param channel The channel of the file, which must stay open until the verification completes
+	 * @param sections The sections to verify
+	 * @param executor The executor running the verification
+	 * @return the sections which don't match their checksums, every section if the trailer itself is corrupted.
+	 * Completes with an {@link UncheckedIOException} if the file cannot be read
+	 */
+	public static CompletableFuture<Set<Section>> verifyAsync(FileChannel channel, Set<Section> sections, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return read(channel).verify(channel, sections);
+			}catch(ChecksumException e) {
+				return e.getSections();
+			}catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Get the sections overlapping a range of the uncompressed content.
+	 * @param position The start of the range
+	 * @param length The length of the range
+	 * @return the sections holding at least one byte of the range
+	 */
+	public Set<Section> getSections(long position, long length) {
+		final Set<Section> result = EnumSet.noneOf(Section.class);
+		for(Section section : SECTIONS) {
+			if(getLength(section) > 0 && position < getOffset(section) + getLength(section) && getOffset(section) < position + length) result.add(section);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Get the end of the last section, where the trailer begins if the file uses the {@link FormatFeature#CHECKSUM} feature.
+	 * @param header The header of the file
+	 * @param size The size of the uncompressed content
+	 * @return the end of the sections
+	 */
+	public static long end(MOBFFileHeader header, long size) {
+		return header.hasFeature(FormatFeature.CHECKSUM) ? size - TRAILER_SIZE : size;
+	}
+
+	public long getOffset(Section section) {
+		return offsets[section.ordinal()];
+	}
+
+	public long getLength(Section section) {
+		return lengths[section.ordinal()];
+	}
+
+	public int getChecksum(Section section) {
+		return checksums[section.ordinal()];
+	}
+
+	/**
+	 * Stream computing the checksums of the sections written through it.<br/>
+	 * Each section is ended by {@link #next()}, once the writer writing to the stream is flushed.
+	 */
+	public static final class Builder extends FilterOutputStream {
+
+		private final CRC32C checksum = new CRC32C();
+		private final long[] lengths = new long[SECTIONS.length];
+		private final int[] checksums = new int[SECTIONS.length];
+		private long length;
+		private int section;
+
+		public Builder(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.out.write(b);
+			this.checksum.update(b);
+			this.length++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.out.write(b, off, len);
+			this.checksum.update(b, off, len);
+			this.length += len;
+		}
+
+		/**
+		 * End the current section, empty if nothing has been written since the previous one.
+		 */
+		public void next() {
+			if(this.section == SECTIONS.length) throw new IllegalStateException("Every section has already been written");
+
+			this.lengths[this.section] = this.length;
+			this.checksums[this.section++] = (int) this.checksum.getValue();
+			this.checksum.reset();
+			this.length = 0;
+		}
+
+		public MOBFChecksums build() {
+			if(this.section != SECTIONS.length) throw new IllegalStateException("The section "+SECTIONS[this.section]+" hasn't been ended");
+
+			return new MOBFChecksums(this.lengths.clone(), this.checksums.clone());
+		}
+	}
+}
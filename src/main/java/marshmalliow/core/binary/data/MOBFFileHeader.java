@@ -2,12 +2,23 @@ package marshmalliow.core.binary.data;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
 import marshmalliow.core.exceptions.MalformedHeaderException;
 import marshmalliow.core.io.BinaryReader;
 import marshmalliow.core.io.BinaryWriter;
 
+/**
+ * Header of a MOBF file.<br/>
+ * The header is 8 bytes long: the signature, the encoding charset, the version of the format
+ * and, since the version 2, the flags of the {@link FormatFeature} used by the file.
+ * @author 278deco
+ * @version 1.1.0
+ */
 public class MOBFFileHeader {
 
 	/**
@@ -16,11 +27,22 @@ public class MOBFFileHeader {
 	 */
 	private static final byte[] MOBF_FILE_SIGNATURE = {0x53, 0x54, 0x50, 0x43};
 	
-	public static final MOBFFileHeader DEFAULT_HEADER = new MOBFFileHeader(Charset.UTF8, 1);
+	/**
+	 * First version of the format, without any feature
+	 */
+	public static final int VERSION_1 = 1;
+	
+	/**
+	 * Version of the format supporting the {@link FormatFeature} flags
+	 */
+	public static final int VERSION_2 = 2;
+	
+	public static final MOBFFileHeader DEFAULT_HEADER = new MOBFFileHeader(Charset.UTF8, VERSION_1);
 	
 	private byte[] signature = new byte[4];
 	private Charset encodingCharset;
 	private int version; //unsigned byte
+	private Set<FormatFeature> features; //unsigned short
 
 	/**
 	 * Given a {@link BinaryReader}, reads and ensure the validity of the header
@@ -28,7 +50,7 @@ public class MOBFFileHeader {
 	 * @throws IOException
 	 */
 	public MOBFFileHeader(BinaryReader reader) throws IOException {
-		reader.read(signature, 0, 4);
+		reader.readFully(signature, 0, 4);
 		if(!Arrays.equals(signature, MOBF_FILE_SIGNATURE))
 			throw new MalformedHeaderException("Incorrect header signature", MOBF_FILE_SIGNATURE, this.signature);
 		
@@ -39,9 +61,16 @@ public class MOBFFileHeader {
 			throw new MalformedHeaderException("Incorrect encoding charset byte", 4, new byte[]{0x00, 0x01}, encoding);
 
 		this.version = reader.readUnsignedByte();
+		if(this.version > VERSION_2)
+			throw new MalformedHeaderException("Unsupported format version", 5, (byte)VERSION_2, (byte)this.version);
 
-		if((reader.readByte() | reader.readByte()) != 0)
+		final int flags = reader.readUnsignedShort();
+		if(this.version < VERSION_2 && flags != 0)
 			throw new MalformedHeaderException("Incorrect header ending");
+		if((flags & ~FormatFeature.knownFlags()) != 0)
+			throw new MalformedHeaderException("Unsupported format features 0x"+Integer.toHexString(flags & ~FormatFeature.knownFlags()));
+		
+		this.features = Collections.unmodifiableSet(FormatFeature.of(flags));
 	}
 
 	/**
@@ -50,9 +79,35 @@ public class MOBFFileHeader {
 	 * @param version The version of the MOBF File Format
 	 */
 	public MOBFFileHeader(Charset encoding, int version) {
+		this(encoding, version, EnumSet.noneOf(FormatFeature.class));
+	}
+	
+	/**
+	 * Creates a new MOBF File Header with the given encoding charset, version and features
+	 * @param encoding The encoding charset used
+	 * @param version The version of the MOBF File Format
+	 * @param features The features used by the file, requires the version 2 if not empty
+	 */
+	public MOBFFileHeader(Charset encoding, int version, Set<FormatFeature> features) {
+		if(version < VERSION_2 && !features.isEmpty()) throw new IllegalArgumentException("Format features require the version "+VERSION_2);
+		
 		System.arraycopy(MOBF_FILE_SIGNATURE, 0, this.signature, 0, 4);
 		this.encodingCharset = encoding;
 		this.version = version;
+		this.features = Collections.unmodifiableSet(features.isEmpty() ? EnumSet.noneOf(FormatFeature.class) : EnumSet.copyOf(features));
+	}
+	
+	/**
+	 * Creates a new MOBF File Header using the version 2 of the format and the given features
+	 * @param encoding The encoding charset used
+	 * @param features The features used by the file
+	 * @return a new header
+	 */
+	public static MOBFFileHeader withFeatures(Charset encoding, FormatFeature... features) {
+		final Set<FormatFeature> set = EnumSet.noneOf(FormatFeature.class);
+		Collections.addAll(set, features);
+		
+		return new MOBFFileHeader(encoding, VERSION_2, set);
 	}
 
 	/**
@@ -67,7 +122,7 @@ public class MOBFFileHeader {
 
 		writer.writeUnsignedByte(this.version);
 
-		writer.write(new byte[] {0x00, 0x00}, 0, 2);
+		writer.writeUnsignedShort(FormatFeature.toFlags(this.features));
 	}
 
 	public byte[] getSignature() {
@@ -81,4 +136,17 @@ public class MOBFFileHeader {
 	public int getVersion() {
 		return version;
 	}
+	
+	public Set<FormatFeature> getFeatures() {
+		return features;
+	}
+	
+	/**
+	 * Check if the file uses the given feature
+	 * @param feature The feature to check
+	 * @return true if the feature is enabled
+	 */
+	public boolean hasFeature(FormatFeature feature) {
+		return this.features.contains(feature);
+	}
 }
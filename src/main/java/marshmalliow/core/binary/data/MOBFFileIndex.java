@@ -0,0 +1,307 @@
+package marshmalliow.core.binary.data;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.io.BinaryReader;
+import marshmalliow.core.io.BinaryWriter;
+
+/**
+ * Index of the keys of a MOBF file, written at the end of the files using the {@link FormatFeature#INDEXED} feature.
+ * <p>
+ * Every key of the root object and of the nested objects is stored with the offset and the length of its value.
+ * Keys of objects contained in a list or an array are not indexed.<br/>
+ * The footer of the file is organized as follows:
+ * <ul>
+ * <li>The number of entries (int)</li>
+ * <li>For each entry: the index of its parent entry (int, {@link #ROOT} for the root object), its name (string),
+ * the id of its data type (byte), the offset of its value (long) and the length of its value (long)</li>
+ * <li>The offset of the beginning of the index (long), always the last 8 bytes of the file</li>
+ * </ul>
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public final class MOBFFileIndex {
+
+	/**
+	 * Index of the parent of the entries stored in the root object
+	 */
+	public static final int ROOT = -1;
+
+	/**
+	 * Size of the footer pointing to the beginning of the index
+	 */
+	public static final int FOOTER_SIZE = Long.BYTES;
+
+	private final List<Entry> entries;
+	private final Map<Integer, Map<String, Entry>> children;
+
+	private MOBFFileIndex(List<Entry> entries) {
+		this.entries = Collections.unmodifiableList(entries);
+		this.children = new HashMap<>();
+
+		for(Entry entry : entries) {
+			this.children.computeIfAbsent(entry.parent, parent -> new HashMap<>()).put(entry.name, entry);
+		}
+	}
+
+	/**
+	 * Read the index from the reader, positioned at the beginning of the index.
+	 * @param reader The reader to read the index from
+	 * @param charset The charset used to read the names
+	 * @return the index
+	 * @throws IOException If an I/O error occurs or if the index is malformed
+	 */
+	public static MOBFFileIndex read(BinaryReader reader, Charset charset) throws IOException {
+		final int count = reader.readInt();
+		if(count < 0) throw new IOException("Malformed MOBF index, negative entries count "+count);
+
+		final List<Entry> entries = new ArrayList<>(Math.min(count, 1024));
+		for(int i = 0; i < count; i++) {
+			final int parent = reader.readInt();
+			if(parent < ROOT || parent >= i) throw new IOException("Malformed MOBF index, entry "+i+" has an invalid parent "+parent);
+
+			final String name = reader.readUTF(charset);
+			entries.add(new Entry(i, parent, name, reader.readByte(), reader.readLong(), reader.readLong()));
+		}
+
+		return new MOBFFileIndex(entries);
+	}
+
+	/**
+	 * Write the index followed by its offset.
+	 * @param writer The writer to write the index to
+	 * @param charset The charset used to write the names
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void write(BinaryWriter writer, Charset charset) throws IOException {
+		final long offset = writer.size();
+
+		writer.writeInt(this.entries.size());
+		for(Entry entry : this.entries) {
+			writer.writeInt(entry.parent);
+			writer.writeUTF(entry.name, charset);
+			writer.writeByte(entry.type);
+			writer.writeLong(entry.offset);
+			writer.writeLong(entry.length);
+		}
+
+		writer.writeLong(offset);
+	}
+
+	/**
+	 * Find the entry corresponding to the given path of keys, starting from the root object.
+	 * @param path The keys leading to the value
+	 * @return the entry or <code>null</code> if the path isn't indexed
+	 */
+	public Entry find(String... path) {
+		Entry current = null;
+		for(String key : path) {
+			current = getChild(current == null ? ROOT : current.index, key);
+			if(current == null) return null;
+		}
+
+		return current;
+	}
+
+	/**
+	 * Get the entry of a key stored in an indexed object.
+	 * @param parent The index of the parent entry, or {@link #ROOT}
+	 * @param name The key
+	 * @return the entry or <code>null</code> if not found
+	 */
+	public Entry getChild(int parent, String name) {
+		final Map<String, Entry> keys = this.children.get(parent);
+
+		return keys == null ? null : keys.get(name);
+	}
+
+	/**
+	 * Get every entry stored in an indexed object, in the order they were written.
+	 * @param parent The index of the parent entry, or {@link #ROOT}
+	 * @return the entries
+	 */
+	public List<Entry> getChildren(int parent) {
+		final Map<String, Entry> keys = this.children.get(parent);
+		if(keys == null) return Collections.emptyList();
+
+		final List<Entry> result = new ArrayList<>(keys.values());
+		result.sort((first, second) -> Integer.compare(first.index, second.index));
+
+		return result;
+	}
+
+	public Entry get(int index) {
+		return this.entries.get(index);
+	}
+
+	public int size() {
+		return this.entries.size();
+	}
+
+	@Override
+	public String toString() {
+		return "MOBFFileIndex"+this.entries;
+	}
+
+	/**
+	 * An entry of the index.
+	 * @author 278deco
+	 * @version 1.0.0
+	 * @since 0.3.5
+	 */
+	public static final class Entry {
+
+		private final int index;
+		private final int parent;
+		private final String name;
+		private final byte type;
+		private final long offset;
+		private final long length;
+
+		private Entry(int index, int parent, String name, byte type, long offset, long length) {
+			this.index = index;
+			this.parent = parent;
+			this.name = name;
+			this.type = type;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public int getParent() {
+			return parent;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Get the id of the data type of the value
+		 * @return the data type id
+		 */
+		public byte getType() {
+			return type;
+		}
+
+		/**
+		 * Get the offset of the value in the file, just after its type and its name
+		 * @return the offset from the beginning of the file
+		 */
+		public long getOffset() {
+			return offset;
+		}
+
+		/**
+		 * Get the number of bytes used by the value
+		 * @return the length of the value
+		 */
+		public long getLength() {
+			return length;
+		}
+
+		@Override
+		public String toString() {
+			return "Entry[name:"+name+", parent:"+parent+", type:"+type+", offset:"+offset+", length:"+length+"]";
+		}
+	}
+
+	/**
+	 * Builder collecting the entries while a file is written.
+	 * <p>
+	 * Each value written in an object must be surrounded by a call to {@link #begin(String, byte, long)}
+	 * and {@link #end(int, long)}. Values which are not directly stored in an object are not recorded.
+	 * @author 278deco
+	 * @version 1.0.0
+	 * @since 0.3.5
+	 */
+	public static final class Builder {
+
+		private static final int NOT_INDEXED = -2;
+
+		private final List<Entry> entries = new ArrayList<>();
+		private final Deque<Integer> parents = new ArrayDeque<>();
+
+		public Builder() {
+			this.parents.push(ROOT);
+		}
+
+		/**
+		 * Start the value of a key.
+		 * @param name The key
+		 * @param type The id of the data type of the value
+		 * @param offset The offset of the beginning of the value
+		 * @return the index of the entry or a negative value if the key isn't indexed
+		 */
+		public int begin(String name, byte type, long offset) {
+			final int parent = this.parents.peek();
+			if(parent == NOT_INDEXED || (parent != ROOT && this.entries.get(parent).type != DataTypeEnum.OBJECT.getId())) {
+				this.parents.push(NOT_INDEXED);
+				return NOT_INDEXED;
+			}
+
+			final int index = this.entries.size();
+			this.entries.add(new Entry(index, parent, name, type, offset, -1));
+			this.parents.push(index);
+
+			return index;
+		}
+
+		/**
+		 * End the value of a key.
+		 * @param index The index returned by {@link #begin(String, byte, long)}
+		 * @param offset The offset of the end of the value
+		 */
+		public void end(int index, long offset) {
+			this.parents.pop();
+			if(index < 0) return;
+
+			final Entry entry = this.entries.get(index);
+			this.entries.set(index, new Entry(index, entry.parent, entry.name, entry.type, entry.offset, offset - entry.offset));
+		}
+
+		/**
+		 * Add the nested keys of a value copied from another file, under the value being written.
+		 * @param source The index of the file the value is copied from
+		 * @param sourceEntry The entry of the copied value in the source index, {@link #ROOT} for the root object
+		 * @param shift The difference between the offset of the value in the written file and in the source file
+		 */
+		public void copy(MOBFFileIndex source, int sourceEntry, long shift) {
+			final int parent = this.parents.peek();
+			if(parent == NOT_INDEXED) return;
+			
+			for(Entry child : source.getChildren(sourceEntry)) {
+				final int index = this.entries.size();
+				this.entries.add(new Entry(index, parent, child.name, child.type, child.offset + shift, child.length));
+				
+				this.parents.push(index);
+				copy(source, child.index, shift);
+				this.parents.pop();
+			}
+		}
+		
+		/**
+		 * Build the index.
+		 * @return a new index
+		 */
+		public MOBFFileIndex build() {
+			if(this.parents.size() != 1) throw new IllegalStateException("Cannot build an index while a value is being written");
+
+			return new MOBFFileIndex(new ArrayList<>(this.entries));
+		}
+	}
+}
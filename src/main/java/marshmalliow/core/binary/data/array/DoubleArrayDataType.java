@@ -0,0 +1,67 @@
+package marshmalliow.core.binary.data.array;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.io.BinaryReader;
+import marshmalliow.core.io.BinaryWriter;
+
+/**
+ * Packed array of {@code double} corresponding to the format specification.<br/>
+ * The length is written first, followed by every value as a single contiguous block.
+ * @version	1.0.0
+ * @author 278deco
+ * @since 0.3.5
+ */
+public class DoubleArrayDataType extends DataType<double[]> {
+
+	public DoubleArrayDataType() {
+		super();
+	}
+
+	public DoubleArrayDataType(String name, double[] value) {
+		super(name, value);
+	}
+	
+	public DoubleArrayDataType(double[] value) {
+		super(value);
+	}
+
+	@Override
+	public void writeValue(BinaryWriter writer, DataTypeRegistry registry, Charset charset) throws IOException {
+		final double[] values = this.getValue();
+		
+		writer.writeLength(values.length);
+		writer.writeDoubles(values, 0, values.length);
+	}
+
+	@Override
+	public void readValue(BinaryReader reader, DataTypeRegistry registry, Charset charset) throws IOException {
+		final int length = reader.readLength();
+		
+		final double[] values = new double[length];
+		reader.readDoubles(values, 0, length);
+		
+		this.setValue(values);
+	}
+	
+	@Override
+	public String toString() {
+		return Arrays.toString(this.getValue());
+	}
+
+	@Override
+	public byte getId() {
+		return DataTypeEnum.DOUBLE_ARRAY.getId();
+	}
+	
+	@Override
+	public Category getCategory() {
+		return Category.CONTAINER;
+	}
+
+}
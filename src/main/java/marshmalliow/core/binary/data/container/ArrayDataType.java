@@ -1,7 +1,6 @@
 package marshmalliow.core.binary.data.container;
 
 import java.io.IOException;
-import java.lang.reflect.Constructor;
 import java.util.Arrays;
 
 import marshmalliow.core.binary.data.DataType;
@@ -28,15 +27,15 @@ public class ArrayDataType<T extends DataType<?>> extends DataType<T[]> {
 
 	@Override
 	public void writeValue(BinaryWriter writer, DataTypeRegistry registry, Charset charset) throws IOException {
-		if(this.getValue().length > 0) {
-			if(this.getValue()[0].getCategory() != Category.PRIMITIVE) throw new IOException("Array type cannot contains non primitive datatype");
-			
-			writer.writeByte(this.getValue()[0].getId());
-			writer.writeInt(this.getValue().length);
-			
-			for(DataType<?> data : this.getValue()) {
-				data.write(writer, registry, charset);
-			}
+		final T[] values = this.getValue();
+		if(values.length > 0 && values[0].getCategory() != Category.PRIMITIVE) throw new IOException("Array type cannot contains non primitive datatype");
+		
+		// An empty array is written with the NULL type so it can be read back
+		writer.writeByte(values.length > 0 ? values[0].getId() : DataTypeEnum.NULL.getId());
+		writer.writeLength(values.length);
+		
+		for(DataType<?> data : values) {
+			data.write(writer, registry, charset);
 		}
 	}
 
@@ -44,22 +43,15 @@ public class ArrayDataType<T extends DataType<?>> extends DataType<T[]> {
 	@Override
 	public void readValue(BinaryReader reader, DataTypeRegistry registry, Charset charset) throws IOException {
 		final byte dataTypeId = reader.readByte();
-		final Class<? extends DataType<?>> dataTypeClass = registry.getDataTypeByID(dataTypeId);
-		final int size = reader.readInt();
+		final int size = reader.readLength();
 		
-		final DataType<?>[] content = new DataType<?>[size];
+		if(size > 0 && registry.getDataTypeByID(dataTypeId) == null) throw new IOException("Unknown data type "+dataTypeId);
 		
-		if(dataTypeClass == null) throw new IOException();
+		final DataType<?>[] content = new DataType<?>[size];
 
 		DataType<?> readDataType;
 		for(int i = 0; i < size; i++) {
-			try {
-				final Constructor<? extends DataType<?>> constructor = dataTypeClass.getDeclaredConstructor();
-
-				readDataType = constructor.newInstance();
-			} catch (ReflectiveOperationException e) {
-				throw new IOException();
-			}
+			readDataType = registry.create(dataTypeId);
 
 			readDataType.read(reader, registry, charset);
 
@@ -72,7 +64,7 @@ public class ArrayDataType<T extends DataType<?>> extends DataType<T[]> {
 	
 	@Override
 	public String toString() {
-		return Arrays.asList(this.value).toString();
+		return Arrays.asList(this.getValue()).toString();
 	}
 	
 	@Override
@@ -1,17 +1,19 @@
 package marshmalliow.core.binary.data.container;
 
 import java.io.IOException;
-import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.MissingFormatArgumentException;
 import java.util.Optional;
+import java.util.Set;
 
 import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.data.KeyTable;
 import marshmalliow.core.binary.registry.DataTypeEnum;
 import marshmalliow.core.binary.registry.DataTypeRegistry;
 import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
 import marshmalliow.core.io.BinaryReader;
 import marshmalliow.core.io.BinaryWriter;
 
@@ -38,45 +40,36 @@ public class ListDataType<T extends DataType<?>> extends DataType<List<T>> {
 
 	@Override
 	public void writeValue(BinaryWriter writer, DataTypeRegistry registry, Charset charset) throws IOException {
-		if(this.value.size() > 0) {
-			
-			writer.writeByte(this.value.get(0).getId());
-			writer.writeInt(this.value.size());
-			
-			for(DataType<?> data : this.value) {
-				if(data.getName().isEmpty()) throw new IOException("Cannot save a Data Type without a name");
-				writer.writeUTF(data.getName().get(), charset);
-				data.write(writer, registry, charset);
-			}
-			
-			this.isModified.set(false);
+		// An empty list is written with the NULL type so it can be read back
+		writer.writeByte(this.value.isEmpty() ? DataTypeEnum.NULL.getId() : this.value.get(0).getId());
+		writer.writeLength(this.value.size());
+		
+		for(DataType<?> data : this.value) {
+			if(data.getName().isEmpty()) throw new IOException("Cannot save a Data Type without a name");
+			writer.writeKey(data.getName().get(), charset);
+			data.write(writer, registry, charset);
 		}
+		
+		this.isModified.set(false);
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public void readValue(BinaryReader reader, DataTypeRegistry registry, Charset charset) throws IOException {
 		final byte dataTypeId = reader.readByte();
-		final Class<T> dataTypeClass = (Class<T>) registry.getDataTypeByID(dataTypeId);
-		final int size = reader.readInt();
+		final int size = reader.readLength();
 		
-		final ArrayList<T> content = new ArrayList<>();
+		if(size > 0 && registry.getDataTypeByID(dataTypeId) == null) throw new IOException("Unknown data type "+dataTypeId);
 		
-		if(dataTypeClass == null) throw new IOException();
+		final ArrayList<T> content = new ArrayList<>(size);
 		
 		this.isModified.set(false);
 		
 		T readDataType;
 		for(int i = 0; i < size; i++) {
-			try {
-				final Constructor<T> constructor = dataTypeClass.getDeclaredConstructor();
-
-				readDataType = constructor.newInstance();
-			} catch (ReflectiveOperationException e) {
-				throw new IOException();
-			}
+			readDataType = (T) registry.create(dataTypeId);
 
-			readDataType.setName(reader.readUTF(charset));
+			readDataType.setName(reader.readKey(charset));
 			readDataType.read(reader, registry, charset);
 
 			content.add(readDataType);
@@ -85,7 +78,18 @@ public class ListDataType<T extends DataType<?>> extends DataType<List<T>> {
 		this.setValue(content);
 	}
 
+	@Override
+	protected void collectValueKeys(KeyTable.Builder keys, Charset charset, Set<FormatFeature> features) {
+		synchronized (lock) {
+			for(DataType<?> data : this.value) {
+				if(data.getName().isPresent()) keys.add(data.getName().get());
+				data.collectKeys(keys, charset, features);
+			}
+		}
+	}
+
 	public boolean add(T data) {
+		ensureLoaded();
 		synchronized (lock) {
 			this.isModified.set(true);
 			if(data.getName().isEmpty()) throw new MissingFormatArgumentException("Cannot add a DataType without a name");
@@ -95,6 +99,7 @@ public class ListDataType<T extends DataType<?>> extends DataType<List<T>> {
 	
 	@SuppressWarnings("unchecked")
 	public void add(T... datas) {
+		ensureLoaded();
 		synchronized (lock) {
 			this.isModified.set(true);
 			for(T data : datas) {
@@ -105,6 +110,7 @@ public class ListDataType<T extends DataType<?>> extends DataType<List<T>> {
 	}
 	
 	public T get(int i) {
+		ensureLoaded();
 		synchronized (lock) {
 			this.isModified.set(true);
 			return this.value.get(i);
@@ -112,6 +118,7 @@ public class ListDataType<T extends DataType<?>> extends DataType<List<T>> {
 	}
 
 	public Optional<T> get(String name) {
+		ensureLoaded();
 		synchronized (lock) {
 			this.isModified.set(true);
 			return this.value.stream().filter(data -> data.getName().isPresent() && data.getName().get().equals(name)).findFirst();
@@ -119,6 +126,7 @@ public class ListDataType<T extends DataType<?>> extends DataType<List<T>> {
 	}
 	
 	public boolean remove(T data) {
+		ensureLoaded();
 		synchronized (lock) {
 			this.isModified.set(true);
 			return this.value.remove(data);
@@ -126,11 +134,13 @@ public class ListDataType<T extends DataType<?>> extends DataType<List<T>> {
 	}
 	
 	public boolean contains(T data) {
+		ensureLoaded();
 		return this.value.contains(data);
 	}
 	
 	@Override
 	public List<T> getValue() {
+		ensureLoaded();
 		return Collections.unmodifiableList(value);
 	}
 	
@@ -1,30 +1,38 @@
 package marshmalliow.core.binary.data.container;
 
 import java.io.IOException;
-import java.lang.reflect.Constructor;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.MissingFormatArgumentException;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.data.KeyTable;
+import marshmalliow.core.binary.data.LazySource;
+import marshmalliow.core.binary.data.MOBFFileIndex;
 import marshmalliow.core.binary.registry.DataTypeEnum;
 import marshmalliow.core.binary.registry.DataTypeRegistry;
 import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
 import marshmalliow.core.io.BinaryReader;
 import marshmalliow.core.io.BinaryWriter;
 
 /**
  * Object data type corresponding to the format specification.
- * @version	1.0.0
+ * <p>
+ * Every object is guarded by its own {@link StampedLock}, objects of unrelated files never contend.
+ * The methods iterating over the content, including {@link #writeValue(BinaryWriter, DataTypeRegistry, Charset)},
+ * work on a snapshot taken under the read lock and never hold the lock while the nested values are visited.
+ * @version	1.1.0
  * @author 278deco
  */
 public class ObjectDataType extends DataType<Map<String, DataType<?>>> {
 
-	private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock(); 
+	private final StampedLock lock = new StampedLock();
 	
 	public ObjectDataType() {
 		super("", new LinkedHashMap<String, DataType<?>>());
@@ -40,153 +48,274 @@ public class ObjectDataType extends DataType<Map<String, DataType<?>>> {
 	
 	@Override
 	public void writeValue(BinaryWriter writer, DataTypeRegistry registry, Charset charset) throws IOException {
-		try {
-			LOCK.writeLock().lock();
-			for(Map.Entry<String, DataType<?>> entry : this.value.entrySet()) {
-				writer.writeByte(entry.getValue().getId());
-				if(entry.getValue().getName().isEmpty()) throw new IOException("Cannot save a Data Type without a name");
-				writer.writeUTF(entry.getValue().getName().get(), charset);
-
-				entry.getValue().write(writer, registry, charset);
-			}
+		final MOBFFileIndex.Builder index = writer.getIndexBuilder();
+		for(DataType<?> data : values()) {
+			writer.writeByte(data.getId());
+			if(data.getName().isEmpty()) throw new IOException("Cannot save a Data Type without a name");
+			writer.writeKey(data.getName().get(), charset);
 
-			writer.writeByte((byte)0);
-			
-			this.isModified.set(false);
-		} finally {
-			LOCK.writeLock().unlock();
+			final int indexEntry = index != null ? index.begin(data.getName().get(), data.getId(), writer.size()) : -1;
+			data.write(writer, registry, charset);
+			if(index != null) index.end(indexEntry, writer.size());
 		}
+
+		writer.writeByte((byte)0);
+		
+		this.isModified.set(false);
 	}
 
 	@Override
 	public void readValue(BinaryReader reader, DataTypeRegistry registry, Charset charset) throws IOException {
-		try {
-			LOCK.writeLock().lock();
-			final Map<String, DataType<?>> data = new LinkedHashMap<>();
+		final Map<String, DataType<?>> data = new LinkedHashMap<>();
+		
+		byte readByte;
+		DataType<?> readDataType;
+
+		while((readByte = reader.readByte()) != DataTypeEnum.NULL.getId()) {
+			readDataType = registry.create(readByte);
+			if(readDataType == null) throw new IOException("Unknown data type "+readByte);
+
+			readDataType.setName(reader.readKey(charset));
+			readDataType.read(reader, registry, charset);
+
+			data.put(readDataType.getName().get(), readDataType);
+		}
+
+		publish(data);
+	}
 	
-			this.isModified.set(false);
+	@Override
+	protected void readLazily(LazySource source) throws IOException {
+		if(source.getIndex() == null) {
+			super.readLazily(source);
+			return;
+		}
+		
+		// Only the primitive values are decoded, nested containers wait for their first access
+		final Map<String, DataType<?>> data = new LinkedHashMap<>();
+		for(MOBFFileIndex.Entry entry : source.getIndex().getChildren(source.getEntry())) {
+			final DataType<?> readDataType = source.getRegistry().create(entry.getType());
+			if(readDataType == null) throw new IOException("Unknown data type "+entry.getType()+" for "+entry.getName());
 			
-			byte readByte;
-			DataType<?> readDataType;
-	
-			while((readByte = reader.readByte()) != DataTypeEnum.NULL.getId()) {
-				final Class<? extends DataType<?>> dataTypeClass = registry.getDataTypeByID(readByte);
-	
-				if(dataTypeClass == null) throw new IOException();
-	
-				try {
-					final Constructor<? extends DataType<?>> constructor = dataTypeClass.getDeclaredConstructor();
-	
-					readDataType = constructor.newInstance();
-				} catch (ReflectiveOperationException e) {
-					throw new IOException();
-				}
-	
-				readDataType.setName(reader.readUTF(charset));
-				readDataType.read(reader, registry, charset);
+			readDataType.setName(entry.getName());
+			if(readDataType.getCategory() == Category.CONTAINER) readDataType.setLazySource(source.child(entry));
+			else source.child(entry).read(readDataType);
+			
+			data.put(entry.getName(), readDataType);
+		}
+		
+		publish(data);
+	}
 	
-				data.put(readDataType.getName().get(), readDataType);
-			}
-
+	/**
+	 * Replace the content by a fully decoded map, under the write lock.
+	 * @param data The decoded content
+	 */
+	private void publish(Map<String, DataType<?>> data) {
+		final long stamp = this.lock.writeLock();
+		try {
 			this.setValue(data);
 		} finally {
-			LOCK.writeLock().unlock();
+			this.lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Set the modification flag of the object itself, used by the containers writing or reading its values on their own.
+	 * @param modified The new value of the flag
+	 * @see RecordListDataType
+	 */
+	void setModified(boolean modified) {
+		this.isModified.set(modified);
+	}
+	
+	@Override
+	protected void collectValueKeys(KeyTable.Builder keys, Charset charset, Set<FormatFeature> features) {
+		for(DataType<?> data : values()) {
+			if(data.getName().isPresent()) keys.add(data.getName().get());
+			data.collectKeys(keys, charset, features);
 		}
 	}
 	
 	public boolean add(DataType<?> data) {
+		if(data.getName().isEmpty()) throw new MissingFormatArgumentException("Cannot add a DataType without a name");
+		ensureLoaded();
+		
+		final long stamp = this.lock.writeLock();
 		try {
-			LOCK.writeLock().lock();
 			this.isModified.set(true);
-			if(data.getName().isEmpty()) throw new MissingFormatArgumentException("Cannot add a DataType without a name");
 			return this.value.put(data.getName().get(), data) == null;
 		} finally {
-			LOCK.writeLock().unlock();
+			this.lock.unlockWrite(stamp);
 		}
 	}
 	
 	public void add(DataType<?>... datas) {
+		for(DataType<?> data : datas) {
+			if(data.getName().isEmpty()) throw new MissingFormatArgumentException("Cannot add a DataType without a name");
+		}
+		ensureLoaded();
+		
+		final long stamp = this.lock.writeLock();
 		try {
-			LOCK.writeLock().lock();
 			this.isModified.set(true);
-			for(DataType<?> data : datas) {
-				if(data.getName().isEmpty()) throw new MissingFormatArgumentException("Cannot add a DataType without a name");
-				this.value.put(data.getName().get(), data);
-			}
+			for(DataType<?> data : datas) this.value.put(data.getName().get(), data);
 		} finally {
-			LOCK.writeLock().unlock();
+			this.lock.unlockWrite(stamp);
 		}
 	}
 	
+	/**
+	 * Get the value stored with the given key.<br/>
+	 * Reading a value doesn't mark the object as modified, modifications of the nested values
+	 * are reported by {@link #isModified()}.
+	 * @param name The key of the value
+	 * @return the value or <code>null</code> if the key isn't present
+	 */
 	public DataType<?> get(String name) {
+		ensureLoaded();
+		
+		final long stamp = this.lock.readLock();
 		try {
-			LOCK.readLock().lock();
-			this.isModified.set(true);
 			return this.value.get(name);
 		}finally {
-			LOCK.readLock().unlock();
+			this.lock.unlockRead(stamp);
 		}
 	}
 	
 	public boolean remove(DataType<?> data) {
+		ensureLoaded();
+		
+		final long stamp = this.lock.writeLock();
 		try {
-			LOCK.writeLock().lock();
 			this.isModified.set(true);
-			return this.value.remove(data.getName(), data);
+			return data.getName().isPresent() && this.value.remove(data.getName().get(), data);
 		} finally {
-			LOCK.writeLock().unlock();
+			this.lock.unlockWrite(stamp);
 		}
 	}
 	
 	public boolean remove(String name) {
+		ensureLoaded();
+		
+		final long stamp = this.lock.writeLock();
 		try {
-			LOCK.writeLock().lock();
 			this.isModified.set(true);
 			return this.value.remove(name) != null;
 		} finally {
-			LOCK.writeLock().unlock();
+			this.lock.unlockWrite(stamp);
 		}
 	}
 	
 	public boolean contains(DataType<?> data) {
+		ensureLoaded();
+		
+		final long stamp = this.lock.readLock();
 		try {
-			LOCK.readLock().lock();
-			return data.getName().isPresent() && (this.value.containsKey(data.getName().get()) && this.value.containsValue(data));
+			return data.getName().isPresent() && data.equals(this.value.get(data.getName().get()));
 		} finally {
-			LOCK.readLock().unlock();
+			this.lock.unlockRead(stamp);
 		}
 	}
 
-	public Set<Entry<String, DataType<?>>> entrySet() {
+	/**
+	 * Get a copy of the content, in insertion order.<br/>
+	 * The copy can be iterated freely while the object is modified by other threads.
+	 * @return an unmodifiable copy of the content
+	 */
+	public Map<String, DataType<?>> snapshot() {
+		ensureLoaded();
+		
+		final long stamp = this.lock.readLock();
+		try {
+			return Collections.unmodifiableMap(new LinkedHashMap<>(this.value));
+		} finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Get a copy of the values, in insertion order.<br/>
+	 * The copy can be iterated freely while the object is modified by other threads.
+	 * @return an unmodifiable copy of the values
+	 */
+	public List<DataType<?>> values() {
+		ensureLoaded();
+		
+		final long stamp = this.lock.readLock();
 		try {
-			LOCK.writeLock().lock();
-			return this.value.entrySet();
+			return List.copyOf(this.value.values());
 		} finally {
-			LOCK.writeLock().unlock();
+			this.lock.unlockRead(stamp);
 		}
 	}
 	
-	public void unlockEntrySet() {
-		LOCK.writeLock().unlock();
+	/**
+	 * Get the entries of the content.<br/>
+	 * The entries are taken from a {@link #snapshot()}, later modifications of the object aren't visible.
+	 * @return an unmodifiable set of entries
+	 */
+	public Set<Entry<String, DataType<?>>> entrySet() {
+		return snapshot().entrySet();
 	}
 	
+	/**
+	 * Does nothing, {@link #entrySet()} returns a snapshot and doesn't keep the object locked.
+	 * @deprecated Iterate over {@link #snapshot()} or {@link #values()} instead
+	 */
+	@Deprecated
+	public void unlockEntrySet() { }
+	
 	public int getSize() {
-		try {
-			LOCK.readLock().lock();
-			return this.value.size();
-		} finally {
-			LOCK.readLock().unlock();
+		ensureLoaded();
+		
+		// The size is a single field, an optimistic read is enough most of the time
+		long stamp = this.lock.tryOptimisticRead();
+		int size = this.value.size();
+		if(!this.lock.validate(stamp)) {
+			stamp = this.lock.readLock();
+			try {
+				size = this.value.size();
+			} finally {
+				this.lock.unlockRead(stamp);
+			}
 		}
+		
+		return size;
 	}
 	
+	/**
+	 * Get an unmodifiable view of the content.<br/>
+	 * The view must not be iterated while other threads modify the object, use {@link #snapshot()} instead.
+	 * @return the content
+	 */
 	@Override
 	public Map<String, DataType<?>> getValue() {
+		ensureLoaded();
+		
+		return Collections.unmodifiableMap(this.value);
+	}
+	
+	/**
+	 * Tell if the object or one of its nested values has been modified and isn't saved.<br/>
+	 * Values which haven't been loaded yet are never modified.
+	 */
+	@Override
+	public boolean isModified() {
+		if(this.isModified.get()) return true;
+		if(!isLoaded()) return false;
+		
+		// The values are walked under the read lock, a copy of every nested object would be made at each level otherwise
+		final long stamp = this.lock.readLock();
 		try {
-			LOCK.readLock().lock();
-			return Collections.unmodifiableMap(this.value);
+			for(DataType<?> data : this.value.values()) {
+				if(data.isModified()) return true;
+			}
 		} finally {
-			LOCK.readLock().unlock();
+			this.lock.unlockRead(stamp);
 		}
+		
+		return false;
 	}
 	
 	@Override
@@ -201,7 +330,7 @@ public class ObjectDataType extends DataType<Map<String, DataType<?>>> {
 	
 	@Override
 	public String toString() {
-		return this.getName().isPresent() ?  "Object["+this.getName().get()+"]"+this.getValue() : "Object"+this.getValue();
+		return this.getName().isPresent() ?  "Object["+this.getName().get()+"]"+this.snapshot() : "Object"+this.snapshot();
 	}
 
 }
@@ -0,0 +1,309 @@
+package marshmalliow.core.binary.data.container;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingFormatArgumentException;
+import java.util.Optional;
+import java.util.Set;
+
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.data.KeyTable;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.io.BinaryReader;
+import marshmalliow.core.io.BinaryWriter;
+
+/**
+ * List of objects sharing the same keys, written with a schema.
+ * <p>
+ * Where a {@link ListDataType} of objects repeats the type and the key of every value of every object,
+ * this list writes the keys and their types once, then the values of each object by position:
+ * <ul>
+ * <li>The schema: the number of fields, then for each field its type, its key and whether it is optional</li>
+ * <li>The layout byte, {@link #ROWS} or {@link #COLUMNS}</li>
+ * <li>The number of objects, then their names</li>
+ * <li>The values, object after object or field after field depending on the layout</li>
+ * </ul>
+ * The schema holds every key used by the objects, in the order they first appear. Values of optional fields
+ * (missing from at least one object) are preceded by a presence byte. A key cannot be used with two different types.
+ * <p>
+ * The {@link #COLUMNS} layout groups the values of a field together, which usually compresses better.
+ * @version 1.0.0
+ * @author 278deco
+ * @since 0.3.5
+ */
+public class RecordListDataType extends DataType<List<ObjectDataType>> {
+	
+	/**
+	 * Layout writing the values of an object after the other
+	 */
+	public static final byte ROWS = 0;
+	
+	/**
+	 * Layout writing the values of a field of every object after the other
+	 */
+	public static final byte COLUMNS = 1;
+	
+	private final Object lock = new Object();
+	private boolean columnar;
+	
+	public RecordListDataType() {
+		super("", new ArrayList<ObjectDataType>());
+	}
+	
+	public RecordListDataType(String name) {
+		super(name, new ArrayList<ObjectDataType>());
+	}
+	
+	public RecordListDataType(String name, List<ObjectDataType> value) {
+		super(name, new ArrayList<>(value));
+	}
+	
+	@Override
+	public void writeValue(BinaryWriter writer, DataTypeRegistry registry, Charset charset) throws IOException {
+		final List<ObjectDataType> records;
+		synchronized (lock) {
+			records = List.copyOf(this.value);
+		}
+		
+		final List<Map<String, DataType<?>>> rows = new ArrayList<>(records.size());
+		final Map<String, Byte> types = new LinkedHashMap<>();
+		final Map<String, Integer> occurrences = new LinkedHashMap<>();
+		for(ObjectDataType record : records) {
+			if(record.getName().isEmpty()) throw new IOException("Cannot save a Data Type without a name");
+			
+			final Map<String, DataType<?>> row = record.snapshot();
+			for(Map.Entry<String, DataType<?>> field : row.entrySet()) {
+				final Byte type = types.putIfAbsent(field.getKey(), field.getValue().getId());
+				if(type != null && type != field.getValue().getId()) {
+					throw new IOException("The field "+field.getKey()+" is used with the types "+type+" and "+field.getValue().getId());
+				}
+				occurrences.merge(field.getKey(), 1, Integer::sum);
+			}
+			rows.add(row);
+		}
+		
+		final String[] keys = types.keySet().toArray(new String[0]);
+		final boolean[] optional = new boolean[keys.length];
+		writer.writeLength(keys.length);
+		for(int i = 0; i < keys.length; i++) {
+			optional[i] = occurrences.get(keys[i]) < rows.size();
+			
+			writer.writeByte(types.get(keys[i]));
+			writer.writeKey(keys[i], charset);
+			writer.writeBoolean(optional[i]);
+		}
+		
+		writer.writeByte(this.columnar ? COLUMNS : ROWS);
+		writer.writeLength(rows.size());
+		for(ObjectDataType record : records) writer.writeKey(record.getName().get(), charset);
+		
+		if(this.columnar) {
+			for(int i = 0; i < keys.length; i++) {
+				for(Map<String, DataType<?>> row : rows) writeField(writer, registry, charset, row.get(keys[i]), optional[i]);
+			}
+		}else {
+			for(Map<String, DataType<?>> row : rows) {
+				for(int i = 0; i < keys.length; i++) writeField(writer, registry, charset, row.get(keys[i]), optional[i]);
+			}
+		}
+		
+		for(ObjectDataType record : records) record.setModified(false);
+		this.isModified.set(false);
+	}
+	
+	private static void writeField(BinaryWriter writer, DataTypeRegistry registry, Charset charset, DataType<?> data, boolean optional) throws IOException {
+		if(optional) writer.writeBoolean(data != null);
+		if(data != null) data.write(writer, registry, charset);
+	}
+	
+	@Override
+	public void readValue(BinaryReader reader, DataTypeRegistry registry, Charset charset) throws IOException {
+		final int fields = reader.readLength();
+		final byte[] types = new byte[fields];
+		final String[] keys = new String[fields];
+		final boolean[] optional = new boolean[fields];
+		for(int i = 0; i < fields; i++) {
+			types[i] = reader.readByte();
+			keys[i] = reader.readKey(charset);
+			optional[i] = reader.readBoolean();
+			
+			if(registry.getDataTypeByID(types[i]) == null) throw new IOException("Unknown data type "+types[i]+" for "+keys[i]);
+		}
+		
+		final byte layout = reader.readByte();
+		if(layout != ROWS && layout != COLUMNS) throw new IOException("Unknown record list layout "+layout);
+		
+		final int size = reader.readLength();
+		// The size is untrusted until the rows are read, the lists grow with them
+		final List<String> names = new ArrayList<>(Math.min(size, 1024));
+		final List<Map<String, DataType<?>>> rows = new ArrayList<>(Math.min(size, 1024));
+		for(int i = 0; i < size; i++) {
+			names.add(reader.readKey(charset));
+			rows.add(new LinkedHashMap<>());
+		}
+		
+		if(layout == COLUMNS) {
+			for(int i = 0; i < fields; i++) {
+				for(Map<String, DataType<?>> row : rows) readField(reader, registry, charset, row, types[i], keys[i], optional[i]);
+			}
+		}else {
+			for(Map<String, DataType<?>> row : rows) {
+				for(int i = 0; i < fields; i++) readField(reader, registry, charset, row, types[i], keys[i], optional[i]);
+			}
+		}
+		
+		final ArrayList<ObjectDataType> content = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			final ObjectDataType record = new ObjectDataType(names.get(i), rows.get(i));
+			// The record is in pair with the file like any decoded value
+			record.setModified(false);
+			content.add(record);
+		}
+		
+		this.columnar = layout == COLUMNS;
+		this.setValue(content);
+	}
+	
+	private static void readField(BinaryReader reader, DataTypeRegistry registry, Charset charset, Map<String, DataType<?>> row, byte type, String key,
+			boolean optional) throws IOException {
+		if(optional && !reader.readBoolean()) return;
+		
+		final DataType<?> data = registry.create(type);
+		data.setName(key);
+		data.read(reader, registry, charset);
+		
+		row.put(key, data);
+	}
+	
+	@Override
+	protected void collectValueKeys(KeyTable.Builder keys, Charset charset, Set<FormatFeature> features) {
+		synchronized (lock) {
+			for(ObjectDataType record : this.value) {
+				if(record.getName().isPresent()) keys.add(record.getName().get());
+				record.collectKeys(keys, charset, features);
+			}
+		}
+	}
+	
+	public boolean add(ObjectDataType data) {
+		ensureLoaded();
+		synchronized (lock) {
+			this.isModified.set(true);
+			if(data.getName().isEmpty()) throw new MissingFormatArgumentException("Cannot add a DataType without a name");
+			return this.value.add(data);
+		}
+	}
+	
+	public void add(ObjectDataType... datas) {
+		ensureLoaded();
+		synchronized (lock) {
+			this.isModified.set(true);
+			for(ObjectDataType data : datas) {
+				if(data.getName().isEmpty()) throw new MissingFormatArgumentException("Cannot add a DataType without a name");
+				this.value.add(data);
+			}
+		}
+	}
+	
+	public ObjectDataType get(int i) {
+		ensureLoaded();
+		synchronized (lock) {
+			return this.value.get(i);
+		}
+	}
+	
+	public Optional<ObjectDataType> get(String name) {
+		ensureLoaded();
+		synchronized (lock) {
+			return this.value.stream().filter(data -> data.getName().isPresent() && data.getName().get().equals(name)).findFirst();
+		}
+	}
+	
+	public boolean remove(ObjectDataType data) {
+		ensureLoaded();
+		synchronized (lock) {
+			this.isModified.set(true);
+			return this.value.remove(data);
+		}
+	}
+	
+	public boolean contains(ObjectDataType data) {
+		ensureLoaded();
+		synchronized (lock) {
+			return this.value.contains(data);
+		}
+	}
+	
+	public int getSize() {
+		ensureLoaded();
+		synchronized (lock) {
+			return this.value.size();
+		}
+	}
+	
+	/**
+	 * Choose how the values are written.
+	 * @param columnar true to use the {@link #COLUMNS} layout, false to use the {@link #ROWS} layout
+	 */
+	public void setColumnar(boolean columnar) {
+		ensureLoaded();
+		this.columnar = columnar;
+		this.isModified.set(true);
+	}
+	
+	/**
+	 * Tell if the values are written with the {@link #COLUMNS} layout.
+	 * @return true if the values are grouped by field
+	 */
+	public boolean isColumnar() {
+		ensureLoaded();
+		return columnar;
+	}
+	
+	@Override
+	public List<ObjectDataType> getValue() {
+		ensureLoaded();
+		return Collections.unmodifiableList(value);
+	}
+	
+	/**
+	 * Tell if the list or one of its objects has been modified.
+	 * @return false if the list hasn't been loaded yet
+	 */
+	@Override
+	public boolean isModified() {
+		if(this.isModified.get()) return true;
+		if(!isLoaded()) return false;
+		
+		synchronized (lock) {
+			for(ObjectDataType record : this.value) {
+				if(record.isModified()) return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	@Override
+	public byte getId() {
+		return DataTypeEnum.RECORD_LIST.getId();
+	}
+	
+	@Override
+	public Category getCategory() {
+		return Category.CONTAINER;
+	}
+	
+	@Override
+	public String toString() {
+		return ""+this.getValue();
+	}
+	
+}
@@ -0,0 +1,759 @@
+package marshmalliow.core.binary.data.container;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.data.KeyTable;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.io.BinaryReader;
+import marshmalliow.core.io.BinaryWriter;
+import marshmalliow.core.objects.DateTime;
+
+/**
+ * Table data type, storing rows as typed columns of the same size.
+ * <p>
+ * Each column is written with its own {@link Encoding}. Unless an encoding is given with {@link #setEncoding(String, Encoding)},
+ * the smallest encoding supported by the column type is chosen when the table is written:
+ * <ul>
+ * <li>{@link Encoding#DELTA} for integers and datetimes increasing or decreasing slowly, such as timestamps</li>
+ * <li>{@link Encoding#RLE} for columns repeating the same value on consecutive rows</li>
+ * <li>{@link Encoding#DICTIONARY} for strings taking a few distinct values</li>
+ * </ul>
+ * The encodings always write their integers as zigzag varints, whatever the features of the file.
+ * <p>
+ * The values of a column are read in bulk with the <code>getX(String)</code> methods, returning a copy of the column.
+ * @version 1.0.0
+ * @author 278deco
+ * @since 0.3.5
+ */
+public class TableDataType extends DataType<Map<String, TableDataType.Column>> {
+	
+	/**
+	 * The type of the values of a column
+	 */
+	public static enum ColumnType {
+		INT(0, Encoding.PLAIN, Encoding.DELTA, Encoding.RLE),
+		LONG(1, Encoding.PLAIN, Encoding.DELTA, Encoding.RLE),
+		DOUBLE(2, Encoding.PLAIN, Encoding.RLE),
+		STRING(3, Encoding.PLAIN, Encoding.RLE, Encoding.DICTIONARY),
+		/**
+		 * Datetimes can only be delta encoded if they all hold a date and a time without complementary value nor timezone
+		 */
+		DATETIME(4, Encoding.PLAIN, Encoding.DELTA);
+		
+		private final byte id;
+		private final Set<Encoding> encodings;
+		
+		private ColumnType(int id, Encoding... encodings) {
+			this.id = (byte) id;
+			this.encodings = Set.of(encodings);
+		}
+		
+		public byte getId() {
+			return id;
+		}
+		
+		/**
+		 * Tell if the column type can be written with the given encoding.
+		 * @param encoding The encoding
+		 * @return true if the encoding is supported
+		 */
+		public boolean supports(Encoding encoding) {
+			return this.encodings.contains(encoding);
+		}
+		
+		private static ColumnType of(byte id) throws IOException {
+			for(ColumnType type : values()) {
+				if(type.id == id) return type;
+			}
+			
+			throw new IOException("Unknown column type "+id);
+		}
+	}
+	
+	/**
+	 * The encoding of the values of a column
+	 */
+	public static enum Encoding {
+		/**
+		 * Every value as is, primitive columns are written as a single block
+		 */
+		PLAIN(0),
+		
+		/**
+		 * The first value, then the difference between each value and the previous one
+		 */
+		DELTA(1),
+		
+		/**
+		 * Runs of equal values: the number of runs, then each value followed by its number of repetitions
+		 */
+		RLE(2),
+		
+		/**
+		 * The distinct values, then the index of the value of each row
+		 */
+		DICTIONARY(3);
+		
+		private final byte id;
+		
+		private Encoding(int id) {
+			this.id = (byte) id;
+		}
+		
+		public byte getId() {
+			return id;
+		}
+		
+		private static Encoding of(byte id) throws IOException {
+			for(Encoding encoding : values()) {
+				if(encoding.id == id) return encoding;
+			}
+			
+			throw new IOException("Unknown column encoding "+id);
+		}
+	}
+	
+	/**
+	 * An immutable column of the table.
+	 */
+	public static final class Column {
+		
+		private final ColumnType type;
+		private final Object values;
+		private final int size;
+		
+		private Column(ColumnType type, Object values, int size) {
+			this.type = type;
+			this.values = values;
+			this.size = size;
+		}
+		
+		public ColumnType getType() {
+			return type;
+		}
+		
+		public int getSize() {
+			return size;
+		}
+		
+		@Override
+		public String toString() {
+			return "Column["+type+", "+size+" rows]";
+		}
+	}
+	
+	private final Object lock = new Object();
+	private final Map<String, Encoding> encodings = new HashMap<>();
+	private int rows = -1;
+	
+	public TableDataType() {
+		super("", new LinkedHashMap<String, Column>());
+	}
+	
+	public TableDataType(String name) {
+		super(name, new LinkedHashMap<String, Column>());
+	}
+	
+	@Override
+	public void writeValue(BinaryWriter writer, DataTypeRegistry registry, Charset charset) throws IOException {
+		synchronized (lock) {
+			writer.writeLength(Math.max(this.rows, 0));
+			writer.writeLength(this.value.size());
+			
+			for(Map.Entry<String, Column> entry : this.value.entrySet()) {
+				final Column column = entry.getValue();
+				Encoding encoding = this.encodings.get(entry.getKey());
+				if(encoding == null || (encoding == Encoding.DELTA && column.type == ColumnType.DATETIME && epochSeconds((DateTime[]) column.values) == null)) {
+					encoding = chooseEncoding(column);
+				}
+				
+				writer.writeByte(column.type.id);
+				writer.writeKey(entry.getKey(), charset);
+				writer.writeByte(encoding.id);
+				writeColumn(writer, charset, column, encoding);
+			}
+		}
+		
+		this.isModified.set(false);
+	}
+	
+	@Override
+	public void readValue(BinaryReader reader, DataTypeRegistry registry, Charset charset) throws IOException {
+		final int rowCount = reader.readLength();
+		final int columnCount = reader.readLength();
+		
+		final Map<String, Column> columns = new LinkedHashMap<>();
+		final Map<String, Encoding> columnEncodings = new HashMap<>();
+		for(int i = 0; i < columnCount; i++) {
+			final ColumnType type = ColumnType.of(reader.readByte());
+			final String name = reader.readKey(charset);
+			final Encoding encoding = Encoding.of(reader.readByte());
+			if(!type.supports(encoding)) throw new IOException("Column "+name+" of type "+type+" cannot use the encoding "+encoding);
+			
+			columns.put(name, new Column(type, readColumn(reader, charset, type, encoding, rowCount), rowCount));
+			columnEncodings.put(name, encoding);
+		}
+		
+		synchronized (lock) {
+			this.rows = columnCount > 0 ? rowCount : -1;
+			this.encodings.clear();
+			this.encodings.putAll(columnEncodings);
+			this.setValue(columns);
+		}
+	}
+	
+	@Override
+	protected void collectValueKeys(KeyTable.Builder keys, Charset charset, Set<FormatFeature> features) {
+		synchronized (lock) {
+			for(String name : this.value.keySet()) keys.add(name);
+		}
+	}
+	
+	public void addIntColumn(String name, int[] values) {
+		addColumn(name, new Column(ColumnType.INT, values.clone(), values.length));
+	}
+	
+	public void addLongColumn(String name, long[] values) {
+		addColumn(name, new Column(ColumnType.LONG, values.clone(), values.length));
+	}
+	
+	public void addDoubleColumn(String name, double[] values) {
+		addColumn(name, new Column(ColumnType.DOUBLE, values.clone(), values.length));
+	}
+	
+	public void addStringColumn(String name, String[] values) {
+		for(String value : values) Objects.requireNonNull(value, "A string column cannot hold null values");
+		addColumn(name, new Column(ColumnType.STRING, values.clone(), values.length));
+	}
+	
+	public void addDatetimeColumn(String name, DateTime[] values) {
+		for(DateTime value : values) Objects.requireNonNull(value, "A datetime column cannot hold null values");
+		addColumn(name, new Column(ColumnType.DATETIME, values.clone(), values.length));
+	}
+	
+	private void addColumn(String name, Column column) {
+		Objects.requireNonNull(name);
+		ensureLoaded();
+		synchronized (lock) {
+			if(this.rows >= 0 && column.size != this.rows && !(this.value.size() == 1 && this.value.containsKey(name))) {
+				throw new IllegalArgumentException("The column "+name+" has "+column.size+" rows instead of "+this.rows);
+			}
+			
+			this.isModified.set(true);
+			this.value.put(name, column);
+			this.encodings.remove(name);
+			this.rows = column.size;
+		}
+	}
+	
+	public boolean removeColumn(String name) {
+		ensureLoaded();
+		synchronized (lock) {
+			if(this.value.remove(name) == null) return false;
+			
+			this.isModified.set(true);
+			this.encodings.remove(name);
+			if(this.value.isEmpty()) this.rows = -1;
+			return true;
+		}
+	}
+	
+	public int[] getInts(String name) {
+		return ((int[]) column(name, ColumnType.INT).values).clone();
+	}
+	
+	public long[] getLongs(String name) {
+		return ((long[]) column(name, ColumnType.LONG).values).clone();
+	}
+	
+	public double[] getDoubles(String name) {
+		return ((double[]) column(name, ColumnType.DOUBLE).values).clone();
+	}
+	
+	public String[] getStrings(String name) {
+		return ((String[]) column(name, ColumnType.STRING).values).clone();
+	}
+	
+	public DateTime[] getDatetimes(String name) {
+		return ((DateTime[]) column(name, ColumnType.DATETIME).values).clone();
+	}
+	
+	private Column column(String name, ColumnType type) {
+		ensureLoaded();
+		
+		final Column column;
+		synchronized (lock) {
+			column = this.value.get(name);
+		}
+		if(column == null) throw new IllegalArgumentException("No column "+name);
+		if(column.type != type) throw new IllegalArgumentException("The column "+name+" holds "+column.type+" values, not "+type);
+		
+		return column;
+	}
+	
+	public Optional<ColumnType> getColumnType(String name) {
+		ensureLoaded();
+		synchronized (lock) {
+			final Column column = this.value.get(name);
+			return column != null ? Optional.of(column.type) : Optional.empty();
+		}
+	}
+	
+	public List<String> getColumnNames() {
+		ensureLoaded();
+		synchronized (lock) {
+			return List.copyOf(this.value.keySet());
+		}
+	}
+	
+	public int getRowCount() {
+		ensureLoaded();
+		synchronized (lock) {
+			return Math.max(this.rows, 0);
+		}
+	}
+	
+	/**
+	 * Force the encoding of a column.<br/>
+	 * Delta encoded datetime columns fall back to an automatic encoding if a value cannot be delta encoded.
+	 * @param name The name of the column
+	 * @param encoding The encoding or <code>null</code> to choose it automatically
+	 * @throws IllegalArgumentException If the column doesn't exist or doesn't support the encoding
+	 */
+	public void setEncoding(String name, Encoding encoding) {
+		ensureLoaded();
+		synchronized (lock) {
+			final Column column = this.value.get(name);
+			if(column == null) throw new IllegalArgumentException("No column "+name);
+			if(encoding != null && !column.type.supports(encoding)) throw new IllegalArgumentException(column.type+" columns cannot use the encoding "+encoding);
+			
+			this.isModified.set(true);
+			if(encoding == null) this.encodings.remove(name);
+			else this.encodings.put(name, encoding);
+		}
+	}
+	
+	/**
+	 * Get the encoding forced with {@link #setEncoding(String, Encoding)} or used by the file the table was read from.
+	 * @param name The name of the column
+	 * @return the encoding or an empty optional if it is chosen when the table is written
+	 */
+	public Optional<Encoding> getEncoding(String name) {
+		ensureLoaded();
+		synchronized (lock) {
+			return Optional.ofNullable(this.encodings.get(name));
+		}
+	}
+	
+	@Override
+	public Map<String, Column> getValue() {
+		ensureLoaded();
+		return Collections.unmodifiableMap(value);
+	}
+	
+	@Override
+	public byte getId() {
+		return DataTypeEnum.TABLE.getId();
+	}
+	
+	@Override
+	public Category getCategory() {
+		return Category.CONTAINER;
+	}
+	
+	@Override
+	public String toString() {
+		return ""+this.getValue();
+	}
+	
+	/**
+	 * Choose the encoding writing the column with the fewest bytes, estimated without writing it.
+	 */
+	private static Encoding chooseEncoding(Column column) {
+		final int size = column.size;
+		long plain, delta = Long.MAX_VALUE, rle, dictionary = Long.MAX_VALUE;
+		
+		switch(column.type) {
+			case INT -> {
+				final int[] values = (int[]) column.values;
+				plain = (long) size * Integer.BYTES;
+				delta = 0;
+				rle = 0;
+				for(int i = 0, run = 0; i < size; i++) {
+					delta += varIntSize(zigzag(i == 0 ? values[i] : values[i] - values[i - 1]));
+					run++;
+					if(i == size - 1 || values[i + 1] != values[i]) {
+						rle += varIntSize(zigzag(values[i])) + varIntSize(run);
+						run = 0;
+					}
+				}
+			}
+			case LONG -> {
+				final long[] values = (long[]) column.values;
+				plain = (long) size * Long.BYTES;
+				delta = 0;
+				rle = 0;
+				for(int i = 0, run = 0; i < size; i++) {
+					delta += varLongSize(zigzag(i == 0 ? values[i] : values[i] - values[i - 1]));
+					run++;
+					if(i == size - 1 || values[i + 1] != values[i]) {
+						rle += varLongSize(zigzag(values[i])) + varIntSize(run);
+						run = 0;
+					}
+				}
+			}
+			case DOUBLE -> {
+				final double[] values = (double[]) column.values;
+				plain = (long) size * Double.BYTES;
+				rle = 0;
+				for(int i = 0, run = 0; i < size; i++) {
+					run++;
+					if(i == size - 1 || Double.doubleToRawLongBits(values[i + 1]) != Double.doubleToRawLongBits(values[i])) {
+						rle += Double.BYTES + varIntSize(run);
+						run = 0;
+					}
+				}
+			}
+			case STRING -> {
+				final String[] values = (String[]) column.values;
+				final Map<String, Integer> distinct = new HashMap<>();
+				plain = 0;
+				rle = 0;
+				dictionary = 0;
+				for(int i = 0, run = 0; i < size; i++) {
+					// The length in chars is close enough to the encoded length to compare the encodings
+					final int length = values[i].length() + 1;
+					plain += length;
+					run++;
+					if(i == size - 1 || !values[i + 1].equals(values[i])) {
+						rle += length + varIntSize(run);
+						run = 0;
+					}
+					
+					Integer index = distinct.get(values[i]);
+					if(index == null) {
+						index = distinct.size();
+						distinct.put(values[i], index);
+						dictionary += length;
+					}
+					dictionary += varIntSize(index);
+				}
+			}
+			default -> {
+				final long[] seconds = epochSeconds((DateTime[]) column.values);
+				if(seconds == null) return Encoding.PLAIN;
+				
+				// A datetime holding a date and a time is written with 7 bytes
+				plain = 7L * size;
+				delta = 0;
+				for(int i = 0; i < size; i++) delta += varLongSize(zigzag(i == 0 ? seconds[i] : seconds[i] - seconds[i - 1]));
+				rle = Long.MAX_VALUE;
+			}
+		}
+		
+		Encoding best = Encoding.PLAIN;
+		long bestSize = plain;
+		if(delta < bestSize) {
+			best = Encoding.DELTA;
+			bestSize = delta;
+		}
+		if(rle < bestSize) {
+			best = Encoding.RLE;
+			bestSize = rle;
+		}
+		if(dictionary < bestSize) best = Encoding.DICTIONARY;
+		
+		return best;
+	}
+	
+	private static void writeColumn(BinaryWriter writer, Charset charset, Column column, Encoding encoding) throws IOException {
+		final int size = column.size;
+		switch(column.type) {
+			case INT -> {
+				final int[] values = (int[]) column.values;
+				switch(encoding) {
+					case PLAIN -> writer.writeInts(values, 0, size);
+					case DELTA -> {
+						for(int i = 0; i < size; i++) writer.writeVarInt(zigzag(i == 0 ? values[i] : values[i] - values[i - 1]));
+					}
+					default -> {
+						writer.writeLength(runs(column));
+						for(int i = 0, run = 0; i < size; i++) {
+							run++;
+							if(i == size - 1 || values[i + 1] != values[i]) {
+								writer.writeVarInt(zigzag(values[i]));
+								writer.writeVarInt(run);
+								run = 0;
+							}
+						}
+					}
+				}
+			}
+			case LONG -> {
+				final long[] values = (long[]) column.values;
+				switch(encoding) {
+					case PLAIN -> writer.writeLongs(values, 0, size);
+					case DELTA -> writeDeltas(writer, values);
+					default -> {
+						writer.writeLength(runs(column));
+						for(int i = 0, run = 0; i < size; i++) {
+							run++;
+							if(i == size - 1 || values[i + 1] != values[i]) {
+								writer.writeVarLong(zigzag(values[i]));
+								writer.writeVarInt(run);
+								run = 0;
+							}
+						}
+					}
+				}
+			}
+			case DOUBLE -> {
+				final double[] values = (double[]) column.values;
+				if(encoding == Encoding.PLAIN) {
+					writer.writeDoubles(values, 0, size);
+				}else {
+					writer.writeLength(runs(column));
+					for(int i = 0, run = 0; i < size; i++) {
+						run++;
+						if(i == size - 1 || Double.doubleToRawLongBits(values[i + 1]) != Double.doubleToRawLongBits(values[i])) {
+							writer.writeDouble(values[i]);
+							writer.writeVarInt(run);
+							run = 0;
+						}
+					}
+				}
+			}
+			case STRING -> {
+				final String[] values = (String[]) column.values;
+				switch(encoding) {
+					case PLAIN -> {
+						for(String value : values) writer.writeUTF(value, charset);
+					}
+					case RLE -> {
+						writer.writeLength(runs(column));
+						for(int i = 0, run = 0; i < size; i++) {
+							run++;
+							if(i == size - 1 || !values[i + 1].equals(values[i])) {
+								writer.writeUTF(values[i], charset);
+								writer.writeVarInt(run);
+								run = 0;
+							}
+						}
+					}
+					default -> {
+						final Map<String, Integer> dictionary = new LinkedHashMap<>();
+						final int[] indices = new int[size];
+						for(int i = 0; i < size; i++) {
+							final Integer index = dictionary.putIfAbsent(values[i], dictionary.size());
+							indices[i] = index == null ? dictionary.size() - 1 : index;
+						}
+						
+						writer.writeLength(dictionary.size());
+						for(String value : dictionary.keySet()) writer.writeUTF(value, charset);
+						for(int index : indices) writer.writeVarInt(index);
+					}
+				}
+			}
+			default -> {
+				final DateTime[] values = (DateTime[]) column.values;
+				if(encoding == Encoding.DELTA) {
+					writeDeltas(writer, epochSeconds(values));
+				}else {
+					for(DateTime value : values) writer.writeDatetime(value);
+				}
+			}
+		}
+	}
+	
+	private static Object readColumn(BinaryReader reader, Charset charset, ColumnType type, Encoding encoding, int size) throws IOException {
+		switch(type) {
+			case INT -> {
+				final int[] values = new int[size];
+				switch(encoding) {
+					case PLAIN -> reader.readInts(values, 0, size);
+					case DELTA -> {
+						for(int i = 0; i < size; i++) values[i] = (i == 0 ? 0 : values[i - 1]) + unzigzag(reader.readVarInt());
+					}
+					default -> {
+						final int runs = reader.readLength();
+						int i = 0;
+						for(int r = 0; r < runs; r++) {
+							final int value = unzigzag(reader.readVarInt());
+							final int end = runEnd(i, reader.readVarInt(), size);
+							while(i < end) values[i++] = value;
+						}
+						checkRuns(i, size);
+					}
+				}
+				return values;
+			}
+			case LONG -> {
+				if(encoding == Encoding.DELTA) return readDeltas(reader, size);
+				
+				final long[] values = new long[size];
+				if(encoding == Encoding.PLAIN) {
+					reader.readLongs(values, 0, size);
+				}else {
+					final int runs = reader.readLength();
+					int i = 0;
+					for(int r = 0; r < runs; r++) {
+						final long value = unzigzag(reader.readVarLong());
+						final int end = runEnd(i, reader.readVarInt(), size);
+						while(i < end) values[i++] = value;
+					}
+					checkRuns(i, size);
+				}
+				return values;
+			}
+			case DOUBLE -> {
+				final double[] values = new double[size];
+				if(encoding == Encoding.PLAIN) {
+					reader.readDoubles(values, 0, size);
+				}else {
+					final int runs = reader.readLength();
+					int i = 0;
+					for(int r = 0; r < runs; r++) {
+						final double value = reader.readDouble();
+						final int end = runEnd(i, reader.readVarInt(), size);
+						while(i < end) values[i++] = value;
+					}
+					checkRuns(i, size);
+				}
+				return values;
+			}
+			case STRING -> {
+				final String[] values = new String[size];
+				switch(encoding) {
+					case PLAIN -> {
+						for(int i = 0; i < size; i++) values[i] = reader.readUTF(charset);
+					}
+					case RLE -> {
+						final int runs = reader.readLength();
+						int i = 0;
+						for(int r = 0; r < runs; r++) {
+							final String value = reader.readUTF(charset);
+							final int end = runEnd(i, reader.readVarInt(), size);
+							while(i < end) values[i++] = value;
+						}
+						checkRuns(i, size);
+					}
+					default -> {
+						final String[] dictionary = new String[reader.readLength()];
+						for(int i = 0; i < dictionary.length; i++) dictionary[i] = reader.readUTF(charset);
+						for(int i = 0; i < size; i++) {
+							final int index = reader.readVarInt();
+							if(index < 0 || index >= dictionary.length) throw new IOException("Invalid dictionary index "+index);
+							values[i] = dictionary[index];
+						}
+					}
+				}
+				return values;
+			}
+			default -> {
+				final DateTime[] values = new DateTime[size];
+				if(encoding == Encoding.DELTA) {
+					final long[] seconds = readDeltas(reader, size);
+					for(int i = 0; i < size; i++) values[i] = DateTime.fromLocalDateTime(LocalDateTime.ofEpochSecond(seconds[i], 0, ZoneOffset.UTC));
+				}else {
+					for(int i = 0; i < size; i++) values[i] = reader.readDatetime();
+				}
+				return values;
+			}
+		}
+	}
+	
+	private static void writeDeltas(BinaryWriter writer, long[] values) throws IOException {
+		for(int i = 0; i < values.length; i++) writer.writeVarLong(zigzag(i == 0 ? values[i] : values[i] - values[i - 1]));
+	}
+	
+	private static long[] readDeltas(BinaryReader reader, int size) throws IOException {
+		final long[] values = new long[size];
+		for(int i = 0; i < size; i++) values[i] = (i == 0 ? 0 : values[i - 1]) + unzigzag(reader.readVarLong());
+		
+		return values;
+	}
+	
+	/**
+	 * Convert datetimes holding a date and a time, without complementary value nor timezone, to seconds since the epoch.
+	 * @return the seconds or <code>null</code> if a datetime cannot be converted without loss
+	 */
+	private static long[] epochSeconds(DateTime[] values) {
+		final long[] seconds = new long[values.length];
+		for(int i = 0; i < values.length; i++) {
+			final DateTime value = values[i];
+			final Optional<LocalDateTime> dateTime = value.asLocalDateTime();
+			if(dateTime.isEmpty() || value.isComplementaryPresent() || value.isTimezonePresent()) return null;
+			
+			seconds[i] = dateTime.get().toEpochSecond(ZoneOffset.UTC);
+		}
+		
+		return seconds;
+	}
+	
+	private static int runs(Column column) {
+		int runs = 0;
+		for(int i = 0; i < column.size; i++) {
+			final boolean last = i == column.size - 1;
+			final boolean ends = switch(column.type) {
+				case INT -> last || ((int[]) column.values)[i + 1] != ((int[]) column.values)[i];
+				case LONG -> last || ((long[]) column.values)[i + 1] != ((long[]) column.values)[i];
+				case DOUBLE -> last || Double.doubleToRawLongBits(((double[]) column.values)[i + 1]) != Double.doubleToRawLongBits(((double[]) column.values)[i]);
+				default -> last || !((Object[]) column.values)[i + 1].equals(((Object[]) column.values)[i]);
+			};
+			if(ends) runs++;
+		}
+		
+		return runs;
+	}
+	
+	private static int runEnd(int start, int length, int size) throws IOException {
+		if(length <= 0 || length > size - start) throw new IOException("Invalid run of "+length+" values at row "+start);
+		
+		return start + length;
+	}
+	
+	/**
+	 * Ensure the runs of a column cover all its rows, the rows after the last run would be left to their default value.
+	 */
+	private static void checkRuns(int end, int size) throws IOException {
+		if(end != size) throw new IOException("The runs cover "+end+" of the "+size+" rows");
+	}
+	
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+	
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+	
+	private static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	private static int varIntSize(int value) {
+		return varLongSize(value & 0xFFFFFFFFL);
+	}
+	
+	private static int varLongSize(long value) {
+		return (Long.SIZE - Long.numberOfLeadingZeros(value | 1) + 6) / 7;
+	}
+}
@@ -30,12 +30,12 @@ public class IntegerDataType extends DataType<Integer> {
 
 	@Override
 	public void writeValue(BinaryWriter writer, DataTypeRegistry registry, Charset charset) throws IOException {
-		writer.writeInt(this.getValue());
+		writer.writeCompactInt(this.getValue());
 	}
 
 	@Override
 	public void readValue(BinaryReader reader, DataTypeRegistry registry, Charset charset) throws IOException {
-		this.setValue(reader.readInt());
+		this.setValue(reader.readCompactInt());
 	}
 
 	@Override
@@ -30,12 +30,12 @@ public class LongDataType extends DataType<Long> {
 
 	@Override
 	public void writeValue(BinaryWriter writer, DataTypeRegistry registry, Charset charset) throws IOException {
-		writer.writeLong(this.getValue());
+		writer.writeCompactLong(this.getValue());
 	}
 
 	@Override
 	public void readValue(BinaryReader reader, DataTypeRegistry registry, Charset charset) throws IOException {
-		this.setValue(reader.readLong());
+		this.setValue(reader.readCompactLong());
 	}
 
 	@Override
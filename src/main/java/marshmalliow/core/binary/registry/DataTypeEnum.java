@@ -5,9 +5,17 @@ import org.apache.logging.log4j.Logger;
 
 import marshmalliow.core.binary.data.advanced.DatetimeDataType;
 import marshmalliow.core.binary.data.advanced.StringDataType;
+import marshmalliow.core.binary.data.array.ByteArrayDataType;
+import marshmalliow.core.binary.data.array.DoubleArrayDataType;
+import marshmalliow.core.binary.data.array.FloatArrayDataType;
+import marshmalliow.core.binary.data.array.IntArrayDataType;
+import marshmalliow.core.binary.data.array.LongArrayDataType;
+import marshmalliow.core.binary.data.array.ShortArrayDataType;
 import marshmalliow.core.binary.data.container.ArrayDataType;
 import marshmalliow.core.binary.data.container.ListDataType;
 import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.data.container.RecordListDataType;
+import marshmalliow.core.binary.data.container.TableDataType;
 import marshmalliow.core.binary.data.primitive.BooleanDataType;
 import marshmalliow.core.binary.data.primitive.ByteDataType;
 import marshmalliow.core.binary.data.primitive.DoubleDataType;
@@ -94,7 +102,60 @@ public enum DataTypeEnum {
 	 * Array data
 	 * @see ArrayDataType
 	 */
-	ARRAY(12);
+	ARRAY(12),
+	
+	/**
+	 * Packed byte array data
+	 * @see ByteArrayDataType
+	 */
+	BYTE_ARRAY(13),
+	
+	/**
+	 * Packed short array data
+	 * @see ShortArrayDataType
+	 */
+	SHORT_ARRAY(14),
+	
+	/**
+	 * Packed integer array data
+	 * @see IntArrayDataType
+	 */
+	INT_ARRAY(15),
+	
+	/**
+	 * Packed long array data
+	 * @see LongArrayDataType
+	 */
+	LONG_ARRAY(16),
+	
+	/**
+	 * Packed float array data
+	 * @see FloatArrayDataType
+	 */
+	FLOAT_ARRAY(17),
+	
+	/**
+	 * Packed double array data
+	 * @see DoubleArrayDataType
+	 */
+	DOUBLE_ARRAY(18),
+	
+	/**
+	 * List of objects sharing a schema
+	 * @see RecordListDataType
+	 */
+	RECORD_LIST(19),
+	
+	/**
+	 * Table of typed columns
+	 * @see TableDataType
+	 */
+	TABLE(20);
+
+	private static final DataTypeEnum[] BY_ID = new DataTypeEnum[256];
+	static {
+		for(DataTypeEnum type : values()) BY_ID[type.id & 0xFF] = type;
+	}
 
 	private byte id;
 	private DataTypeEnum(int id) {
@@ -108,6 +169,15 @@ public enum DataTypeEnum {
 	public byte getId() {
 		return id;
 	}
+	
+	/**
+	 * Get the default data type using the given id.
+	 * @param id The id of the data type
+	 * @return the data type or <code>null</code> if the id isn't one of the default data types
+	 */
+	public static DataTypeEnum of(byte id) {
+		return BY_ID[id & 0xFF];
+	}
 
 	/**
 	 * Create a new registry with all default data types.
@@ -118,18 +188,7 @@ public enum DataTypeEnum {
 	public static DataTypeRegistry.Builder createNewRegistry() throws DatatypeRegistryException {
 		final DataTypeRegistry.Builder builder = DataTypeRegistry.builder();
 
-		builder.register(OBJECT.getId(), ObjectDataType.class);
-		builder.register(BYTE.getId(), ByteDataType.class);
-		builder.register(BOOLEAN.getId(), BooleanDataType.class);
-		builder.register(SHORT.getId(), ShortDataType.class);
-		builder.register(INT.getId(), IntegerDataType.class);
-		builder.register(LONG.getId(), LongDataType.class);
-		builder.register(FLOAT.getId(), FloatDataType.class);
-		builder.register(DOUBLE.getId(), DoubleDataType.class);
-		builder.register(STRING.getId(), StringDataType.class);
-		builder.register(DATETIME.getId(), DatetimeDataType.class);
-		builder.register(LIST.getId(), ListDataType.class);
-		builder.register(ARRAY.getId(), ArrayDataType.class);
+		registerDefaults(builder);
 
 		return builder;
 	}
@@ -146,22 +205,40 @@ public enum DataTypeEnum {
 		final DataTypeRegistry.Builder builder = DataTypeRegistry.builder();
 
 		try {
-		builder.register(OBJECT.getId(), ObjectDataType.class);
-		builder.register(BYTE.getId(), ByteDataType.class);
-		builder.register(BOOLEAN.getId(), BooleanDataType.class);
-		builder.register(SHORT.getId(), ShortDataType.class);
-		builder.register(INT.getId(), IntegerDataType.class);
-		builder.register(LONG.getId(), LongDataType.class);
-		builder.register(FLOAT.getId(), FloatDataType.class);
-		builder.register(DOUBLE.getId(), DoubleDataType.class);
-		builder.register(STRING.getId(), StringDataType.class);
-		builder.register(DATETIME.getId(), DatetimeDataType.class);
-		builder.register(LIST.getId(), ListDataType.class);
-		builder.register(ARRAY.getId(), ArrayDataType.class);
+			registerDefaults(builder);
 		}catch(DatatypeRegistryException e) {
 			logger.fatal("Couldn't initialize a safe data type registry with default types");
 		}
 		return builder;
 	}
 
+	/**
+	 * Register the default data types with constructor references as factories.
+	 * @param builder The builder to register the data types in
+	 * @throws DatatypeRegistryException if an error occurs while registering
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static void registerDefaults(DataTypeRegistry.Builder builder) throws DatatypeRegistryException {
+		builder.register(OBJECT.getId(), ObjectDataType.class, ObjectDataType::new);
+		builder.register(BYTE.getId(), ByteDataType.class, ByteDataType::new);
+		builder.register(BOOLEAN.getId(), BooleanDataType.class, BooleanDataType::new);
+		builder.register(SHORT.getId(), ShortDataType.class, ShortDataType::new);
+		builder.register(INT.getId(), IntegerDataType.class, IntegerDataType::new);
+		builder.register(LONG.getId(), LongDataType.class, LongDataType::new);
+		builder.register(FLOAT.getId(), FloatDataType.class, FloatDataType::new);
+		builder.register(DOUBLE.getId(), DoubleDataType.class, DoubleDataType::new);
+		builder.register(STRING.getId(), StringDataType.class, StringDataType::new);
+		builder.register(DATETIME.getId(), DatetimeDataType.class, DatetimeDataType::new);
+		builder.register(LIST.getId(), (Class) ListDataType.class, ListDataType::new);
+		builder.register(ARRAY.getId(), (Class) ArrayDataType.class, ArrayDataType::new);
+		builder.register(BYTE_ARRAY.getId(), ByteArrayDataType.class, ByteArrayDataType::new);
+		builder.register(SHORT_ARRAY.getId(), ShortArrayDataType.class, ShortArrayDataType::new);
+		builder.register(INT_ARRAY.getId(), IntArrayDataType.class, IntArrayDataType::new);
+		builder.register(LONG_ARRAY.getId(), LongArrayDataType.class, LongArrayDataType::new);
+		builder.register(FLOAT_ARRAY.getId(), FloatArrayDataType.class, FloatArrayDataType::new);
+		builder.register(DOUBLE_ARRAY.getId(), DoubleArrayDataType.class, DoubleArrayDataType::new);
+		builder.register(RECORD_LIST.getId(), RecordListDataType.class, RecordListDataType::new);
+		builder.register(TABLE.getId(), TableDataType.class, TableDataType::new);
+	}
+
 }
@@ -1,7 +1,15 @@
 package marshmalliow.core.binary.registry;
 
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import marshmalliow.core.binary.data.DataType;
 import marshmalliow.core.binary.data.RegisteredDataType;
@@ -17,10 +25,14 @@ import marshmalliow.core.io.BinaryWriter;
  * If a data type is not registered and present in the binary data,
  * the reader/writer will throw an exception or the data could be corrupted.
  * <p>
+ * Every registered data type comes with a factory creating its empty instances. The factories
+ * are stored in a dense table indexed by the ID so {@link #create(byte)} doesn't need any reflection
+ * or boxing when a file is read.
+ * <p>
  * This class is immutable and can only be created using the builder, 
  * accessible via the static method {@link #builder()}.
  * @author 278deco
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  * @see DataType
  * @see RegisteredDataType
@@ -28,13 +40,27 @@ import marshmalliow.core.io.BinaryWriter;
  */
 public class DataTypeRegistry {
 
+	private static final int SIZE = 256;
+
 	/**
-	 * A map that contains all registered DataTypes with their ID.
+	 * The classes of all registered DataTypes, indexed by their unsigned ID.
 	 */
-	private final Map<Byte, Class<? extends RegisteredDataType>> registry;
+	private final Class<? extends DataType<?>>[] classes;
 
+	/**
+	 * The factories of all registered DataTypes, indexed by their unsigned ID.
+	 */
+	private final Supplier<? extends DataType<?>>[] factories;
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
 	private DataTypeRegistry(DataTypeRegistry.Builder builder) {
-		this.registry = builder.registry;
+		this.classes = new Class[SIZE];
+		this.factories = new Supplier[SIZE];
+
+		for(Map.Entry<Byte, Class<? extends DataType<?>>> entry : builder.registry.entrySet()) {
+			this.classes[entry.getKey() & 0xFF] = entry.getValue();
+			this.factories[entry.getKey() & 0xFF] = builder.factories.get(entry.getKey());
+		}
 	}
 
 	/**
@@ -43,11 +69,20 @@ public class DataTypeRegistry {
 	 * @param id the ID of the data type
 	 * @return the {@link DataType} class for the given ID or null if not found
 	 */
-	@SuppressWarnings("unchecked")
 	public Class<? extends DataType<?>> getDataTypeByID(byte id) {
-		final Class<? extends RegisteredDataType> result = this.registry.get(id);
-		
-		return result != null && result.isInstance(DataType.class) ? (Class<? extends DataType<?>>) result : null;
+		return this.classes[id & 0xFF];
+	}
+
+	/**
+	 * Create a new empty instance of the {@link DataType} registered with the given ID.
+	 *
+	 * @param id the ID of the data type
+	 * @return a new instance or null if no data type is registered with this ID
+	 */
+	public DataType<?> create(byte id) {
+		final Supplier<? extends DataType<?>> factory = this.factories[id & 0xFF];
+
+		return factory != null ? factory.get() : null;
 	}
 
 	/**
@@ -58,6 +93,72 @@ public class DataTypeRegistry {
 		return new DataTypeRegistry.Builder();
 	}
 
+	/**
+	 * Create a factory calling the no-argument constructor of the given class.<br/>
+	 * The factory is spun with the {@link LambdaMetafactory}, so it is as fast as a constructor reference.
+	 * If the constructor cannot be linked that way, for instance when the package of the class isn't open to this module,
+	 * a factory using the reflective constructor is returned.
+	 * @param cls the class of the data type
+	 * @return the factory
+	 * @throws DatatypeRegistryException If the class is abstract or doesn't have a no-argument constructor
+	 */
+	private static Supplier<? extends DataType<?>> createFactory(Class<? extends DataType<?>> cls) throws DatatypeRegistryException {
+		if(Modifier.isAbstract(cls.getModifiers())) throw new DatatypeRegistryException("Cannot create instances of the abstract class "+cls.getName());
+
+		final MethodHandle factory;
+		try {
+			final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+			final MethodHandle constructor = lookup.findConstructor(cls, MethodType.methodType(void.class));
+
+			factory = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+					MethodType.methodType(Object.class), constructor, MethodType.methodType(cls)).getTarget();
+		}catch(ReflectiveOperationException | LambdaConversionException | SecurityException e) {
+			return createReflectiveFactory(cls);
+		}
+
+		return invokeFactory(factory);
+	}
+
+	/**
+	 * Create a factory calling the reflective no-argument constructor of the given class.
+	 * @param cls the class of the data type
+	 * @return the factory
+	 * @throws DatatypeRegistryException If the class doesn't have a no-argument constructor or if it isn't accessible
+	 */
+	private static Supplier<? extends DataType<?>> createReflectiveFactory(Class<? extends DataType<?>> cls) throws DatatypeRegistryException {
+		try {
+			final Constructor<? extends DataType<?>> constructor = cls.getDeclaredConstructor();
+			constructor.setAccessible(true);
+
+			return () -> {
+				try {
+					return constructor.newInstance();
+				}catch(ReflectiveOperationException e) {
+					throw new IllegalStateException("Cannot create data type "+cls.getName(), e);
+				}
+			};
+		}catch(ReflectiveOperationException | RuntimeException e) {
+			throw new DatatypeRegistryException("No usable constructor without argument in "+cls.getName());
+		}
+	}
+
+	/**
+	 * Get the {@link Supplier} instance of a factory spun with the {@link LambdaMetafactory}.
+	 * @param factory the target of the call site returned by the metafactory
+	 * @return the supplier
+	 */
+	@SuppressWarnings("unchecked")
+	private static Supplier<? extends DataType<?>> invokeFactory(MethodHandle factory) {
+		try {
+			return (Supplier<? extends DataType<?>>) factory.invoke();
+		}catch(RuntimeException | Error e) {
+			throw e;
+		}catch(Throwable e) {
+			// The factory of a lambda without captured arguments doesn't throw any checked exception
+			throw new IllegalStateException("Cannot link the factory", e);
+		}
+	}
+
 	/**
 	 * The builder class for the {@link DataTypeRegistry}.
 	 * <p>
@@ -65,24 +166,45 @@ public class DataTypeRegistry {
 	 * It provides methods to register data types and build the registry.
 	 * <p>
 	 * @author 278deco
-	 * @version 1.0.0
+	 * @version 1.1.0
 	 * @since 0.1.0
 	 */
 	public static final class Builder {
 
-		private final Map<Byte, Class<? extends RegisteredDataType>> registry = new HashMap<>();
+		private final Map<Byte, Class<? extends DataType<?>>> registry = new HashMap<>();
+		private final Map<Byte, Supplier<? extends DataType<?>>> factories = new HashMap<>();
 
 		private Builder() { }
 
 		/**
 		 * Register a data type with the given ID.
+		 * <p>
+		 * The factory of the data type is generated from its no-argument constructor.
+		 * Prefer {@link #register(byte, Class, Supplier)} with a constructor reference when possible.
 		 * 
 		 * @param id the ID of the data type to register
 		 * @param cls the class of the data type to register
-		 * @throws DatatypeRegistryException If the class is not a subclass of {@link DataType} or the ID is 0 or already registered
+		 * @throws DatatypeRegistryException If the class is not a subclass of {@link DataType}, has no constructor without argument or the ID is 0 or already registered
 		 */
+		@SuppressWarnings("unchecked")
 		public void register(byte id, Class<? extends RegisteredDataType> cls) throws DatatypeRegistryException {
+			if(!DataType.class.isAssignableFrom(cls)) throw new DatatypeRegistryException(cls.getName()+" is not a DataType");
+
+			final Class<? extends DataType<?>> dataTypeClass = (Class<? extends DataType<?>>) cls;
+			register(id, dataTypeClass, createFactory(dataTypeClass));
+		}
+
+		/**
+		 * Register a data type with the given ID and the factory creating its instances.
+		 * 
+		 * @param id the ID of the data type to register
+		 * @param cls the class of the data type to register
+		 * @param factory the factory creating new empty instances, usually a constructor reference
+		 * @throws DatatypeRegistryException If the class is not a subclass of {@link DataType} or the ID is 0 or already registered
+		 */
+		public void register(byte id, Class<? extends DataType<?>> cls, Supplier<? extends DataType<?>> factory) throws DatatypeRegistryException {
 			if(!DataType.class.isAssignableFrom(cls) || (id == 0)) throw new DatatypeRegistryException("");
+			if(factory == null) throw new DatatypeRegistryException("No factory for "+cls.getName());
 			if(this.registry.containsKey(id)) throw new DatatypeRegistryException();
 
 			if(this.registry.containsValue(cls)) {
@@ -92,6 +214,7 @@ public class DataTypeRegistry {
 			}
 
 			this.registry.put(id, cls);
+			this.factories.put(id, factory);
 		}
 
 		/**
@@ -124,6 +247,7 @@ public class DataTypeRegistry {
 		 * @return true if the data type was removed, false
 		 */
 		public boolean remove(byte id) {
+			this.factories.remove(id);
 			return this.registry.remove(id) != null;
 		}
 
@@ -135,7 +259,10 @@ public class DataTypeRegistry {
 		 * @return true if the data type was removed, false
 		 */
 		public boolean remove(byte id, Class<? extends DataType<?>> cls) {
-			return this.registry.remove(id, cls);
+			if(!this.registry.remove(id, cls)) return false;
+
+			this.factories.remove(id);
+			return true;
 		}
 
 		/**
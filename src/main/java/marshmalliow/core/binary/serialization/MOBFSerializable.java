@@ -0,0 +1,54 @@
+package marshmalliow.core.binary.serialization;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+
+/**
+ * Marks a record or a class whose instances are stored in MOBF files.<br/>
+ * The {@link MOBFSerializableProcessor}, once enabled at compile time, generates a {@link DataType} named after the type with
+ * the <code>DataType</code> suffix, in the same package. Its values are written field after field straight to the writer, without any reflection.
+ * <p>
+ * The components of a record are written in their declaration order and read back through its canonical constructor.
+ * The fields of a class declared by the class itself are written in their declaration order, except <code>static</code>
+ * and <code>transient</code> fields. Classes need a constructor without argument, each field must be either visible
+ * from the package or have a getter (<code>getX</code>, <code>isX</code>) and a setter (<code>setX</code>) visible from the package.
+ * <p>
+ * The following types are supported:
+ * <ul>
+ * <li>Every primitive type, <code>int</code> and <code>long</code> are written as compact integers</li>
+ * <li>{@link String}, {@link marshmalliow.core.objects.DateTime} and enums, written by ordinal</li>
+ * <li>Arrays of <code>byte</code>, <code>short</code>, <code>int</code>, <code>long</code>, <code>float</code> and <code>double</code></li>
+ * <li>Other types annotated with {@link MOBFSerializable}</li>
+ * </ul>
+ * Values which aren't primitives may be <code>null</code>, they are preceded by a presence byte.
+ * <p>
+ * The generated data type must be registered before files holding it are read:
+ * <pre>
+ * &#64;MOBFSerializable(id = 64)
+ * public record Point(int x, int y) { }
+ *
+ * PointDataType.register(registryBuilder);
+ * </pre>
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ * @see DataTypeRegistry.Builder#register(byte, Class, java.util.function.Supplier)
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface MOBFSerializable {
+
+	/**
+	 * The id the generated data type is registered with.<br/>
+	 * It cannot be 0 and must not be used by another data type of the registry.
+	 * @return the id of the data type
+	 */
+	byte id();
+}
@@ -0,0 +1,350 @@
+package marshmalliow.core.binary.serialization;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import marshmalliow.core.binary.data.DataType;
+
+/**
+ * Annotation processor generating a {@link DataType} for every type annotated with {@link MOBFSerializable}.
+ * <p>
+ * The generated data type <code>XDataType</code> of a type <code>X</code> provides:
+ * <ul>
+ * <li><code>ID</code>, the id given by the annotation</li>
+ * <li><code>register(DataTypeRegistry.Builder)</code>, registering the data type with its constructor as factory</li>
+ * <li><code>write(BinaryWriter, Charset, X)</code> and <code>read(BinaryReader, Charset)</code>, encoding a value
+ * without creating any data type</li>
+ * </ul>
+ * The processor isn't registered as a service, compiling against the library doesn't run it implicitly.
+ * It must be enabled with the library on the annotation processor path:
+ * <pre>
+ * javac -processorpath marshmalliow.jar -processor marshmalliow.core.binary.serialization.MOBFSerializableProcessor ...
+ *
+ * // Gradle
+ * dependencies {
+ *     annotationProcessor 'fr.278deco:marshmalliow:&lt;version&gt;'
+ * }
+ * compileJava.options.compilerArgs += ['-processor', 'marshmalliow.core.binary.serialization.MOBFSerializableProcessor']
+ * </pre>
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+@SupportedAnnotationTypes("marshmalliow.core.binary.serialization.MOBFSerializable")
+public class MOBFSerializableProcessor extends AbstractProcessor {
+
+	private static final String SUFFIX = "DataType";
+	private static final String DATETIME = "marshmalliow.core.objects.DateTime";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for(Element element : roundEnv.getElementsAnnotatedWith(MOBFSerializable.class)) {
+			try {
+				if(element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD) {
+					throw new InvalidElementException(element, "Only records and classes can be annotated with @MOBFSerializable");
+				}
+
+				generate((TypeElement) element);
+			}catch(InvalidElementException e) {
+				this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+			}catch(IOException e) {
+				this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot generate the data type: "+e.getMessage(), element);
+			}
+		}
+
+		return true;
+	}
+
+	private void generate(TypeElement type) throws InvalidElementException, IOException {
+		final byte id = type.getAnnotation(MOBFSerializable.class).id();
+		if(id == 0) throw new InvalidElementException(type, "The id 0 is reserved to the end of objects");
+		if(type.getModifiers().contains(Modifier.PRIVATE) || type.getModifiers().contains(Modifier.ABSTRACT)) {
+			throw new InvalidElementException(type, "A @MOBFSerializable type cannot be private or abstract");
+		}
+		if(!type.getTypeParameters().isEmpty()) throw new InvalidElementException(type, "A @MOBFSerializable type cannot be generic");
+		if(type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC) && type.getKind() != ElementKind.RECORD) {
+			throw new InvalidElementException(type, "A nested @MOBFSerializable class must be static");
+		}
+
+		final String packageName = packageOf(type).getQualifiedName().toString();
+		final String name = generatedName(type);
+		final String typeName = type.getQualifiedName().toString();
+		final List<Property> properties = type.getKind() == ElementKind.RECORD ? recordProperties(type) : classProperties(type);
+		final Map<String, String> enums = new LinkedHashMap<>();
+
+		final StringBuilder write = new StringBuilder();
+		final StringBuilder read = new StringBuilder();
+		for(int i = 0; i < properties.size(); i++) {
+			final Property property = properties.get(i);
+			final Codec codec = codecOf(property, enums);
+			final String local = "f"+i;
+
+			write.append("\t\tfinal ").append(property.type).append(' ').append(local).append(" = ").append(property.getter).append(";\n");
+			if(codec.nullable) {
+				write.append("\t\twriter.writeBoolean(").append(local).append(" != null);\n");
+				write.append("\t\tif(").append(local).append(" != null) ");
+			}else {
+				write.append("\t\t");
+			}
+			write.append(String.format(codec.write, local)).append(";\n");
+
+			read.append("\t\tfinal ").append(property.type).append(' ').append(local).append(" = ");
+			if(codec.nullable) read.append("reader.readBoolean() ? ").append(codec.read).append(" : null;\n");
+			else read.append(codec.read).append(";\n");
+		}
+
+		if(type.getKind() == ElementKind.RECORD) {
+			read.append("\n\t\treturn new ").append(typeName).append('(');
+			for(int i = 0; i < properties.size(); i++) read.append(i > 0 ? ", " : "").append('f').append(i);
+			read.append(");\n");
+		}else {
+			read.append("\n\t\tfinal ").append(typeName).append(" value = new ").append(typeName).append("();\n");
+			for(int i = 0; i < properties.size(); i++) read.append("\t\t").append(String.format(properties.get(i).setter, "f"+i)).append(";\n");
+			read.append("\n\t\treturn value;\n");
+		}
+
+		final StringBuilder source = new StringBuilder();
+		if(!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+		source.append("import java.io.IOException;\n\n")
+			.append("import marshmalliow.core.binary.data.DataType;\n")
+			.append("import marshmalliow.core.binary.registry.DataTypeRegistry;\n")
+			.append("import marshmalliow.core.binary.serialization.MOBFSerialization;\n")
+			.append("import marshmalliow.core.binary.utils.Charset;\n")
+			.append("import marshmalliow.core.exceptions.DatatypeRegistryException;\n")
+			.append("import marshmalliow.core.io.BinaryReader;\n")
+			.append("import marshmalliow.core.io.BinaryWriter;\n\n")
+			.append("/**\n * Data type of {@link ").append(typeName).append("}, generated from its <code>@MOBFSerializable</code> annotation.\n */\n")
+			.append("@javax.annotation.processing.Generated(\"").append(MOBFSerializableProcessor.class.getName()).append("\")\n")
+			.append("public final class ").append(name).append(" extends DataType<").append(typeName).append("> {\n\n")
+			.append("\tpublic static final byte ID = ").append(id).append(";\n");
+		for(Map.Entry<String, String> constants : enums.entrySet()) {
+			source.append("\tprivate static final ").append(constants.getKey()).append("[] ").append(constants.getValue())
+				.append(" = ").append(constants.getKey()).append(".values();\n");
+		}
+		source.append('\n')
+			.append("\tpublic ").append(name).append("() {\n\t\tsuper();\n\t}\n\n")
+			.append("\tpublic ").append(name).append("(String name, ").append(typeName).append(" value) {\n\t\tsuper(name, value);\n\t}\n\n")
+			.append("\tpublic ").append(name).append('(').append(typeName).append(" value) {\n\t\tsuper(value);\n\t}\n\n")
+			.append("\tpublic static void register(DataTypeRegistry.Builder builder) throws DatatypeRegistryException {\n")
+			.append("\t\tbuilder.register(ID, ").append(name).append(".class, ").append(name).append("::new);\n\t}\n\n")
+			.append("\tpublic static void write(BinaryWriter writer, Charset charset, ").append(typeName).append(" value) throws IOException {\n")
+			.append(write).append("\t}\n\n")
+			.append("\tpublic static ").append(typeName).append(" read(BinaryReader reader, Charset charset) throws IOException {\n")
+			.append(read).append("\t}\n\n")
+			.append("\t@Override\n\tpublic void writeValue(BinaryWriter writer, DataTypeRegistry registry, Charset charset) throws IOException {\n")
+			.append("\t\twrite(writer, charset, this.getValue());\n\t}\n\n")
+			.append("\t@Override\n\tpublic void readValue(BinaryReader reader, DataTypeRegistry registry, Charset charset) throws IOException {\n")
+			.append("\t\tthis.setValue(read(reader, charset));\n\t}\n\n")
+			.append("\t@Override\n\tpublic byte getId() {\n\t\treturn ID;\n\t}\n\n")
+			.append("\t@Override\n\tpublic Category getCategory() {\n\t\treturn Category.ADVANCED;\n\t}\n")
+			.append("}\n");
+
+		final String qualifiedName = packageName.isEmpty() ? name : packageName+"."+name;
+		try(Writer out = this.processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+			out.write(source.toString());
+		}
+	}
+
+	private List<Property> recordProperties(TypeElement type) {
+		final List<Property> properties = new ArrayList<>();
+		for(RecordComponentElement component : type.getRecordComponents()) {
+			properties.add(new Property(component, component.asType(), "value."+component.getAccessor().getSimpleName()+"()", null));
+		}
+
+		return properties;
+	}
+
+	private List<Property> classProperties(TypeElement type) throws InvalidElementException {
+		final boolean constructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+				.anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+		if(!constructor) throw new InvalidElementException(type, "A @MOBFSerializable class needs a constructor without argument");
+
+		final List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+		final List<Property> properties = new ArrayList<>();
+		for(VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			final Set<Modifier> modifiers = field.getModifiers();
+			if(modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) continue;
+
+			final String name = field.getSimpleName().toString();
+			final String capitalized = Character.toUpperCase(name.charAt(0))+name.substring(1);
+
+			String getter = null;
+			String setter = null;
+			if(!modifiers.contains(Modifier.PRIVATE)) {
+				getter = "value."+name;
+				if(!modifiers.contains(Modifier.FINAL)) setter = "value."+name+" = %s";
+			}
+			for(ExecutableElement method : methods) {
+				if(method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) continue;
+
+				final String methodName = method.getSimpleName().toString();
+				if(getter == null && method.getParameters().isEmpty() && (methodName.equals("get"+capitalized) || methodName.equals("is"+capitalized))) {
+					getter = "value."+methodName+"()";
+				}else if(setter == null && method.getParameters().size() == 1 && methodName.equals("set"+capitalized)) {
+					setter = "value."+methodName+"(%s)";
+				}
+			}
+
+			if(getter == null || setter == null) throw new InvalidElementException(field, "The field "+name+" must be visible or have a getter and a setter");
+			properties.add(new Property(field, field.asType(), getter, setter));
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Find how a property is encoded, the constants of the enums used are added to the given map.
+	 */
+	private Codec codecOf(Property property, Map<String, String> enums) throws InvalidElementException {
+		final TypeMirror type = property.type;
+		switch(type.getKind()) {
+			case BOOLEAN -> {
+				return new Codec("writer.writeBoolean(%s)", "reader.readBoolean()", false);
+			}
+			case BYTE -> {
+				return new Codec("writer.writeByte(%s)", "reader.readByte()", false);
+			}
+			case SHORT -> {
+				return new Codec("writer.writeShort(%s)", "reader.readShort()", false);
+			}
+			case CHAR -> {
+				return new Codec("writer.writeChar(%s)", "reader.readChar()", false);
+			}
+			case INT -> {
+				return new Codec("writer.writeCompactInt(%s)", "reader.readCompactInt()", false);
+			}
+			case LONG -> {
+				return new Codec("writer.writeCompactLong(%s)", "reader.readCompactLong()", false);
+			}
+			case FLOAT -> {
+				return new Codec("writer.writeFloat(%s)", "reader.readFloat()", false);
+			}
+			case DOUBLE -> {
+				return new Codec("writer.writeDouble(%s)", "reader.readDouble()", false);
+			}
+			case ARRAY -> {
+				final String suffix = switch(((ArrayType) type).getComponentType().getKind()) {
+					case BYTE -> "Bytes";
+					case SHORT -> "Shorts";
+					case INT -> "Ints";
+					case LONG -> "Longs";
+					case FLOAT -> "Floats";
+					case DOUBLE -> "Doubles";
+					default -> null;
+				};
+				if(suffix != null) return new Codec("MOBFSerialization.write"+suffix+"(writer, %s)", "MOBFSerialization.read"+suffix+"(reader)", true);
+			}
+			case DECLARED -> {
+				final TypeElement element = (TypeElement) this.processingEnv.getTypeUtils().asElement(type);
+				final String qualifiedName = element.getQualifiedName().toString();
+
+				if(qualifiedName.equals(String.class.getName())) return new Codec("writer.writeUTF(%s, charset)", "reader.readUTF(charset)", true);
+				if(qualifiedName.equals(DATETIME)) return new Codec("writer.writeDatetime(%s)", "reader.readDatetime()", true);
+				if(element.getKind() == ElementKind.ENUM) {
+					final String constants = enums.computeIfAbsent(qualifiedName, key -> "CONSTANTS_"+enums.size());
+					return new Codec("writer.writeLength(%s.ordinal())", "MOBFSerialization.constant("+constants+", reader.readLength())", true);
+				}
+				if(element.getAnnotation(MOBFSerializable.class) != null) {
+					final String packageName = packageOf(element).getQualifiedName().toString();
+					final String generated = (packageName.isEmpty() ? "" : packageName+".")+generatedName(element);
+
+					return new Codec(generated+".write(writer, charset, %s)", generated+".read(reader, charset)", true);
+				}
+			}
+			default -> { }
+		}
+
+		throw new InvalidElementException(property.element, "Unsupported type "+type+" for a @MOBFSerializable type");
+	}
+
+	/**
+	 * Get the name of the data type generated for a type, nested types are prefixed by the names of the types enclosing them.
+	 */
+	private static String generatedName(TypeElement type) {
+		final StringBuilder name = new StringBuilder(type.getSimpleName()).append(SUFFIX);
+		for(Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+			name.insert(0, enclosing.getSimpleName()+"_");
+		}
+
+		return name.toString();
+	}
+
+	private static PackageElement packageOf(Element element) {
+		while(element.getKind() != ElementKind.PACKAGE) element = element.getEnclosingElement();
+
+		return (PackageElement) element;
+	}
+
+	/**
+	 * A field or a record component, with the expressions reading and writing it on a variable named <code>value</code>.
+	 */
+	private static final class Property {
+
+		private final Element element;
+		private final TypeMirror type;
+		private final String getter;
+		private final String setter;
+
+		private Property(Element element, TypeMirror type, String getter, String setter) {
+			this.element = element;
+			this.type = type;
+			this.getter = getter;
+			this.setter = setter;
+		}
+	}
+
+	/**
+	 * The statement writing a value (formatted with the value) and the expression reading it.
+	 */
+	private static final class Codec {
+
+		private final String write;
+		private final String read;
+		private final boolean nullable;
+
+		private Codec(String write, String read, boolean nullable) {
+			this.write = write;
+			this.read = read;
+			this.nullable = nullable;
+		}
+	}
+
+	private static final class InvalidElementException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient Element element;
+
+		private InvalidElementException(Element element, String message) {
+			super(message);
+			this.element = element;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package marshmalliow.core.binary.serialization;
+
+import java.io.IOException;
+
+import marshmalliow.core.io.BinaryReader;
+import marshmalliow.core.io.BinaryWriter;
+
+/**
+ * Methods called by the data types generated by the {@link MOBFSerializableProcessor}.<br/>
+ * Arrays are written like packed arrays: their length followed by their elements in a single block.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public final class MOBFSerialization {
+
+	private MOBFSerialization() { }
+
+	/**
+	 * Get the constant of an enum from its ordinal.
+	 * @param <E> The enum
+	 * @param constants The constants of the enum, in declaration order
+	 * @param ordinal The ordinal read
+	 * @return the constant
+	 * @throws IOException If no constant has this ordinal
+	 */
+	public static <E extends Enum<E>> E constant(E[] constants, int ordinal) throws IOException {
+		if(ordinal < 0 || ordinal >= constants.length) throw new IOException("Invalid ordinal "+ordinal+" for "+constants.getClass().getComponentType().getName());
+
+		return constants[ordinal];
+	}
+
+	public static void writeBytes(BinaryWriter writer, byte[] values) throws IOException {
+		writer.writeLength(values.length);
+		writer.write(values, 0, values.length);
+	}
+
+	public static byte[] readBytes(BinaryReader reader) throws IOException {
+		final byte[] values = new byte[reader.readLength()];
+		reader.readFully(values);
+
+		return values;
+	}
+
+	public static void writeShorts(BinaryWriter writer, short[] values) throws IOException {
+		writer.writeLength(values.length);
+		writer.writeShorts(values, 0, values.length);
+	}
+
+	public static short[] readShorts(BinaryReader reader) throws IOException {
+		final short[] values = new short[reader.readLength()];
+		reader.readShorts(values, 0, values.length);
+
+		return values;
+	}
+
+	public static void writeInts(BinaryWriter writer, int[] values) throws IOException {
+		writer.writeLength(values.length);
+		writer.writeInts(values, 0, values.length);
+	}
+
+	public static int[] readInts(BinaryReader reader) throws IOException {
+		final int[] values = new int[reader.readLength()];
+		reader.readInts(values, 0, values.length);
+
+		return values;
+	}
+
+	public static void writeLongs(BinaryWriter writer, long[] values) throws IOException {
+		writer.writeLength(values.length);
+		writer.writeLongs(values, 0, values.length);
+	}
+
+	public static long[] readLongs(BinaryReader reader) throws IOException {
+		final long[] values = new long[reader.readLength()];
+		reader.readLongs(values, 0, values.length);
+
+		return values;
+	}
+
+	public static void writeFloats(BinaryWriter writer, float[] values) throws IOException {
+		writer.writeLength(values.length);
+		writer.writeFloats(values, 0, values.length);
+	}
+
+	public static float[] readFloats(BinaryReader reader) throws IOException {
+		final float[] values = new float[reader.readLength()];
+		reader.readFloats(values, 0, values.length);
+
+		return values;
+	}
+
+	public static void writeDoubles(BinaryWriter writer, double[] values) throws IOException {
+		writer.writeLength(values.length);
+		writer.writeDoubles(values, 0, values.length);
+	}
+
+	public static double[] readDoubles(BinaryReader reader) throws IOException {
+		final double[] values = new double[reader.readLength()];
+		reader.readDoubles(values, 0, values.length);
+
+		return values;
+	}
+}
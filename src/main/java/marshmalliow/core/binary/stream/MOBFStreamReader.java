@@ -0,0 +1,242 @@
+package marshmalliow.core.binary.stream;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.data.KeyTable;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.exceptions.DatetimeDataFormatException;
+import marshmalliow.core.io.BinaryReader;
+
+/**
+ * Reader walking the content of a MOBF file and reporting it to a {@link MOBFVisitor}, without creating any {@link DataType}.
+ * <p>
+ * The data types of the format specification are decoded by the reader itself, primitives and the elements of packed arrays
+ * are reported without boxing them or creating any data type. Values of other data types are decoded by the data type registered with their id.<br/>
+ * The keys are still given as strings: files using the {@link FormatFeature#KEY_TABLE} feature report the strings of their
+ * key table, shared by every value with the same key, other files decode a new string for each key.
+ * Values refused by {@link MOBFVisitor#accept(String, byte)} are skipped: strings and packed arrays aren't decoded at all.
+ * <p>
+ * The content of a file can only be walked once.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ * @see MOBFFile#openStream()
+ */
+public class MOBFStreamReader implements Closeable {
+
+	private final BinaryReader reader;
+	private final DataTypeRegistry registry;
+	private final MOBFFileHeader header;
+	private final Charset charset;
+	private boolean consumed;
+
+	/**
+	 * Create a new stream reader and read the header of the file.
+	 * @param reader The reader positioned at the beginning of the uncompressed file
+	 * @param registry The registry used to decode the data types which aren't part of the format specification
+	 * @throws IOException If an I/O error occurs or if the header is malformed
+	 */
+	public MOBFStreamReader(BinaryReader reader, DataTypeRegistry registry) throws IOException {
+		this.reader = reader;
+		this.registry = registry;
+		this.header = new MOBFFileHeader(reader);
+		this.charset = this.header.getEncodingCharset();
+
+		reader.setFeatures(this.header.getFeatures());
+		if(this.header.hasFeature(FormatFeature.KEY_TABLE)) reader.setKeyTable(KeyTable.read(reader, this.charset));
+	}
+
+	/**
+	 * Walk the content of the file, starting with the root object.
+	 * @param visitor The visitor receiving the content
+	 * @throws IOException If an I/O error occurs or if the content is malformed
+	 * @throws IllegalStateException If the content has already been walked
+	 */
+	public void accept(MOBFVisitor visitor) throws IOException {
+		if(this.consumed) throw new IllegalStateException("The content of the file has already been read");
+		this.consumed = true;
+
+		if(this.reader.readByte() != DataTypeEnum.OBJECT.getId()) throw new IOException("The root of a MOBF file must be an object");
+
+		final String name = this.reader.readUTF(this.charset);
+		readValue(DataTypeEnum.OBJECT.getId(), name, visitor, visitor.accept(name, DataTypeEnum.OBJECT.getId()));
+	}
+
+	private void readValue(byte type, String name, MOBFVisitor visitor, boolean visit) throws IOException {
+		final DataTypeEnum known = DataTypeEnum.of(type);
+		// Record lists and tables may be written field by field, their rows are only complete once the whole value is decoded
+		if(known == null || known == DataTypeEnum.NULL || known == DataTypeEnum.RECORD_LIST || known == DataTypeEnum.TABLE) {
+			readRegistered(type, name, visitor, visit);
+			return;
+		}
+
+		switch(known) {
+			case OBJECT -> {
+				if(visit) visitor.beginObject(name);
+
+				byte childType;
+				while((childType = this.reader.readByte()) != DataTypeEnum.NULL.getId()) {
+					final String key = this.reader.readKey(this.charset);
+					readValue(childType, key, visitor, visit && visitor.accept(key, childType));
+				}
+
+				if(visit) visitor.endObject(name);
+			}
+			case LIST -> {
+				final byte elementType = this.reader.readByte();
+				final int size = this.reader.readLength();
+				if(visit) visitor.beginList(name, elementType, size);
+
+				for(int i = 0; i < size; i++) {
+					final String key = this.reader.readKey(this.charset);
+					readValue(elementType, key, visitor, visit && visitor.accept(key, elementType));
+				}
+
+				if(visit) visitor.endList(name);
+			}
+			case ARRAY -> {
+				final byte elementType = this.reader.readByte();
+				final int size = this.reader.readLength();
+				if(visit) visitor.beginArray(name, elementType, size);
+
+				for(int i = 0; i < size; i++) readValue(elementType, null, visitor, visit);
+
+				if(visit) visitor.endArray(name);
+			}
+			case BYTE -> {
+				final byte value = this.reader.readByte();
+				if(visit) visitor.byteField(name, value);
+			}
+			case BOOLEAN -> {
+				final boolean value = this.reader.readBoolean();
+				if(visit) visitor.booleanField(name, value);
+			}
+			case SHORT -> {
+				final short value = this.reader.readShort();
+				if(visit) visitor.shortField(name, value);
+			}
+			case INT -> {
+				final int value = this.reader.readCompactInt();
+				if(visit) visitor.intField(name, value);
+			}
+			case LONG -> {
+				final long value = this.reader.readCompactLong();
+				if(visit) visitor.longField(name, value);
+			}
+			case FLOAT -> {
+				final float value = this.reader.readFloat();
+				if(visit) visitor.floatField(name, value);
+			}
+			case DOUBLE -> {
+				final double value = this.reader.readDouble();
+				if(visit) visitor.doubleField(name, value);
+			}
+			case STRING -> {
+				if(visit) visitor.string(name, this.reader.readUTF(this.charset));
+				else skip(this.reader.readLength());
+			}
+			case DATETIME -> {
+				if(visit) visitor.datetime(name, this.reader.readDatetime());
+				else skipDatetime();
+			}
+			default -> readPackedArray(known, name, visitor, visit);
+		}
+	}
+
+	/**
+	 * Read a packed array, each element is reported as a field without name.
+	 */
+	private void readPackedArray(DataTypeEnum type, String name, MOBFVisitor visitor, boolean visit) throws IOException {
+		final int length = this.reader.readLength();
+		final DataTypeEnum elementType = switch(type) {
+			case BYTE_ARRAY -> DataTypeEnum.BYTE;
+			case SHORT_ARRAY -> DataTypeEnum.SHORT;
+			case INT_ARRAY -> DataTypeEnum.INT;
+			case LONG_ARRAY -> DataTypeEnum.LONG;
+			case FLOAT_ARRAY -> DataTypeEnum.FLOAT;
+			case DOUBLE_ARRAY -> DataTypeEnum.DOUBLE;
+			default -> throw new IOException("Unexpected data type "+type);
+		};
+
+		if(!visit) {
+			final int elementSize = switch(elementType) {
+				case BYTE -> Byte.BYTES;
+				case SHORT -> Short.BYTES;
+				case INT, FLOAT -> Integer.BYTES;
+				default -> Long.BYTES;
+			};
+			skip((long) length * elementSize);
+			return;
+		}
+
+		visitor.beginArray(name, elementType.getId(), length);
+		for(int i = 0; i < length; i++) {
+			switch(elementType) {
+				case BYTE -> visitor.byteField(null, this.reader.readByte());
+				case SHORT -> visitor.shortField(null, this.reader.readShort());
+				case INT -> visitor.intField(null, this.reader.readInt());
+				case LONG -> visitor.longField(null, this.reader.readLong());
+				case FLOAT -> visitor.floatField(null, this.reader.readFloat());
+				default -> visitor.doubleField(null, this.reader.readDouble());
+			}
+		}
+		visitor.endArray(name);
+	}
+
+	/**
+	 * Decode a value of a data type which isn't part of the format specification with the registry.
+	 */
+	private void readRegistered(byte type, String name, MOBFVisitor visitor, boolean visit) throws IOException {
+		final DataType<?> data = this.registry.create(type);
+		if(data == null) throw new IOException("Unknown data type "+type+(name != null ? " for "+name : ""));
+
+		if(name != null) data.setName(name);
+		data.read(this.reader, this.registry, this.charset);
+		if(visit) visitor.dataType(name, data);
+	}
+
+	/**
+	 * Skip a datetime, the fields present are given by its control byte.
+	 */
+	private void skipDatetime() throws IOException {
+		final int controlByte = this.reader.readUnsignedByte();
+		if(controlByte == 0x00) throw new DatetimeDataFormatException();
+
+		// Year and complementary value use two bytes, every other field a single byte
+		skip(Integer.bitCount(controlByte) + ((controlByte >> 7) & 0x01) + ((controlByte >> 1) & 0x01));
+	}
+
+	private void skip(long length) throws IOException {
+		while(length > 0) {
+			final int skipped = this.reader.skipBytes((int) Math.min(length, Integer.MAX_VALUE));
+			if(skipped <= 0) throw new EOFException();
+
+			length -= skipped;
+		}
+	}
+
+	/**
+	 * Get the header of the file.
+	 * @return the header
+	 */
+	public MOBFFileHeader getHeader() {
+		return header;
+	}
+
+	/**
+	 * Closes the underlying reader.
+	 * @throws IOException If an I/O error occurs
+	 */
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+}
@@ -0,0 +1,413 @@
+package marshmalliow.core.binary.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.data.KeyTable;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.MOBFFileIndex;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.io.BinaryWriter;
+import marshmalliow.core.objects.DateTime;
+
+/**
+ * Writer producing a MOBF file value by value, without building an {@link ObjectDataType} first.
+ * <p>
+ * The first call must be {@link #beginObject(String)}, opening the root object. Every value is then written
+ * in the innermost object, list or array still open:
+ * <ul>
+ * <li>In an object, values need a name and may use any data type</li>
+ * <li>In a list, values need a name and must use the element type of the list</li>
+ * <li>In an array, values don't have a name and must use the element type of the array</li>
+ * </ul>
+ * The size of a list or an array can be given as {@link #UNKNOWN_SIZE}. It is then written once the container
+ * is ended, by overwriting the bytes reserved for it. This requires the writer to target a {@link SeekableByteChannel},
+ * unless the container is small enough to still be held by the buffer of the writer.
+ * <p>
+ * Files using the {@link FormatFeature#KEY_TABLE} feature need every key to be known beforehand.
+ * The index of the {@link FormatFeature#INDEXED} feature is kept in memory and written when the writer is closed.
+ * The {@link FormatFeature#CHECKSUM} feature isn't supported.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ * @see MOBFFile#openStreamWriter(MOBFFileHeader, KeyTable)
+ */
+public class MOBFStreamWriter implements Closeable {
+
+	/**
+	 * Size given to a list or an array whose number of elements is only known once it is ended
+	 */
+	public static final int UNKNOWN_SIZE = -1;
+
+	/**
+	 * Number of bytes of a varint holding any positive integer
+	 */
+	private static final int PADDED_VARINT_SIZE = 5;
+
+	private final BinaryWriter writer;
+	private final SeekableByteChannel channel;
+	private final long channelStart;
+	private final MOBFFileHeader header;
+	private final Charset charset;
+	private final DataTypeRegistry registry;
+	private final Deque<Frame> frames = new ArrayDeque<>();
+	private boolean rootWritten;
+	private boolean closed;
+
+	/**
+	 * Create a new writer targeting a channel, starting at its current position.<br/>
+	 * The sizes of the lists and arrays can be given once they are ended.
+	 * @param channel The channel to write to
+	 * @param header The header of the file
+	 * @param keyTable The keys used by the content, required by the {@link FormatFeature#KEY_TABLE} feature, <code>null</code> otherwise
+	 * @param registry The registry of the data types written with {@link #write(DataType)}
+	 * @throws IOException If an I/O error occurs
+	 */
+	public MOBFStreamWriter(SeekableByteChannel channel, MOBFFileHeader header, KeyTable keyTable, DataTypeRegistry registry) throws IOException {
+		this(new BinaryWriter(Channels.newOutputStream(channel)), channel, channel.position(), header, keyTable, registry);
+	}
+
+	/**
+	 * Create a new writer targeting a stream.<br/>
+	 * The sizes of the lists and arrays can only be given once they are ended if they are still held by the buffer of the writer.
+	 * @param out The stream to write to
+	 * @param header The header of the file
+	 * @param keyTable The keys used by the content, required by the {@link FormatFeature#KEY_TABLE} feature, <code>null</code> otherwise
+	 * @param registry The registry of the data types written with {@link #write(DataType)}
+	 * @throws IOException If an I/O error occurs
+	 */
+	public MOBFStreamWriter(OutputStream out, MOBFFileHeader header, KeyTable keyTable, DataTypeRegistry registry) throws IOException {
+		this(new BinaryWriter(out), null, 0, header, keyTable, registry);
+	}
+
+	private MOBFStreamWriter(BinaryWriter writer, SeekableByteChannel channel, long channelStart, MOBFFileHeader header, KeyTable keyTable,
+			DataTypeRegistry registry) throws IOException {
+		if(header.hasFeature(FormatFeature.KEY_TABLE) == (keyTable == null)) {
+			throw new IllegalArgumentException("A key table must be given if and only if the header uses the KEY_TABLE feature");
+		}
+		// The sizes written once the containers are ended may change bytes already checked
+		if(header.hasFeature(FormatFeature.CHECKSUM)) throw new IllegalArgumentException("The CHECKSUM feature isn't supported by the stream writer");
+
+		this.writer = writer;
+		this.channel = channel;
+		this.channelStart = channelStart;
+		this.header = header;
+		this.charset = header.getEncodingCharset();
+		this.registry = registry;
+
+		header.write(writer);
+		writer.setFeatures(header.getFeatures());
+		if(keyTable != null) {
+			keyTable.write(writer, this.charset);
+			writer.setKeyTable(keyTable);
+		}
+		if(header.hasFeature(FormatFeature.INDEXED)) writer.setIndexBuilder(new MOBFFileIndex.Builder());
+	}
+
+	/**
+	 * Open an object, the root object if nothing has been written yet.
+	 * @param name The name of the object
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void beginObject(String name) throws IOException {
+		if(this.frames.isEmpty()) {
+			if(this.rootWritten) throw new IllegalStateException("The root object has already been written");
+
+			this.writer.writeByte(DataTypeEnum.OBJECT.getId());
+			this.writer.writeUTF(name == null ? "" : name, this.charset);
+			this.frames.push(new Frame(DataTypeEnum.OBJECT.getId(), -1, -1, MOBFFileIndex.ROOT));
+			return;
+		}
+
+		final int indexEntry = beginValue(name, DataTypeEnum.OBJECT.getId());
+		this.frames.push(new Frame(DataTypeEnum.OBJECT.getId(), -1, -1, indexEntry));
+	}
+
+	/**
+	 * Close the innermost object.
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void endObject() throws IOException {
+		final Frame frame = end(DataTypeEnum.OBJECT.getId());
+		this.writer.writeByte(DataTypeEnum.NULL.getId());
+
+		if(this.frames.isEmpty()) this.rootWritten = true;
+		else endValue(frame.indexEntry);
+	}
+
+	/**
+	 * Open a list.
+	 * @param name The name of the list
+	 * @param elementType The id of the data type of the elements
+	 * @param size The number of elements or {@link #UNKNOWN_SIZE}
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void beginList(String name, byte elementType, int size) throws IOException {
+		beginContainer(name, DataTypeEnum.LIST.getId(), elementType, size);
+	}
+
+	/**
+	 * Close the innermost list, writing its size if it was unknown.
+	 * @throws IOException If an I/O error occurs or if the size cannot be written
+	 */
+	public void endList() throws IOException {
+		endContainer(end(DataTypeEnum.LIST.getId()));
+	}
+
+	/**
+	 * Open an array of primitive values.
+	 * @param name The name of the array
+	 * @param elementType The id of the data type of the elements
+	 * @param size The number of elements or {@link #UNKNOWN_SIZE}
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void beginArray(String name, byte elementType, int size) throws IOException {
+		final DataTypeEnum known = DataTypeEnum.of(elementType);
+		if(known == null || known.getId() < DataTypeEnum.BYTE.getId() || known.getId() > DataTypeEnum.DOUBLE.getId()) {
+			throw new IllegalArgumentException("Array type cannot contains non primitive datatype "+elementType);
+		}
+
+		beginContainer(name, DataTypeEnum.ARRAY.getId(), elementType, size);
+	}
+
+	/**
+	 * Close the innermost array, writing its size if it was unknown.
+	 * @throws IOException If an I/O error occurs or if the size cannot be written
+	 */
+	public void endArray() throws IOException {
+		endContainer(end(DataTypeEnum.ARRAY.getId()));
+	}
+
+	public void writeByte(String name, byte value) throws IOException {
+		final int indexEntry = beginValue(name, DataTypeEnum.BYTE.getId());
+		this.writer.writeByte(value);
+		endValue(indexEntry);
+	}
+
+	public void writeBoolean(String name, boolean value) throws IOException {
+		final int indexEntry = beginValue(name, DataTypeEnum.BOOLEAN.getId());
+		this.writer.writeBoolean(value);
+		endValue(indexEntry);
+	}
+
+	public void writeShort(String name, short value) throws IOException {
+		final int indexEntry = beginValue(name, DataTypeEnum.SHORT.getId());
+		this.writer.writeShort(value);
+		endValue(indexEntry);
+	}
+
+	public void writeInt(String name, int value) throws IOException {
+		final int indexEntry = beginValue(name, DataTypeEnum.INT.getId());
+		this.writer.writeCompactInt(value);
+		endValue(indexEntry);
+	}
+
+	public void writeLong(String name, long value) throws IOException {
+		final int indexEntry = beginValue(name, DataTypeEnum.LONG.getId());
+		this.writer.writeCompactLong(value);
+		endValue(indexEntry);
+	}
+
+	public void writeFloat(String name, float value) throws IOException {
+		final int indexEntry = beginValue(name, DataTypeEnum.FLOAT.getId());
+		this.writer.writeFloat(value);
+		endValue(indexEntry);
+	}
+
+	public void writeDouble(String name, double value) throws IOException {
+		final int indexEntry = beginValue(name, DataTypeEnum.DOUBLE.getId());
+		this.writer.writeDouble(value);
+		endValue(indexEntry);
+	}
+
+	public void writeString(String name, String value) throws IOException {
+		final int indexEntry = beginValue(name, DataTypeEnum.STRING.getId());
+		this.writer.writeUTF(value, this.charset);
+		endValue(indexEntry);
+	}
+
+	public void writeDatetime(String name, DateTime value) throws IOException {
+		final int indexEntry = beginValue(name, DataTypeEnum.DATETIME.getId());
+		this.writer.writeDatetime(value);
+		endValue(indexEntry);
+	}
+
+	/**
+	 * Write a value built beforehand, such as a packed array or a small object.<br/>
+	 * The name of the value is used as its key.
+	 * @param value The value to write
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void write(DataType<?> value) throws IOException {
+		final int indexEntry = beginValue(value.getName().orElse(null), value.getId());
+		value.write(this.writer, this.registry, this.charset);
+		endValue(indexEntry);
+	}
+
+	/**
+	 * Get the number of bytes written so far.
+	 * @return the size of the file being written
+	 */
+	public long size() {
+		return this.writer.size();
+	}
+
+	/**
+	 * Write the index if the file is indexed, flush and close the target.
+	 * @throws IOException If an I/O error occurs or if the root object isn't complete
+	 */
+	@Override
+	public void close() throws IOException {
+		if(this.closed) return;
+		this.closed = true;
+
+		try {
+			if(!this.rootWritten || !this.frames.isEmpty()) throw new IOException("Cannot close a MOBF stream before its root object is ended");
+
+			if(this.writer.getIndexBuilder() != null) this.writer.getIndexBuilder().build().write(this.writer, this.charset);
+			this.writer.flush();
+		}finally {
+			this.writer.close();
+		}
+	}
+
+	public MOBFFileHeader getHeader() {
+		return header;
+	}
+
+	private void beginContainer(String name, byte type, byte elementType, int size) throws IOException {
+		if(size < 0 && size != UNKNOWN_SIZE) throw new IllegalArgumentException("Invalid size "+size);
+
+		final int indexEntry = beginValue(name, type);
+		this.writer.writeByte(elementType);
+
+		final long sizePosition = this.writer.size();
+		if(size == UNKNOWN_SIZE) this.writer.write(encodeSize(0), 0, this.header.hasFeature(FormatFeature.VARINT) ? PADDED_VARINT_SIZE : Integer.BYTES);
+		else this.writer.writeLength(size);
+
+		this.frames.push(new Frame(type, elementType, size, indexEntry, sizePosition));
+	}
+
+	private void endContainer(Frame frame) throws IOException {
+		if(frame.size == UNKNOWN_SIZE) {
+			final byte[] size = encodeSize(frame.count);
+			final int length = this.header.hasFeature(FormatFeature.VARINT) ? PADDED_VARINT_SIZE : Integer.BYTES;
+
+			if(!this.writer.patch(frame.sizePosition, size, 0, length)) {
+				if(this.channel == null) throw new IOException("Cannot write the size of a container already flushed to a stream, give its size beforehand");
+
+				// The bytes have left the buffer, they are overwritten in the channel
+				this.writer.flush();
+				final long position = this.channel.position();
+				this.channel.position(this.channelStart + frame.sizePosition);
+				final ByteBuffer buffer = ByteBuffer.wrap(size, 0, length);
+				while(buffer.hasRemaining()) this.channel.write(buffer);
+				this.channel.position(position);
+			}
+		}else if(frame.count != frame.size) {
+			throw new IllegalStateException("Expected "+frame.size+" elements, got "+frame.count);
+		}
+
+		endValue(frame.indexEntry);
+	}
+
+	/**
+	 * Encode a size on a fixed number of bytes: a varint padded to 5 bytes or a 4-byte integer.
+	 */
+	private byte[] encodeSize(int size) {
+		final byte[] bytes = new byte[PADDED_VARINT_SIZE];
+		if(this.header.hasFeature(FormatFeature.VARINT)) {
+			for(int i = 0; i < PADDED_VARINT_SIZE - 1; i++) {
+				bytes[i] = (byte) ((size & 0x7F) | 0x80);
+				size >>>= 7;
+			}
+			bytes[PADDED_VARINT_SIZE - 1] = (byte) size;
+		}else {
+			bytes[0] = (byte) (size >>> 24);
+			bytes[1] = (byte) (size >>> 16);
+			bytes[2] = (byte) (size >>> 8);
+			bytes[3] = (byte) size;
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Write what precedes a value in its container and record it in the index.
+	 * @return the index entry of the value, negative if it isn't indexed
+	 */
+	private int beginValue(String name, byte type) throws IOException {
+		final Frame parent = this.frames.peek();
+		if(parent == null) throw new IllegalStateException("The root object must be opened first");
+		if(parent.size >= 0 && parent.count >= parent.size) throw new IllegalStateException("Cannot write more than "+parent.size+" elements");
+		parent.count++;
+
+		if(parent.type == DataTypeEnum.OBJECT.getId()) {
+			if(name == null) throw new IllegalArgumentException("Cannot write a value without a name in an object");
+
+			this.writer.writeByte(type);
+			this.writer.writeKey(name, this.charset);
+
+			final MOBFFileIndex.Builder index = this.writer.getIndexBuilder();
+			return index != null ? index.begin(name, type, this.writer.size()) : -1;
+		}
+
+		if(type != parent.elementType) throw new IllegalArgumentException("Expected an element of type "+parent.elementType+", got "+type);
+		if(parent.type == DataTypeEnum.LIST.getId()) {
+			if(name == null) throw new IllegalArgumentException("Cannot write a value without a name in a list");
+			this.writer.writeKey(name, this.charset);
+		}
+
+		return -1;
+	}
+
+	private void endValue(int indexEntry) {
+		final Frame parent = this.frames.peek();
+		final MOBFFileIndex.Builder index = this.writer.getIndexBuilder();
+		if(index != null && parent != null && parent.type == DataTypeEnum.OBJECT.getId()) index.end(indexEntry, this.writer.size());
+	}
+
+	private Frame end(byte type) {
+		final Frame frame = this.frames.peek();
+		if(frame == null || frame.type != type) throw new IllegalStateException("No "+DataTypeEnum.of(type)+" to end");
+
+		return this.frames.pop();
+	}
+
+	/**
+	 * An object, a list or an array being written.
+	 */
+	private static final class Frame {
+
+		private final byte type;
+		private final byte elementType;
+		private final int size;
+		private final int indexEntry;
+		private final long sizePosition;
+		private int count;
+
+		private Frame(byte type, int elementType, int size, int indexEntry) {
+			this(type, (byte) elementType, size, indexEntry, -1);
+		}
+
+		private Frame(byte type, byte elementType, int size, int indexEntry, long sizePosition) {
+			this.type = type;
+			this.elementType = elementType;
+			this.size = size;
+			this.indexEntry = indexEntry;
+			this.sizePosition = sizePosition;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package marshmalliow.core.binary.stream;
+
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.objects.DateTime;
+
+/**
+ * Callbacks receiving the content of a MOBF file walked by a {@link MOBFStreamReader}.<br/>
+ * Every method does nothing by default, a visitor only overrides the events it is interested in.
+ * <p>
+ * The name given to each callback is the key of the value in its object or list, or <code>null</code>
+ * for the elements of an array. Types are the ids of the {@link DataTypeEnum}.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public interface MOBFVisitor {
+
+	/**
+	 * Called before every value of an object or a list, and before every array.<br/>
+	 * Values which are refused are skipped without being decoded, nested values included.
+	 * @param name The name of the value
+	 * @param type The id of the data type of the value
+	 * @return true to visit the value, false to skip it
+	 */
+	default boolean accept(String name, byte type) {
+		return true;
+	}
+
+	default void beginObject(String name) { }
+
+	default void endObject(String name) { }
+
+	/**
+	 * Called before the elements of a list, each element is then visited with its name.
+	 * @param name The name of the list
+	 * @param elementType The id of the data type of the elements
+	 * @param size The number of elements
+	 */
+	default void beginList(String name, byte elementType, int size) { }
+
+	default void endList(String name) { }
+
+	/**
+	 * Called before the elements of an array or a packed array, each element is then visited without name.
+	 * @param name The name of the array
+	 * @param elementType The id of the data type of the elements, the primitive type for packed arrays
+	 * @param size The number of elements
+	 */
+	default void beginArray(String name, byte elementType, int size) { }
+
+	default void endArray(String name) { }
+
+	default void byteField(String name, byte value) { }
+
+	default void booleanField(String name, boolean value) { }
+
+	default void shortField(String name, short value) { }
+
+	default void intField(String name, int value) { }
+
+	default void longField(String name, long value) { }
+
+	default void floatField(String name, float value) { }
+
+	default void doubleField(String name, double value) { }
+
+	default void string(String name, CharSequence value) { }
+
+	default void datetime(String name, DateTime value) { }
+
+	/**
+	 * Called for the values of the data types which aren't part of the format specification.<br/>
+	 * Such values are decoded by the data type registered with their id.
+	 * @param name The name of the value
+	 * @param value The decoded value
+	 */
+	default void dataType(String name, DataType<?> value) { }
+}
@@ -11,10 +11,10 @@ public enum Charset {
 	UTF8(0x01, StandardCharsets.UTF_8),
 	
 	/**
-	 * The UTF-16 charset. <br/>
+	 * The UTF-16 charset, big-endian without byte order mark. <br/>
 	 * Uses 0x02 as id in MOBF specification.
 	 */
-	UTF16(0x02, StandardCharsets.UTF_16),
+	UTF16(0x02, StandardCharsets.UTF_16BE),
 	
 	/**
 	 * Null charset.
@@ -1,29 +1,69 @@
 package marshmalliow.core.binary.utils;
 
+import marshmalliow.core.binary.compression.CompressionCodec;
+import marshmalliow.core.binary.compression.CompressionCodecs;
+
+/**
+ * Compression of a MOBF file using one of the built-in {@link CompressionCodec}.
+ * @author 278deco
+ * @version 1.1.0
+ * @see CompressionCodecs
+ */
 public enum CompressionType {
 
 	/**
 	 * GZIP compression
 	 * @see <a href="https://tools.ietf.org/html/rfc1952">RFC 1952</a>
 	 */
-	GZIP(new byte[] {0x1F, (byte)0x8B}),
+	GZIP(CompressionCodecs.GZIP),
+	
+	/**
+	 * Raw deflate compression, supporting levels and preset dictionaries
+	 */
+	DEFLATE(CompressionCodecs.DEFLATE),
+	
+	/**
+	 * LZ4 compression, faster to decompress than deflate but with a lower ratio
+	 */
+	LZ4(CompressionCodecs.LZ4),
 	
 	/**
 	 * No compression
 	 */
-	NONE(new byte[] {0x00});
+	NONE(null);
 	
-	private byte[] signature;
-	private CompressionType(byte[] signature) {
-		this.signature = signature;
+	private final CompressionCodec codec;
+	private CompressionType(CompressionCodec codec) {
+		this.codec = codec;
+	}
+	
+	/**
+	 * Get the codec of the compression.
+	 * @return the codec or <code>null</code> for {@link #NONE}
+	 */
+	public CompressionCodec getCodec() {
+		return codec;
 	}
 	
 	public byte[] getSignature() {
-		return signature;
+		return codec == null ? new byte[] {0x00} : codec.getSignature();
 	}
 	
 	public int getSignatureLength() {
-		return signature.length;
+		return getSignature().length;
+	}
+	
+	/**
+	 * Get the compression type using the given codec.
+	 * @param codec The codec or <code>null</code> for no compression
+	 * @return the type or <code>null</code> if the codec isn't a built-in codec
+	 */
+	public static CompressionType of(CompressionCodec codec) {
+		for(CompressionType type : values()) {
+			if(type.codec == codec) return type;
+		}
+		
+		return null;
 	}
 	
 }
@@ -0,0 +1,124 @@
+package marshmalliow.core.binary.utils;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import marshmalliow.core.binary.data.MOBFFileHeader;
+
+/**
+ * Optional features of the MOBF File Format.<br/>
+ * Since the version 2 of the format, the features used by a file are stored as flags
+ * in the last two bytes of the {@link MOBFFileHeader}.
+ * @author 278deco
+ * @version 1.1.0
+ * @since 0.3.5
+ */
+public enum FormatFeature {
+
+	/**
+	 * An index of the object keys and the offsets of their values is appended at the end of the file.<br/>
+	 * Allows to read a single field without decoding the whole file.
+	 */
+	INDEXED(0x0001, false),
+	
+	/**
+	 * Lengths of strings and sizes of lists and arrays are written as unsigned LEB128 varints instead of 4-byte integers.<br/>
+	 * Short keys and small containers only use a single byte for their length.
+	 */
+	VARINT(0x0002, true),
+	
+	/**
+	 * Values of integer and long data types are written as zigzag encoded varints.<br/>
+	 * Small values, positive or negative, use less bytes than their fixed size.
+	 */
+	ZIGZAG(0x0004, true),
+	
+	/**
+	 * A table of every key is written after the header and the keys of the objects and lists refer to it by index.<br/>
+	 * Keys shared by many objects are only stored once.
+	 */
+	KEY_TABLE(0x0008, true),
+	
+	/**
+	 * A CRC32C checksum of each section of the file (header, key table, content and index) is written in a trailer at the end of the file.<br/>
+	 * Corrupted sections are reported by {@link marshmalliow.core.exceptions.ChecksumException} instead of failing the parsing.
+	 */
+	CHECKSUM(0x0010, false);
+
+	private final int flag;
+	private final boolean encoding;
+	private FormatFeature(int flag, boolean encoding) {
+		this.flag = flag;
+		this.encoding = encoding;
+	}
+
+	/**
+	 * Get the bit flag of the feature.
+	 * @return the flag
+	 */
+	public int getFlag() {
+		return flag;
+	}
+
+	/**
+	 * Tell if the feature changes the way the values are encoded.<br/>
+	 * Values can only be copied as is between files using the same encoding features.
+	 * @return true if the feature changes the encoding of the values
+	 */
+	public boolean isEncoding() {
+		return encoding;
+	}
+
+	/**
+	 * Get the features enabled in the given flags.<br/>
+	 * Unknown flags are ignored.
+	 * @param flags The flags read from a header
+	 * @return a set of features
+	 */
+	public static Set<FormatFeature> of(int flags) {
+		final Set<FormatFeature> features = EnumSet.noneOf(FormatFeature.class);
+		for(FormatFeature feature : values()) {
+			if((flags & feature.flag) != 0) features.add(feature);
+		}
+
+		return features;
+	}
+
+	/**
+	 * Get the flags of the given features.
+	 * @param features The features enabled
+	 * @return the flags to write in a header
+	 */
+	public static int toFlags(Set<FormatFeature> features) {
+		int flags = 0;
+		for(FormatFeature feature : features) flags |= feature.flag;
+
+		return flags;
+	}
+
+	/**
+	 * Get the flags of the given features changing the encoding of the values.
+	 * @param features The features enabled
+	 * @return the flags of the encoding features
+	 * @see #isEncoding()
+	 */
+	public static int encodingFlags(Set<FormatFeature> features) {
+		int flags = 0;
+		for(FormatFeature feature : features) {
+			if(feature.encoding) flags |= feature.flag;
+		}
+
+		return flags;
+	}
+
+	/**
+	 * Get the mask of every known flag.
+	 * @return the mask
+	 */
+	public static int knownFlags() {
+		int flags = 0;
+		for(FormatFeature feature : values()) flags |= feature.flag;
+
+		return flags;
+	}
+}
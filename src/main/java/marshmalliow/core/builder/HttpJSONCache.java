@@ -0,0 +1,161 @@
+package marshmalliow.core.builder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import marshmalliow.core.helpers.JSONHelper;
+import marshmalliow.core.json.objects.JSONContainer;
+
+/**
+ * Response cache used by the HTTP methods of {@link JSONFactory}.<br/>
+ * Parsed pages are stored with their validators (<code>ETag</code> and <code>Last-Modified</code> headers).
+ * <p>
+ * While an entry is younger than the time to live, it is returned without any request.
+ * Once expired, a conditional GET is sent and the cached content is returned if the server answers
+ * <code>304 Not Modified</code>. The least recently used entries are evicted when the cache is full.
+ * <p>
+ * Every call returns a deep copy of the cached content, modifying it doesn't alter the cache.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ * @see JSONFactory#withHttpCache(HttpJSONCache)
+ */
+public class HttpJSONCache {
+
+	public static final int DEFAULT_MAXIMUM_ENTRIES = 64;
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(5);
+
+	private final Map<URI, CacheEntry> entries;
+	private final long timeToLive;
+
+	/**
+	 * Create a new {@link HttpJSONCache} with {@link #DEFAULT_MAXIMUM_ENTRIES} entries
+	 * and a time to live of {@link #DEFAULT_TIME_TO_LIVE}.
+	 */
+	public HttpJSONCache() {
+		this(DEFAULT_MAXIMUM_ENTRIES, DEFAULT_TIME_TO_LIVE);
+	}
+
+	/**
+	 * Create a new {@link HttpJSONCache}.
+	 * @param maximumEntries The maximum number of pages kept in the cache
+	 * @param timeToLive The duration during which a page is returned without being revalidated
+	 */
+	public HttpJSONCache(int maximumEntries, Duration timeToLive) {
+		if(maximumEntries <= 0) throw new IllegalArgumentException("The maximum number of entries must be positive, got "+maximumEntries);
+		if(timeToLive.isNegative()) throw new IllegalArgumentException("The time to live cannot be negative, got "+timeToLive);
+
+		this.timeToLive = timeToLive.toNanos();
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 7142580937165254013L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<URI, CacheEntry> eldest) {
+				return size() > maximumEntries;
+			}
+		};
+	}
+
+	/**
+	 * Get the content of a page, from the cache if it is still valid or from the server otherwise.
+	 * @param factory The factory used to send the requests
+	 * @param uri an {@link URI} where the data is stored
+	 * @return A future completed with a copy of the content of the page
+	 */
+	CompletableFuture<JSONContainer> get(JSONFactory factory, URI uri) {
+		final CacheEntry entry = getEntry(uri);
+		if(entry != null && System.nanoTime() - entry.storedAt < this.timeToLive) {
+			return CompletableFuture.completedFuture(JSONHelper.deepCopy(entry.content));
+		}
+
+		final HttpRequest.Builder request = JSONFactory.newHttpRequestBuilder(uri);
+		if(entry != null) {
+			if(entry.etag != null) request.header("If-None-Match", entry.etag);
+			if(entry.lastModified != null) request.header("If-Modified-Since", entry.lastModified);
+		}
+
+		return factory.sendHttpRequestAsync(request.build(), response -> {
+			try {
+				return handleResponse(factory, uri, entry, response);
+			}catch(IOException e) {
+				throw new CompletionException(e);
+			}
+		});
+	}
+
+	private JSONContainer handleResponse(JSONFactory factory, URI uri, CacheEntry entry, HttpResponse<InputStream> response) throws IOException {
+		if(entry != null && response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+			response.body().close();
+			putEntry(uri, new CacheEntry(entry.content, entry.etag, entry.lastModified));
+
+			return JSONHelper.deepCopy(entry.content);
+		}
+
+		final JSONContainer content = factory.parseHttpResponse(response);
+		final String cacheControl = response.headers().firstValue("Cache-Control").orElse("").toLowerCase();
+		if(cacheControl.contains("no-store")) {
+			invalidate(uri);
+		}else {
+			putEntry(uri, new CacheEntry(content,
+					response.headers().firstValue("ETag").orElse(null),
+					response.headers().firstValue("Last-Modified").orElse(null)));
+		}
+
+		return JSONHelper.deepCopy(content);
+	}
+
+	private synchronized CacheEntry getEntry(URI uri) {
+		return this.entries.get(uri);
+	}
+
+	private synchronized void putEntry(URI uri, CacheEntry entry) {
+		this.entries.put(uri, entry);
+	}
+
+	/**
+	 * Remove a page from the cache
+	 * @param uri The {@link URI} of the page
+	 */
+	public synchronized void invalidate(URI uri) {
+		this.entries.remove(uri);
+	}
+
+	/**
+	 * Remove every page from the cache
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+	}
+
+	/**
+	 * Get the number of pages stored in the cache
+	 * @return the number of pages
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	private static final class CacheEntry {
+
+		private final JSONContainer content;
+		private final String etag;
+		private final String lastModified;
+		private final long storedAt;
+
+		private CacheEntry(JSONContainer content, String etag, String lastModified) {
+			this.content = content;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.storedAt = System.nanoTime();
+		}
+	}
+}
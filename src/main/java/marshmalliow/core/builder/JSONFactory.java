@@ -5,6 +5,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringWriter;
@@ -12,11 +13,30 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
 
 import marshmalliow.core.io.JSONLexer;
 import marshmalliow.core.io.JSONParser;
@@ -32,11 +52,15 @@ public class JSONFactory {
 
 	public static final String AUTO_DIRECTORY_NAME = "auto:";
 	public static final Integer DEFAULT_HTTP_TIMEOUT = 300000;
+	public static final int DEFAULT_FILES_CONCURRENCY = 64;
+	public static final String HTTP_USER_AGENT = "MarshmallIOw";
 
 	private static final ReentrantLock MUTEX = new ReentrantLock();
 	private static volatile JSONFactory instance;
+	private static volatile HttpClient httpClient;
 	
 	private DirectoryManager directoryManager;
+	private volatile HttpJSONCache httpCache;
 	
 	private JSONFactory() { }
 	
@@ -57,6 +81,24 @@ public class JSONFactory {
 		}
 	}
 	
+	/**
+	 * Attach a {@link HttpJSONCache} used by the HTTP GET methods.<br/>
+	 * Pages fetched with {@link #getHttpContentAsJSON(URL)} or {@link #getHttpContentAsJSONAsync(URI)}
+	 * are then stored and revalidated with conditional requests.
+	 * 
+	 * @param cache An instance of HttpJSONCache or <code>null</code> to disable the cache
+	 */
+	public static void withHttpCache(@Nullable HttpJSONCache cache) {
+		try {
+			MUTEX.lock();
+			if(instance == null) get();
+			
+			instance.httpCache = cache;
+		}finally {
+			MUTEX.unlock();
+		}
+	}
+	
 	/**
 	 * Get the instance of {@link JSONFactory} as a singleton.
 	 * 
@@ -304,6 +346,110 @@ public class JSONFactory {
 		return classContainer.cast(jsonFile.getContent());
 	}
 	
+	/**
+	 * Open many JSON Files present in the same directory and gather their content concurrently.<br/>
+	 * At most {@link #DEFAULT_FILES_CONCURRENCY} files are read at the same time.
+	 * 
+	 * @param <E> An object extending {@link JSONContainer}
+	 * @param directory The {@link Directory} where the files are stored
+	 * @param jsonNames The names of the files (preferably without the file extension)
+	 * @param classContainer The root of the JSON files to be opened (Object or Array)
+	 * @return The result of each file, in the iteration order of the given names
+	 * @throws InterruptedIOException If the current thread is interrupted while waiting for the files
+	 * @see #getJSONFilesContent(Directory, Collection, Class, int)
+	 */
+	public <E extends JSONContainer> Map<String, JSONFileResult<E>> getJSONFilesContent(Directory directory, Collection<String> jsonNames, Class<E> classContainer) throws InterruptedIOException {
+		return getJSONFilesContent(directory, jsonNames, classContainer, DEFAULT_FILES_CONCURRENCY);
+	}
+	
+	/**
+	 * Open many JSON Files present in the same directory and gather their content concurrently.<br/>
+	 * Files are read on virtual threads when the runtime supports them, on a bounded platform thread pool otherwise.
+	 * A failure while reading a file doesn't stop the loading of the others, its error is stored in its {@link JSONFileResult}.
+	 * 
+	 * @implNote If the directory is not registered in the {@link DirectoryManager}, it will be registered automatically.
+	 * 
+	 * @param <E> An object extending {@link JSONContainer}
+	 * @param directory The {@link Directory} where the files are stored
+	 * @param jsonNames The names of the files (preferably without the file extension)
+	 * @param classContainer The root of the JSON files to be opened (Object or Array)
+	 * @param maxConcurrency The maximum number of files read at the same time
+	 * @return The result of each file, in the iteration order of the given names
+	 * @throws InterruptedIOException If the current thread is interrupted while waiting for the files
+	 */
+	public <E extends JSONContainer> Map<String, JSONFileResult<E>> getJSONFilesContent(Directory directory, Collection<String> jsonNames, Class<E> classContainer, int maxConcurrency) throws InterruptedIOException {
+		if(maxConcurrency <= 0) throw new IllegalArgumentException("The maximum concurrency must be positive, got "+maxConcurrency);
+		if(this.directoryManager != null) this.directoryManager.registerNewDirectoryIfAbsent(directory);
+		
+		final Map<String, JSONFileResult<E>> results = new LinkedHashMap<>();
+		if(jsonNames.isEmpty()) return results;
+		
+		final Semaphore permits = new Semaphore(maxConcurrency);
+		final Map<String, Future<JSONFileResult<E>>> tasks = new LinkedHashMap<>();
+		final ExecutorService executor = newLoadingExecutor(Math.min(maxConcurrency, jsonNames.size()));
+		try {
+			for(String jsonName : jsonNames) {
+				if(tasks.containsKey(jsonName)) continue;
+				
+				tasks.put(jsonName, executor.submit(() -> {
+					permits.acquire();
+					try {
+						final JSONFile jsonFile = new JSONFile(directory, jsonName.replace(".json", ""));
+						jsonFile.readFile();
+						
+						return JSONFileResult.success(jsonName, classContainer.cast(jsonFile.getContent()));
+					}catch(IOException e) {
+						return JSONFileResult.failure(jsonName, e);
+					}catch(RuntimeException e) {
+						return JSONFileResult.failure(jsonName, new IOException("Cannot load JSON file "+jsonName, e));
+					}finally {
+						permits.release();
+					}
+				}));
+			}
+			
+			for(Map.Entry<String, Future<JSONFileResult<E>>> task : tasks.entrySet()) {
+				try {
+					results.put(task.getKey(), task.getValue().get());
+				} catch (ExecutionException e) {
+					results.put(task.getKey(), JSONFileResult.failure(task.getKey(), new IOException("Cannot load JSON file "+task.getKey(), e.getCause())));
+				}
+			}
+		} catch (InterruptedException e) {
+			tasks.values().forEach(task -> task.cancel(true));
+			Thread.currentThread().interrupt();
+			
+			final InterruptedIOException thrownedE = new InterruptedIOException("Interrupted while loading JSON files from "+directory.getName());
+			thrownedE.initCause(e);
+			throw thrownedE;
+		} finally {
+			executor.shutdown();
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Create the executor used to load files concurrently.<br/>
+	 * A virtual thread per task executor is used if the runtime provides it (Java 21+),
+	 * otherwise a pool of daemon platform threads is created.
+	 * 
+	 * @param poolSize The number of platform threads if virtual threads are unavailable
+	 * @return a new executor
+	 */
+	private static ExecutorService newLoadingExecutor(int poolSize) {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			final AtomicInteger counter = new AtomicInteger();
+			return Executors.newFixedThreadPool(poolSize, runnable -> {
+				final Thread thread = new Thread(runnable, "JSONFactory-loader-"+counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+	
 	/*
 	 * Get secured JSON File content methods
 	 */
@@ -718,8 +864,21 @@ public class JSONFactory {
 	 * @param url an {@link URL} where the date is stored
 	 * @return The container with the data of the JSON File
 	 * @throws IOException
+	 * @see #getHttpContentAsJSONAsync(URI)
 	 */
 	public JSONContainer getHttpContentAsJSON(URL url) throws IOException {
+		final HttpJSONCache cache = this.httpCache;
+		if(cache != null) {
+			try {
+				return cache.get(this, url.toURI()).join();
+			}catch(URISyntaxException e) {
+				throw new IOException("Invalid URL "+url, e);
+			}catch(CompletionException e) {
+				if(e.getCause() instanceof IOException) throw (IOException) e.getCause();
+				throw new IOException("HTTP request to "+url+" failed", e.getCause());
+			}
+		}
+		
 		JSONContainer result = new JSONObject();
 		HttpURLConnection connection = null;
 		InputStreamReader reader = null;
@@ -748,4 +907,142 @@ public class JSONFactory {
 		
 		return result;
 	}
+	
+	/**
+	 * Send an asynchronous HTTP GET request and parse the content of the page as JSON.<br/>
+	 * See {@link #getHttpContentAsJSONAsync(HttpRequest)} for details.
+	 * 
+	 * @param stringURL The URL as a string where the data is stored
+	 * @return A future completed with the container holding the data of the page
+	 */
+	public CompletableFuture<JSONContainer> getHttpContentAsJSONAsync(String stringURL) {
+		return getHttpContentAsJSONAsync(URI.create(stringURL));
+	}
+	
+	/**
+	 * Send an asynchronous HTTP GET request and parse the content of the page as JSON.<br/>
+	 * See {@link #getHttpContentAsJSONAsync(HttpRequest)} for details.<br/>
+	 * If a {@link HttpJSONCache} is attached, the page is served from the cache when it is still valid.
+	 * 
+	 * @param uri an {@link URI} where the data is stored
+	 * @return A future completed with the container holding the data of the page
+	 */
+	public CompletableFuture<JSONContainer> getHttpContentAsJSONAsync(URI uri) {
+		final HttpJSONCache cache = this.httpCache;
+		if(cache != null) return cache.get(this, uri);
+		
+		return getHttpContentAsJSONAsync(newHttpRequestBuilder(uri).build());
+	}
+	
+	/**
+	 * Send an asynchronous HTTP request and parse the content of the page as JSON.<br/>
+	 * The request is sent with a shared {@link HttpClient} which reuses its connections (HTTP/2 when the server supports it).
+	 * The body is parsed as it is received, without waiting for the whole response. Gzip encoded bodies are decoded.
+	 * <p>
+	 * The future is completed exceptionally with an {@link IOException} if the response code isn't <code>200</code>
+	 * or if the content cannot be parsed.
+	 * 
+	 * @implNote The request is never served by the attached {@link HttpJSONCache}.
+	 * 
+	 * @param request The request to be sent, see {@link #newHttpRequestBuilder(URI)} for a builder with the default headers
+	 * @return A future completed with the container holding the data of the page
+	 */
+	public CompletableFuture<JSONContainer> getHttpContentAsJSONAsync(HttpRequest request) {
+		return sendHttpRequestAsync(request, response -> {
+			try {
+				return parseHttpResponse(response);
+			}catch(IOException e) {
+				throw new CompletionException(e);
+			}
+		});
+	}
+	
+	/**
+	 * Send an asynchronous HTTP request with the shared {@link HttpClient}.<br/>
+	 * The response handler is executed on the client executor as soon as the headers are received.
+	 * 
+	 * @param <T> The type of the result
+	 * @param request The request to be sent
+	 * @param handler The function reading the response
+	 * @return A future completed with the result of the handler
+	 */
+	<T> CompletableFuture<T> sendHttpRequestAsync(HttpRequest request, Function<HttpResponse<InputStream>, T> handler) {
+		final HttpClient client = getHttpClient();
+		
+		return client.sendAsync(request, BodyHandlers.ofInputStream()).thenApplyAsync(handler, client.executor().orElseThrow());
+	}
+	
+	/**
+	 * Create a new {@link HttpRequest.Builder} for a GET request with the default headers and timeout
+	 * used by {@link #getHttpContentAsJSONAsync(URI)}.
+	 * 
+	 * @param uri an {@link URI} where the data is stored
+	 * @return a new request builder
+	 */
+	public static HttpRequest.Builder newHttpRequestBuilder(URI uri) {
+		return HttpRequest.newBuilder(uri)
+				.GET()
+				.timeout(Duration.ofMillis(DEFAULT_HTTP_TIMEOUT))
+				.header("Accept", "application/json")
+				.header("Accept-Encoding", "gzip")
+				.header("User-Agent", HTTP_USER_AGENT);
+	}
+	
+	JSONContainer parseHttpResponse(HttpResponse<InputStream> response) throws IOException {
+		try(InputStream body = response.body()) {
+			if(response.statusCode() != HttpURLConnection.HTTP_OK) {
+				throw new IOException("HTTP request to "+response.uri()+" ended with response code "+response.statusCode());
+			}
+			
+			final String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+			final InputStream stream = switch(encoding.trim().toLowerCase()) {
+				case "gzip", "x-gzip" -> new GZIPInputStream(body);
+				case "identity" -> body;
+				default -> throw new IOException("Unsupported content encoding "+encoding+" for "+response.uri());
+			};
+			
+			return new JSONParser(new JSONLexer(new InputStreamReader(stream, getResponseCharset(response)))).parse();
+		}
+	}
+	
+	private static Charset getResponseCharset(HttpResponse<?> response) {
+		final String contentType = response.headers().firstValue("Content-Type").orElse("");
+		for(String parameter : contentType.split(";")) {
+			final String[] pair = parameter.trim().split("=", 2);
+			if(pair.length == 2 && pair[0].equalsIgnoreCase("charset")) {
+				try {
+					return Charset.forName(pair[1].replace("\"", "").trim());
+				}catch(IllegalArgumentException e) {
+					break;
+				}
+			}
+		}
+		
+		return StandardCharsets.UTF_8;
+	}
+	
+	private static HttpClient getHttpClient() {
+		if(httpClient == null) {
+			try {
+				MUTEX.lock();
+				if(httpClient == null) {
+					final AtomicInteger counter = new AtomicInteger();
+					httpClient = HttpClient.newBuilder()
+							.version(HttpClient.Version.HTTP_2)
+							.followRedirects(HttpClient.Redirect.NORMAL)
+							.connectTimeout(Duration.ofMillis(DEFAULT_HTTP_TIMEOUT))
+							.executor(Executors.newCachedThreadPool(runnable -> {
+								final Thread thread = new Thread(runnable, "JSONFactory-http-"+counter.incrementAndGet());
+								thread.setDaemon(true);
+								return thread;
+							}))
+							.build();
+				}
+			}finally {
+				MUTEX.unlock();
+			}
+		}
+		
+		return httpClient;
+	}
 }
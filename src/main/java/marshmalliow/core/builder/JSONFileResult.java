@@ -0,0 +1,86 @@
+package marshmalliow.core.builder;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import marshmalliow.core.json.objects.JSONContainer;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Result of the loading of a single JSON file in a batch.<br/>
+ * Either holds the content of the file or the error which occurred while reading it.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ * @param <E> An object extending {@link JSONContainer}
+ * @see JSONFactory#getJSONFilesContent(marshmalliow.core.objects.Directory, java.util.Collection, Class, int)
+ */
+public final class JSONFileResult<E extends JSONContainer> {
+
+	private final String name;
+	private final E content;
+	private final IOException error;
+
+	private JSONFileResult(String name, E content, IOException error) {
+		this.name = name;
+		this.content = content;
+		this.error = error;
+	}
+
+	static <E extends JSONContainer> JSONFileResult<E> success(String name, E content) {
+		return new JSONFileResult<>(name, content, null);
+	}
+
+	static <E extends JSONContainer> JSONFileResult<E> failure(String name, IOException error) {
+		return new JSONFileResult<>(name, null, Objects.requireNonNull(error));
+	}
+
+	/**
+	 * Get the name of the file as it was requested
+	 * @return the name of the file
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get the content of the file
+	 * @return the content or <code>null</code> if the file couldn't be loaded
+	 */
+	@Nullable
+	public E getContent() {
+		return content;
+	}
+
+	/**
+	 * Get the content of the file or throw the error which occurred while loading it
+	 * @return the content of the file
+	 * @throws IOException If the file couldn't be loaded
+	 */
+	public E getContentOrThrow() throws IOException {
+		if(this.error != null) throw this.error;
+		return content;
+	}
+
+	/**
+	 * Get the error which occurred while loading the file
+	 * @return the error or <code>null</code> if the file has been loaded
+	 */
+	@Nullable
+	public IOException getError() {
+		return error;
+	}
+
+	/**
+	 * Check if the file has been loaded
+	 * @return true if the content is available
+	 */
+	public boolean isSuccess() {
+		return this.error == null;
+	}
+
+	@Override
+	public String toString() {
+		return "JSONFileResult[name="+name+", "+(isSuccess() ? "content="+content : "error="+error)+"]";
+	}
+}
@@ -0,0 +1,39 @@
+package marshmalliow.core.exceptions;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import marshmalliow.core.binary.data.MOBFChecksums;
+
+/**
+ * Thrown when sections of a MOBF file don't match their checksums.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ * @see MOBFChecksums
+ */
+public class ChecksumException extends IOException {
+
+	private static final long serialVersionUID = -3316384716294415276L;
+
+	private final Set<MOBFChecksums.Section> sections;
+
+	public ChecksumException(String msg, Set<MOBFChecksums.Section> sections) {
+		this(msg, sections, null);
+	}
+
+	public ChecksumException(String msg, Set<MOBFChecksums.Section> sections, Throwable cause) {
+		super(msg+" "+sections, cause);
+		this.sections = Collections.unmodifiableSet(sections.isEmpty() ? EnumSet.noneOf(MOBFChecksums.Section.class) : EnumSet.copyOf(sections));
+	}
+
+	/**
+	 * Get the sections which don't match their checksums.
+	 * @return the corrupted sections
+	 */
+	public Set<MOBFChecksums.Section> getSections() {
+		return sections;
+	}
+}
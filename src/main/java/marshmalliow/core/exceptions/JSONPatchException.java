@@ -0,0 +1,18 @@
+package marshmalliow.core.exceptions;
+
+public class JSONPatchException extends RuntimeException {
+
+	private static final long serialVersionUID = 5120649181573358412L;
+
+	public JSONPatchException(String msg) {
+		super(msg);
+	}
+
+	public JSONPatchException(String msg, String path) {
+		super(msg + " [JSON Pointer: " + path + "]");
+	}
+
+	public JSONPatchException(String msg, String path, Exception cause) {
+		super(msg + " [JSON Pointer: " + path + "]", cause);
+	}
+}
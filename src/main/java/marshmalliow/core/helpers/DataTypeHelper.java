@@ -7,6 +7,12 @@ import java.util.List;
 import marshmalliow.core.binary.data.DataType;
 import marshmalliow.core.binary.data.advanced.DatetimeDataType;
 import marshmalliow.core.binary.data.advanced.StringDataType;
+import marshmalliow.core.binary.data.array.ByteArrayDataType;
+import marshmalliow.core.binary.data.array.DoubleArrayDataType;
+import marshmalliow.core.binary.data.array.FloatArrayDataType;
+import marshmalliow.core.binary.data.array.IntArrayDataType;
+import marshmalliow.core.binary.data.array.LongArrayDataType;
+import marshmalliow.core.binary.data.array.ShortArrayDataType;
 import marshmalliow.core.binary.data.container.ArrayDataType;
 import marshmalliow.core.binary.data.container.ListDataType;
 import marshmalliow.core.binary.data.primitive.BooleanDataType;
@@ -23,7 +29,7 @@ import marshmalliow.core.objects.DateTime;
  * <p>
  * This class provides static methods for creating and converting data types.
  * @author 278deco
- * @version 1.1.0
+ * @version 1.2.0
  * @since 0.1.0
  */
 public class DataTypeHelper {
@@ -225,6 +231,78 @@ public class DataTypeHelper {
 		return result;
 	}
 	
+	/**
+	 * Create a packed array for a given {@code byte[]}.<br/>
+	 * Unlike {@link #asArray(String, byte...)}, the values are not wrapped in a data type each.
+	 * 
+	 * @param name   The name of the array.
+	 * @param values The array of {@code byte}, used as is.
+	 * @return The {@link ByteArrayDataType}.
+	 */
+	public static ByteArrayDataType asPackedArray(String name, byte...values) {
+		return new ByteArrayDataType(name, values);
+	}
+	
+	/**
+	 * Create a packed array for a given {@code short[]}.<br/>
+	 * Unlike {@link #asArray(String, short...)}, the values are not wrapped in a data type each.
+	 * 
+	 * @param name   The name of the array.
+	 * @param values The array of {@code short}, used as is.
+	 * @return The {@link ShortArrayDataType}.
+	 */
+	public static ShortArrayDataType asPackedArray(String name, short...values) {
+		return new ShortArrayDataType(name, values);
+	}
+	
+	/**
+	 * Create a packed array for a given {@code int[]}.<br/>
+	 * Unlike {@link #asArray(String, int...)}, the values are not wrapped in a data type each.
+	 * 
+	 * @param name   The name of the array.
+	 * @param values The array of {@code int}, used as is.
+	 * @return The {@link IntArrayDataType}.
+	 */
+	public static IntArrayDataType asPackedArray(String name, int...values) {
+		return new IntArrayDataType(name, values);
+	}
+	
+	/**
+	 * Create a packed array for a given {@code long[]}.<br/>
+	 * Unlike {@link #asArray(String, long...)}, the values are not wrapped in a data type each.
+	 * 
+	 * @param name   The name of the array.
+	 * @param values The array of {@code long}, used as is.
+	 * @return The {@link LongArrayDataType}.
+	 */
+	public static LongArrayDataType asPackedArray(String name, long...values) {
+		return new LongArrayDataType(name, values);
+	}
+	
+	/**
+	 * Create a packed array for a given {@code float[]}.<br/>
+	 * Unlike {@link #asArray(String, float...)}, the values are not wrapped in a data type each.
+	 * 
+	 * @param name   The name of the array.
+	 * @param values The array of {@code float}, used as is.
+	 * @return The {@link FloatArrayDataType}.
+	 */
+	public static FloatArrayDataType asPackedArray(String name, float...values) {
+		return new FloatArrayDataType(name, values);
+	}
+	
+	/**
+	 * Create a packed array for a given {@code double[]}.<br/>
+	 * Unlike {@link #asArray(String, double...)}, the values are not wrapped in a data type each.
+	 * 
+	 * @param name   The name of the array.
+	 * @param values The array of {@code double}, used as is.
+	 * @return The {@link DoubleArrayDataType}.
+	 */
+	public static DoubleArrayDataType asPackedArray(String name, double...values) {
+		return new DoubleArrayDataType(name, values);
+	}
+	
 	/**
 	 * Create a list of {@link DataType} for a given {@code DataType[]}.
 	 * @param <E> The type of the list.
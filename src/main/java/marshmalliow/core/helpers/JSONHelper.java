@@ -0,0 +1,62 @@
+package marshmalliow.core.helpers;
+
+import java.util.Map;
+
+import marshmalliow.core.json.objects.JSONArray;
+import marshmalliow.core.json.objects.JSONContainer;
+import marshmalliow.core.json.objects.JSONObject;
+
+/**
+ * Helper class for manipulating JSON containers.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public class JSONHelper {
+
+	private JSONHelper() { }
+	
+	/**
+	 * Create a deep copy of a {@link JSONContainer}.<br/>
+	 * Every nested {@link JSONObject} and {@link JSONArray} is copied, other values are immutable and shared.
+	 * 
+	 * @param <E> An object extending {@link JSONContainer}
+	 * @param container The container to copy
+	 * @return a new container with the same content
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E extends JSONContainer> E deepCopy(E container) {
+		return (E) deepCopyValue(container);
+	}
+	
+	/**
+	 * Create a deep copy of a JSON value.<br/>
+	 * If the value is a {@link JSONObject} or a {@link JSONArray}, a new container is created
+	 * and filled recursively. Otherwise the value is returned as is.
+	 * 
+	 * @param value The value to copy
+	 * @return the copied value
+	 */
+	public static Object deepCopyValue(Object value) {
+		if(value instanceof JSONObject) {
+			final JSONObject source = (JSONObject) value;
+			final JSONObject copy = new JSONObject(source.size());
+			for(Map.Entry<String, Object> entry : source.entrySet()) {
+				copy.put(entry.getKey(), deepCopyValue(entry.getValue()));
+			}
+			
+			return copy;
+		}else if(value instanceof JSONArray) {
+			final JSONArray source = (JSONArray) value;
+			final Object[] content = source.toArray();
+			final JSONArray copy = new JSONArray(content.length);
+			for(Object element : content) {
+				copy.add(deepCopyValue(element));
+			}
+			
+			return copy;
+		}
+		
+		return value;
+	}
+}
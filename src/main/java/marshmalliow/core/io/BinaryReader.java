@@ -4,18 +4,35 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UTFDataFormatException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Set;
 
 import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.KeyTable;
 import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
 import marshmalliow.core.exceptions.DatetimeDataFormatException;
 import marshmalliow.core.objects.DateTime;
 
 /**
- * A class for reading binary data from a stream, designed for {@link MOBFFile} files.
- * @version 1.0.0
+ * A class for reading binary data from a stream, designed for {@link MOBFFile} files.<br/>
+ * The reader owns an internal buffer which is refilled from the stream when exhausted.
+ * Primitives are decoded straight from this buffer, without a call to the stream per byte.
+ * @version 1.3.0
  * @author 278deco
  */
 public class BinaryReader {
@@ -24,6 +41,15 @@ public class BinaryReader {
 	 * The minimum size of the buffer used in a {@link BinaryReader}
 	 */
 	private static final int BUFFER_MIN_SIZE = 64;
+	
+	/**
+	 * The default size of the buffer filled from the input stream
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 65536;
+	
+	private static final VarHandle SHORT_VIEW = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+	private static final VarHandle INT_VIEW = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+	private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
 
 	/**
 	 * The input stream used to read the data
@@ -39,14 +65,48 @@ public class BinaryReader {
 	private byte[] byteBuffer = new byte[BUFFER_MIN_SIZE];
 	private char[] charBuffer = new char[BUFFER_MIN_SIZE];
 
-	private byte readBuffer[] = new byte[8];
+	/**
+	 * The buffer filled from the input stream, valid bytes are between <code>position</code> and <code>limit</code>
+	 */
+	private final byte[] buffer;
+	private int position;
+	private int limit;
+	
+	/**
+	 * The number of bytes read from the input stream since the creation of the reader
+	 */
+	private long filled;
+	
+	/**
+	 * The features of the read file changing the encoding of the values
+	 */
+	private Set<FormatFeature> features = Collections.emptySet();
+	private boolean varint;
+	private boolean zigzag;
+	
+	/**
+	 * The table of the keys, if the file uses one
+	 */
+	private KeyTable keyTable;
 
 	/**
 	 * Creates a new BinaryReader that reads from the given input stream.
 	 * @param in the input stream to read from
 	 */
 	public BinaryReader(InputStream in) {
+		this(in, DEFAULT_BUFFER_SIZE);
+	}
+	
+	/**
+	 * Creates a new BinaryReader that reads from the given input stream.
+	 * @param in the input stream to read from
+	 * @param bufferSize the size of the internal buffer
+	 */
+	public BinaryReader(InputStream in, int bufferSize) {
+		if(bufferSize < Long.BYTES) throw new IllegalArgumentException("The buffer size must be at least "+Long.BYTES+" bytes, got "+bufferSize);
+		
 		this.in = in;
+		this.buffer = new byte[bufferSize];
 	}
 
 	/**
@@ -71,6 +131,39 @@ public class BinaryReader {
 		}
 	}
 	
+	/**
+	 * Refill the internal buffer, keeping the bytes not read yet at its beginning.
+	 * @return the number of bytes added to the buffer, or -1 if the end of the stream has been reached
+	 * @throws IOException If an I/O error occurs
+	 */
+	private int fill() throws IOException {
+		final int remaining = this.limit - this.position;
+		if(remaining > 0 && this.position > 0) System.arraycopy(this.buffer, this.position, this.buffer, 0, remaining);
+		
+		this.position = 0;
+		this.limit = remaining;
+		
+		final int count = in.read(this.buffer, remaining, this.buffer.length - remaining);
+		if(count > 0) {
+			this.limit += count;
+			this.filled += count;
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Ensure that at least <em>n</em> bytes are available in the internal buffer.
+	 * @param n the number of bytes needed, lower or equal to the size of the buffer
+	 * @throws EOFException if the end of the stream is reached before
+	 * @throws IOException If an I/O error occurs
+	 */
+	private void require(int n) throws IOException {
+		while(this.limit - this.position < n) {
+			if(fill() < 0) throw new EOFException();
+		}
+	}
+	
 	/**
 	 * Read up to <em>len</em> bytes from the stream. 
 	 * @param b the buffer into which the data is read.
@@ -79,7 +172,7 @@ public class BinaryReader {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public int read(byte[] b) throws IOException {
-		return in.read(b, 0, b.length);
+		return read(b, 0, b.length);
 	}
 
 	/**
@@ -92,7 +185,27 @@ public class BinaryReader {
      * @throws IOException If an I/O error occurs
      */
 	public int read(byte[] b, int offset, int length) throws IOException {
-		return in.read(b, offset, length);
+		Objects.checkFromIndexSize(offset, length, b.length);
+		if(length == 0) return 0;
+		
+		int available = this.limit - this.position;
+		if(available <= 0) {
+			// Large reads bypass the internal buffer
+			if(length >= this.buffer.length) {
+				final int count = in.read(b, offset, length);
+				if(count > 0) this.filled += count;
+				return count;
+			}
+			
+			if(fill() < 0) return -1;
+			available = this.limit - this.position;
+		}
+		
+		final int count = Math.min(available, length);
+		System.arraycopy(this.buffer, this.position, b, offset, count);
+		this.position += count;
+		
+		return count;
 	}
 
 
@@ -116,7 +229,7 @@ public class BinaryReader {
 		Objects.checkFromIndexSize(off, len, b.length);
         int n = 0;
         while (n < len) {
-            int count = in.read(b, off + n, len - n);
+            int count = read(b, off + n, len - n);
 
             if (count < 0) throw new EOFException();
             n += count;
@@ -131,15 +244,33 @@ public class BinaryReader {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public int skipBytes(int n) throws IOException {
-		int skipped = 0;
-		int curr = 0;
-
-		do {
-			curr = (int) in.skip(n-skipped);
-		}while(skipped<n && curr > 0);
+		int skipped = Math.min(Math.max(n, 0), this.limit - this.position);
+		this.position += skipped;
+
+		while(skipped < n) {
+			final long curr = in.skip(n-skipped);
+			if(curr <= 0) {
+				// Some streams cannot skip, fall back on reading
+				if(fill() <= 0) break;
+				final int count = Math.min(n-skipped, this.limit - this.position);
+				this.position += count;
+				skipped += count;
+			}else {
+				this.filled += curr;
+				skipped += curr;
+			}
+		}
 
 		return skipped;
 	}
+	
+	/**
+	 * Get the number of bytes consumed from the stream since the creation of the reader.
+	 * @return the position of the reader in the stream
+	 */
+	public long getPosition() {
+		return this.filled - (this.limit - this.position);
+	}
 
 
 	/**
@@ -150,10 +281,7 @@ public class BinaryReader {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public boolean readBoolean() throws IOException {
-		int bl = in.read();
-		if(bl < 0) throw new EOFException();
-
-		return (bl != 0);
+		return readByte() != 0;
 	}
 
 	/**
@@ -164,10 +292,9 @@ public class BinaryReader {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public byte readByte() throws IOException {
-		int b = in.read();
-		if(b < 0) throw new EOFException();
+		if(this.position >= this.limit) require(1);
 
-		return (byte)b;
+		return this.buffer[this.position++];
 	}
 
 	/**
@@ -178,10 +305,7 @@ public class BinaryReader {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public int readUnsignedByte() throws IOException {
-		int ubyte = in.read();
-		if(ubyte < 0) throw new EOFException();
-
-		return ubyte;
+		return readByte() & 0xFF;
 	}
 
 	/**
@@ -192,11 +316,12 @@ public class BinaryReader {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public short readShort() throws IOException {
-		int short1 = in.read();
-		int short2 = in.read();
-		if(short1 < 0 || short2 < 0) throw new EOFException();
+		if(this.limit - this.position < Short.BYTES) require(Short.BYTES);
+		
+		final short value = (short) SHORT_VIEW.get(this.buffer, this.position);
+		this.position += Short.BYTES;
 
-		return (short)((short1 << 8) + short2);
+		return value;
 	}
 
 	/**
@@ -208,11 +333,7 @@ public class BinaryReader {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public int readUnsignedShort() throws IOException {
-		int short1 = in.read();
-		int short2 = in.read();
-		if((short1 |short2) < 0) throw new EOFException();
-
-		return ((short1 << 8) + short2);
+		return readShort() & 0xFFFF;
 	}
 
 	/**
@@ -236,9 +357,12 @@ public class BinaryReader {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public int readInt() throws IOException {
-		readFully(readBuffer, 0, 4);
+		if(this.limit - this.position < Integer.BYTES) require(Integer.BYTES);
+		
+		final int value = (int) INT_VIEW.get(this.buffer, this.position);
+		this.position += Integer.BYTES;
 		
-		return (int) (((readBuffer[0] & 0xFF) << 24) + ((readBuffer[1] & 0xFF) << 16) + ((readBuffer[2] & 0xFF) << 8) + (readBuffer[3] & 0xFF));
+		return value;
 	}
 
 	/**
@@ -250,12 +374,12 @@ public class BinaryReader {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public long readLong() throws IOException {
-		readFully(readBuffer, 0, 8);
-
-		return ((long)readBuffer[0] << 56) + ((long)(readBuffer[1] & 255) << 48)
-				+ ((long)(readBuffer[2] & 255) << 40) + ((long)(readBuffer[3] & 255) << 32)
-				+ ((long)(readBuffer[4] & 255) << 24) + ((long)(readBuffer[5] & 255) << 16)
-				+ ((long)(readBuffer[6] & 255) << 8) + (long)(readBuffer[7] & 255);
+		if(this.limit - this.position < Long.BYTES) require(Long.BYTES);
+		
+		final long value = (long) LONG_VIEW.get(this.buffer, this.position);
+		this.position += Long.BYTES;
+		
+		return value;
 	}
 
 	/**
@@ -284,95 +408,373 @@ public class BinaryReader {
 	}
 
 
+	/**
+	 * Reads an unsigned LEB128 varint of at most 5 bytes from the input.
+	 * 
+	 * @return the integer value
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs or if the varint is malformed
+	 */
+	public int readVarInt() throws IOException {
+		int value = 0;
+		for(int shift = 0; shift < Integer.SIZE; shift += 7) {
+			final byte b = readByte();
+			value |= (b & 0x7F) << shift;
+			if(b >= 0) return value;
+		}
+		
+		throw new IOException("Malformed varint, more than 5 bytes");
+	}
+	
+	/**
+	 * Reads an unsigned LEB128 varint of at most 10 bytes from the input.
+	 * 
+	 * @return the long value
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs or if the varint is malformed
+	 */
+	public long readVarLong() throws IOException {
+		long value = 0;
+		for(int shift = 0; shift < Long.SIZE; shift += 7) {
+			final byte b = readByte();
+			value |= (long)(b & 0x7F) << shift;
+			if(b >= 0) return value;
+		}
+		
+		throw new IOException("Malformed varint, more than 10 bytes");
+	}
+	
+	/**
+	 * Reads a length or a number of elements written by {@link BinaryWriter#writeLength(int)}.
+	 * 
+	 * @return the length
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs or if the length is negative
+	 */
+	public int readLength() throws IOException {
+		final int length = this.varint ? readVarInt() : readInt();
+		if(length < 0) throw new IOException("Negative length "+length);
+		
+		return length;
+	}
+	
+	/**
+	 * Reads the value of an integer data type written by {@link BinaryWriter#writeCompactInt(int)}.
+	 * 
+	 * @return the integer value
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs
+	 */
+	public int readCompactInt() throws IOException {
+		if(!this.zigzag) return readInt();
+		
+		final int value = readVarInt();
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	/**
+	 * Reads the value of a long data type written by {@link BinaryWriter#writeCompactLong(long)}.
+	 * 
+	 * @return the long value
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs
+	 */
+	public long readCompactLong() throws IOException {
+		if(!this.zigzag) return readLong();
+		
+		final long value = readVarLong();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Reads <em>length</em> shorts from the input in a single pass over the internal buffer.
+	 * 
+	 * @param values the array into which the shorts are read
+	 * @param offset the start offset in the array
+	 * @param length the number of shorts to read
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void readShorts(short[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		while(length > 0) {
+			final ShortBuffer chunk = nextChunk(Short.BYTES, length).asShortBuffer();
+			final int count = chunk.remaining();
+			
+			chunk.get(values, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Reads <em>length</em> integers from the input in a single pass over the internal buffer.
+	 * 
+	 * @param values the array into which the integers are read
+	 * @param offset the start offset in the array
+	 * @param length the number of integers to read
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void readInts(int[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		while(length > 0) {
+			final IntBuffer chunk = nextChunk(Integer.BYTES, length).asIntBuffer();
+			final int count = chunk.remaining();
+			
+			chunk.get(values, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Reads <em>length</em> longs from the input in a single pass over the internal buffer.
+	 * 
+	 * @param values the array into which the longs are read
+	 * @param offset the start offset in the array
+	 * @param length the number of longs to read
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void readLongs(long[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		while(length > 0) {
+			final LongBuffer chunk = nextChunk(Long.BYTES, length).asLongBuffer();
+			final int count = chunk.remaining();
+			
+			chunk.get(values, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Reads <em>length</em> floats from the input in a single pass over the internal buffer.
+	 * 
+	 * @param values the array into which the floats are read
+	 * @param offset the start offset in the array
+	 * @param length the number of floats to read
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void readFloats(float[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		while(length > 0) {
+			final FloatBuffer chunk = nextChunk(Float.BYTES, length).asFloatBuffer();
+			final int count = chunk.remaining();
+			
+			chunk.get(values, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Reads <em>length</em> doubles from the input in a single pass over the internal buffer.
+	 * 
+	 * @param values the array into which the doubles are read
+	 * @param offset the start offset in the array
+	 * @param length the number of doubles to read
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void readDoubles(double[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		while(length > 0) {
+			final DoubleBuffer chunk = nextChunk(Double.BYTES, length).asDoubleBuffer();
+			final int count = chunk.remaining();
+			
+			chunk.get(values, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Consume as many whole elements as available in the internal buffer, refilling it first if it doesn't hold one.
+	 * @param elementSize the size of an element in bytes
+	 * @param maxElements the maximum number of elements to consume
+	 * @return a big-endian view of the consumed bytes
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs
+	 */
+	private ByteBuffer nextChunk(int elementSize, int maxElements) throws IOException {
+		if(this.limit - this.position < elementSize) require(elementSize);
+		
+		final int length = Math.min(maxElements, (this.limit - this.position) / elementSize) * elementSize;
+		final ByteBuffer chunk = ByteBuffer.wrap(this.buffer, this.position, length);
+		this.position += length;
+		
+		return chunk;
+	}
+
 	/**
 	 * Reads a string from the input. The string is read depending on the {@link Charset}.<br/>
-	 * <strong>For now only UTF-8 is supported</strong>
+	 * The number of bytes of the string is read first, followed by the encoded characters:
+	 * <ul>
+	 * <li>UTF-8 strings may contain supplementary characters encoded on 4 bytes. Surrogates encoded separately
+	 * on 3 bytes, as written by older versions, are accepted too</li>
+	 * <li>UTF-16 strings are made of big-endian code units, their length is always even</li>
+	 * </ul>
 	 * 
 	 * @return the string value
 	 * @throws EOFException if the end of the stream is reached
+	 * @throws UTFDataFormatException if the bytes aren't a valid encoding of the charset
 	 * @throws IOException If an I/O error occurs
 	 */
 	public String readUTF(Charset charset) throws IOException {
-		switch(charset) {
-			case UTF16:
-				return "";
-			default:
-				return readUTF8();
-		}
-	}
+		final int length = readLength();
+		if(length == 0) return "";
+		if(charset == Charset.UTF16 && (length & 1) != 0) throw new UTFDataFormatException("Odd length "+length+" for an UTF-16 string");
 
-	private String readUTF8() throws IOException {
-		byte[] byteBuffer = null;
-		char[] charBuffer = null;
+		return readString(length, charset);
+	}
 
-		final int strlen = readInt();
-		if(strlen < 0) throw new UTFDataFormatException("");
+	/**
+	 * Reads the key of an object entry or the name of a list element written by {@link BinaryWriter#writeKey(String, Charset)}.
+	 * 
+	 * @return the key, taken from the {@link KeyTable} if one is set
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs or if the index is out of the table
+	 */
+	public String readKey(Charset charset) throws IOException {
+		if(this.keyTable == null) return readUTF(charset);
+		
+		final int index = readLength();
+		final String key = this.keyTable.get(index);
+		if(key == null) throw new IOException("Key index "+index+" is out of the key table");
+		
+		return key;
+	}
 
-		if(strlen >= BUFFER_MIN_SIZE) {
-			this.byteBuffer = new byte[strlen*2];
-			this.charBuffer = new char[strlen*2];
+	/**
+	 * Reads the <em>length</em> bytes of a string and decodes them.<br/>
+	 * Strings fitting in the internal buffer are decoded in place, larger ones are copied first.
+	 * @param length the number of bytes of the string
+	 * @param charset the charset of the string
+	 * @return the string value
+	 * @throws EOFException if the end of the stream is reached
+	 * @throws IOException If an I/O error occurs
+	 * @see #decode(byte[], int, int, Charset)
+	 */
+	protected String readString(int length, Charset charset) throws IOException {
+		if(length <= this.buffer.length) {
+			if(this.limit - this.position < length) require(length);
+			
+			final String value = decode(this.buffer, this.position, length, charset);
+			this.position += length;
+			
+			return value;
 		}
-		byteBuffer = this.byteBuffer;
-		charBuffer = this.charBuffer;
+		
+		final byte[] bytes = stringBuffer(length);
+		readFully(bytes, 0, length);
+		
+		return decode(bytes, 0, length, charset);
+	}
+	
+	/**
+	 * Get a buffer of at least <em>length</em> bytes to copy a string into.<br/>
+	 * The buffer is reused between calls and grows geometrically.
+	 * @param length the minimum size of the buffer
+	 * @return the buffer
+	 */
+	protected final byte[] stringBuffer(int length) {
+		if(this.byteBuffer.length < length) this.byteBuffer = new byte[grow(this.byteBuffer.length, length)];
+		
+		return this.byteBuffer;
+	}
+	
+	private char[] charBuffer(int length) {
+		if(this.charBuffer.length < length) this.charBuffer = new char[grow(this.charBuffer.length, length)];
+		
+		return this.charBuffer;
+	}
+	
+	private static int grow(int current, int required) {
+		return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, (long) current * 2));
+	}
+	
+	/**
+	 * Decodes the bytes of a string.
+	 * @param bytes the array holding the string
+	 * @param offset the offset of the first byte of the string
+	 * @param length the number of bytes of the string
+	 * @param charset the charset of the string
+	 * @return the string value
+	 * @throws UTFDataFormatException if the bytes aren't a valid encoding of the charset
+	 */
+	protected final String decode(byte[] bytes, int offset, int length, Charset charset) throws UTFDataFormatException {
+		return charset == Charset.UTF16 ? decodeUTF16(bytes, offset, length) : decodeUTF8(bytes, offset, length);
+	}
 
-		int char1, char2, char3, char4;
+	private String decodeUTF8(byte[] bytes, int offset, int length) throws UTFDataFormatException {
+		final int end = offset + length;
+		int index = offset;
+		
+		// Most keys and values are ASCII, which is also ISO-8859-1 and is copied as is by the String constructor
+		while(index < end && bytes[index] >= 0) index++;
+		if(index == end) return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+		
+		// A string never has more characters than bytes
+		final char[] chars = charBuffer(length);
 		int count = 0;
-		int charBufferIndex = 0;
-
-		readFully(byteBuffer, 0, strlen);
-		//Parse in a first time the char if it is in the ASCII table
-		//Skip to the next method if a non ASCII char is found
-		while(count < strlen) {
-			char1 = byteBuffer[count] & 0xFF;
-			if(char1 > 127) break;
-			count++;
-			charBuffer[charBufferIndex++] = (char)char1;
-		}
-
-		while(count < strlen) {
-			char1 = byteBuffer[count] & 255;
-
-			if(char1 >> 7 == 0) {
-				count++;
-				charBuffer[charBufferIndex++] = (char)char1;
+		for(int i = offset; i < index; i++) chars[count++] = (char) bytes[i];
+
+		while(index < end) {
+			final int char1 = bytes[index++] & 0xFF;
+
+			if(char1 < 0x80) {
+				chars[count++] = (char) char1;
+			}else if((char1 & 0xE0) == 0xC0) {
+				if(index + 1 > end) throw malformed(index - 1 - offset);
+				
+				final int char2 = bytes[index++];
+				if((char2 & 0xC0) != 0x80) throw malformed(index - 2 - offset);
+				
+				chars[count++] = (char) (((char1 & 0x1F) << 6) | (char2 & 0x3F));
+			}else if((char1 & 0xF0) == 0xE0) {
+				if(index + 2 > end) throw malformed(index - 1 - offset);
+				
+				final int char2 = bytes[index++];
+				final int char3 = bytes[index++];
+				if((char2 & 0xC0) != 0x80 || (char3 & 0xC0) != 0x80) throw malformed(index - 3 - offset);
+				
+				chars[count++] = (char) (((char1 & 0x0F) << 12) | ((char2 & 0x3F) << 6) | (char3 & 0x3F));
+			}else if((char1 & 0xF8) == 0xF0) {
+				if(index + 3 > end) throw malformed(index - 1 - offset);
+				
+				final int char2 = bytes[index++];
+				final int char3 = bytes[index++];
+				final int char4 = bytes[index++];
+				if((char2 & 0xC0) != 0x80 || (char3 & 0xC0) != 0x80 || (char4 & 0xC0) != 0x80) throw malformed(index - 4 - offset);
+				
+				final int codePoint = ((char1 & 0x07) << 18) | ((char2 & 0x3F) << 12) | ((char3 & 0x3F) << 6) | (char4 & 0x3F);
+				if(codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT || codePoint > Character.MAX_CODE_POINT) throw malformed(index - 4 - offset);
+				
+				chars[count++] = Character.highSurrogate(codePoint);
+				chars[count++] = Character.lowSurrogate(codePoint);
 			}else {
-				switch(char1 >> 4) {
-					case 12, 13 -> {
-						count+=2;
-						if(count > strlen) throw new UTFDataFormatException();
-
-						char2 = byteBuffer[count-1];
-						if((char2 & 0xC0) != 0x80) throw new UTFDataFormatException();
-
-						charBuffer[charBufferIndex++] = (char)(((char1 & 0x1F) << 6) | (char2 & 0x3F));
-					}
-					case 14 -> {
-						count+=3;
-						if(count > strlen) throw new UTFDataFormatException();
-
-						char2 = byteBuffer[count-2];
-						char3 = byteBuffer[count-1];
-						if((char2 & 0xC0) != 0x80 || (char3 & 0xC0) != 0x80) throw new UTFDataFormatException();
-
-						charBuffer[charBufferIndex++] = (char)(((char1 & 0x0F) << 12) | ((char2 & 0x3F) << 6) | (char3 & 0x3F));
-					}
-					case 15 -> {
-						count+=4;
-						if(count < strlen) throw new UTFDataFormatException();
-
-						char2 = byteBuffer[count-3];
-						char3 = byteBuffer[count-2];
-						char4 = byteBuffer[count-1];
-						if((char2 & 0xC0) != 0x80 || (char3 & 0xC0) != 0x80 || (char4 & 0xC0) != 0x80) throw new UTFDataFormatException();
-
-						charBuffer[charBufferIndex++] = (char)(((char1 & 0x0F) << 18) | ((char2 & 0x3F) << 12) | ((char3 & 0x3F) << 6) | (char4 & 0x3F));
-					}
-
-				}
+				throw malformed(index - 1 - offset);
 			}
-
 		}
-		return new String(charBuffer, 0, charBufferIndex);
+		
+		return new String(chars, 0, count);
+	}
+	
+	private static UTFDataFormatException malformed(int position) {
+		return new UTFDataFormatException("Malformed UTF-8 input around byte "+position);
+	}
+	
+	private String decodeUTF16(byte[] bytes, int offset, int length) {
+		final int count = length / Character.BYTES;
+		final char[] chars = charBuffer(count);
+		
+		// Code units are copied as is, unpaired surrogates are kept
+		for(int i = 0; i < count; i++) chars[i] = (char) (short) SHORT_VIEW.get(bytes, offset + i * Character.BYTES);
+		
+		return new String(chars, 0, count);
 	}
 
 	/**
@@ -411,6 +813,38 @@ public class BinaryReader {
 		return builder.build();
 	}
 
+	/**
+	 * Set the features of the read file.<br/>
+	 * Must be called once the header is read, before any value.
+	 * @param features The features of the file
+	 * @see FormatFeature#isEncoding()
+	 */
+	public void setFeatures(Set<FormatFeature> features) {
+		this.features = features.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(features));
+		this.varint = features.contains(FormatFeature.VARINT);
+		this.zigzag = features.contains(FormatFeature.ZIGZAG);
+	}
+	
+	/**
+	 * Get the features of the read file.
+	 * @return the features, empty by default
+	 */
+	public Set<FormatFeature> getFeatures() {
+		return features;
+	}
+
+	/**
+	 * Set the table used to read the keys.
+	 * @param keyTable The table or <code>null</code> if the file doesn't use the {@link FormatFeature#KEY_TABLE} feature
+	 */
+	public void setKeyTable(KeyTable keyTable) {
+		this.keyTable = keyTable;
+	}
+	
+	public KeyTable getKeyTable() {
+		return keyTable;
+	}
+
 	private static ZoneOffset calculateOffset(byte data, boolean negative) {
 		int hour = (negative ? -1 : 1) * ((data * 15) / 60);
 		int minute = (negative ? -1 : 1) * ((data-(Math.abs(hour)*4)) * 15);
@@ -3,57 +3,135 @@ package marshmalliow.core.io;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UTFDataFormatException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
 
 import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.KeyTable;
+import marshmalliow.core.binary.data.MOBFFileIndex;
 import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
 import marshmalliow.core.objects.DateTime;
 
 /**
- * A class for writing binary data to a stream, designed for {@link MOBFFile} files.
- * @version 1.0.0
+ * A class for writing binary data to a stream, designed for {@link MOBFFile} files.<br/>
+ * The writer owns an internal buffer in which the values are encoded. The stream is only written
+ * once the buffer is full, when the writer is flushed or when a large array of bytes is written.
+ * <p>
+ * A writer is not thread-safe, it must be used by a single thread at a time. {@link MOBFFile} only writes
+ * a file while holding its own lock.
+ * @version 1.3.0
  * @author 278deco
  */
 public class BinaryWriter {
 
 	/**
-	 * The minimum size of the buffer used by the {@link BinaryWriter} class.
+	 * The default size of the buffer flushed to the output stream
 	 */
-	private static final int BUFFER_MIN_SIZE = 128;
+	public static final int DEFAULT_BUFFER_SIZE = 65536;
+	
+	/**
+	 * The minimum size of the buffer, large enough to encode any value in place (a datetime being the largest)
+	 */
+	private static final int BUFFER_MIN_SIZE = 16;
+	
+	/**
+	 * The maximum number of bytes of a datetime, the year and the complementary value using two bytes
+	 */
+	private static final int DATETIME_MAX_SIZE = 1 /*control byte*/ + DateTime.FIELDS_NUMBER + 2;
+	
+	private static final VarHandle SHORT_VIEW = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+	private static final VarHandle INT_VIEW = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+	private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
 	
 	/**
 	 * The output stream to write to.
 	 */
-	protected volatile OutputStream out;
+	protected final OutputStream out;
 
 	/**
-	 * The number of bytes written to the stream since the creation of the {@link BinaryWriter} object.
+	 * The number of bytes written since the creation of the {@link BinaryWriter} object, including the buffered ones.
 	 */
 	protected long written;
 
 	/**
 	 * Whether the stream is closed or not
 	 */
-	private volatile boolean closed;
-	private final Object closeLock = new Object();
+	private boolean closed;
 
 	/**
-	 * Buffers
+	 * The buffer flushed to the output stream, valid bytes are between <code>0</code> and <code>count</code>
 	 */
-	private byte[] byteBuffer = new byte[BUFFER_MIN_SIZE];
-
-    private final byte[] writeBuffer = new byte[8];
+	private final byte[] buffer;
+	private int count;
+	
+	/**
+	 * The buffer used to encode strings larger than the internal buffer
+	 */
+	private byte[] byteBuffer;
+    
+    /**
+     * The index collecting the offsets of the written keys, if the file is indexed
+     */
+    private MOBFFileIndex.Builder indexBuilder;
+    
+    /**
+     * The features of the written file changing the encoding of the values
+     */
+    private Set<FormatFeature> features = Collections.emptySet();
+    private boolean varint;
+    private boolean zigzag;
+    
+    /**
+     * The table of the keys, if the file uses one
+     */
+    private KeyTable keyTable;
 
+	/**
+	 * Creates a new BinaryWriter that writes to the given output stream.
+	 * @param out the output stream to write to
+	 */
 	public BinaryWriter(OutputStream out) {
+		this(out, DEFAULT_BUFFER_SIZE);
+	}
+	
+	/**
+	 * Creates a new BinaryWriter that writes to the given output stream.
+	 * @param out the output stream to write to
+	 * @param bufferSize the size of the internal buffer
+	 */
+	public BinaryWriter(OutputStream out, int bufferSize) {
+		if(bufferSize < BUFFER_MIN_SIZE) throw new IllegalArgumentException("The buffer size must be at least "+BUFFER_MIN_SIZE+" bytes, got "+bufferSize);
+		
 		this.out = out;
+		this.buffer = new byte[bufferSize];
 	}
-
-	private void increaseCounter(int value) {
-		long temp = this.written + value;
-		if (temp < 0)
-			temp = Long.MAX_VALUE;
-
-		this.written = temp;
+	
+	/**
+	 * Ensure that at least <em>n</em> bytes are free in the internal buffer, flushing it if needed.
+	 * @param n the number of bytes needed, lower or equal to the size of the buffer
+	 * @throws IOException If an I/O error occurs
+	 */
+	private void require(int n) throws IOException {
+		if(this.buffer.length - this.count < n) flushBuffer();
+	}
+	
+	/**
+	 * Write the content of the internal buffer to the output stream, without flushing the stream.
+	 * @throws IOException If an I/O error occurs
+	 */
+	protected final void flushBuffer() throws IOException {
+		if(this.count > 0) {
+			out.write(this.buffer, 0, this.count);
+			this.count = 0;
+		}
 	}
 
 	/**
@@ -61,16 +139,17 @@ public class BinaryWriter {
 	 * @param b the byte to be written.
 	 * @throws IOException
 	 */
-	public synchronized void write(int b) throws IOException {
-		out.write(b);
-		increaseCounter(1);
+	public void write(int b) throws IOException {
+		if(this.count >= this.buffer.length) flushBuffer();
+		
+		this.buffer[this.count++] = (byte) b;
+		this.written++;
 	}
 
 	/**
 	 * Writes {@code length} bytes from the specified byte array starting at offset
 	 * {@code offset} to this output stream. <br/>
-	 * The {@code write} method of {@code DataOutputStream} calls the {@code write}
-	 * method of one argument on each byte to output.
+	 * Arrays larger than the internal buffer are written directly to the stream.
 	 *
 	 * @param b The byte array to be written.
 	 * @param offset the start offset in the data.
@@ -78,23 +157,53 @@ public class BinaryWriter {
 	 * @throws IOException if an I/O error occurs.
 	 * @see OutputStream#write(byte[], int, int)
 	 */
-	public synchronized void write(byte[] b, int offset, int length) throws IOException {
-		out.write(b, offset, length);
-		increaseCounter(length);
+	public void write(byte[] b, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, b.length);
+		if(length >= this.buffer.length) {
+			flushBuffer();
+			out.write(b, offset, length);
+		}else {
+			require(length);
+			System.arraycopy(b, offset, this.buffer, this.count, length);
+			this.count += length;
+		}
+		
+		this.written += length;
+	}
+
+	/**
+	 * Overwrites bytes written earlier, if they are still held by the internal buffer.<br/>
+	 * The counter {@code written} isn't changed.
+	 * 
+	 * @param position the position of the first byte to overwrite, as given by {@link #size()}
+	 * @param b The byte array holding the new bytes.
+	 * @param offset the start offset in the data.
+	 * @param length the number of bytes to overwrite.
+	 * @return true if the bytes have been overwritten, false if they have already been written to the stream
+	 */
+	public boolean patch(long position, byte[] b, int offset, int length) {
+		Objects.checkFromIndexSize(offset, length, b.length);
+		
+		final long bufferStart = this.written - this.count;
+		if(position < bufferStart || position + length > this.written) return false;
+		
+		System.arraycopy(b, offset, this.buffer, (int) (position - bufferStart), length);
+		
+		return true;
 	}
 
 	/**
 	 * Flushes this data output stream. This forces any buffered output bytes to be
 	 * written out to the stream.
 	 * <p>
-	 * The {@code flush} method of {@code DataOutputStream} calls the {@code flush}
-	 * method of its underlying output stream.
+	 * The content of the internal buffer is written, then the {@code flush} method
+	 * of the underlying output stream is called.
 	 *
 	 * @throws IOException if an I/O error occurs.
-	 * @see java.io.FilterOutputStream#out
 	 * @see java.io.OutputStream#flush()
 	 */
 	public void flush() throws IOException {
+		flushBuffer();
 		out.flush();
 	}
 
@@ -106,12 +215,7 @@ public class BinaryWriter {
 	 */
 	public void close() throws IOException {
 		if(closed) return;
-
-		synchronized (closeLock) {
-			if(closed) return;
-
-			closed = true;
-		}
+		closed = true;
 
 		Throwable flushException = null;
 		try {
@@ -152,8 +256,7 @@ public class BinaryWriter {
 	 * @see java.io.FilterOutputStream#out
 	 */
 	public void writeBoolean(boolean value) throws IOException {
-		out.write(value ? 1 : 0);
-		increaseCounter(1);
+		write(value ? 1 : 0);
 	}
 
 	/**
@@ -176,8 +279,7 @@ public class BinaryWriter {
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public void writeUnsignedByte(int value) throws IOException {
-		out.write(value);
-		increaseCounter(1);
+		write(value);
 	}
 
 	/**
@@ -204,11 +306,10 @@ public class BinaryWriter {
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public void writeUnsignedShort(int value) throws IOException {
-		writeBuffer[0] = (byte)(value >>> 8);
-		writeBuffer[1] = (byte)(value >>> 0);
-
-		out.write(writeBuffer, 0, 2);
-		increaseCounter(2);
+		require(Short.BYTES);
+		SHORT_VIEW.set(this.buffer, this.count, (short) value);
+		this.count += Short.BYTES;
+		this.written += Short.BYTES;
 	}
 	
 	/**
@@ -234,13 +335,10 @@ public class BinaryWriter {
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public void writeInt(int value) throws IOException {
-		writeBuffer[0] = (byte)(value >>> 24);
-        writeBuffer[1] = (byte)(value >>> 16);
-        writeBuffer[2] = (byte)(value >>> 8);
-        writeBuffer[3] = (byte)(value >>> 0);
-
-        out.write(writeBuffer, 0, 4);
-        increaseCounter(4);
+		require(Integer.BYTES);
+		INT_VIEW.set(this.buffer, this.count, value);
+		this.count += Integer.BYTES;
+		this.written += Integer.BYTES;
 	}
 	
 	/**
@@ -253,18 +351,11 @@ public class BinaryWriter {
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public void writeLong(long value) throws IOException {
-        writeBuffer[0] = (byte)(value >>> 56);
-        writeBuffer[1] = (byte)(value >>> 48);
-        writeBuffer[2] = (byte)(value >>> 40);
-        writeBuffer[3] = (byte)(value >>> 32);
-        writeBuffer[4] = (byte)(value >>> 24);
-        writeBuffer[5] = (byte)(value >>> 16);
-        writeBuffer[6] = (byte)(value >>> 8);
-        writeBuffer[7] = (byte)(value >>> 0);
-
-        out.write(writeBuffer, 0, 8);
-        increaseCounter(8);
-    }
+		require(Long.BYTES);
+		LONG_VIEW.set(this.buffer, this.count, value);
+		this.count += Long.BYTES;
+		this.written += Long.BYTES;
+	}
 
 	/**
 	 * Writes a {@code float} to the underlying output stream as four bytes, high
@@ -292,92 +383,364 @@ public class BinaryWriter {
 		this.writeLong(Double.doubleToLongBits(value));
 	}
 
+	/**
+	 * Writes an {@code int} as an unsigned LEB128 varint, 7 bits per byte with the
+	 * lowest group first. The value is treated as unsigned and uses 1 to 5 bytes.<br/>
+	 * If no exception is thrown, the counter {@code written} is incremented by the number of bytes used.
+	 * 
+	 * @param value An {@code int} to be written.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeVarInt(int value) throws IOException {
+		require(5);
+		
+		final int start = this.count;
+		while((value & ~0x7F) != 0) {
+			this.buffer[this.count++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		this.buffer[this.count++] = (byte) value;
+
+		this.written += this.count - start;
+	}
+	
+	/**
+	 * Writes a {@code long} as an unsigned LEB128 varint, 7 bits per byte with the
+	 * lowest group first. The value is treated as unsigned and uses 1 to 10 bytes.<br/>
+	 * If no exception is thrown, the counter {@code written} is incremented by the number of bytes used.
+	 * 
+	 * @param value A {@code long} to be written.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeVarLong(long value) throws IOException {
+		require(10);
+		
+		final int start = this.count;
+		while((value & ~0x7FL) != 0) {
+			this.buffer[this.count++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		this.buffer[this.count++] = (byte) value;
+
+		this.written += this.count - start;
+	}
+	
+	/**
+	 * Writes a length or a number of elements.<br/>
+	 * The length is written as a varint if the {@link FormatFeature#VARINT} feature is enabled, 
+	 * as four bytes otherwise.
+	 * 
+	 * @param length The length to be written, cannot be negative.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeLength(int length) throws IOException {
+		if(length < 0) throw new IOException("Cannot write a negative length "+length);
+		
+		if(this.varint) writeVarInt(length);
+		else writeInt(length);
+	}
+	
+	/**
+	 * Writes the value of an integer data type.<br/>
+	 * The value is written as a zigzag encoded varint if the {@link FormatFeature#ZIGZAG} feature is enabled, 
+	 * as four bytes otherwise.
+	 * 
+	 * @param value An {@code int} to be written.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeCompactInt(int value) throws IOException {
+		if(this.zigzag) writeVarInt((value << 1) ^ (value >> 31));
+		else writeInt(value);
+	}
+	
+	/**
+	 * Writes the value of a long data type.<br/>
+	 * The value is written as a zigzag encoded varint if the {@link FormatFeature#ZIGZAG} feature is enabled, 
+	 * as eight bytes otherwise.
+	 * 
+	 * @param value A {@code long} to be written.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeCompactLong(long value) throws IOException {
+		if(this.zigzag) writeVarLong((value << 1) ^ (value >> 63));
+		else writeLong(value);
+	}
+
+	/**
+	 * Writes <em>length</em> {@code short} values as a single block, each value high byte first.<br/>
+	 * If no exception is thrown, the counter {@code written} is incremented by
+	 * {@code Short.BYTES * length}.
+	 * 
+	 * @param values The array of {@code short} to be written.
+	 * @param offset the start offset in the array.
+	 * @param length the number of values to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeShorts(short[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		while(length > 0) {
+			final ByteBuffer chunk = nextChunk(Short.BYTES, length);
+			final int count = chunk.remaining() / Short.BYTES;
+			
+			chunk.asShortBuffer().put(values, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Writes <em>length</em> {@code int} values as a single block, each value high byte first.<br/>
+	 * If no exception is thrown, the counter {@code written} is incremented by
+	 * {@code Integer.BYTES * length}.
+	 * 
+	 * @param values The array of {@code int} to be written.
+	 * @param offset the start offset in the array.
+	 * @param length the number of values to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeInts(int[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		while(length > 0) {
+			final ByteBuffer chunk = nextChunk(Integer.BYTES, length);
+			final int count = chunk.remaining() / Integer.BYTES;
+			
+			chunk.asIntBuffer().put(values, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Writes <em>length</em> {@code long} values as a single block, each value high byte first.<br/>
+	 * If no exception is thrown, the counter {@code written} is incremented by
+	 * {@code Long.BYTES * length}.
+	 * 
+	 * @param values The array of {@code long} to be written.
+	 * @param offset the start offset in the array.
+	 * @param length the number of values to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeLongs(long[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		while(length > 0) {
+			final ByteBuffer chunk = nextChunk(Long.BYTES, length);
+			final int count = chunk.remaining() / Long.BYTES;
+			
+			chunk.asLongBuffer().put(values, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Writes <em>length</em> {@code float} values as a single block, each value high byte first.<br/>
+	 * If no exception is thrown, the counter {@code written} is incremented by
+	 * {@code Float.BYTES * length}.
+	 * 
+	 * @param values The array of {@code float} to be written.
+	 * @param offset the start offset in the array.
+	 * @param length the number of values to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeFloats(float[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		while(length > 0) {
+			final ByteBuffer chunk = nextChunk(Float.BYTES, length);
+			final int count = chunk.remaining() / Float.BYTES;
+			
+			chunk.asFloatBuffer().put(values, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Writes <em>length</em> {@code double} values as a single block, each value high byte first.<br/>
+	 * If no exception is thrown, the counter {@code written} is incremented by
+	 * {@code Double.BYTES * length}.
+	 * 
+	 * @param values The array of {@code double} to be written.
+	 * @param offset the start offset in the array.
+	 * @param length the number of values to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeDoubles(double[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		while(length > 0) {
+			final ByteBuffer chunk = nextChunk(Double.BYTES, length);
+			final int count = chunk.remaining() / Double.BYTES;
+			
+			chunk.asDoubleBuffer().put(values, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+	
+	/**
+	 * Reserve the free space of the internal buffer for as many elements as possible, at least one.
+	 * @param elementSize the size of an element in bytes
+	 * @param maxElements the number of elements left to write
+	 * @return a big-endian view of the reserved bytes
+	 * @throws IOException If an I/O error occurs
+	 */
+	private ByteBuffer nextChunk(int elementSize, int maxElements) throws IOException {
+		require(elementSize);
+		
+		final int length = Math.min(maxElements, (this.buffer.length - this.count) / elementSize) * elementSize;
+		final ByteBuffer chunk = ByteBuffer.wrap(this.buffer, this.count, length);
+		this.count += length;
+		this.written += length;
+		
+		return chunk;
+	}
+
 	/**
 	 * Writes a string to the underlying output stream using the specified charset.
-	 * The length of the string is written, followed by the string itself.
+	 * The number of bytes of the encoded string is written, followed by the string itself.
+	 * <ul>
+	 * <li>UTF-8 strings encode supplementary characters on 4 bytes</li>
+	 * <li>UTF-16 strings are written as big-endian code units, without byte order mark</li>
+	 * </ul>
 	 * 
 	 * @param str     A {@code String} value to be written.
 	 * @param charset A {@code Charset} value to be used.
+	 * @throws UTFDataFormatException if the encoded string is too long
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public void writeUTF(String str, Charset charset) throws IOException {
-		int bytelen = 0;
 		switch(charset) {
-			case UTF16:
-				break;
-			default:
-				bytelen = writeUTF8(str);
-				break;
+			case UTF16 -> writeUTF16(str);
+			default -> writeUTF8(str);
 		}
+	}
 
-		increaseCounter(bytelen);
+	/**
+	 * Writes the key of an object entry or the name of a list element.<br/>
+	 * If a {@link KeyTable} is set, the index of the key is written as a length, otherwise the key is written as a string.
+	 * 
+	 * @param key     The key to be written.
+	 * @param charset A {@code Charset} value to be used.
+	 * @throws IOException if an I/O error occurs or if the key isn't in the table
+	 * @see FormatFeature#KEY_TABLE
+	 */
+	public void writeKey(String key, Charset charset) throws IOException {
+		if(this.keyTable == null) {
+			writeUTF(key, charset);
+			return;
+		}
+		
+		final int index = this.keyTable.indexOf(key);
+		if(index < 0) throw new IOException("The key "+key+" is missing from the key table");
+		
+		writeLength(index);
 	}
 
-	private int writeUTF8(String str) throws IOException {
-		final byte[] byteBuffer;
+	private void writeUTF8(String str) throws IOException {
 		final int strlen = str.length();
-		int strByteLen = strlen;
-
-		for(int i = 0; i < strlen; i++) {
-			int c = str.charAt(i);
-
-			if(c >= 0x10000) strByteLen += 3;
-			else if(c >= 0x800) strByteLen += 2;
-			else if(c >= 0x80) strByteLen += 1;
+		
+		// Most keys and values are ASCII, the bytes are only counted past the first other character
+		int ascii = 0;
+		while(ascii < strlen && str.charAt(ascii) < 0x80) ascii++;
+		
+		long strByteLen = ascii;
+		for(int i = ascii; i < strlen; i++) {
+			final char c = str.charAt(i);
+
+			if(c < 0x80) strByteLen++;
+			else if(c < 0x800) strByteLen += 2;
+			else if(Character.isHighSurrogate(c) && i + 1 < strlen && Character.isLowSurrogate(str.charAt(i + 1))) {
+				strByteLen += 4;
+				i++;
+			}else strByteLen += 3;
 		}
 
-		if(strByteLen > 2147483647 || strByteLen < strlen) {
-			throw new UTFDataFormatException("");
-		}
-
-		if(this.byteBuffer.length <= strByteLen+4 /*Add length bytes*/) {
-			this.byteBuffer = new byte[(strByteLen*2) + 4];
-			byteBuffer = this.byteBuffer;
-		}else {
-			byteBuffer = new byte[strByteLen*2 + 4];
-		}
+		if(strByteLen > Integer.MAX_VALUE) throw new UTFDataFormatException("Encoded string too long: "+strByteLen+" bytes");
 
 		//Write the size of the string
-		byteBuffer[0] = (byte)((strByteLen >>> 24) & 0xFF);
-		byteBuffer[1] = (byte)((strByteLen >>> 16) & 0xFF);
-		byteBuffer[2] = (byte)((strByteLen >>> 8) & 0xFF);
-		byteBuffer[3] = (byte)((strByteLen >>> 0) & 0xFF);
+		writeLength((int) strByteLen);
 
-		int counter = 4;
-		int index = 0;
-		
-		//Write in a first time the char if it is in the ASCII table
-		//Skip to the next method if a non ASCII char is found
-		for(; index < strlen; index++) {
-			final int c = str.charAt(index);
-			if(c >= 0x80) break;
-			
-			byteBuffer[counter++] = (byte) c;
+		// Strings fitting in the internal buffer are encoded in place
+		if(strByteLen <= this.buffer.length) {
+			require((int) strByteLen);
+			this.count = encodeUTF8(str, ascii, this.buffer, this.count);
+			this.written += strByteLen;
+		}else {
+			final byte[] byteBuffer = stringBuffer((int) strByteLen);
+			write(byteBuffer, 0, encodeUTF8(str, ascii, byteBuffer, 0));
 		}
+	}
+	
+	private static int encodeUTF8(String str, int ascii, byte[] target, int offset) {
+		final int strlen = str.length();
+		int counter = offset;
+		
+		for(int index = 0; index < ascii; index++) target[counter++] = (byte) str.charAt(index);
 
-		for(; index < strlen; index++) {
-			final int c = str.charAt(index);
+		for(int index = ascii; index < strlen; index++) {
+			final char c = str.charAt(index);
 
 			if(c < 0x80) {
-				byteBuffer[counter++] = (byte) c;
-			}else if(c >= 0x10000) {
-				byteBuffer[counter++] = (byte) (0xE0 | ((c >> 18) & 0x0F));
-				byteBuffer[counter++] = (byte) (0x80 | ((c >> 12) & 0x3F));
-				byteBuffer[counter++] = (byte) (0x80 | ((c >> 6) & 0x3F));
-                byteBuffer[counter++] = (byte) (0x80 | ((c >> 0) & 0x3F));
-			}else if(c >= 0x800) {
-				byteBuffer[counter++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
-				byteBuffer[counter++] = (byte) (0x80 | ((c >> 6) & 0x3F));
-                byteBuffer[counter++] = (byte) (0x80 | ((c >> 0) & 0x3F));
+				target[counter++] = (byte) c;
+			}else if(c < 0x800) {
+				target[counter++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+				target[counter++] = (byte) (0x80 | (c & 0x3F));
+			}else if(Character.isHighSurrogate(c) && index + 1 < strlen && Character.isLowSurrogate(str.charAt(index + 1))) {
+				final int codePoint = Character.toCodePoint(c, str.charAt(++index));
+				target[counter++] = (byte) (0xF0 | ((codePoint >> 18) & 0x07));
+				target[counter++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				target[counter++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				target[counter++] = (byte) (0x80 | (codePoint & 0x3F));
 			}else {
-				byteBuffer[counter++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
-				byteBuffer[counter++] = (byte) (0x80 | ((c >> 0) & 0x3F));
+				// Unpaired surrogates are kept on 3 bytes so the string is read back unchanged
+				target[counter++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+				target[counter++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				target[counter++] = (byte) (0x80 | (c & 0x3F));
 			}
 		}
 
-		out.write(byteBuffer, 0, strByteLen+4);
-
-		return strByteLen+4;
+		return counter;
+	}
+	
+	private void writeUTF16(String str) throws IOException {
+		final long strByteLen = (long) str.length() * Character.BYTES;
+		if(strByteLen > Integer.MAX_VALUE) throw new UTFDataFormatException("Encoded string too long: "+strByteLen+" bytes");
+		
+		writeLength((int) strByteLen);
+		
+		if(strByteLen <= this.buffer.length) {
+			require((int) strByteLen);
+			this.count = encodeUTF16(str, this.buffer, this.count);
+			this.written += strByteLen;
+		}else {
+			final byte[] byteBuffer = stringBuffer((int) strByteLen);
+			write(byteBuffer, 0, encodeUTF16(str, byteBuffer, 0));
+		}
+	}
+	
+	private static int encodeUTF16(String str, byte[] target, int offset) {
+		int counter = offset;
+		for(int i = 0; i < str.length(); i++) {
+			final char c = str.charAt(i);
+			target[counter++] = (byte) (c >>> 8);
+			target[counter++] = (byte) c;
+		}
+		
+		return counter;
+	}
+	
+	/**
+	 * Get a buffer of at least <em>length</em> bytes to encode a string into.<br/>
+	 * The buffer is reused between calls and grows geometrically.
+	 * @param length the minimum size of the buffer
+	 * @return the buffer
+	 */
+	private byte[] stringBuffer(int length) {
+		if(this.byteBuffer == null || this.byteBuffer.length < length) {
+			final int current = this.byteBuffer == null ? 0 : this.byteBuffer.length;
+			this.byteBuffer = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(length, (long) current * 2))];
+		}
+		
+		return this.byteBuffer;
 	}
 
 	/**
@@ -389,72 +752,115 @@ public class BinaryWriter {
 	 * @see DateTime
 	 */
 	public void writeDatetime(DateTime dt) throws IOException {
-		final byte[] byteBuffer;
-		final int dtlen = 1 /*control byte*/ + DateTime.FIELDS_NUMBER /*number of fields*/;
-
-		if(this.byteBuffer.length < dtlen*2) {
-			this.byteBuffer = new byte[(dtlen*2)];
-			byteBuffer = this.byteBuffer;
-		}else {
-			byteBuffer = new byte[dtlen*2];
-		}
-
-		byteBuffer[0] = 0x00;
-		int counter = 1;
+		require(DATETIME_MAX_SIZE);
+		final byte[] byteBuffer = this.buffer;
+		final int start = this.count;
+		
+		byteBuffer[start] = 0x00;
+		int counter = start + 1;
 		if(dt.isYearPresent()) {
-			byteBuffer[0] += 0x80; /* control byte*/
+			byteBuffer[start] += 0x80; /* control byte*/
 
 			final int year = dt.getYear().get();
 			byteBuffer[counter++] = (byte)(year >>> 8);
 			byteBuffer[counter++] = (byte)(year >>> 0);
 		}
 		if(dt.isMonthPresent()) {
-			byteBuffer[0] += 0x40; /* control byte*/
+			byteBuffer[start] += 0x40; /* control byte*/
 
 			byteBuffer[counter++] = (dt.getMonth().get());
 		}
 		if(dt.isDayOfMonthPresent()) {
-			byteBuffer[0] += 0x20; /* control byte*/
+			byteBuffer[start] += 0x20; /* control byte*/
 
 			byteBuffer[counter++] = (dt.getDayOfMonth().get());
 		}
 		if(dt.isHourPresent()) {
-			byteBuffer[0] += 0x10; /* control byte*/
+			byteBuffer[start] += 0x10; /* control byte*/
 
 			byteBuffer[counter++] = (dt.getHour().get());
 		}
 		if(dt.isMinutePresent()) {
-			byteBuffer[0] += 0x08; /* control byte*/
+			byteBuffer[start] += 0x08; /* control byte*/
 
 			byteBuffer[counter++] = (dt.getMinute().get());
 		}
 		if(dt.isSecondPresent()) {
-			byteBuffer[0] += 0x04; /* control byte*/
+			byteBuffer[start] += 0x04; /* control byte*/
 
 			byteBuffer[counter++] = (dt.getSecond().get());
 		}
 		if(dt.isComplementaryPresent()) {
-			byteBuffer[0] += 0x02; /* control byte*/
+			byteBuffer[start] += 0x02; /* control byte*/
 
 			final short value = dt.getComplementaryValue().get();
 			byteBuffer[counter++] = (byte)((dt.getComplementaryType().get().getValue() << 6) + (value >>> 8));
 			byteBuffer[counter++] = (byte)(value >>> 0);
 		}
 		if(dt.isTimezonePresent()) {
-			byteBuffer[0] += 0x01; /* control byte*/
+			byteBuffer[start] += 0x01; /* control byte*/
 
 			final ZoneOffset offset = dt.getZoneOffset().get();
 			byteBuffer[counter++] = (byte)((offset.getTotalSeconds() > 0 ? 0x00 : 0x80) + writeOffset(dt.getZoneOffset().get()));
 		}
 
-		out.write(byteBuffer, 0, 1+counter);
-		increaseCounter(1+counter);
+		this.count = counter;
+		this.written += counter - start;
 	}
 
 	private static byte writeOffset(ZoneOffset offset) {
 		return (byte)Math.abs((offset.getTotalSeconds() /60 ) /15);
 	}
 
+	/**
+	 * Set the index collecting the offsets of the keys written by the data types.
+	 * @param indexBuilder The index builder or <code>null</code> if the written file isn't indexed
+	 * @see FormatFeature#INDEXED
+	 */
+	public void setIndexBuilder(MOBFFileIndex.Builder indexBuilder) {
+		this.indexBuilder = indexBuilder;
+	}
+	
+	/**
+	 * Get the index collecting the offsets of the keys written by the data types.
+	 * @return The index builder or <code>null</code> if the written file isn't indexed
+	 */
+	public MOBFFileIndex.Builder getIndexBuilder() {
+		return indexBuilder;
+	}
+
+	/**
+	 * Set the features of the written file.<br/>
+	 * Must be called once the header is written, before any value.
+	 * @param features The features of the file
+	 * @see FormatFeature#isEncoding()
+	 */
+	public void setFeatures(Set<FormatFeature> features) {
+		this.features = features.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(features));
+		this.varint = features.contains(FormatFeature.VARINT);
+		this.zigzag = features.contains(FormatFeature.ZIGZAG);
+	}
+	
+	/**
+	 * Get the features of the written file.
+	 * @return the features, empty by default
+	 */
+	public Set<FormatFeature> getFeatures() {
+		return features;
+	}
+	
+	/**
+	 * Set the table used to write the keys.
+	 * @param keyTable The table or <code>null</code> if the file doesn't use the {@link FormatFeature#KEY_TABLE} feature
+	 */
+	public void setKeyTable(KeyTable keyTable) {
+		this.keyTable = keyTable;
+	}
+	
+	public KeyTable getKeyTable() {
+		return keyTable;
+	}
+
 	/**
 	 * Gets the number of bytes written to the stream since the creation of the {@link BinaryWriter} object.
 	 * @return The number of bytes written to the stream
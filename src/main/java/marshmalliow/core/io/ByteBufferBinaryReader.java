@@ -0,0 +1,199 @@
+package marshmalliow.core.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.util.Objects;
+
+import marshmalliow.core.binary.utils.Charset;
+
+/**
+ * A {@link BinaryReader} reading directly from a {@link ByteBuffer}.<br/>
+ * Works with heap buffers, direct buffers and {@link MappedByteBuffer} obtained from a file channel,
+ * in which case the data is read from the page cache without any copy.
+ * <p>
+ * The reader works on a duplicate of the given buffer, the position of the original buffer is never modified.
+ * @version 1.1.0
+ * @author 278deco
+ * @since 0.3.5
+ */
+public class ByteBufferBinaryReader extends BinaryReader {
+
+	private final ByteBuffer buffer;
+	private final int start;
+
+	/**
+	 * Creates a new BinaryReader that reads the remaining bytes of the given buffer.
+	 * @param buffer the buffer to read from
+	 */
+	public ByteBufferBinaryReader(ByteBuffer buffer) {
+		super(InputStream.nullInputStream(), Long.BYTES);
+		this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		this.start = this.buffer.position();
+	}
+
+	/**
+	 * Closes the reader. The buffer is released when it is no longer referenced.
+	 */
+	@Override
+	public void close() throws IOException { }
+
+	@Override
+	public int read(byte[] b, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, b.length);
+		if(length == 0) return 0;
+		if(!this.buffer.hasRemaining()) return -1;
+
+		final int count = Math.min(length, this.buffer.remaining());
+		this.buffer.get(b, offset, count);
+
+		return count;
+	}
+
+	@Override
+	public void readFully(byte[] b, int off, int len) throws IOException {
+		Objects.checkFromIndexSize(off, len, b.length);
+		if(this.buffer.remaining() < len) throw new EOFException();
+
+		this.buffer.get(b, off, len);
+	}
+
+	@Override
+	public int skipBytes(int n) throws IOException {
+		final int skipped = Math.min(Math.max(n, 0), this.buffer.remaining());
+		this.buffer.position(this.buffer.position() + skipped);
+
+		return skipped;
+	}
+
+	@Override
+	public long getPosition() {
+		return this.buffer.position() - this.start;
+	}
+
+	/**
+	 * Move the reader to the given position, relative to the position of the buffer when the reader was created.
+	 * @param position the new position
+	 * @throws EOFException if the position is after the end of the buffer
+	 */
+	public void seek(long position) throws EOFException {
+		if(position < 0 || position > this.buffer.limit() - this.start) throw new EOFException("Cannot seek to "+position);
+
+		this.buffer.position(this.start + (int) position);
+	}
+
+	/**
+	 * Get the number of bytes which can still be read.
+	 * @return the number of remaining bytes
+	 */
+	public int remaining() {
+		return this.buffer.remaining();
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		try {
+			return this.buffer.get();
+		}catch(BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		try {
+			return this.buffer.getShort();
+		}catch(BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public int readInt() throws IOException {
+		try {
+			return this.buffer.getInt();
+		}catch(BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public long readLong() throws IOException {
+		try {
+			return this.buffer.getLong();
+		}catch(BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public void readShorts(short[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		take(length, Short.BYTES).asShortBuffer().get(values, offset, length);
+	}
+
+	@Override
+	public void readInts(int[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		take(length, Integer.BYTES).asIntBuffer().get(values, offset, length);
+	}
+
+	@Override
+	public void readLongs(long[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		take(length, Long.BYTES).asLongBuffer().get(values, offset, length);
+	}
+
+	@Override
+	public void readFloats(float[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		take(length, Float.BYTES).asFloatBuffer().get(values, offset, length);
+	}
+
+	@Override
+	public void readDoubles(double[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		take(length, Double.BYTES).asDoubleBuffer().get(values, offset, length);
+	}
+
+	/**
+	 * Decodes the string straight from the array of heap buffers, other buffers are copied first.
+	 */
+	@Override
+	protected String readString(int length, Charset charset) throws IOException {
+		if(length > this.buffer.remaining()) throw new EOFException();
+
+		final String value;
+		if(this.buffer.hasArray()) {
+			value = decode(this.buffer.array(), this.buffer.arrayOffset() + this.buffer.position(), length, charset);
+			this.buffer.position(this.buffer.position() + length);
+		}else {
+			final byte[] bytes = stringBuffer(length);
+			this.buffer.get(bytes, 0, length);
+			value = decode(bytes, 0, length, charset);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Consume the bytes of <em>count</em> elements.
+	 * @param count the number of elements
+	 * @param elementSize the size of an element in bytes
+	 * @return a big-endian slice of the consumed bytes
+	 * @throws EOFException if there isn't enough remaining bytes
+	 */
+	private ByteBuffer take(int count, int elementSize) throws EOFException {
+		final long length = (long) count * elementSize;
+		if(length > this.buffer.remaining()) throw new EOFException();
+
+		final ByteBuffer chunk = this.buffer.slice(this.buffer.position(), (int) length);
+		this.buffer.position(this.buffer.position() + (int) length);
+
+		return chunk;
+	}
+}
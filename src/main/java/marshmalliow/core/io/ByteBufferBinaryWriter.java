@@ -0,0 +1,158 @@
+package marshmalliow.core.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * A {@link BinaryWriter} writing directly into a {@link ByteBuffer}.<br/>
+ * Works with heap buffers and direct buffers. When the writer is growable, a larger buffer
+ * of the same kind is allocated once the current one is full, otherwise an {@link IOException} is thrown.
+ * <p>
+ * Values are encoded in the internal buffer of the writer first, arrays of primitives are put directly into the buffer.
+ * The written data is available with {@link #getBuffer()}, from position <code>0</code> to the current position.
+ * @version 1.1.0
+ * @author 278deco
+ * @since 0.3.5
+ */
+public class ByteBufferBinaryWriter extends BinaryWriter {
+
+	private final BufferOutputStream target;
+
+	/**
+	 * Creates a new growable BinaryWriter writing into a heap buffer with the given initial capacity.
+	 * @param initialCapacity the initial capacity of the buffer
+	 */
+	public ByteBufferBinaryWriter(int initialCapacity) {
+		this(ByteBuffer.allocate(initialCapacity), true);
+	}
+
+	/**
+	 * Creates a new BinaryWriter writing into the given buffer, starting at its current position.
+	 * @param buffer the buffer to write into
+	 * @param growable whether a larger buffer can be allocated once the buffer is full
+	 */
+	public ByteBufferBinaryWriter(ByteBuffer buffer, boolean growable) {
+		this(new BufferOutputStream(buffer.order(ByteOrder.BIG_ENDIAN), growable));
+	}
+
+	private ByteBufferBinaryWriter(BufferOutputStream target) {
+		super(target);
+		this.target = target;
+	}
+
+	/**
+	 * Get the buffer holding the written data, once the internal buffer of the writer is flushed into it.<br/>
+	 * The buffer may differ from the one given at creation if the writer is growable.
+	 * @return the buffer, its position is the end of the written data
+	 * @throws IOException if the buffer cannot hold the data
+	 */
+	public ByteBuffer getBuffer() throws IOException {
+		flushBuffer();
+		
+		return this.target.buffer;
+	}
+
+	/**
+	 * Get a read-only view of the written data, once the internal buffer of the writer is flushed into it.
+	 * @return a buffer from the start of the data to its end
+	 * @throws IOException if the buffer cannot hold the data
+	 */
+	public ByteBuffer toReadOnlyBuffer() throws IOException {
+		return getBuffer().duplicate().flip().asReadOnlyBuffer();
+	}
+
+	@Override
+	public void writeShorts(short[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		reserve(length, Short.BYTES).asShortBuffer().put(values, offset, length);
+	}
+
+	@Override
+	public void writeInts(int[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		reserve(length, Integer.BYTES).asIntBuffer().put(values, offset, length);
+	}
+
+	@Override
+	public void writeLongs(long[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		reserve(length, Long.BYTES).asLongBuffer().put(values, offset, length);
+	}
+
+	@Override
+	public void writeFloats(float[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		reserve(length, Float.BYTES).asFloatBuffer().put(values, offset, length);
+	}
+
+	@Override
+	public void writeDoubles(double[] values, int offset, int length) throws IOException {
+		Objects.checkFromIndexSize(offset, length, values.length);
+		reserve(length, Double.BYTES).asDoubleBuffer().put(values, offset, length);
+	}
+
+	/**
+	 * Reserve the bytes of <em>count</em> elements at the current position.
+	 * @param count the number of elements
+	 * @param elementSize the size of an element in bytes
+	 * @return a big-endian slice of the reserved bytes
+	 * @throws IOException if the buffer cannot hold the elements
+	 */
+	private ByteBuffer reserve(int count, int elementSize) throws IOException {
+		// The values previously encoded in the internal buffer come first
+		flushBuffer();
+		
+		final long length = (long) count * elementSize;
+		if(length > Integer.MAX_VALUE) throw new IOException("Buffer cannot exceed "+Integer.MAX_VALUE+" bytes");
+
+		final ByteBuffer buffer = this.target.ensureCapacity((int) length);
+		final ByteBuffer slice = buffer.slice(buffer.position(), (int) length);
+		buffer.position(buffer.position() + (int) length);
+		this.written += length;
+
+		return slice;
+	}
+
+	/**
+	 * An {@link OutputStream} writing into a {@link ByteBuffer}, receiving the content of the internal buffer
+	 * of the {@link BinaryWriter} when it is flushed.
+	 */
+	private static final class BufferOutputStream extends OutputStream {
+
+		private final boolean growable;
+		private ByteBuffer buffer;
+
+		private BufferOutputStream(ByteBuffer buffer, boolean growable) {
+			this.buffer = buffer;
+			this.growable = growable;
+		}
+
+		private ByteBuffer ensureCapacity(int length) throws IOException {
+			if(this.buffer.remaining() >= length) return this.buffer;
+			if(!this.growable) throw new IOException("Buffer is full, cannot write "+length+" bytes");
+
+			final int required = this.buffer.position() + length;
+			if(required < 0) throw new IOException("Buffer cannot exceed "+Integer.MAX_VALUE+" bytes");
+
+			final int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max((long) this.buffer.capacity() * 2, required));
+			final ByteBuffer larger = this.buffer.isDirect() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+			this.buffer = larger.order(ByteOrder.BIG_ENDIAN).put(this.buffer.flip());
+
+			return this.buffer;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			ensureCapacity(1).put((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			ensureCapacity(len).put(b, off, len);
+		}
+	}
+}
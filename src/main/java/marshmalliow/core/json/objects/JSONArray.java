@@ -1,5 +1,7 @@
 package marshmalliow.core.json.objects;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -11,11 +13,19 @@ import java.util.function.IntFunction;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
+/**
+ * JSON array backed by an {@link ArrayList} and synchronized with a mutex object.
+ * <p>
+ * The structural hash of the array is cached and only recomputed after a modification of the array
+ * or of one of its nested containers. The iterators of the list modify it through its own methods, their modifications
+ * are tracked as well.
+ */
 public class JSONArray extends ArrayList<Object> implements JSONContainer {
 
 	private static final long serialVersionUID = 3593877469226039660L;
 	
 	private final AtomicBoolean contentModified = new AtomicBoolean(false);
+	private transient StructuralHash structuralHash = new StructuralHash();
 	protected final Object mutex;
 	
 	/**
@@ -47,6 +57,7 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	public JSONArray(Collection<? extends Object> c, Object mutex) {
 		super(c);
 		this.mutex = mutex;
+		attachAll();
 	}
 	
 	/**
@@ -86,8 +97,9 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public void add(int index, Object element) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
 			super.add(index, element);
+			StructuralHash.attach(element, this.structuralHash);
+			contentChanged();
 		}
 	}
 	
@@ -101,8 +113,10 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public boolean add(Object e) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
-			return super.add(e);
+			final boolean result = super.add(e);
+			StructuralHash.attach(e, this.structuralHash);
+			contentChanged();
+			return result;
 		}
 	}
 	
@@ -114,8 +128,10 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public boolean addAll(Collection<? extends Object> c) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
-			return super.addAll(c);
+			final boolean result = super.addAll(c);
+			for(Object value : c) StructuralHash.attach(value, this.structuralHash);
+			contentChanged();
+			return result;
 		}
 	}
 	
@@ -129,8 +145,10 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public boolean addAll(int index, Collection<? extends Object> c) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
-			return super.addAll(index, c);
+			final boolean result = super.addAll(index, c);
+			for(Object value : c) StructuralHash.attach(value, this.structuralHash);
+			contentChanged();
+			return result;
 		}
 	}
 	
@@ -167,8 +185,9 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	protected void removeRange(int fromIndex, int toIndex) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
+			for(int i = fromIndex; i < toIndex; i++) StructuralHash.detach(super.get(i), this.structuralHash);
 			super.removeRange(fromIndex, toIndex);
+			contentChanged();
 		}
 	}
 	
@@ -188,8 +207,10 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public void replaceAll(UnaryOperator<Object> operator) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
+			detachAll();
 			super.replaceAll(operator);
+			attachAll();
+			contentChanged();
 		}
 	}
 	
@@ -199,8 +220,8 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public void sort(Comparator<? super Object> c) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
 			super.sort(c);
+			contentChanged();
 		}
 	}
 	
@@ -210,8 +231,13 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public Object set(int index, Object element) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
-			return super.set(index, element);
+			final Object previousValue = super.set(index, element);
+			if(previousValue != element) {
+				StructuralHash.detach(previousValue, this.structuralHash);
+				StructuralHash.attach(element, this.structuralHash);
+			}
+			contentChanged();
+			return previousValue;
 		}
 	}
 	
@@ -232,8 +258,10 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public Object remove(int index) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
-			return super.remove(index);
+			final Object removedValue = super.remove(index);
+			StructuralHash.detach(removedValue, this.structuralHash);
+			contentChanged();
+			return removedValue;
 		}
 	}
 	
@@ -243,8 +271,11 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public boolean remove(Object o) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
-			return super.remove(o);
+			final int index = super.indexOf(o);
+			if(index < 0) return false;
+			
+			this.remove(index);
+			return true;
 		}
 	}
 	
@@ -254,9 +285,12 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public boolean retainAll(Collection<?> c) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
-			return super.retainAll(c); 
-			}
+			detachAll();
+			final boolean result = super.retainAll(c);
+			attachAll();
+			if(result) contentChanged();
+			return result;
+		}
 	}
 	
 	/**
@@ -265,8 +299,11 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public boolean removeAll(Collection<?> c) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
-			return super.removeAll(c);
+			detachAll();
+			final boolean result = super.removeAll(c);
+			attachAll();
+			if(result) contentChanged();
+			return result;
 		}
 	}
 	
@@ -276,8 +313,11 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public boolean removeIf(Predicate<? super Object> filter) {
 		synchronized (mutex) {
-			this.contentModified.set(true);
-			return super.removeIf(filter);
+			detachAll();
+			final boolean result = super.removeIf(filter);
+			attachAll();
+			if(result) contentChanged();
+			return result;
 		}
 	}
 	
@@ -297,8 +337,9 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public void clear() {
 		synchronized (mutex) {
-			this.contentModified.set(true);
+			detachAll();
 			super.clear();
+			contentChanged();
 		}
 	}
 	
@@ -400,20 +441,49 @@ public class JSONArray extends ArrayList<Object> implements JSONContainer {
 	@Override
 	public boolean equals(Object o) {
 		if(this == o) return true;
+		// The cached hashes reject most different arrays without walking them, they are compared outside of the mutex
+		if(o instanceof JSONArray && hashCode() != o.hashCode()) return false;
+		
 		synchronized (mutex) {
 			return super.equals(o);
 		}
 	}
 	
 	/**
-     * {@inheritDoc}
-     */
+	 * Get the structural hash of this array.<br/>
+	 * The value is cached and only recomputed after a modification of this array or of one of its nested containers.
+	 * 
+	 * @return the hash code value of this array
+	 */
 	@Override
 	public int hashCode() {
 		synchronized (mutex) {
-			return super.hashCode();
+			return this.structuralHash.get(super::hashCode, this);
 		}
 	}
+	
+	StructuralHash getStructuralHash() {
+		return this.structuralHash;
+	}
+	
+	private void contentChanged() {
+		this.contentModified.set(true);
+		this.structuralHash.invalidate();
+	}
+	
+	private void attachAll() {
+		for(int i = 0; i < super.size(); i++) StructuralHash.attach(super.get(i), this.structuralHash);
+	}
+	
+	private void detachAll() {
+		for(int i = 0; i < super.size(); i++) StructuralHash.detach(super.get(i), this.structuralHash);
+	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.structuralHash = new StructuralHash();
+		attachAll();
+	}
 
 	/**
      * {@inheritDoc}
@@ -1,17 +1,33 @@
 package marshmalliow.core.json.objects;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+/**
+ * JSON object backed by a {@link ConcurrentHashMap}.
+ * <p>
+ * The structural hash of the object is cached and only recomputed after a modification of the object
+ * or of one of its nested containers. The {@link #values()} and {@link #entrySet()} views report their modifications
+ * to the object.<br/>
+ * The removals made through the iterator of {@link #keySet()} cannot be observed, they are neither tracked by the
+ * <code>contentModified</code> flag nor by the hash. Use {@link #remove(Object)} instead.
+ */
 public class JSONObject extends ConcurrentHashMap<String, Object> implements JSONContainer {
 
 	private static final long serialVersionUID = -497856876882492805L;
 	
 	private final AtomicBoolean contentModified = new AtomicBoolean(false);
+	private transient StructuralHash structuralHash = new StructuralHash();
 	
     public JSONObject() {
     }
@@ -34,6 +50,7 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
     public JSONObject(Map<String, Object> m) {
     	super(m.size());
         super.putAll(m);
+        for(Object value : m.values()) StructuralHash.attach(value, this.structuralHash);
     }
 
     /**
@@ -101,7 +118,11 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
 	@Override
 	public boolean replace(String key, Object oldValue, Object newValue) {
 		final boolean result = super.replace(key, oldValue, newValue);
-		if(result) this.contentModified.set(true);
+		if(result) {
+			StructuralHash.detach(oldValue, this.structuralHash);
+			StructuralHash.attach(newValue, this.structuralHash);
+			contentChanged();
+		}
 		return result;
 	}
 	
@@ -111,7 +132,11 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
 	@Override
 	public Object replace(String key, Object value) {
 		final Object replacedValue = super.replace(key, value);
-		if(replacedValue != null) this.contentModified.set(true);
+		if(replacedValue != null) {
+			StructuralHash.detach(replacedValue, this.structuralHash);
+			StructuralHash.attach(value, this.structuralHash);
+			contentChanged();
+		}
 		return replacedValue;
 	}
 	
@@ -120,8 +145,15 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
      */
 	@Override
 	public void replaceAll(BiFunction<? super String, ? super Object, ? extends Object> function) {
-		this.contentModified.set(true);
-		super.replaceAll(function);
+		super.replaceAll((key, value) -> {
+			final Object result = function.apply(key, value);
+			if(result != value) {
+				StructuralHash.detach(value, this.structuralHash);
+				StructuralHash.attach(result, this.structuralHash);
+			}
+			return result;
+		});
+		contentChanged();
 	}
 	
 	/**
@@ -130,7 +162,10 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
 	@Override
 	public boolean remove(Object key, Object value) {
 		final boolean result = super.remove(key, value);
-		if(result) this.contentModified.set(true);
+		if(result) {
+			StructuralHash.detach(value, this.structuralHash);
+			contentChanged();
+		}
 		return result;
 	}
 	
@@ -140,7 +175,10 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
 	@Override
 	public Object remove(Object key) {
 		final Object removedKey = super.remove(key);
-		if(removedKey != null) this.contentModified.set(true);
+		if(removedKey != null) {
+			StructuralHash.detach(removedKey, this.structuralHash);
+			contentChanged();
+		}
 		return removedKey;
 	}
 	
@@ -150,7 +188,10 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
 	@Override
 	public Object putIfAbsent(String key, Object value) {
 		final Object previousKey = super.putIfAbsent(key, value);
-		if(previousKey == null) this.contentModified.set(true);
+		if(previousKey == null) {
+			StructuralHash.attach(value, this.structuralHash);
+			contentChanged();
+		}
 		return previousKey;
 	}
 	
@@ -159,8 +200,14 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
      */
 	@Override
 	public void putAll(Map<? extends String, ? extends Object> m) {
-		this.contentModified.set(true);
-		super.putAll(m);
+		for(Map.Entry<? extends String, ? extends Object> entry : m.entrySet()) {
+			final Object previousValue = super.put(entry.getKey(), entry.getValue());
+			if(previousValue != entry.getValue()) {
+				StructuralHash.detach(previousValue, this.structuralHash);
+				StructuralHash.attach(entry.getValue(), this.structuralHash);
+			}
+		}
+		contentChanged();
 	}
 	
 	/**
@@ -169,7 +216,13 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
 	@Override
 	public Object put(String key, Object value) {
 		final Object previousValue = super.put(key, value);
-		if(previousValue == null || !previousValue.equals(value)) this.contentModified.set(true);
+		if(previousValue == value) return previousValue;
+		
+		StructuralHash.detach(previousValue, this.structuralHash);
+		StructuralHash.attach(value, this.structuralHash);
+		
+		// Containers with different cached hashes are changed without being walked
+		if(previousValue == null || !sameContent(previousValue, value)) contentChanged();
 		return previousValue;
 	}
 	
@@ -178,8 +231,14 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
      */
 	@Override
 	public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
-		this.contentModified.set(true);
-		return super.merge(key, value, remappingFunction);
+		final Object previousValue = super.get(key);
+		final Object result = super.merge(key, value, remappingFunction);
+		if(previousValue != result) {
+			StructuralHash.detach(previousValue, this.structuralHash);
+			StructuralHash.attach(result, this.structuralHash);
+		}
+		contentChanged();
+		return result;
 	}
 	
 	/**
@@ -187,8 +246,14 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
      */
 	@Override
 	public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
-		this.contentModified.set(true);
-		return super.computeIfPresent(key, remappingFunction);
+		final Object previousValue = super.get(key);
+		final Object result = super.computeIfPresent(key, remappingFunction);
+		if(previousValue != result) {
+			StructuralHash.detach(previousValue, this.structuralHash);
+			StructuralHash.attach(result, this.structuralHash);
+		}
+		contentChanged();
+		return result;
 	}
 	
 	/**
@@ -196,8 +261,14 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
      */
 	@Override
 	public Object computeIfAbsent(String key, Function<? super String, ? extends Object> mappingFunction) {
-		this.contentModified.set(true);
-		return super.computeIfAbsent(key, mappingFunction);
+		final Object previousValue = super.get(key);
+		final Object result = super.computeIfAbsent(key, mappingFunction);
+		if(previousValue != result) {
+			StructuralHash.detach(previousValue, this.structuralHash);
+			StructuralHash.attach(result, this.structuralHash);
+		}
+		contentChanged();
+		return result;
 	}
 	
 	/**
@@ -205,8 +276,14 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
      */
 	@Override
 	public Object compute(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
-		this.contentModified.set(true);
-		return super.compute(key, remappingFunction);
+		final Object previousValue = super.get(key);
+		final Object result = super.compute(key, remappingFunction);
+		if(previousValue != result) {
+			StructuralHash.detach(previousValue, this.structuralHash);
+			StructuralHash.attach(result, this.structuralHash);
+		}
+		contentChanged();
+		return result;
 	}
 	
 	/**
@@ -214,8 +291,9 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
      */
 	@Override
 	public void clear() {
-		this.contentModified.set(true);
+		for(Object value : super.values()) StructuralHash.detach(value, this.structuralHash);
 		super.clear();
+		contentChanged();
 	}
 	
 	/**
@@ -241,6 +319,84 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
 		}
 	}
 
+	/**
+	 * Get a view of the values of this object.<br/>
+	 * The removals made through the view are tracked.
+	 * 
+	 * @return the values of this object
+	 */
+	@Override
+	public Collection<Object> values() {
+		return new ValuesView(super.values());
+	}
+	
+	/**
+	 * Get a view of the mappings of this object.<br/>
+	 * The modifications made through the view and its entries are tracked.
+	 * 
+	 * @return the mappings of this object
+	 */
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new EntrySetView(super.entrySet());
+	}
+	
+	/**
+	 * Compare this object with another one.
+	 * 
+	 * @param o The object to be compared
+	 * @return If the two objects have the same mappings
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		// The cached hashes reject most different objects without walking them
+		if(o instanceof JSONObject && hashCode() != o.hashCode()) return false;
+		
+		return super.equals(o);
+	}
+	
+	/**
+	 * Get the structural hash of this object.<br/>
+	 * The value is cached and only recomputed after a modification of this object or of one of its nested containers.
+	 * 
+	 * @return the hash code value of this object
+	 */
+	@Override
+	public int hashCode() {
+		return this.structuralHash.get(super::hashCode, super.values());
+	}
+	
+	/**
+	 * Compare a replaced value with its replacement, nested containers are only walked if their hashes are equal.
+	 */
+	private static boolean sameContent(Object previousValue, Object value) {
+		if((previousValue instanceof JSONObject || previousValue instanceof JSONArray) && value != null
+				&& previousValue.hashCode() != value.hashCode()) return false;
+		
+		return previousValue.equals(value);
+	}
+	
+	StructuralHash getStructuralHash() {
+		return this.structuralHash;
+	}
+	
+	private void contentChanged() {
+		this.contentModified.set(true);
+		this.structuralHash.invalidate();
+	}
+	
+	private void removed(Object value) {
+		StructuralHash.detach(value, this.structuralHash);
+		contentChanged();
+	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.structuralHash = new StructuralHash();
+		for(Object value : super.values()) StructuralHash.attach(value, this.structuralHash);
+	}
+
 	/**
      * {@inheritDoc}
      */
@@ -257,4 +413,107 @@ public class JSONObject extends ConcurrentHashMap<String, Object> implements JSO
 		return this.contentModified.get();
 	}
 	
+	/**
+	 * Iterator reporting its removals to the object
+	 */
+	private final class TrackedIterator<E> implements Iterator<E> {
+		
+		private final Iterator<E> iterator;
+		private final Function<E, Object> value;
+		private E last;
+		
+		private TrackedIterator(Iterator<E> iterator, Function<E, Object> value) {
+			this.iterator = iterator;
+			this.value = value;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return this.iterator.hasNext();
+		}
+		
+		@Override
+		public E next() {
+			return this.last = this.iterator.next();
+		}
+		
+		@Override
+		public void remove() {
+			this.iterator.remove();
+			removed(this.value.apply(this.last));
+		}
+	}
+	
+	private final class ValuesView extends AbstractCollection<Object> {
+		
+		private final Collection<Object> view;
+		
+		private ValuesView(Collection<Object> view) {
+			this.view = view;
+		}
+		
+		@Override
+		public Iterator<Object> iterator() {
+			return new TrackedIterator<>(this.view.iterator(), Function.identity());
+		}
+		
+		@Override
+		public int size() {
+			return this.view.size();
+		}
+		
+		@Override
+		public boolean contains(Object o) {
+			return this.view.contains(o);
+		}
+		
+		@Override
+		public void clear() {
+			JSONObject.this.clear();
+		}
+	}
+	
+	private final class EntrySetView extends AbstractSet<Entry<String, Object>> {
+		
+		private final Set<Entry<String, Object>> view;
+		
+		private EntrySetView(Set<Entry<String, Object>> view) {
+			this.view = view;
+		}
+		
+		@Override
+		public Iterator<Entry<String, Object>> iterator() {
+			// The entries write through put(), only the removals need to be reported
+			return new TrackedIterator<>(this.view.iterator(), Entry::getValue);
+		}
+		
+		@Override
+		public boolean add(Entry<String, Object> e) {
+			return JSONObject.this.put(e.getKey(), e.getValue()) == null;
+		}
+		
+		@Override
+		public boolean remove(Object o) {
+			if(!(o instanceof Entry)) return false;
+			
+			final Entry<?, ?> entry = (Entry<?, ?>) o;
+			return entry.getKey() != null && entry.getValue() != null && JSONObject.this.remove(entry.getKey(), entry.getValue());
+		}
+		
+		@Override
+		public int size() {
+			return this.view.size();
+		}
+		
+		@Override
+		public boolean contains(Object o) {
+			return this.view.contains(o);
+		}
+		
+		@Override
+		public void clear() {
+			JSONObject.this.clear();
+		}
+	}
+	
 }
@@ -0,0 +1,170 @@
+package marshmalliow.core.json.objects;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Incrementally maintained structural hash of a {@link JSONObject} or a {@link JSONArray}.
+ * <p>
+ * The hash is computed once and kept until the container, or one of its nested containers, is modified.
+ * A modification invalidates the hash of the container and of every container it is attached to,
+ * walking up the parent chain. Parents are weakly referenced so a detached container never keeps its
+ * former parent alive.
+ * <p>
+ * A container inserted several times (under two keys, or in two different parents) holds one parent
+ * link per insertion.
+ * <p>
+ * The hash is only cached while every value of the container is tracked: immutable leaves (strings, numbers, booleans...)
+ * and containers whose own hash is cached. A container holding another kind of collection, map or array is hashed
+ * again on each call as the modifications of these values cannot be observed.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+final class StructuralHash {
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static final WeakReference<StructuralHash>[] NO_PARENT = new WeakReference[0];
+
+	private final AtomicLong stamp = new AtomicLong();
+
+	private volatile int hash;
+	private volatile long hashStamp = -1;
+
+	private WeakReference<StructuralHash>[] parents = NO_PARENT;
+
+	/**
+	 * Get the cached hash or compute it if the container has been modified since the last computation.<br/>
+	 * The computed value is only cached if no modification happened during the computation and if every value is tracked.
+	 * @param computation The function computing the hash of the container
+	 * @param values The values of the container
+	 * @return the structural hash
+	 */
+	int get(IntSupplier computation, Collection<?> values) {
+		final long current = this.stamp.get();
+		if(this.hashStamp == current) return this.hash;
+
+		final int result = computation.getAsInt();
+		for(Object value : values) {
+			if(!isTracked(value)) return result;
+		}
+
+		synchronized (this) {
+			if(this.stamp.get() == current) {
+				this.hash = result;
+				this.hashStamp = current;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Invalidate the cached hash of the container and of all its parents.
+	 */
+	void invalidate() {
+		this.stamp.incrementAndGet();
+
+		final StructuralHash[] parents = getParents();
+		if(parents.length == 0) return;
+
+		// A container shared by several parents, or a cyclic structure, is only walked once
+		final Set<StructuralHash> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		final Deque<StructuralHash> pending = new ArrayDeque<>(Arrays.asList(parents));
+		visited.add(this);
+		while(!pending.isEmpty()) {
+			final StructuralHash current = pending.poll();
+			if(!visited.add(current)) continue;
+
+			current.stamp.incrementAndGet();
+			for(StructuralHash parent : current.getParents()) pending.add(parent);
+		}
+	}
+
+	private boolean isCached() {
+		return this.hashStamp == this.stamp.get();
+	}
+
+	private synchronized StructuralHash[] getParents() {
+		int count = 0;
+		final StructuralHash[] result = new StructuralHash[this.parents.length];
+		for(WeakReference<StructuralHash> reference : this.parents) {
+			final StructuralHash parent = reference.get();
+			if(parent != null) result[count++] = parent;
+		}
+
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+
+	private synchronized void link(StructuralHash parent) {
+		// Drop the parents that have been garbage collected
+		int count = 0;
+		final WeakReference<StructuralHash>[] alive = Arrays.copyOf(this.parents, this.parents.length+1);
+		for(WeakReference<StructuralHash> reference : this.parents) {
+			if(reference.get() != null) alive[count++] = reference;
+		}
+		alive[count++] = new WeakReference<>(parent);
+
+		this.parents = Arrays.copyOf(alive, count);
+	}
+
+	private synchronized void unlink(StructuralHash parent) {
+		for(int i = 0; i < this.parents.length; i++) {
+			if(this.parents[i].get() == parent) {
+				final WeakReference<StructuralHash>[] result = Arrays.copyOf(this.parents, this.parents.length-1);
+				System.arraycopy(this.parents, i+1, result, i, this.parents.length-i-1);
+				this.parents = result;
+
+				return;
+			}
+		}
+	}
+
+	private static StructuralHash of(Object value) {
+		if(value instanceof JSONObject) return ((JSONObject)value).getStructuralHash();
+		if(value instanceof JSONArray) return ((JSONArray)value).getStructuralHash();
+
+		return null;
+	}
+
+	/**
+	 * Check if the modifications of a value are reported to the containers holding it.
+	 * @param value The value of a container
+	 * @return If the value is an immutable leaf or a container with a cached hash
+	 */
+	private static boolean isTracked(Object value) {
+		final StructuralHash hash = of(value);
+		if(hash != null) return hash.isCached();
+
+		return !(value instanceof Collection || value instanceof Map || (value != null && value.getClass().isArray()));
+	}
+
+	/**
+	 * Attach a value to a parent container if the value is itself a container.
+	 * @param value The value inserted in the parent
+	 * @param parent The structural hash of the parent
+	 */
+	static void attach(Object value, StructuralHash parent) {
+		final StructuralHash child = of(value);
+		if(child != null) child.link(parent);
+	}
+
+	/**
+	 * Detach a value from a parent container if the value is itself a container.
+	 * @param value The value removed from the parent
+	 * @param parent The structural hash of the parent
+	 */
+	static void detach(Object value, StructuralHash parent) {
+		final StructuralHash child = of(value);
+		if(child != null) child.unlink(parent);
+	}
+}
@@ -0,0 +1,412 @@
+package marshmalliow.core.json.patch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import marshmalliow.core.exceptions.JSONPatchException;
+import marshmalliow.core.helpers.JSONHelper;
+import marshmalliow.core.json.objects.JSONArray;
+import marshmalliow.core.json.objects.JSONContainer;
+import marshmalliow.core.json.objects.JSONObject;
+import marshmalliow.core.objects.Null;
+
+/**
+ * JSONDiff computes and applies structural differences between two {@link JSONContainer}.<br/>
+ * A difference is expressed as a JSON Patch document, a {@link JSONArray} of operations
+ * addressed with JSON Pointers.<br/>
+ * <em>See RFC 6902, RFC 6901 and RFC 7396.</em>
+ * <p>
+ * Patches are applied in place: only the containers whose content is touched by an operation
+ * have their <code>contentModified</code> flag set, along with the patched root so that the
+ * owning {@link marshmalliow.core.json.JSONFile} knows it has to be saved.
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public class JSONDiff {
+
+	public static final String OPERATION_KEY = "op";
+	public static final String PATH_KEY = "path";
+	public static final String FROM_KEY = "from";
+	public static final String VALUE_KEY = "value";
+
+	/**
+	 * Index used in a JSON Pointer to address the end of an array
+	 */
+	private static final String END_OF_ARRAY = "-";
+
+	private JSONDiff() { }
+
+	/*
+	 * Diff methods
+	 */
+
+	/**
+	 * Compute the JSON Patch transforming the source container into the target container.<br/>
+	 * Subtrees that are the same instance, or that have the same hash and are equal, are skipped
+	 * without being walked.
+	 * <p>
+	 * The values present in the patch are not copied and still belong to the target container.
+	 * They are copied when the patch is applied with {@link #apply(JSONContainer, JSONArray)}.
+	 *
+	 * @param source The container before modification
+	 * @param target The container after modification
+	 * @return A {@link JSONArray} containing the patch operations, empty if both containers are equal
+	 */
+	public static JSONArray diff(JSONContainer source, JSONContainer target) {
+		final JSONArray patch = new JSONArray();
+		diffValue("", source, target, patch);
+
+		return patch;
+	}
+
+	private static void diffValue(String path, Object source, Object target, JSONArray patch) {
+		if(source == target) return;
+
+		if(source instanceof JSONObject && target instanceof JSONObject) {
+			diffObject(path, (JSONObject)source, (JSONObject)target, patch);
+		}else if(source instanceof JSONArray && target instanceof JSONArray) {
+			diffArray(path, (JSONArray)source, (JSONArray)target, patch);
+		}else if(!source.equals(target)) {
+			patch.add(createOperation(JSONPatchOperation.REPLACE, path, target));
+		}
+	}
+
+	private static void diffObject(String path, JSONObject source, JSONObject target, JSONArray patch) {
+		if(isSameContent(source, target)) return;
+
+		for(String key : source.keySet()) {
+			if(!target.containsKey(key)) patch.add(createOperation(JSONPatchOperation.REMOVE, path+"/"+escape(key), null));
+		}
+
+		for(Map.Entry<String, Object> entry : target.entrySet()) {
+			final String childPath = path+"/"+escape(entry.getKey());
+			final Object sourceValue = source.get(entry.getKey());
+
+			if(sourceValue == null) patch.add(createOperation(JSONPatchOperation.ADD, childPath, entry.getValue()));
+			else diffValue(childPath, sourceValue, entry.getValue(), patch);
+		}
+	}
+
+	private static void diffArray(String path, JSONArray source, JSONArray target, JSONArray patch) {
+		if(isSameContent(source, target)) return;
+
+		final Object[] sourceContent = source.toArray();
+		final Object[] targetContent = target.toArray();
+		final int common = Math.min(sourceContent.length, targetContent.length);
+
+		for(int i = 0; i < common; i++) {
+			diffValue(path+"/"+i, sourceContent[i], targetContent[i], patch);
+		}
+
+		// Remove from the end so the indexes of the remaining elements stay valid
+		for(int i = sourceContent.length-1; i >= common; i--) {
+			patch.add(createOperation(JSONPatchOperation.REMOVE, path+"/"+i, null));
+		}
+
+		for(int i = common; i < targetContent.length; i++) {
+			patch.add(createOperation(JSONPatchOperation.ADD, path+"/"+i, targetContent[i]));
+		}
+	}
+
+	/**
+	 * Check if two containers have the same content.<br/>
+	 * The hashes are compared first so that different subtrees are detected without a full comparison.
+	 */
+	private static boolean isSameContent(JSONContainer source, JSONContainer target) {
+		return source.hashCode() == target.hashCode() && source.equals(target);
+	}
+
+	private static JSONObject createOperation(JSONPatchOperation operation, String path, Object value) {
+		final JSONObject result = new JSONObject(4);
+		result.put(OPERATION_KEY, operation.getName());
+		result.put(PATH_KEY, path);
+		if(value != null) result.put(VALUE_KEY, value);
+
+		return result;
+	}
+
+	/*
+	 * Apply methods
+	 */
+
+	/**
+	 * Apply a JSON Patch to a container, in place.<br/>
+	 * Operations are applied in order. Values inserted in the container are deep copied from the patch.
+	 * <p>
+	 * If an operation fails, a {@link JSONPatchException} is thrown and the operations
+	 * preceding it are kept.
+	 *
+	 * @param container The container to modify
+	 * @param patch The patch document, a {@link JSONArray} of operations
+	 * @throws JSONPatchException If an operation is malformed or cannot be applied
+	 */
+	public static void apply(JSONContainer container, JSONArray patch) {
+		for(Object element : patch.toArray()) {
+			if(!(element instanceof JSONObject)) throw new JSONPatchException("Patch operation must be a JSON object");
+
+			applyOperation(container, (JSONObject)element);
+		}
+	}
+
+	private static void applyOperation(JSONContainer root, JSONObject operation) {
+		final String name = operation.get(OPERATION_KEY, String.class);
+		final String path = operation.get(PATH_KEY, String.class);
+		final JSONPatchOperation type = JSONPatchOperation.of(name);
+
+		if(type == null) throw new JSONPatchException("Unknown patch operation "+name);
+		if(path == null) throw new JSONPatchException("Missing path member for operation "+name);
+
+		final List<String> tokens = parsePointer(path);
+
+		switch(type) {
+			case ADD -> add(root, path, tokens, JSONHelper.deepCopyValue(getRequiredValue(operation, path)));
+			case REMOVE -> remove(root, path, tokens);
+			case REPLACE -> replace(root, path, tokens, JSONHelper.deepCopyValue(getRequiredValue(operation, path)));
+			case MOVE -> {
+				final String from = getRequiredFrom(operation, path);
+				if(path.startsWith(from+"/")) throw new JSONPatchException("Cannot move a value into one of its children", path);
+
+				final Object value = remove(root, from, parsePointer(from));
+				add(root, path, tokens, value);
+			}
+			case COPY -> {
+				final String from = getRequiredFrom(operation, path);
+
+				add(root, path, tokens, JSONHelper.deepCopyValue(get(root, from, parsePointer(from))));
+			}
+			case TEST -> {
+				final Object expected = getRequiredValue(operation, path);
+				if(!expected.equals(get(root, path, tokens))) throw new JSONPatchException("Test operation failed", path);
+			}
+		}
+
+		if(type != JSONPatchOperation.TEST) root.setContentModified(true);
+	}
+
+	private static Object getRequiredValue(JSONObject operation, String path) {
+		final Object value = operation.get(VALUE_KEY);
+		if(value == null) throw new JSONPatchException("Missing value member", path);
+
+		return value;
+	}
+
+	private static String getRequiredFrom(JSONObject operation, String path) {
+		final String from = operation.get(FROM_KEY, String.class);
+		if(from == null) throw new JSONPatchException("Missing from member", path);
+
+		return from;
+	}
+
+	private static Object get(JSONContainer root, String path, List<String> tokens) {
+		if(tokens.isEmpty()) return root;
+
+		final Object parent = resolveParent(root, path, tokens);
+		final String last = tokens.get(tokens.size()-1);
+
+		if(parent instanceof JSONObject) {
+			final Object value = ((JSONObject)parent).get(last);
+			if(value == null) throw new JSONPatchException("No value found", path);
+
+			return value;
+		}else {
+			final JSONArray array = (JSONArray)parent;
+			final int index = parseIndex(last, path);
+			if(index >= array.size()) throw new JSONPatchException("Index out of bounds", path);
+
+			return array.get(index);
+		}
+	}
+
+	private static void add(JSONContainer root, String path, List<String> tokens, Object value) {
+		if(tokens.isEmpty()) {
+			replaceRoot(root, path, value);
+			return;
+		}
+
+		final Object parent = resolveParent(root, path, tokens);
+		final String last = tokens.get(tokens.size()-1);
+
+		if(parent instanceof JSONObject) {
+			((JSONObject)parent).put(last, value);
+		}else {
+			final JSONArray array = (JSONArray)parent;
+			if(END_OF_ARRAY.equals(last)) {
+				array.add(value);
+			}else {
+				final int index = parseIndex(last, path);
+				if(index > array.size()) throw new JSONPatchException("Index out of bounds", path);
+
+				array.add(index, value);
+			}
+		}
+	}
+
+	private static Object remove(JSONContainer root, String path, List<String> tokens) {
+		if(tokens.isEmpty()) throw new JSONPatchException("Cannot remove the root container", path);
+
+		final Object parent = resolveParent(root, path, tokens);
+		final String last = tokens.get(tokens.size()-1);
+
+		if(parent instanceof JSONObject) {
+			final Object removed = ((JSONObject)parent).remove(last);
+			if(removed == null) throw new JSONPatchException("No value found", path);
+
+			return removed;
+		}else {
+			final JSONArray array = (JSONArray)parent;
+			final int index = parseIndex(last, path);
+			if(index >= array.size()) throw new JSONPatchException("Index out of bounds", path);
+
+			return array.remove(index);
+		}
+	}
+
+	private static void replace(JSONContainer root, String path, List<String> tokens, Object value) {
+		if(tokens.isEmpty()) {
+			replaceRoot(root, path, value);
+			return;
+		}
+
+		final Object parent = resolveParent(root, path, tokens);
+		final String last = tokens.get(tokens.size()-1);
+
+		if(parent instanceof JSONObject) {
+			if(((JSONObject)parent).replace(last, value) == null) throw new JSONPatchException("No value found", path);
+		}else {
+			final JSONArray array = (JSONArray)parent;
+			final int index = parseIndex(last, path);
+			if(index >= array.size()) throw new JSONPatchException("Index out of bounds", path);
+
+			array.set(index, value);
+		}
+	}
+
+	/**
+	 * The root cannot be swapped in place, its content is replaced instead.
+	 * Only possible if the new value is a container of the same type.
+	 */
+	private static void replaceRoot(JSONContainer root, String path, Object value) {
+		if(root instanceof JSONObject && value instanceof JSONObject) {
+			root.clear();
+			((JSONObject)root).putAll((JSONObject)value);
+		}else if(root instanceof JSONArray && value instanceof JSONArray) {
+			root.clear();
+			((JSONArray)root).addAll((JSONArray)value);
+		}else {
+			throw new JSONPatchException("Cannot replace the root container with a different type", path);
+		}
+	}
+
+	private static Object resolveParent(JSONContainer root, String path, List<String> tokens) {
+		Object current = root;
+		for(int i = 0; i < tokens.size()-1; i++) {
+			final String token = tokens.get(i);
+
+			if(current instanceof JSONObject) {
+				current = ((JSONObject)current).get(token);
+			}else if(current instanceof JSONArray) {
+				final JSONArray array = (JSONArray)current;
+				final int index = parseIndex(token, path);
+				current = index < array.size() ? array.get(index) : null;
+			}else {
+				current = null;
+			}
+
+			if(current == null) throw new JSONPatchException("No value found", path);
+		}
+
+		if(!(current instanceof JSONObject) && !(current instanceof JSONArray)) throw new JSONPatchException("Parent is not a container", path);
+
+		return current;
+	}
+
+	private static int parseIndex(String token, String path) {
+		if(token.isEmpty() || (token.length() > 1 && token.charAt(0) == '0')) throw new JSONPatchException("Invalid array index "+token, path);
+
+		try {
+			final int index = Integer.parseInt(token);
+			if(index < 0) throw new JSONPatchException("Invalid array index "+token, path);
+
+			return index;
+		}catch(NumberFormatException e) {
+			throw new JSONPatchException("Invalid array index "+token, path, e);
+		}
+	}
+
+	/*
+	 * Merge patch methods
+	 */
+
+	/**
+	 * Apply a JSON Merge Patch to an object, in place.<br/>
+	 * Members of the patch set to {@link Null#NULL} are removed from the target,
+	 * nested objects are merged recursively and every other value replaces the target's value.<br/>
+	 * <em>See RFC 7396.</em>
+	 *
+	 * @param target The object to modify
+	 * @param patch The merge patch
+	 */
+	public static void applyMergePatch(JSONObject target, JSONObject patch) {
+		for(Map.Entry<String, Object> entry : patch.entrySet()) {
+			final Object value = entry.getValue();
+
+			if(value instanceof Null) {
+				target.remove(entry.getKey());
+			}else if(value instanceof JSONObject) {
+				final Object current = target.get(entry.getKey());
+				if(current instanceof JSONObject) {
+					applyMergePatch((JSONObject)current, (JSONObject)value);
+				}else {
+					final JSONObject created = new JSONObject();
+					applyMergePatch(created, (JSONObject)value);
+					target.put(entry.getKey(), created);
+				}
+			}else {
+				target.put(entry.getKey(), JSONHelper.deepCopyValue(value));
+			}
+		}
+	}
+
+	/*
+	 * JSON Pointer methods
+	 */
+
+	/**
+	 * Escape a member name to be used as a JSON Pointer reference token.
+	 * @param key The member name
+	 * @return the escaped token
+	 */
+	public static String escape(String key) {
+		if(key.indexOf('~') < 0 && key.indexOf('/') < 0) return key;
+		return key.replace("~", "~0").replace("/", "~1");
+	}
+
+	/**
+	 * Split a JSON Pointer into its unescaped reference tokens.
+	 * @param pointer The JSON Pointer
+	 * @return the list of tokens, empty if the pointer targets the whole document
+	 * @throws JSONPatchException If the pointer is not empty and doesn't start with '/'
+	 */
+	public static List<String> parsePointer(String pointer) {
+		final List<String> tokens = new ArrayList<>();
+		if(pointer.isEmpty()) return tokens;
+		if(pointer.charAt(0) != '/') throw new JSONPatchException("JSON Pointer must start with '/'", pointer);
+
+		int start = 1;
+		for(int i = 1; i <= pointer.length(); i++) {
+			if(i == pointer.length() || pointer.charAt(i) == '/') {
+				tokens.add(unescape(pointer.substring(start, i)));
+				start = i+1;
+			}
+		}
+
+		return tokens;
+	}
+
+	private static String unescape(String token) {
+		if(token.indexOf('~') < 0) return token;
+		return token.replace("~1", "/").replace("~0", "~");
+	}
+}
@@ -0,0 +1,73 @@
+package marshmalliow.core.json.patch;
+
+/**
+ * Operations available in a JSON Patch document.<br/>
+ * <em>See RFC 6902.</em>
+ * @author 278deco
+ * @version 1.0.0
+ * @since 0.3.5
+ */
+public enum JSONPatchOperation {
+
+	/**
+	 * Add a value to an object or insert it into an array
+	 */
+	ADD("add"),
+	
+	/**
+	 * Remove the value at the target location
+	 */
+	REMOVE("remove"),
+	
+	/**
+	 * Replace the value at the target location
+	 */
+	REPLACE("replace"),
+	
+	/**
+	 * Remove the value at a location and add it to the target location
+	 */
+	MOVE("move"),
+	
+	/**
+	 * Copy the value at a location to the target location
+	 */
+	COPY("copy"),
+	
+	/**
+	 * Test that the value at the target location is equal to a specified value
+	 */
+	TEST("test");
+
+	private final String name;
+
+	private JSONPatchOperation(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Get the name of the operation as written in the {@code op} member of a patch.
+	 * @return the name of the operation
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get the operation corresponding to the given name.
+	 * @param name The name of the operation
+	 * @return the operation or {@code null} if no operation has this name
+	 */
+	public static JSONPatchOperation of(String name) {
+		for(JSONPatchOperation operation : JSONPatchOperation.values()) {
+			if(operation.name.equals(name)) return operation;
+		}
+		
+		return null;
+	}
+	
+	@Override
+	public String toString() {
+		return this.name;
+	}
+}
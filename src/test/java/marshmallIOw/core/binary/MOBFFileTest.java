@@ -0,0 +1,236 @@
+package marshmallIOw.core.binary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.advanced.StringDataType;
+import marshmalliow.core.binary.data.container.ArrayDataType;
+import marshmalliow.core.binary.data.container.ListDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.data.primitive.IntegerDataType;
+import marshmalliow.core.binary.data.primitive.LongDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.stream.MOBFStreamWriter;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.CompressionType;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.objects.Directory;
+
+public class MOBFFileTest {
+
+	@Test
+	public void readWriteTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		for(CompressionType compression : CompressionType.values()) {
+			final MOBFFile file = new MOBFFile(directory, "file_"+compression, registry, MOBFFileHeader.DEFAULT_HEADER, compression, MOBFTestFixture.createContent());
+			file.saveFile(true);
+			
+			final MOBFFile read = new MOBFFile(directory, "file_"+compression, registry);
+			read.readFile();
+			
+			assertTrue(read.isOpen());
+			assertEquals(4, read.getRoot().getSize());
+			assertEquals(42, read.getRoot().getValue().get("id").getValue());
+			assertEquals("marshmallIOw", read.getRoot().getValue().get("user").getValue());
+			assertEquals(15L, ((ObjectDataType) read.getRoot().getValue().get("mapping")).getValue().get("expired_when").getValue());
+		}
+	}
+	
+	@Test
+	public void indexedReadFieldTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final MOBFFileHeader header = MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED);
+		new MOBFFile(directory, "indexed", registry, header, MOBFTestFixture.createContent()).saveFile(true);
+		
+		final MOBFFile file = new MOBFFile(directory, "indexed", registry);
+		assertNotNull(file.getIndex());
+		assertEquals(6, file.getIndex().size());
+		
+		assertEquals(42, file.readField("id").getValue());
+		assertEquals("a", file.readField("mapping", "alias").getValue());
+		assertEquals(15L, file.readField("mapping", "expired_when").getValue());
+		assertEquals(2, ((ObjectDataType) file.readField("mapping")).getSize());
+		assertNull(file.readField("mapping", "unknown"));
+		assertNull(file.readField("id", "unknown"));
+		assertFalse(file.isOpen());
+		
+		// Indexed files can still be read sequentially
+		file.readFile();
+		assertTrue(file.getFileHeader().hasFeature(FormatFeature.INDEXED));
+		assertEquals(4, file.getRoot().getSize());
+		assertEquals("a", file.readField("mapping", "alias").getValue());
+	}
+	
+	@Test
+	public void lazyLoadingTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final MOBFFileHeader header = MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED);
+		final ObjectDataType content = MOBFTestFixture.createContent();
+		content.add(new ListDataType<>("empty"));
+		new MOBFFile(directory, "lazy", registry, header, content).saveFile(true);
+		
+		final MOBFFile file = new MOBFFile(directory, "lazy", registry);
+		file.setLazyLoading(true);
+		file.readFile();
+		
+		assertFalse(file.getRoot().isLoaded());
+		assertEquals(42, file.getRoot().getValue().get("id").getValue());
+		assertTrue(file.getRoot().isLoaded());
+		
+		final ObjectDataType mapping = (ObjectDataType) file.getRoot().getValue().get("mapping");
+		assertFalse(mapping.isLoaded());
+		assertFalse(file.getRoot().getValue().get("values").isLoaded());
+		
+		// Untouched containers are copied as is
+		file.getRoot().add(new IntegerDataType("added", 7));
+		file.saveFile();
+		
+		final MOBFFile saved = new MOBFFile(directory, "lazy", registry);
+		assertEquals(7, saved.readField("added").getValue());
+		assertEquals("a", saved.readField("mapping", "alias").getValue());
+		
+		saved.readFile();
+		assertEquals(6, saved.getRoot().getSize());
+		assertEquals(2, ((ObjectDataType) saved.getRoot().getValue().get("mapping")).getSize());
+		assertEquals(0, ((ListDataType<?>) saved.getRoot().getValue().get("empty")).getValue().size());
+		assertEquals(3, ((ArrayDataType<?>) saved.getRoot().getValue().get("values")).getValue().length);
+	}
+	
+	@Test
+	public void stringEncodingTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		final String text = "crème brûlée \uD83C\uDF70 \u6F22\u5B57 \uD800 ";
+		
+		for(Charset charset : new Charset[] {Charset.UTF8, Charset.UTF16}) {
+			final ObjectDataType content = MOBFTestFixture.createContent();
+			content.add(new StringDataType("text", text), new StringDataType("long", text.repeat(5000)), new StringDataType("empty", ""));
+			new MOBFFile(directory, "text_"+charset, registry, MOBFFileHeader.withFeatures(charset), content).saveFile(true);
+			
+			final MOBFFile file = new MOBFFile(directory, "text_"+charset, registry);
+			file.readFile();
+			assertEquals(text, file.getRoot().getValue().get("text").getValue());
+			assertEquals(text.repeat(5000), file.getRoot().getValue().get("long").getValue());
+			assertEquals("", file.getRoot().getValue().get("empty").getValue());
+			assertEquals("marshmallIOw", file.getRoot().getValue().get("user").getValue());
+			
+			file.setLazyLoading(true);
+			file.readFile();
+			assertEquals(text, file.getRoot().getValue().get("text").getValue());
+			assertEquals(text.repeat(5000), file.getRoot().getValue().get("long").getValue());
+		}
+	}
+	
+	@Test
+	public void varintTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final ObjectDataType content = MOBFTestFixture.createContent();
+		content.add(new IntegerDataType("negative", -3), new LongDataType("large", Long.MIN_VALUE));
+		
+		final MOBFFileHeader header = MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED, FormatFeature.VARINT, FormatFeature.ZIGZAG);
+		new MOBFFile(directory, "fixed", registry, MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED), content).saveFile(true);
+		new MOBFFile(directory, "compact", registry, header, content).saveFile(true);
+		assertTrue(Files.size(directory.getPath().resolve("compact.mobf")) < Files.size(directory.getPath().resolve("fixed.mobf")));
+		
+		final MOBFFile file = new MOBFFile(directory, "compact", registry);
+		assertEquals(-3, file.readField("negative").getValue());
+		assertEquals("a", file.readField("mapping", "alias").getValue());
+		
+		file.setLazyLoading(true);
+		file.readFile();
+		assertEquals(Long.MIN_VALUE, file.getRoot().getValue().get("large").getValue());
+		assertEquals(42, file.getRoot().getValue().get("id").getValue());
+		assertEquals(3, ((ArrayDataType<?>) file.getRoot().getValue().get("values")).getValue().length);
+		assertEquals(15L, ((ObjectDataType) file.getRoot().getValue().get("mapping")).getValue().get("expired_when").getValue());
+	}
+	
+	@Test
+	public void keyTableTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final ObjectDataType content = MOBFTestFixture.createContent();
+		final ListDataType<ObjectDataType> users = new ListDataType<>("users");
+		for(int i = 0; i < 50; i++) {
+			final ObjectDataType user = new ObjectDataType("user");
+			user.add(new IntegerDataType("identifier", i), new StringDataType("display_name", "user"+i));
+			users.add(user);
+		}
+		content.add(users);
+		
+		final MOBFFileHeader header = MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED, FormatFeature.KEY_TABLE);
+		new MOBFFile(directory, "plain", registry, MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED), content).saveFile(true);
+		new MOBFFile(directory, "keys", registry, header, content).saveFile(true);
+		assertTrue(Files.size(directory.getPath().resolve("keys.mobf")) < Files.size(directory.getPath().resolve("plain.mobf")));
+		
+		final MOBFFile file = new MOBFFile(directory, "keys", registry);
+		assertEquals("a", file.readField("mapping", "alias").getValue());
+		
+		file.setLazyLoading(true);
+		file.readFile();
+		final ListDataType<?> read = (ListDataType<?>) file.getRoot().getValue().get("users");
+		assertEquals(50, read.getValue().size());
+		
+		final ObjectDataType first = (ObjectDataType) read.getValue().get(0);
+		final ObjectDataType second = (ObjectDataType) read.getValue().get(1);
+		assertEquals(7, ((ObjectDataType) read.getValue().get(7)).getValue().get("identifier").getValue());
+		assertTrue(first.getValue().get("display_name").getName().get() == second.getValue().get("display_name").getName().get());
+		
+		// The untouched mapping is copied with the keys of the previous table
+		file.getRoot().add(new StringDataType("new_key", "value"));
+		file.saveFile();
+		
+		final MOBFFile saved = new MOBFFile(directory, "keys", registry);
+		saved.readFile();
+		assertEquals("value", saved.getRoot().getValue().get("new_key").getValue());
+		assertEquals("a", ((ObjectDataType) saved.getRoot().getValue().get("mapping")).getValue().get("alias").getValue());
+	}
+	
+	@Test
+	public void permissionsTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final MOBFFile file = new MOBFFile(directory, "shared", registry, MOBFFileHeader.DEFAULT_HEADER, MOBFTestFixture.createContent());
+		file.saveFile(true);
+		final Path path = directory.getPath().resolve("shared.mobf");
+		Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-r--r--"));
+		
+		// Replacing the file keeps its permissions instead of those of a temporary file
+		file.saveFile(true);
+		assertEquals("rw-r--r--", PosixFilePermissions.toString(Files.getPosixFilePermissions(path)));
+		
+		Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-rw----"));
+		try(MOBFStreamWriter stream = file.openStreamWriter(MOBFFileHeader.DEFAULT_HEADER, null)) {
+			stream.beginObject("root");
+			stream.endObject();
+		}
+		assertEquals("rw-rw----", PosixFilePermissions.toString(Files.getPosixFilePermissions(path)));
+	}
+	
+}
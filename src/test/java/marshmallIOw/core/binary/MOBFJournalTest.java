@@ -0,0 +1,155 @@
+package marshmallIOw.core.binary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.MOBFJournal;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.advanced.StringDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.data.primitive.IntegerDataType;
+import marshmalliow.core.binary.data.primitive.LongDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.objects.Directory;
+
+public class MOBFJournalTest {
+
+	@Test
+	public void journalTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final MOBFFile file = new MOBFFile(directory, "journal", registry, MOBFFileHeader.DEFAULT_HEADER, new ObjectDataType("root"));
+		final MOBFJournal journal = new MOBFJournal(file);
+		journal.open();
+		journal.put(new IntegerDataType("id", 42));
+		journal.put(new StringDataType("user", "marshmallIOw"));
+		journal.put(new ObjectDataType("mapping"));
+		journal.put(new LongDataType("expired_when", 15L), "mapping");
+		journal.put(new IntegerDataType("id", 43));
+		assertTrue(journal.remove("user"));
+		assertFalse(journal.remove("user"));
+		assertThrows(IllegalArgumentException.class, () -> journal.put(new IntegerDataType("id", 0), "missing"));
+		journal.close();
+		
+		// An interrupted record is dropped when the log is replayed
+		final long size = Files.size(journal.getPath());
+		Files.write(journal.getPath(), new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+		
+		final MOBFFile recovered = new MOBFFile(directory, "journal", registry, MOBFFileHeader.DEFAULT_HEADER, new ObjectDataType("root"));
+		try(MOBFJournal replayed = new MOBFJournal(recovered)) {
+			replayed.open();
+			assertEquals(size, replayed.getSize());
+			assertEquals(43, recovered.getRoot().get("id").getValue());
+			assertNull(recovered.getRoot().get("user"));
+			assertEquals(15L, ((ObjectDataType) recovered.getRoot().get("mapping")).get("expired_when").getValue());
+			
+			replayed.compact();
+			replayed.put(new StringDataType("user", "compacted"));
+		}
+		
+		final MOBFFile snapshot = new MOBFFile(directory, "journal", registry);
+		try(MOBFJournal replayed = new MOBFJournal(snapshot)) {
+			replayed.open();
+			assertEquals(43, snapshot.getRoot().get("id").getValue());
+			assertEquals("compacted", snapshot.getRoot().get("user").getValue());
+			assertEquals(15L, ((ObjectDataType) snapshot.getRoot().get("mapping")).get("expired_when").getValue());
+		}
+	}
+	
+	@Test
+	public void corruptedRecordTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final MOBFFile file = new MOBFFile(directory, "corrupted", registry, MOBFFileHeader.DEFAULT_HEADER, new ObjectDataType("root"));
+		final MOBFJournal journal = new MOBFJournal(file);
+		journal.open();
+		journal.put(new IntegerDataType("id", 42));
+		final long valid = journal.getSize();
+		journal.put(new StringDataType("user", "marshmallIOw"));
+		journal.put(new IntegerDataType("id", 43));
+		journal.close();
+		
+		// A corrupted record in the middle of the log hides the following ones, they are kept aside
+		final byte[] bytes = Files.readAllBytes(journal.getPath());
+		bytes[(int) valid + 12] ^= 1;
+		Files.write(journal.getPath(), bytes);
+		
+		final MOBFFile recovered = new MOBFFile(directory, "corrupted", registry, MOBFFileHeader.DEFAULT_HEADER, new ObjectDataType("root"));
+		try(MOBFJournal replayed = new MOBFJournal(recovered)) {
+			replayed.open();
+			assertEquals(valid, replayed.getSize());
+			assertEquals(valid, Files.size(replayed.getPath()));
+			assertEquals(42, recovered.getRoot().get("id").getValue());
+			assertNull(recovered.getRoot().get("user"));
+		}
+		
+		final List<Path> dropped;
+		try(Stream<Path> files = Files.list(directory.getPath())) {
+			dropped = files.filter(path -> path.getFileName().toString().endsWith(".dropped")).collect(Collectors.toList());
+		}
+		assertEquals(1, dropped.size());
+		assertEquals(bytes.length - valid, Files.size(dropped.get(0)));
+	}
+	
+	@Test
+	public void interruptedCompactionTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final ObjectDataType staged = new ObjectDataType("root");
+		staged.add(new IntegerDataType("id", 2));
+		new MOBFFile(directory, "staged", registry, MOBFFileHeader.DEFAULT_HEADER, staged).saveFile(true);
+		final Path stagedPath = directory.getPath().resolve("compacted.mobf.compact");
+		
+		final ObjectDataType root = new ObjectDataType("root");
+		root.add(new IntegerDataType("id", 1));
+		final MOBFFile file = new MOBFFile(directory, "compacted", registry, MOBFFileHeader.DEFAULT_HEADER, root);
+		file.saveFile(true);
+		
+		// Interrupted before the log is emptied: the staged snapshot is discarded and the log replayed on the previous one
+		try(MOBFJournal journal = new MOBFJournal(file)) {
+			journal.open();
+			journal.put(new IntegerDataType("id", 3));
+		}
+		Files.copy(directory.getPath().resolve("staged.mobf"), stagedPath);
+		
+		final MOBFFile replayed = new MOBFFile(directory, "compacted", registry);
+		try(MOBFJournal journal = new MOBFJournal(replayed)) {
+			journal.open();
+			assertEquals(3, replayed.getRoot().get("id").getValue());
+			assertFalse(Files.exists(stagedPath));
+			journal.compact();
+		}
+		
+		// Interrupted once the log is emptied: the staged snapshot replaces the previous one
+		Files.copy(directory.getPath().resolve("staged.mobf"), stagedPath, StandardCopyOption.REPLACE_EXISTING);
+		
+		final MOBFFile completed = new MOBFFile(directory, "compacted", registry);
+		try(MOBFJournal journal = new MOBFJournal(completed)) {
+			journal.open();
+			assertEquals(2, completed.getRoot().get("id").getValue());
+			assertFalse(Files.exists(stagedPath));
+		}
+		assertEquals(2, new MOBFFile(directory, "compacted", registry).readField("id").getValue());
+	}
+	
+}
@@ -0,0 +1,42 @@
+package marshmallIOw.core.binary;
+
+import marshmalliow.core.binary.data.advanced.StringDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.data.primitive.IntegerDataType;
+import marshmalliow.core.binary.data.primitive.LongDataType;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.helpers.DataTypeHelper;
+
+/**
+ * Fixture shared by the tests of the MOBF files and their data types.
+ */
+public final class MOBFTestFixture {
+
+	private MOBFTestFixture() { }
+
+	/**
+	 * Create a registry of the default data types.
+	 * @return the registry
+	 * @throws DatatypeRegistryException If a default data type cannot be registered
+	 */
+	public static DataTypeRegistry createRegistry() throws DatatypeRegistryException {
+		return DataTypeEnum.createNewRegistry().build();
+	}
+
+	/**
+	 * Create the sample content of the tests: four values in the root object, one of them being a nested object.
+	 * @return the root object
+	 */
+	public static ObjectDataType createContent() {
+		final ObjectDataType root = new ObjectDataType("root");
+		root.add(new IntegerDataType("id", 42), new StringDataType("user", "marshmallIOw"), DataTypeHelper.asArray("values", 1, 2, 3));
+
+		final ObjectDataType mapping = new ObjectDataType("mapping");
+		mapping.add(new LongDataType("expired_when", 15L), new StringDataType("alias", "a"));
+		root.add(mapping);
+
+		return root;
+	}
+}
@@ -0,0 +1,56 @@
+package marshmallIOw.core.binary.compression;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.compression.CompressionCodecs;
+import marshmalliow.core.binary.compression.CompressionOptions;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.array.IntArrayDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.CompressionType;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.helpers.DataTypeHelper;
+import marshmalliow.core.objects.Directory;
+
+import marshmallIOw.core.binary.MOBFTestFixture;
+
+public class BlockContainerTest {
+
+	@Test
+	public void blockCompressionTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final ObjectDataType content = MOBFTestFixture.createContent();
+		final int[] values = new int[10_000];
+		for(int i = 0; i < values.length; i++) values[i] = i;
+		content.add(DataTypeHelper.asPackedArray("values", values));
+		
+		final MOBFFile file = new MOBFFile(directory, "blocks", registry, MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED), content);
+		file.setBlockCompression(CompressionCodecs.DEFLATE, CompressionOptions.DEFAULT, 1024);
+		file.saveFile(true);
+		
+		final MOBFFile indexed = new MOBFFile(directory, "blocks", registry);
+		assertEquals("a", indexed.readField("mapping", "alias").getValue());
+		assertFalse(indexed.isOpen());
+		
+		final MOBFFile read = new MOBFFile(directory, "blocks", registry);
+		read.readFile();
+		assertEquals(1024, read.getBlockSize());
+		assertEquals(CompressionType.DEFLATE, read.getCompression());
+		assertArrayEquals(values, ((IntArrayDataType) read.getRoot().getValue().get("values")).getValue());
+	}
+	
+}
@@ -0,0 +1,109 @@
+package marshmallIOw.core.binary.compression;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.compression.CompressionCodec;
+import marshmalliow.core.binary.compression.CompressionCodecs;
+import marshmalliow.core.binary.compression.CompressionOptions;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.CompressionType;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.objects.Directory;
+
+import marshmallIOw.core.binary.MOBFTestFixture;
+
+public class CompressionCodecsTest {
+
+	@Test
+	public void compressionDictionaryTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		final CompressionOptions options = CompressionOptions.builder().level(1).dictionary("expired_when alias user mapping".getBytes()).build();
+		
+		final MOBFFile file = new MOBFFile(directory, "dictionary", registry, MOBFFileHeader.DEFAULT_HEADER, MOBFTestFixture.createContent());
+		file.setCompression(CompressionCodecs.DEFLATE, options);
+		file.saveFile(true);
+		
+		final MOBFFile withoutDictionary = new MOBFFile(directory, "dictionary", registry);
+		assertThrows(IOException.class, () -> withoutDictionary.readFile());
+		
+		final MOBFFile read = new MOBFFile(directory, "dictionary", registry);
+		read.setCompressionOptions(options);
+		read.readFile();
+		
+		assertEquals(CompressionType.DEFLATE, read.getCompression());
+		assertEquals("a", read.readField("mapping", "alias").getValue());
+	}
+	
+	private static byte[] roundTrip(CompressionCodec codec, byte[] data) throws IOException {
+		final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try(OutputStream out = codec.compress(compressed, CompressionOptions.DEFAULT)) {
+			// Mix single bytes and arrays to cross the chunks at any position
+			out.write(data, 0, Math.min(data.length, 3));
+			for(int i = 3; i < Math.min(data.length, 10); i++) out.write(data[i]);
+			if(data.length > 10) out.write(data, 10, data.length - 10);
+		}
+		
+		final byte[] result = compressed.toByteArray();
+		assertSame(codec, CompressionCodecs.detect(result));
+		try(InputStream in = codec.decompress(new ByteArrayInputStream(result), CompressionOptions.DEFAULT)) {
+			assertArrayEquals(data, in.readAllBytes());
+		}
+		
+		return result;
+	}
+	
+	@Test
+	public void lz4RoundTripTest() throws IOException {
+		final Random random = new Random(42);
+		final byte[] incompressible = new byte[200_000];
+		random.nextBytes(incompressible);
+		
+		final byte[] text = "expired_when alias user mapping marshmallIOw ".repeat(5000).getBytes();
+		final byte[] runs = new byte[150_000];
+		for(int i = 0; i < runs.length; i++) runs[i] = (byte) (i / 1000);
+		
+		roundTrip(CompressionCodecs.LZ4, new byte[0]);
+		roundTrip(CompressionCodecs.LZ4, "short".getBytes());
+		roundTrip(CompressionCodecs.LZ4, "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa".getBytes());
+		roundTrip(CompressionCodecs.LZ4, incompressible);
+		roundTrip(CompressionCodecs.LZ4, runs);
+		assertTrue(roundTrip(CompressionCodecs.LZ4, text).length < text.length / 10);
+		
+		assertEquals(CompressionCodecs.LZ4, CompressionCodecs.byName("lz4").get());
+		assertThrows(IllegalArgumentException.class, () -> CompressionCodecs.LZ4.compress(new ByteArrayOutputStream(),
+				CompressionOptions.builder().dictionary("alias".getBytes()).build()));
+	}
+	
+	@Test
+	public void lz4CorruptionTest() throws IOException {
+		final byte[] compressed = roundTrip(CompressionCodecs.LZ4, "expired_when alias user mapping ".repeat(100).getBytes());
+		
+		// Truncated stream, then a chunk claiming a larger uncompressed length
+		final byte[] truncated = Arrays.copyOf(compressed, compressed.length - 8);
+		assertThrows(IOException.class, () -> CompressionCodecs.LZ4.decompress(new ByteArrayInputStream(truncated), CompressionOptions.DEFAULT).readAllBytes());
+		
+		final byte[] corrupted = compressed.clone();
+		corrupted[7]++;
+		assertThrows(IOException.class, () -> CompressionCodecs.LZ4.decompress(new ByteArrayInputStream(corrupted), CompressionOptions.DEFAULT).readAllBytes());
+	}
+	
+}
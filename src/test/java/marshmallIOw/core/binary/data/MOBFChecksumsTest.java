@@ -0,0 +1,164 @@
+package marshmallIOw.core.binary.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.compression.CompressionCodecs;
+import marshmalliow.core.binary.compression.CompressionOptions;
+import marshmalliow.core.binary.data.MOBFChecksums;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.exceptions.ChecksumException;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.objects.Directory;
+
+import marshmallIOw.core.binary.MOBFTestFixture;
+
+public class MOBFChecksumsTest {
+
+	@Test
+	public void checksumTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		final MOBFFileHeader header = MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED, FormatFeature.KEY_TABLE, FormatFeature.CHECKSUM);
+		
+		final MOBFFile blocks = new MOBFFile(directory, "blocks", registry, header, MOBFTestFixture.createContent());
+		blocks.setBlockCompression(CompressionCodecs.DEFLATE, CompressionOptions.DEFAULT, 64);
+		blocks.saveFile(true);
+		assertTrue(blocks.verify().isEmpty());
+		assertEquals("a", new MOBFFile(directory, "blocks", registry).readField("mapping", "alias").getValue());
+		
+		new MOBFFile(directory, "checked", registry, header, MOBFTestFixture.createContent()).saveFile(true);
+		final MOBFFile file = new MOBFFile(directory, "checked", registry);
+		assertTrue(file.verify().isEmpty());
+		assertEquals(15L, file.readField("mapping", "expired_when").getValue());
+		file.setLazyLoading(true);
+		file.readFile();
+		assertEquals("a", ((ObjectDataType) file.getRoot().get("mapping")).get("alias").getValue());
+		
+		// A corrupted value is still parsed, the checksums report the section holding it
+		final Path path = file.getFullPath();
+		final byte[] bytes = Files.readAllBytes(path);
+		final byte[] user = "marshmallIOw".getBytes(StandardCharsets.UTF_8);
+		int position = 0;
+		while(!Arrays.equals(bytes, position, position + user.length, user, 0, user.length)) position++;
+		bytes[position] = 'n';
+		Files.write(path, bytes);
+		
+		assertEquals(Set.of(MOBFChecksums.Section.CONTENT), file.verify());
+		final ChecksumException exception = assertThrows(ChecksumException.class, () -> new MOBFFile(directory, "checked", registry).readFile());
+		assertEquals(Set.of(MOBFChecksums.Section.CONTENT), exception.getSections());
+		
+		bytes[bytes.length - 1] ^= 1;
+		Files.write(path, bytes);
+		assertEquals(EnumSet.allOf(MOBFChecksums.Section.class), file.verify());
+	}
+	
+	@Test
+	public void lazyVerificationTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		final MOBFFileHeader header = MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED, FormatFeature.CHECKSUM);
+		new MOBFFile(directory, "lazy", registry, header, MOBFTestFixture.createContent()).saveFile(true);
+		corrupt(directory.getPath().resolve("lazy.mobf"), "marshmallIOw");
+		
+		// The content of a lazily loaded file is left to verify(), the other sections are still verified
+		final MOBFFile file = new MOBFFile(directory, "lazy", registry);
+		file.setLazyLoading(true);
+		file.readFile();
+		assertEquals(42, file.getRoot().get("id").getValue());
+		assertEquals(Set.of(MOBFChecksums.Section.CONTENT), file.verify());
+		
+		file.setLazyLoading(false);
+		assertEquals(Set.of(MOBFChecksums.Section.CONTENT), assertThrows(ChecksumException.class, () -> file.readFile(true)).getSections());
+	}
+	
+	@Test
+	public void headerCorruptionTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		final MOBFFileHeader header = MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.CHECKSUM);
+		new MOBFFile(directory, "header", registry, header, MOBFTestFixture.createContent()).saveFile(true);
+		
+		final Path path = directory.getPath().resolve("header.mobf");
+		final byte[] bytes = Files.readAllBytes(path);
+		bytes[0] ^= 1;
+		Files.write(path, bytes);
+		
+		final MOBFFile file = new MOBFFile(directory, "header", registry);
+		assertEquals(Set.of(MOBFChecksums.Section.HEADER), assertThrows(ChecksumException.class, () -> file.readFile()).getSections());
+		assertEquals(Set.of(MOBFChecksums.Section.HEADER), file.verify());
+	}
+	
+	@Test
+	public void blockCorruptionTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		final MOBFFileHeader header = MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED, FormatFeature.KEY_TABLE, FormatFeature.CHECKSUM);
+		
+		final MOBFFile blocks = new MOBFFile(directory, "blocks", registry, header, MOBFTestFixture.createContent());
+		blocks.setBlockCompression(CompressionCodecs.DEFLATE, CompressionOptions.DEFAULT, 64);
+		blocks.saveFile(true);
+		
+		// The first block starts after the signature, the block size and the name of the codec
+		final Path path = directory.getPath().resolve("blocks.mobf");
+		final byte[] bytes = Files.readAllBytes(path);
+		bytes[4 + Integer.BYTES + 1 + "DEFLATE".length() + 2] ^= 1;
+		Files.write(path, bytes);
+		
+		final Set<MOBFChecksums.Section> corrupted = blocks.verify();
+		assertTrue(corrupted.contains(MOBFChecksums.Section.HEADER));
+		assertFalse(corrupted.contains(MOBFChecksums.Section.INDEX));
+		assertEquals(corrupted, assertThrows(ChecksumException.class, () -> new MOBFFile(directory, "blocks", registry).readFile()).getSections());
+	}
+	
+	@Test
+	public void channelVerificationTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		final MOBFFileHeader header = MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED, FormatFeature.CHECKSUM);
+		new MOBFFile(directory, "channel", registry, header, MOBFTestFixture.createContent()).saveFile(true);
+		final Path path = directory.getPath().resolve("channel.mobf");
+		
+		for(int i = 0; i < 2; i++) {
+			final ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(path));
+			try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				final Set<MOBFChecksums.Section> expected = MOBFChecksums.read(content).verify(content);
+				assertEquals(expected, MOBFChecksums.read(channel).verify(channel, EnumSet.allOf(MOBFChecksums.Section.class)));
+				assertEquals(expected, MOBFChecksums.verifyAsync(channel, EnumSet.allOf(MOBFChecksums.Section.class), Runnable::run).join());
+				assertEquals(Set.of(), MOBFChecksums.read(channel).verify(channel, EnumSet.of(MOBFChecksums.Section.INDEX)));
+			}
+			if(i == 0) corrupt(path, "marshmallIOw");
+		}
+	}
+	
+	private static void corrupt(Path path, String value) throws IOException {
+		final byte[] bytes = Files.readAllBytes(path);
+		final byte[] searched = value.getBytes(StandardCharsets.UTF_8);
+		int position = 0;
+		while(!Arrays.equals(bytes, position, position + searched.length, searched, 0, searched.length)) position++;
+		bytes[position] = 'n';
+		Files.write(path, bytes);
+	}
+	
+}
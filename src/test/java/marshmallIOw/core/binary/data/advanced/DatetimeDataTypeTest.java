@@ -0,0 +1,45 @@
+package marshmallIOw.core.binary.data.advanced;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.advanced.DatetimeDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.objects.DateTime;
+import marshmalliow.core.objects.Directory;
+
+import marshmallIOw.core.binary.MOBFTestFixture;
+
+public class DatetimeDataTypeTest {
+
+	@Test
+	public void datetimeTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final ObjectDataType content = MOBFTestFixture.createContent();
+		for(int i = 0; i < 10; i++) {
+			content.add(new DatetimeDataType("date_"+i, DateTime.builder().year(2000+i).month((byte) 5).hour((byte) 13).build()));
+		}
+		new MOBFFile(directory, "dates", registry, MOBFFileHeader.DEFAULT_HEADER, content).saveFile(true);
+		
+		final MOBFFile file = new MOBFFile(directory, "dates", registry);
+		file.readFile();
+		for(int i = 0; i < 10; i++) {
+			final DateTime date = (DateTime) file.getRoot().getValue().get("date_"+i).getValue();
+			assertEquals(2000+i, date.getYear().get());
+			assertEquals((byte) 13, date.getHour().get());
+		}
+		assertEquals("marshmallIOw", file.getRoot().getValue().get("user").getValue());
+	}
+	
+}
@@ -0,0 +1,49 @@
+package marshmallIOw.core.binary.data.array;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.array.DoubleArrayDataType;
+import marshmalliow.core.binary.data.array.IntArrayDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.CompressionType;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.helpers.DataTypeHelper;
+import marshmalliow.core.objects.Directory;
+
+import marshmallIOw.core.binary.MOBFTestFixture;
+
+public class PackedArrayDataTypeTest {
+
+	@Test
+	public void packedArrayTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final int[] ints = new int[100_000];
+		final double[] doubles = new double[30_000];
+		for(int i = 0; i < ints.length; i++) ints[i] = i * 31 - 7;
+		for(int i = 0; i < doubles.length; i++) doubles[i] = i / 3.0;
+		
+		for(CompressionType compression : CompressionType.values()) {
+			final ObjectDataType root = MOBFTestFixture.createContent();
+			root.add(DataTypeHelper.asPackedArray("ints", ints), DataTypeHelper.asPackedArray("doubles", doubles));
+			new MOBFFile(directory, "packed_"+compression, registry, MOBFFileHeader.DEFAULT_HEADER, compression, root).saveFile(true);
+			
+			final MOBFFile read = new MOBFFile(directory, "packed_"+compression, registry);
+			read.readFile();
+			
+			assertArrayEquals(ints, ((IntArrayDataType) read.getRoot().getValue().get("ints")).getValue());
+			assertArrayEquals(doubles, ((DoubleArrayDataType) read.getRoot().getValue().get("doubles")).getValue());
+		}
+	}
+	
+}
@@ -0,0 +1,48 @@
+package marshmallIOw.core.binary.data.container;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.advanced.StringDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.data.primitive.IntegerDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.objects.Directory;
+
+import marshmallIOw.core.binary.MOBFTestFixture;
+
+public class ObjectDataTypeTest {
+
+	@Test
+	public void objectSnapshotTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		new MOBFFile(directory, "snapshot", registry, MOBFFileHeader.DEFAULT_HEADER, MOBFTestFixture.createContent()).saveFile(true);
+		
+		final MOBFFile file = new MOBFFile(directory, "snapshot", registry);
+		file.readFile();
+		final ObjectDataType root = file.getRoot();
+		
+		// Reading doesn't mark the file as modified, modifying a nested value does
+		assertEquals(42, root.get("id").getValue());
+		assertFalse(root.isModified());
+		((ObjectDataType) root.get("mapping")).add(new IntegerDataType("count", 1));
+		assertTrue(root.isModified());
+		
+		for(DataType<?> data : root.values()) root.add(new StringDataType(data.getName().get()+"_copy", "copy"));
+		assertEquals(8, root.getSize());
+		assertEquals(4, root.snapshot().keySet().stream().filter(key -> key.endsWith("_copy")).count());
+	}
+	
+}
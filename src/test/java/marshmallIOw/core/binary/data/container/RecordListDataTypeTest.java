@@ -0,0 +1,71 @@
+package marshmallIOw.core.binary.data.container;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.advanced.StringDataType;
+import marshmalliow.core.binary.data.container.ListDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.data.container.RecordListDataType;
+import marshmalliow.core.binary.data.primitive.IntegerDataType;
+import marshmalliow.core.binary.data.primitive.LongDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.objects.Directory;
+
+import marshmallIOw.core.binary.MOBFTestFixture;
+
+public class RecordListDataTypeTest {
+
+	@Test
+	public void recordListTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final ListDataType<ObjectDataType> list = new ListDataType<>("orders");
+		final RecordListDataType records = new RecordListDataType("orders");
+		for(int i = 0; i < 1000; i++) {
+			final ObjectDataType order = new ObjectDataType("order_"+i);
+			order.add(new IntegerDataType("amount", i), new StringDataType("comment", "order number "+i));
+			if(i % 10 == 0) order.add(new LongDataType("discount", i * 3L));
+		
+			list.add(order);
+			records.add(order);
+		}
+		
+		final ObjectDataType listContent = new ObjectDataType("root");
+		listContent.add(list);
+		new MOBFFile(directory, "list", registry, MOBFFileHeader.DEFAULT_HEADER, listContent).saveFile(true);
+		
+		for(boolean columnar : new boolean[] {false, true}) {
+			records.setColumnar(columnar);
+			final ObjectDataType content = new ObjectDataType("root");
+			content.add(records);
+			new MOBFFile(directory, "records", registry, MOBFFileHeader.DEFAULT_HEADER, content).saveFile(true);
+			assertTrue(Files.size(directory.getPath().resolve("records.mobf")) < Files.size(directory.getPath().resolve("list.mobf")));
+		
+			final MOBFFile file = new MOBFFile(directory, "records", registry);
+			file.readFile();
+		
+			final RecordListDataType read = (RecordListDataType) file.getRoot().get("orders");
+			assertEquals(columnar, read.isColumnar());
+			assertEquals(1000, read.getSize());
+			assertEquals("order number 999", read.get(999).get("comment").getValue());
+			assertEquals(30L, read.get("order_10").get().get("discount").getValue());
+			assertNull(read.get(11).get("discount"));
+			assertFalse(file.getRoot().isModified());
+		}
+	}
+	
+}
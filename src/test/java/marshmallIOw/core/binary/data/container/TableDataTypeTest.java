@@ -0,0 +1,112 @@
+package marshmallIOw.core.binary.data.container;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.data.container.TableDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.io.ByteBufferBinaryReader;
+import marshmalliow.core.io.ByteBufferBinaryWriter;
+import marshmalliow.core.objects.DateTime;
+import marshmalliow.core.objects.Directory;
+
+import marshmallIOw.core.binary.MOBFTestFixture;
+
+public class TableDataTypeTest {
+
+	@Test
+	public void tableTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final int rows = 10_000;
+		final long[] timestamps = new long[rows];
+		final int[] sensors = new int[rows];
+		final double[] values = new double[rows];
+		final String[] states = new String[rows];
+		final DateTime[] dates = new DateTime[rows];
+		for(int i = 0; i < rows; i++) {
+			timestamps[i] = 1_700_000_000_000L + i * 1000L;
+			sensors[i] = i / 100;
+			values[i] = Math.sin(i);
+			states[i] = i % 3 == 0 ? "idle" : "running";
+			dates[i] = DateTime.fromLocalDateTime(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+		}
+		
+		final TableDataType table = new TableDataType("series");
+		table.addLongColumn("timestamp", timestamps);
+		table.addIntColumn("sensor", sensors);
+		table.addDoubleColumn("value", values);
+		table.addStringColumn("state", states);
+		table.addDatetimeColumn("date", dates);
+		assertThrows(IllegalArgumentException.class, () -> table.addIntColumn("short", new int[3]));
+		
+		final ObjectDataType content = new ObjectDataType("root");
+		content.add(table);
+		new MOBFFile(directory, "table", registry, MOBFFileHeader.DEFAULT_HEADER, content).saveFile(true);
+		
+		final MOBFFile file = new MOBFFile(directory, "table", registry);
+		file.readFile();
+		final TableDataType read = (TableDataType) file.getRoot().get("series");
+		
+		assertEquals(rows, read.getRowCount());
+		assertEquals(List.of("timestamp", "sensor", "value", "state", "date"), read.getColumnNames());
+		assertEquals(TableDataType.Encoding.DELTA, read.getEncoding("timestamp").get());
+		assertEquals(TableDataType.Encoding.RLE, read.getEncoding("sensor").get());
+		assertEquals(TableDataType.Encoding.PLAIN, read.getEncoding("value").get());
+		assertEquals(TableDataType.Encoding.DICTIONARY, read.getEncoding("state").get());
+		assertEquals(TableDataType.Encoding.DELTA, read.getEncoding("date").get());
+		
+		assertArrayEquals(timestamps, read.getLongs("timestamp"));
+		assertArrayEquals(sensors, read.getInts("sensor"));
+		assertArrayEquals(values, read.getDoubles("value"));
+		assertArrayEquals(states, read.getStrings("state"));
+		assertEquals(dates[rows - 1].asLocalDateTime(), read.getDatetimes("date")[rows - 1].asLocalDateTime());
+		assertThrows(IllegalArgumentException.class, () -> read.getInts("state"));
+	}
+	
+	@Test
+	public void truncatedRunsTest() throws IOException, DatatypeRegistryException {
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		for(String column : new String[] {"int", "long", "double", "string"}) {
+			final TableDataType table = new TableDataType("runs");
+			switch(column) {
+				case "int" -> table.addIntColumn(column, new int[] {5, 5, 5, 5});
+				case "long" -> table.addLongColumn(column, new long[] {5, 5, 5, 5});
+				case "double" -> table.addDoubleColumn(column, new double[] {5, 5, 5, 5});
+				default -> table.addStringColumn(column, new String[] {"a", "a", "a", "a"});
+			}
+			table.setEncoding(column, TableDataType.Encoding.RLE);
+			
+			final ByteBufferBinaryWriter writer = new ByteBufferBinaryWriter(64);
+			table.writeValue(writer, registry, Charset.UTF8);
+			final ByteBuffer written = writer.toReadOnlyBuffer();
+			final ByteBuffer bytes = ByteBuffer.allocate(written.remaining()).put(written).flip();
+			
+			final TableDataType read = new TableDataType();
+			read.readValue(new ByteBufferBinaryReader(bytes), registry, Charset.UTF8);
+			assertEquals(4, read.getRowCount());
+			
+			// The single run, whose length is the last byte, no longer covers the last row
+			bytes.put(bytes.limit() - 1, (byte) 3);
+			assertThrows(IOException.class, () -> new TableDataType().readValue(new ByteBufferBinaryReader(bytes), registry, Charset.UTF8));
+		}
+	}
+	
+}
@@ -0,0 +1,82 @@
+package marshmallIOw.core.binary.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import marshmalliow.core.binary.data.RegisteredDataType;
+import marshmalliow.core.binary.data.primitive.IntegerDataType;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+
+public class DataTypeRegistryTest {
+
+	private static final byte CUSTOM_ID = 100;
+
+	@Test
+	public void createTest() throws DatatypeRegistryException {
+		final DataTypeRegistry registry = DataTypeEnum.createNewRegistry().build();
+
+		assertSame(IntegerDataType.class, registry.getDataTypeByID(DataTypeEnum.INT.getId()));
+		assertInstanceOf(IntegerDataType.class, registry.create(DataTypeEnum.INT.getId()));
+		assertNotSame(registry.create(DataTypeEnum.INT.getId()), registry.create(DataTypeEnum.INT.getId()));
+		assertNull(registry.create(CUSTOM_ID));
+		assertNull(registry.getDataTypeByID(CUSTOM_ID));
+	}
+
+	@Test
+	public void generatedFactoryTest() throws DatatypeRegistryException {
+		final DataTypeRegistry.Builder builder = DataTypeRegistry.builder();
+		builder.register(CUSTOM_ID, PrivateDataType.class);
+		final DataTypeRegistry registry = builder.build();
+
+		// The factory reaches the private constructor of a private class
+		assertSame(PrivateDataType.class, registry.getDataTypeByID(CUSTOM_ID));
+		assertInstanceOf(PrivateDataType.class, registry.create(CUSTOM_ID));
+		assertNotSame(registry.create(CUSTOM_ID), registry.create(CUSTOM_ID));
+		assertEquals(CUSTOM_ID, registry.create(CUSTOM_ID).getId());
+	}
+
+	@Test
+	public void invalidFactoryTest() {
+		final DataTypeRegistry.Builder builder = DataTypeRegistry.builder();
+
+		// Neither the generated nor the reflective factory can create these classes
+		assertThrows(DatatypeRegistryException.class, () -> builder.register(CUSTOM_ID, NoDefaultConstructorDataType.class));
+		assertThrows(DatatypeRegistryException.class, () -> builder.register(CUSTOM_ID, AbstractDataType.class));
+		assertNull(builder.build().create(CUSTOM_ID));
+	}
+
+	private static final class PrivateDataType extends IntegerDataType implements RegisteredDataType {
+
+		private PrivateDataType() {
+			super();
+		}
+
+		@Override
+		public byte getId() {
+			return CUSTOM_ID;
+		}
+	}
+
+	private static final class NoDefaultConstructorDataType extends IntegerDataType implements RegisteredDataType {
+
+		@SuppressWarnings("unused")
+		private NoDefaultConstructorDataType(int value) {
+			super(value);
+		}
+	}
+
+	private static abstract class AbstractDataType extends IntegerDataType implements RegisteredDataType {
+
+		protected AbstractDataType() {
+			super();
+		}
+	}
+}
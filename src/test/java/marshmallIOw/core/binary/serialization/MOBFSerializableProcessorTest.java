@@ -0,0 +1,100 @@
+package marshmallIOw.core.binary.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.DataType;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.serialization.MOBFSerializableProcessor;
+import marshmalliow.core.objects.Directory;
+
+public class MOBFSerializableProcessorTest {
+
+	@Test
+	public void serializableProcessorTest(@TempDir Path temp) throws Exception {
+		final Path sources = temp.resolve("sources");
+		final Path classes = Files.createDirectory(temp.resolve("classes"));
+		Files.createDirectories(sources.resolve("sample"));
+		Files.writeString(sources.resolve("sample/Point.java"), """
+				package sample;
+
+				@marshmalliow.core.binary.serialization.MOBFSerializable(id = 64)
+				public record Point(int x, long y, String label, Kind kind, int[] tags) {
+					public enum Kind { FIXED, MOVING }
+				}
+				""");
+		Files.writeString(sources.resolve("sample/Shape.java"), """
+				package sample;
+
+				@marshmalliow.core.binary.serialization.MOBFSerializable(id = 65)
+				public class Shape {
+					private String name;
+					Point origin;
+					transient int cache = 7;
+
+					public String getName() { return name; }
+					public void setName(String name) { this.name = name; }
+
+					public static Shape sample() {
+						final Shape shape = new Shape();
+						shape.name = "square";
+						shape.origin = new Point(-3, 1L << 40, null, Point.Kind.MOVING, new int[] {1, 2});
+						return shape;
+					}
+
+					public String describe() {
+						return name+" "+origin.x()+" "+origin.y()+" "+origin.label()+" "+origin.kind()+" "+java.util.Arrays.toString(origin.tags())+" "+cache;
+					}
+				}
+				""");
+
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		final int result = compiler.run(null, null, null, "-proc:only", "-processor", MOBFSerializableProcessor.class.getName(),
+				"-cp", System.getProperty("java.class.path"), "-s", sources.toString(), "-d", classes.toString(),
+				sources.resolve("sample/Point.java").toString(), sources.resolve("sample/Shape.java").toString());
+		assertEquals(0, result);
+		assertTrue(Files.exists(sources.resolve("sample/ShapeDataType.java")));
+
+		// The generated sources are compiled like any other source of the project
+		assertEquals(0, compiler.run(null, null, null, "-proc:none", "-cp", System.getProperty("java.class.path"), "-d", classes.toString(),
+				sources.resolve("sample/Point.java").toString(), sources.resolve("sample/Shape.java").toString(),
+				sources.resolve("sample/PointDataType.java").toString(), sources.resolve("sample/ShapeDataType.java").toString()));
+
+		try(URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()}, getClass().getClassLoader())) {
+			final Class<?> shapeClass = loader.loadClass("sample.Shape");
+			final Class<?> dataTypeClass = loader.loadClass("sample.ShapeDataType");
+
+			final DataTypeRegistry.Builder builder = DataTypeEnum.createNewRegistry();
+			loader.loadClass("sample.PointDataType").getMethod("register", DataTypeRegistry.Builder.class).invoke(null, builder);
+			dataTypeClass.getMethod("register", DataTypeRegistry.Builder.class).invoke(null, builder);
+			final DataTypeRegistry registry = builder.build();
+
+			final Object shape = shapeClass.getMethod("sample").invoke(null);
+			final ObjectDataType content = new ObjectDataType("root");
+			content.add((DataType<?>) dataTypeClass.getConstructor(String.class, shapeClass).newInstance("shape", shape));
+
+			final Directory directory = new Directory(temp);
+			new MOBFFile(directory, "generated", registry, MOBFFileHeader.DEFAULT_HEADER, content).saveFile(true);
+
+			final MOBFFile file = new MOBFFile(directory, "generated", registry);
+			file.readFile();
+			assertEquals("square -3 1099511627776 null MOVING [1, 2] 7", shapeClass.getMethod("describe").invoke(file.getRoot().get("shape").getValue()));
+		}
+	}
+	
+}
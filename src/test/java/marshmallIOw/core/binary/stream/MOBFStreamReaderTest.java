@@ -0,0 +1,77 @@
+package marshmallIOw.core.binary.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.advanced.StringDataType;
+import marshmalliow.core.binary.data.container.ListDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.data.primitive.IntegerDataType;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.stream.MOBFStreamReader;
+import marshmalliow.core.binary.stream.MOBFVisitor;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.CompressionType;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.helpers.DataTypeHelper;
+import marshmalliow.core.objects.Directory;
+
+import marshmallIOw.core.binary.MOBFTestFixture;
+
+public class MOBFStreamReaderTest {
+
+	@Test
+	public void streamReaderTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		final ObjectDataType content = MOBFTestFixture.createContent();
+		final ListDataType<ObjectDataType> orders = new ListDataType<>("orders");
+		for(int i = 0; i < 100; i++) {
+			final ObjectDataType order = new ObjectDataType("order_"+i);
+			order.add(new IntegerDataType("amount", i), new StringDataType("comment", "order number "+i));
+			orders.add(order);
+		}
+		content.add(orders, DataTypeHelper.asPackedArray("weights", 1.5, 2.5));
+		
+		final MOBFFileHeader header = MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.VARINT, FormatFeature.ZIGZAG, FormatFeature.KEY_TABLE);
+		new MOBFFile(directory, "orders", registry, header, CompressionType.GZIP, content).saveFile(true);
+		
+		final double[] sums = new double[2];
+		try(MOBFStreamReader stream = new MOBFFile(directory, "orders", registry).openStream()) {
+			stream.accept(new MOBFVisitor() {
+				@Override
+				public boolean accept(String name, byte type) {
+					return !"comment".equals(name);
+				}
+				
+				@Override
+				public void intField(String name, int value) {
+					if("amount".equals(name)) sums[0] += value;
+				}
+				
+				@Override
+				public void doubleField(String name, double value) {
+					sums[1] += value;
+				}
+				
+				@Override
+				public void string(String name, CharSequence value) {
+					assertEquals("user".equals(name) ? "marshmallIOw" : "a", value.toString());
+				}
+			});
+		}
+		
+		assertEquals(4950.0, sums[0]);
+		assertEquals(4.0, sums[1]);
+	}
+	
+}
@@ -0,0 +1,71 @@
+package marshmallIOw.core.binary.stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import marshmalliow.core.binary.MOBFFile;
+import marshmalliow.core.binary.data.MOBFFileHeader;
+import marshmalliow.core.binary.data.array.DoubleArrayDataType;
+import marshmalliow.core.binary.data.container.ArrayDataType;
+import marshmalliow.core.binary.data.container.ListDataType;
+import marshmalliow.core.binary.data.container.ObjectDataType;
+import marshmalliow.core.binary.registry.DataTypeEnum;
+import marshmalliow.core.binary.registry.DataTypeRegistry;
+import marshmalliow.core.binary.stream.MOBFStreamWriter;
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.binary.utils.FormatFeature;
+import marshmalliow.core.exceptions.DatatypeRegistryException;
+import marshmalliow.core.helpers.DataTypeHelper;
+import marshmalliow.core.objects.Directory;
+
+import marshmallIOw.core.binary.MOBFTestFixture;
+
+public class MOBFStreamWriterTest {
+
+	@Test
+	public void streamWriterTest(@TempDir Path temp) throws IOException, DatatypeRegistryException {
+		final Directory directory = new Directory(temp);
+		final DataTypeRegistry registry = MOBFTestFixture.createRegistry();
+		
+		for(MOBFFileHeader header : new MOBFFileHeader[] {MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED),
+				MOBFFileHeader.withFeatures(Charset.UTF8, FormatFeature.INDEXED, FormatFeature.VARINT, FormatFeature.ZIGZAG)}) {
+			final MOBFFile file = new MOBFFile(directory, "streamed", registry);
+		
+			// The list is larger than the buffer of the writer, its size is written in the file itself
+			try(MOBFStreamWriter stream = file.openStreamWriter(header, null)) {
+				stream.beginObject("root");
+				stream.writeInt("id", 42);
+				stream.beginList("orders", DataTypeEnum.OBJECT.getId(), MOBFStreamWriter.UNKNOWN_SIZE);
+				for(int i = 0; i < 5000; i++) {
+					stream.beginObject("order_"+i);
+					stream.writeLong("amount", -i);
+					stream.writeString("comment", "order number "+i);
+					stream.endObject();
+				}
+				stream.endList();
+				stream.beginArray("values", DataTypeEnum.INT.getId(), MOBFStreamWriter.UNKNOWN_SIZE);
+				stream.writeInt(null, 1);
+				stream.writeInt(null, 2);
+				stream.endArray();
+				stream.write(DataTypeHelper.asPackedArray("weights", 1.5, 2.5));
+				stream.endObject();
+			}
+		
+			assertEquals(42, file.readField("id").getValue());
+			assertArrayEquals(new double[] {1.5, 2.5}, ((DoubleArrayDataType) file.readField("weights")).getValue());
+		
+			file.readFile();
+			final ListDataType<?> orders = (ListDataType<?>) file.getRoot().get("orders");
+			assertEquals(5000, orders.getValue().size());
+			assertEquals(-4999L, ((ObjectDataType) orders.get(4999)).get("amount").getValue());
+			assertEquals(2, ((ArrayDataType<?>) file.getRoot().get("values")).getValue().length);
+		}
+	}
+	
+}
@@ -2,23 +2,42 @@ package marshmallIOw.core.builder;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.IOException;
 import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
 
 import marshmalliow.core.builder.DirectoryManager;
+import marshmalliow.core.builder.HttpJSONCache;
 import marshmalliow.core.builder.JSONFactory;
+import marshmalliow.core.builder.JSONFileResult;
 import marshmalliow.core.json.JSONFile;
 import marshmalliow.core.json.objects.JSONArray;
 import marshmalliow.core.json.objects.JSONObject;
@@ -157,4 +176,117 @@ public class JSONFactoryTest {
 		assertEquals(expected, jsonArray);
 	}
 	
+	@Test
+	public void readManyFilesTest(@TempDir Path temp) throws IOException {
+		assertNotNull(JSONFactory.get());
+		
+		final List<String> names = new ArrayList<>();
+		for(int i = 0; i < 20; i++) {
+			Files.writeString(temp.resolve("file_"+i+".json"), "{\"index\": "+i+"}");
+			names.add("file_"+i);
+		}
+		Files.writeString(temp.resolve("broken.json"), "{\"index\": ");
+		names.add("broken");
+		names.add("file_3.json");
+		
+		final Map<String, JSONFileResult<JSONObject>> results = JSONFactory.get().getJSONFilesContent(new Directory(temp), names, JSONObject.class, 4);
+		assertEquals(names.size(), results.size());
+		assertEquals(names, new ArrayList<>(results.keySet()));
+		
+		for(int i = 0; i < 20; i++) {
+			final JSONFileResult<JSONObject> result = results.get("file_"+i);
+			assertTrue(result.isSuccess());
+			assertEquals(i, result.getContent().get("index"));
+		}
+		assertEquals(3, results.get("file_3.json").getContent().get("index"));
+		
+		assertFalse(results.get("broken").isSuccess());
+		assertNotNull(results.get("broken").getError());
+		assertThrows(IOException.class, () -> results.get("broken").getContentOrThrow());
+	}
+	
+	@Test
+	public void httpAsyncTest() throws Exception {
+		assertNotNull(JSONFactory.get());
+		
+		final byte[] payload = "{\"key_1\":\"hello world\", \"key_2\": [1, 2, 3]}".getBytes(StandardCharsets.UTF_8);
+		final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/plain", exchange -> {
+			exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+			exchange.sendResponseHeaders(200, payload.length);
+			exchange.getResponseBody().write(payload);
+			exchange.close();
+		});
+		server.createContext("/gzip", exchange -> {
+			exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+			exchange.sendResponseHeaders(200, 0);
+			try(GZIPOutputStream output = new GZIPOutputStream(exchange.getResponseBody())) {
+				output.write(payload);
+			}
+			exchange.close();
+		});
+		server.createContext("/missing", exchange -> {
+			exchange.sendResponseHeaders(404, -1);
+			exchange.close();
+		});
+		server.start();
+		
+		try {
+			final String base = "http://localhost:"+server.getAddress().getPort();
+			final JSONObject expected = JSONFactory.get().parseJSON(payload, JSONObject.class);
+			
+			assertEquals(expected, JSONFactory.get().getHttpContentAsJSONAsync(base+"/plain").get(10, TimeUnit.SECONDS));
+			assertEquals(expected, JSONFactory.get().getHttpContentAsJSONAsync(base+"/gzip").get(10, TimeUnit.SECONDS));
+			
+			final ExecutionException error = assertThrows(ExecutionException.class, 
+					() -> JSONFactory.get().getHttpContentAsJSONAsync(base+"/missing").get(10, TimeUnit.SECONDS));
+			assertTrue(error.getCause() instanceof IOException);
+		}finally {
+			server.stop(0);
+		}
+	}
+	
+	@Test
+	public void httpCacheTest() throws Exception {
+		assertNotNull(JSONFactory.get());
+		
+		final byte[] payload = "{\"key_1\":\"hello world\"}".getBytes(StandardCharsets.UTF_8);
+		final AtomicInteger fullResponses = new AtomicInteger();
+		final AtomicInteger notModifiedResponses = new AtomicInteger();
+		final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/cached", exchange -> {
+			if("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				notModifiedResponses.incrementAndGet();
+				exchange.sendResponseHeaders(304, -1);
+			}else {
+				fullResponses.incrementAndGet();
+				exchange.getResponseHeaders().add("ETag", "\"v1\"");
+				exchange.sendResponseHeaders(200, payload.length);
+				exchange.getResponseBody().write(payload);
+			}
+			exchange.close();
+		});
+		server.start();
+		
+		final HttpJSONCache cache = new HttpJSONCache(4, Duration.ZERO);
+		JSONFactory.withHttpCache(cache);
+		try {
+			final String url = "http://localhost:"+server.getAddress().getPort()+"/cached";
+			final JSONObject expected = JSONFactory.get().parseJSON(payload, JSONObject.class);
+			
+			final JSONObject first = (JSONObject) JSONFactory.get().getHttpContentAsJSON(url);
+			assertEquals(expected, first);
+			first.put("key_2", 1);
+			
+			assertEquals(expected, JSONFactory.get().getHttpContentAsJSON(url));
+			assertEquals(expected, JSONFactory.get().getHttpContentAsJSONAsync(url).get(10, TimeUnit.SECONDS));
+			assertEquals(1, fullResponses.get());
+			assertEquals(2, notModifiedResponses.get());
+			assertEquals(1, cache.size());
+		}finally {
+			JSONFactory.withHttpCache(null);
+			server.stop(0);
+		}
+	}
+	
 }
@@ -0,0 +1,152 @@
+package marshmallIOw.core.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import marshmalliow.core.io.BinaryReader;
+
+public class BinaryReaderTest {
+
+	/**
+	 * Stream returning at most a few bytes per read, like a socket or a decompressing stream.
+	 */
+	private static final class TrickleInputStream extends InputStream {
+
+		private final ByteArrayInputStream in;
+		private int calls;
+
+		private TrickleInputStream(byte[] data) {
+			this.in = new ByteArrayInputStream(data);
+		}
+
+		@Override
+		public int read() {
+			return this.in.read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			return this.in.read(b, off, Math.min(len, 1 + this.calls++ % 7));
+		}
+	}
+
+	@Test
+	public void refillTest() throws IOException {
+		final int filler = BinaryReader.DEFAULT_BUFFER_SIZE - 3;
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.write(new byte[filler]);
+		out.writeInt(0x01020304);
+		out.writeLong(-2L);
+		out.writeDouble(Math.PI);
+		out.writeShort(-7);
+		out.writeChar('é');
+		final byte[] tail = new byte[BinaryReader.DEFAULT_BUFFER_SIZE + 5];
+		Arrays.fill(tail, (byte) 9);
+		out.write(tail);
+
+		// The int straddles the end of the first buffer, the tail is larger than the buffer and bypasses it
+		for(InputStream in : new InputStream[] {new ByteArrayInputStream(bytes.toByteArray()), new TrickleInputStream(bytes.toByteArray())}) {
+			final BinaryReader reader = new BinaryReader(in);
+			reader.readFully(new byte[filler]);
+			assertEquals(filler, reader.getPosition());
+			assertEquals(0x01020304, reader.readInt());
+			assertEquals(-2L, reader.readLong());
+			assertEquals(Math.PI, reader.readDouble());
+			assertEquals(-7, reader.readShort());
+			assertEquals('é', reader.readChar());
+
+			final byte[] read = new byte[tail.length];
+			reader.readFully(read);
+			assertArrayEquals(tail, read);
+			assertEquals(bytes.size(), reader.getPosition());
+			assertEquals(-1, reader.read(new byte[1]));
+		}
+	}
+
+	@Test
+	public void endOfStreamTest() throws IOException {
+		final byte[] data = {1, 2, 3, 4, 5, 6, 7};
+
+		assertThrows(EOFException.class, () -> new BinaryReader(new ByteArrayInputStream(data)).readLong());
+		assertThrows(EOFException.class, () -> new BinaryReader(new ByteArrayInputStream(data, 0, 3)).readInt());
+		assertThrows(EOFException.class, () -> new BinaryReader(new ByteArrayInputStream(data, 0, 1)).readShort());
+		assertThrows(EOFException.class, () -> new BinaryReader(new ByteArrayInputStream(new byte[0])).readByte());
+		assertThrows(EOFException.class, () -> new BinaryReader(new TrickleInputStream(data)).readFully(new byte[8]));
+		assertThrows(EOFException.class, () -> new BinaryReader(new TrickleInputStream(data)).readInts(new int[2], 0, 2));
+
+		// The bytes of a truncated primitive are still available to the following reads
+		final BinaryReader reader = new BinaryReader(new ByteArrayInputStream(data));
+		assertEquals(0x01020304, reader.readInt());
+		assertThrows(EOFException.class, () -> reader.readInt());
+		assertEquals(0x0506, reader.readShort());
+		assertEquals(7, reader.readByte());
+		assertEquals(data.length, reader.getPosition());
+	}
+
+	@Test
+	public void bulkReadTest() throws IOException {
+		final int count = 20_000;
+		final short[] shorts = new short[count];
+		final int[] ints = new int[count];
+		final long[] longs = new long[count];
+		final float[] floats = new float[count];
+		final double[] doubles = new double[count];
+		for(int i = 0; i < count; i++) {
+			shorts[i] = (short) (i * 31);
+			ints[i] = i * 0x10001 - 7;
+			longs[i] = (long) i << 33 | i;
+			floats[i] = i / 3f;
+			doubles[i] = -i / 7d;
+		}
+
+		// A leading byte shifts every element across the refills of the buffer
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(1);
+		for(short value : shorts) out.writeShort(value);
+		for(int value : ints) out.writeInt(value);
+		for(long value : longs) out.writeLong(value);
+		for(float value : floats) out.writeFloat(value);
+		for(double value : doubles) out.writeDouble(value);
+
+		for(int bufferSize : new int[] {Long.BYTES, 100, BinaryReader.DEFAULT_BUFFER_SIZE}) {
+			final BinaryReader reader = new BinaryReader(new TrickleInputStream(bytes.toByteArray()), bufferSize);
+			assertEquals(1, reader.readByte());
+
+			final short[] readShorts = new short[count + 2];
+			reader.readShorts(readShorts, 1, count);
+			assertArrayEquals(shorts, Arrays.copyOfRange(readShorts, 1, count + 1));
+
+			final int[] readInts = new int[count];
+			reader.readInts(readInts, 0, count);
+			assertArrayEquals(ints, readInts);
+
+			final long[] readLongs = new long[count];
+			reader.readLongs(readLongs, 0, count);
+			assertArrayEquals(longs, readLongs);
+
+			final float[] readFloats = new float[count];
+			reader.readFloats(readFloats, 0, count);
+			assertArrayEquals(floats, readFloats);
+
+			final double[] readDoubles = new double[count];
+			reader.readDoubles(readDoubles, 0, count);
+			assertArrayEquals(doubles, readDoubles);
+			assertEquals(bytes.size(), reader.getPosition());
+		}
+
+		assertThrows(IndexOutOfBoundsException.class, () -> new BinaryReader(new ByteArrayInputStream(new byte[8])).readInts(new int[1], 0, 2));
+	}
+}
@@ -0,0 +1,124 @@
+package marshmallIOw.core.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import marshmalliow.core.io.ByteBufferBinaryReader;
+
+public class ByteBufferBinaryReaderTest {
+
+	private static ByteBuffer[] wrap(byte[] bytes) {
+		return new ByteBuffer[] {ByteBuffer.wrap(bytes), ByteBuffer.allocateDirect(bytes.length).put(bytes).flip()};
+	}
+
+	@Test
+	public void seekTest() throws IOException {
+		for(ByteBuffer buffer : wrap(new byte[] {9, 9, 9, 0, 0, 0, 42, 1, 2})) {
+			// Positions are relative to the position of the buffer when the reader is created
+			final ByteBufferBinaryReader reader = new ByteBufferBinaryReader(buffer.position(3));
+			assertEquals(0, reader.getPosition());
+			assertEquals(6, reader.remaining());
+			assertEquals(42, reader.readInt());
+			assertEquals(4, reader.getPosition());
+
+			reader.seek(0);
+			assertEquals(0, reader.readShort());
+			reader.seek(6);
+			assertEquals(0, reader.remaining());
+			assertEquals(-1, reader.read(new byte[1]));
+			reader.seek(4);
+			assertEquals(0x0102, reader.readShort());
+
+			assertThrows(EOFException.class, () -> reader.seek(-1));
+			assertThrows(EOFException.class, () -> reader.seek(7));
+			assertThrows(EOFException.class, () -> reader.seek(Long.MAX_VALUE));
+			assertEquals(6, reader.getPosition());
+
+			// The buffer given to the reader is left untouched
+			assertEquals(3, buffer.position());
+		}
+	}
+
+	@Test
+	public void endOfBufferTest() throws IOException {
+		for(ByteBuffer buffer : wrap(new byte[] {1, 2, 3, 4, 5, 6, 7})) {
+			final ByteBufferBinaryReader reader = new ByteBufferBinaryReader(buffer);
+			assertThrows(EOFException.class, () -> reader.readLong());
+			assertEquals(0, reader.getPosition());
+
+			assertEquals(0x01020304, reader.readInt());
+			assertThrows(EOFException.class, () -> reader.readInt());
+			assertThrows(EOFException.class, () -> reader.readFully(new byte[4]));
+			assertThrows(EOFException.class, () -> reader.readShorts(new short[2], 0, 2));
+			assertEquals(0x0506, reader.readShort());
+			assertEquals(7, reader.readByte());
+			assertThrows(EOFException.class, () -> reader.readByte());
+			assertEquals(0, reader.skipBytes(5));
+		}
+	}
+
+	@Test
+	public void bulkReadTest() throws IOException {
+		final int count = 1000;
+		final short[] shorts = new short[count];
+		final int[] ints = new int[count];
+		final long[] longs = new long[count];
+		final float[] floats = new float[count];
+		final double[] doubles = new double[count];
+		for(int i = 0; i < count; i++) {
+			shorts[i] = (short) (i * 31);
+			ints[i] = i * 0x10001 - 7;
+			longs[i] = (long) i << 33 | i;
+			floats[i] = i / 3f;
+			doubles[i] = -i / 7d;
+		}
+
+		// A leading byte leaves every element unaligned
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(1);
+		for(short value : shorts) out.writeShort(value);
+		for(int value : ints) out.writeInt(value);
+		for(long value : longs) out.writeLong(value);
+		for(float value : floats) out.writeFloat(value);
+		for(double value : doubles) out.writeDouble(value);
+
+		for(ByteBuffer buffer : wrap(bytes.toByteArray())) {
+			final ByteBufferBinaryReader reader = new ByteBufferBinaryReader(buffer);
+			assertEquals(1, reader.readByte());
+
+			final short[] readShorts = new short[count];
+			reader.readShorts(readShorts, 0, 10);
+			reader.readShorts(readShorts, 10, count - 10);
+			assertArrayEquals(shorts, readShorts);
+
+			final int[] readInts = new int[count];
+			reader.readInts(readInts, 0, count);
+			assertArrayEquals(ints, readInts);
+
+			final long[] readLongs = new long[count];
+			reader.readLongs(readLongs, 0, count);
+			assertArrayEquals(longs, readLongs);
+
+			final float[] readFloats = new float[count];
+			reader.readFloats(readFloats, 0, count);
+			assertArrayEquals(floats, readFloats);
+
+			final double[] readDoubles = new double[count];
+			reader.readDoubles(readDoubles, 0, count - 1);
+			assertThrows(EOFException.class, () -> reader.readDoubles(new double[2], 0, 2));
+			reader.readDoubles(readDoubles, count - 1, 1);
+			assertArrayEquals(doubles, readDoubles);
+			assertEquals(0, reader.remaining());
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package marshmallIOw.core.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import marshmalliow.core.binary.utils.Charset;
+import marshmalliow.core.io.ByteBufferBinaryReader;
+import marshmalliow.core.io.ByteBufferBinaryWriter;
+
+public class ByteBufferBinaryWriterTest {
+
+	@Test
+	public void growthTest() throws IOException {
+		for(ByteBuffer initial : new ByteBuffer[] {ByteBuffer.allocate(4), ByteBuffer.allocateDirect(4)}) {
+			final ByteBufferBinaryWriter writer = new ByteBufferBinaryWriter(initial, true);
+			final String text = "marshmallIOw ".repeat(1000);
+			writer.writeInt(42);
+			writer.writeLong(-1L);
+			writer.writeUTF(text, Charset.UTF8);
+			writer.writeDoubles(new double[] {1.5, 2.5}, 0, 2);
+			writer.writeByte((byte) 7);
+
+			// The larger buffers keep the kind of the initial one
+			final ByteBuffer buffer = writer.getBuffer();
+			assertNotSame(initial, buffer);
+			assertEquals(initial.isDirect(), buffer.isDirect());
+			assertTrue(buffer.capacity() >= buffer.position());
+
+			final ByteBufferBinaryReader reader = new ByteBufferBinaryReader(writer.toReadOnlyBuffer());
+			assertEquals(42, reader.readInt());
+			assertEquals(-1L, reader.readLong());
+			assertEquals(text, reader.readUTF(Charset.UTF8));
+			final double[] doubles = new double[2];
+			reader.readDoubles(doubles, 0, 2);
+			assertArrayEquals(new double[] {1.5, 2.5}, doubles);
+			assertEquals(7, reader.readByte());
+			assertEquals(0, reader.remaining());
+		}
+	}
+
+	@Test
+	public void fixedBufferTest() throws IOException {
+		for(ByteBuffer initial : new ByteBuffer[] {ByteBuffer.allocate(8), ByteBuffer.allocateDirect(8)}) {
+			final ByteBufferBinaryWriter writer = new ByteBufferBinaryWriter(initial, false);
+			writer.writeInts(new int[] {1}, 0, 1);
+			writer.writeInt(2);
+			assertSame(initial, writer.getBuffer());
+			assertEquals(8, initial.position());
+
+			assertThrows(IOException.class, () -> writer.writeInts(new int[] {3}, 0, 1));
+			writer.writeByte((byte) 3);
+			assertThrows(IOException.class, () -> writer.getBuffer());
+		}
+	}
+
+	@Test
+	public void bulkWriteTest() throws IOException {
+		final short[] shorts = {1, -2, 3};
+		final int[] ints = {0x01020304, -5};
+		final long[] longs = {Long.MIN_VALUE, 6L};
+		final float[] floats = {1.25f, -0f};
+		final double[] doubles = {Math.E, Double.NaN};
+
+		final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(expected);
+		out.writeByte(9);
+		for(int i = 1; i < shorts.length; i++) out.writeShort(shorts[i]);
+		out.writeShort(7);
+		for(int value : ints) out.writeInt(value);
+		for(long value : longs) out.writeLong(value);
+		for(float value : floats) out.writeFloat(value);
+		out.writeDouble(doubles[0]);
+
+		// Bulk writes come after the values still held by the internal buffer of the writer
+		final ByteBufferBinaryWriter writer = new ByteBufferBinaryWriter(1);
+		writer.writeByte((byte) 9);
+		writer.writeShorts(shorts, 1, 2);
+		writer.writeShort((short) 7);
+		writer.writeInts(ints, 0, ints.length);
+		writer.writeLongs(longs, 0, longs.length);
+		writer.writeFloats(floats, 0, floats.length);
+		writer.writeDoubles(doubles, 0, 1);
+
+		final ByteBuffer written = writer.toReadOnlyBuffer();
+		final byte[] bytes = new byte[written.remaining()];
+		written.get(bytes);
+		assertArrayEquals(expected.toByteArray(), bytes);
+		assertFalse(writer.getBuffer().isDirect());
+
+		assertThrows(IndexOutOfBoundsException.class, () -> writer.writeInts(ints, 1, 2));
+	}
+}
@@ -0,0 +1,78 @@
+package marshmallIOw.core.json.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.junit.jupiter.api.Test;
+
+import marshmalliow.core.json.objects.JSONArray;
+import marshmalliow.core.json.objects.JSONObject;
+
+public class JSONArrayTest {
+
+	private static JSONArray createArray() {
+		final JSONObject nested = new JSONObject();
+		nested.put("alias", "a");
+
+		return new JSONArray(List.of(1, "marshmallIOw", nested, new JSONArray(List.of(2, 3))));
+	}
+
+	private static void assertConsistent(JSONArray array, JSONArray expected) {
+		assertEquals(expected, array);
+		assertEquals(expected.hashCode(), array.hashCode());
+	}
+
+	@Test
+	public void mutationTest() {
+		final JSONArray array = createArray();
+		final JSONArray other = createArray();
+		assertConsistent(array, other);
+
+		((JSONObject) array.get(2)).put("alias", "b");
+		assertNotEquals(other, array);
+
+		((JSONObject) other.get(2)).put("alias", "b");
+		assertConsistent(array, other);
+
+		((JSONArray) array.get(3)).remove(0);
+		assertNotEquals(other, array);
+		assertNotEquals(other.hashCode(), array.hashCode());
+	}
+
+	@Test
+	public void iteratorMutationTest() {
+		final JSONArray array = createArray();
+		final JSONArray expected = createArray();
+		array.hashCode();
+
+		final Iterator<Object> iterator = array.iterator();
+		iterator.next();
+		iterator.remove();
+		expected.remove(0);
+		assertConsistent(array, expected);
+		assertTrue(array.isModified());
+
+		final ListIterator<Object> listIterator = array.listIterator();
+		listIterator.next();
+		listIterator.set("replaced");
+		listIterator.add("added");
+		expected.set(0, "replaced");
+		expected.add(1, "added");
+		assertConsistent(array, expected);
+
+		// Nested containers removed through the iterator don't invalidate their former parent anymore
+		final JSONObject nested = (JSONObject) array.get(2);
+		array.removeIf(value -> value instanceof JSONObject);
+		expected.remove(2);
+		assertConsistent(array, expected);
+
+		final int hash = array.hashCode();
+		nested.put("alias", "c");
+		assertEquals(hash, array.hashCode());
+	}
+}
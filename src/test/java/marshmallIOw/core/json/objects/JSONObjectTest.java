@@ -0,0 +1,162 @@
+package marshmallIOw.core.json.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import marshmalliow.core.json.objects.JSONArray;
+import marshmalliow.core.json.objects.JSONObject;
+
+public class JSONObjectTest {
+
+	private static JSONObject createObject() {
+		final JSONObject nested = new JSONObject();
+		nested.put("expired_when", 15);
+		nested.put("alias", "a");
+
+		final JSONObject object = new JSONObject();
+		object.put("id", 1);
+		object.put("user", "marshmallIOw");
+		object.put("mapping", nested);
+		object.put("tags", new JSONArray(List.of("a", "b")));
+		return object;
+	}
+
+	private static void assertConsistent(JSONObject object, JSONObject expected) {
+		assertEquals(expected, object);
+		assertEquals(expected.hashCode(), object.hashCode());
+	}
+
+	@Test
+	public void mutationTest() {
+		final JSONObject object = createObject();
+		final JSONObject other = createObject();
+		assertConsistent(object, other);
+
+		((JSONObject) object.get("mapping")).put("alias", "b");
+		assertNotEquals(other, object);
+
+		((JSONObject) other.get("mapping")).put("alias", "b");
+		assertConsistent(object, other);
+
+		((JSONArray) object.get("tags")).add("c");
+		assertNotEquals(other, object);
+		assertNotEquals(other.hashCode(), object.hashCode());
+	}
+
+	@Test
+	public void viewMutationTest() {
+		final JSONObject object = createObject();
+		final JSONObject expected = createObject();
+		object.hashCode();
+
+		final Iterator<Object> values = object.values().iterator();
+		while(values.hasNext()) {
+			if(values.next() instanceof JSONObject) values.remove();
+		}
+		expected.remove("mapping");
+		assertConsistent(object, expected);
+		assertTrue(object.isModified());
+
+		object.entrySet().removeIf(entry -> entry.getKey().equals("tags"));
+		expected.remove("tags");
+		assertConsistent(object, expected);
+
+		for(Map.Entry<String, Object> entry : object.entrySet()) {
+			if(entry.getKey().equals("id")) entry.setValue(2);
+		}
+		expected.put("id", 2);
+		assertConsistent(object, expected);
+
+		object.entrySet().add(Map.entry("added", "value"));
+		expected.put("added", "value");
+		assertConsistent(object, expected);
+
+		object.values().clear();
+		assertConsistent(object, new JSONObject());
+	}
+
+	@Test
+	public void untrackedValueTest() {
+		final List<Object> list = new ArrayList<>(List.of(1, 2));
+		final JSONObject object = new JSONObject();
+		object.put("list", list);
+
+		final JSONObject parent = new JSONObject();
+		parent.put("object", object);
+		final int hash = parent.hashCode();
+
+		// The plain list cannot report its modifications, the hashes are computed again
+		list.add(3);
+		assertNotEquals(hash, parent.hashCode());
+
+		final JSONObject expected = new JSONObject();
+		expected.put("list", List.of(1, 2, 3));
+		assertConsistent(object, expected);
+	}
+
+	private static JSONObject createLevels(JSONObject bottom, int count) {
+		JSONObject leaf = bottom;
+		for(int i = 0; i < count; i++) {
+			final JSONObject level = new JSONObject();
+			level.put("left", leaf);
+			level.put("right", leaf);
+			leaf = level;
+		}
+		return leaf;
+	}
+
+	@Test
+	public void sharedChildTest() {
+		// Every level holds the level below twice, the invalidation must not walk each path
+		final JSONObject bottom = new JSONObject();
+		bottom.put("value", 0);
+		final JSONObject top = createLevels(bottom, 64);
+		top.hashCode();
+
+		bottom.put("value", 1);
+		final JSONObject expected = new JSONObject();
+		expected.put("value", 1);
+		assertEquals(createLevels(expected, 64).hashCode(), top.hashCode());
+	}
+
+	@Test
+	public void replaceTest() {
+		final JSONObject object = createObject();
+		object.setContentModified(false);
+
+		// An equal replacement does not modify the object, a different one does without being walked
+		object.put("mapping", createObject().get("mapping"));
+		assertFalse(object.isModified());
+		assertEquals(createObject(), object);
+
+		final JSONObject mapping = new JSONObject();
+		mapping.put("expired_when", 16);
+		mapping.put("alias", "a");
+		object.put("mapping", mapping);
+		assertTrue(object.isModified());
+		assertNotEquals(createObject(), object);
+		assertNotEquals(object, createObject());
+	}
+
+	@Test
+	public void cyclicTest() {
+		final JSONObject first = new JSONObject();
+		final JSONArray second = new JSONArray();
+		first.put("second", second);
+		second.add(first);
+
+		// Invalidating a cyclic structure terminates
+		first.put("value", 1);
+		second.add(2);
+		assertFalse(second.isEmpty());
+	}
+}
@@ -0,0 +1,133 @@
+package marshmallIOw.core.json.patch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import marshmalliow.core.builder.JSONFactory;
+import marshmalliow.core.exceptions.JSONPatchException;
+import marshmalliow.core.json.objects.JSONArray;
+import marshmalliow.core.json.objects.JSONObject;
+import marshmalliow.core.json.patch.JSONDiff;
+import marshmalliow.core.objects.Null;
+
+public class JSONDiffTest {
+
+	private static final String SOURCE = "{\"id\":1, \"user\":\"marshmallIOw\", \"tags\":[\"a\",\"b\",\"c\"],"
+			+ " \"mapping\":{\"expired_when\":15, \"a/b\":true}, \"removed\":\"yes\"}";
+
+	private static final String TARGET = "{\"id\":2, \"user\":\"marshmallIOw\", \"tags\":[\"a\",\"d\"],"
+			+ " \"mapping\":{\"expired_when\":15, \"a/b\":false, \"attachement\":null}, \"added\":[1,2]}";
+
+	private static JSONObject parse(String json) {
+		try {
+			return JSONFactory.get().parseJSON(json.getBytes(), JSONObject.class);
+		} catch (IOException e) {
+			fail("An exception was thrown while parsing the JSON string.");
+			return null;
+		}
+	}
+
+	@Test
+	public void identicalDiffTest() {
+		final JSONObject source = parse(SOURCE);
+
+		assertEquals(0, JSONDiff.diff(source, source).size());
+		assertEquals(0, JSONDiff.diff(source, parse(SOURCE)).size());
+	}
+
+	@Test
+	public void diffAndApplyTest() {
+		final JSONObject source = parse(SOURCE);
+		final JSONObject target = parse(TARGET);
+
+		final JSONArray patch = JSONDiff.diff(source, target);
+		assertNotNull(patch);
+		assertTrue(patch.size() > 0);
+
+		source.setContentModified(false);
+		final JSONObject mapping = source.get("mapping", JSONObject.class);
+		mapping.setContentModified(false);
+
+		JSONDiff.apply(source, patch);
+		assertEquals(target, source);
+		assertTrue(source.isModified());
+		assertTrue(mapping.isModified());
+
+		// Applied values are copied from the patch
+		assertFalse(target.get("added") == source.get("added"));
+	}
+
+	@Test
+	public void touchedNodesOnlyTest() {
+		final JSONObject source = parse(SOURCE);
+		final JSONObject target = parse(SOURCE);
+		target.put("id", 42);
+
+		final JSONObject mapping = source.get("mapping", JSONObject.class);
+		source.setContentModified(false);
+		mapping.setContentModified(false);
+
+		JSONDiff.apply(source, JSONDiff.diff(source, target));
+		assertEquals(42, source.get("id"));
+		assertTrue(source.isModified());
+		assertFalse(mapping.isModified());
+	}
+
+	@Test
+	public void operationsTest() {
+		final JSONObject source = parse(SOURCE);
+		final JSONArray patch = new JSONArray();
+
+		patch.add(new JSONObject(Map.of("op", "test", "path", "/mapping/a~1b", "value", true)));
+		patch.add(new JSONObject(Map.of("op", "move", "from", "/removed", "path", "/moved")));
+		patch.add(new JSONObject(Map.of("op", "copy", "from", "/tags", "path", "/copied")));
+		patch.add(new JSONObject(Map.of("op", "add", "path", "/tags/-", "value", "z")));
+		patch.add(new JSONObject(Map.of("op", "remove", "path", "/tags/0")));
+
+		JSONDiff.apply(source, patch);
+
+		assertEquals("yes", source.get("moved"));
+		assertEquals(null, source.get("removed"));
+		assertEquals(List.of("b", "c", "z"), source.get("tags"));
+		assertEquals(List.of("a", "b", "c"), source.get("copied"));
+
+		final JSONArray failing = new JSONArray();
+		failing.add(new JSONObject(Map.of("op", "remove", "path", "/unknown/key")));
+		assertThrows(JSONPatchException.class, () -> JSONDiff.apply(source, failing));
+	}
+
+	@Test
+	public void mergePatchTest() {
+		final JSONObject source = parse(SOURCE);
+		final JSONObject patch = parse("{\"id\":3, \"removed\":null, \"mapping\":{\"expired_when\":null, \"new\":\"value\"}}");
+
+		JSONDiff.applyMergePatch(source, patch);
+
+		assertEquals(3, source.get("id"));
+		assertFalse(source.containsKey("removed"));
+
+		final JSONObject mapping = source.get("mapping", JSONObject.class);
+		assertFalse(mapping.containsKey("expired_when"));
+		assertEquals("value", mapping.get("new"));
+		assertEquals(true, mapping.get("a/b"));
+		assertFalse(mapping.containsValue(Null.NULL));
+	}
+
+	@Test
+	public void pointerTest() {
+		assertEquals(List.of(), JSONDiff.parsePointer(""));
+		assertEquals(List.of("a/b", "m~n", ""), JSONDiff.parsePointer("/a~1b/m~0n/"));
+		assertEquals("a~1b~0", JSONDiff.escape("a/b~"));
+		assertThrows(JSONPatchException.class, () -> JSONDiff.parsePointer("a/b"));
+	}
+}